@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the time and the allocations per operation of a piece of code, and prints the result.
+ *
+ * <p>The operation is first run until the JIT has warmed up, then measured over a number of
+ * iterations. Allocations are read from the per-thread allocation counter of the JVM, which is
+ * accessed through reflection since it is not part of the Android API. Benchmarks can also measure
+ * how many times something happens per operation with {@link Counter}s.
+ *
+ * <p>If the {@value #RESULTS_FILE_PROPERTY} system property is set, each result is also appended to
+ * that file as a line of JSON, so that results can be compared by scripts.
+ */
+public final class Benchmark {
+
+  /** A piece of code to measure. */
+  public interface Operation {
+
+    void run();
+  }
+
+  /** Something which happens during an operation, such as a cache lookup, which is counted. */
+  public interface Counter {
+
+    /** Returns the name the count is reported with. */
+    String getName();
+
+    /** Returns the number of times the counted thing happened so far. */
+    long getCount();
+  }
+
+  /** The system property which names the file results are appended to. */
+  public static final String RESULTS_FILE_PROPERTY = "benchmark.resultsFile";
+
+  private static final int WARMUP_ITERATIONS = 20_000;
+  private static final int MEASURED_ITERATIONS = 100_000;
+
+  private Benchmark() {}
+
+  /** Measures {@code operation}, prints the result labeled with {@code name}, and returns it. */
+  public static Result run(String name, Operation operation) {
+    return run(name, WARMUP_ITERATIONS, MEASURED_ITERATIONS, operation);
+  }
+
+  /**
+   * Measures {@code operation} over the given number of iterations, for operations which are too
+   * slow to run the default number of times, and counts the {@code counters} per operation.
+   */
+  public static Result run(
+      String name,
+      int warmupIterations,
+      int measuredIterations,
+      Operation operation,
+      Counter... counters) {
+    for (int i = 0; i < warmupIterations; i++) {
+      operation.run();
+    }
+
+    long[] startCounts = new long[counters.length];
+    for (int i = 0; i < counters.length; i++) {
+      startCounts[i] = counters[i].getCount();
+    }
+    long startBytes = AllocationCounter.getAllocatedBytes();
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < measuredIterations; i++) {
+      operation.run();
+    }
+    long nanos = System.nanoTime() - startNanos;
+    long endBytes = AllocationCounter.getAllocatedBytes();
+
+    Map<String, Double> counts = new LinkedHashMap<>();
+    for (int i = 0; i < counters.length; i++) {
+      counts.put(
+          counters[i].getName(),
+          (double) (counters[i].getCount() - startCounts[i]) / measuredIterations);
+    }
+    Result result =
+        new Result(
+            name,
+            (double) nanos / measuredIterations,
+            startBytes < 0 ? -1 : (double) (endBytes - startBytes) / measuredIterations,
+            counts);
+    System.out.println(result);
+    writeResult(result);
+    return result;
+  }
+
+  private static void writeResult(Result result) {
+    String resultsFile = System.getProperty(RESULTS_FILE_PROPERTY);
+    if (resultsFile == null) {
+      return;
+    }
+    try (Writer writer = new FileWriter(resultsFile, /* append= */ true)) {
+      writer.write(result.toJson());
+      writer.write('\n');
+    } catch (IOException e) {
+      throw new IllegalStateException("Couldn't write benchmark result to " + resultsFile, e);
+    }
+  }
+
+  /** The cost of one operation. */
+  public static final class Result {
+
+    public final String name;
+    public final double nanosPerOperation;
+    /** The number of bytes allocated per operation, or -1 if it couldn't be measured. */
+    public final double bytesPerOperation;
+    /** The number of times each {@link Counter} was counted per operation, by counter name. */
+    public final Map<String, Double> countsPerOperation;
+
+    Result(
+        String name,
+        double nanosPerOperation,
+        double bytesPerOperation,
+        Map<String, Double> countsPerOperation) {
+      this.name = name;
+      this.nanosPerOperation = nanosPerOperation;
+      this.bytesPerOperation = bytesPerOperation;
+      this.countsPerOperation = Collections.unmodifiableMap(countsPerOperation);
+    }
+
+    /** Returns this result as a JSON object, on a single line. */
+    public String toJson() {
+      StringBuilder json = new StringBuilder();
+      json.append("{\"name\":\"")
+          .append(name.replace("\\", "\\\\").replace("\"", "\\\""))
+          .append("\",\"nanosPerOperation\":")
+          .append(String.format(Locale.US, "%.1f", nanosPerOperation))
+          .append(",\"bytesPerOperation\":")
+          .append(
+              bytesPerOperation < 0
+                  ? "null"
+                  : String.format(Locale.US, "%.1f", bytesPerOperation));
+      for (Map.Entry<String, Double> count : countsPerOperation.entrySet()) {
+        json.append(",\"")
+            .append(count.getKey())
+            .append("PerOperation\":")
+            .append(String.format(Locale.US, "%.2f", count.getValue()));
+      }
+      return json.append('}').toString();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder string =
+          new StringBuilder(
+              String.format(
+                  Locale.US,
+                  "%-60s %12.1f ns/op %12s B/op",
+                  name,
+                  nanosPerOperation,
+                  bytesPerOperation < 0
+                      ? "n/a"
+                      : String.format(Locale.US, "%.1f", bytesPerOperation)));
+      for (Map.Entry<String, Double> count : countsPerOperation.entrySet()) {
+        string.append(
+            String.format(Locale.US, " %8.2f %s/op", count.getValue(), count.getKey()));
+      }
+      return string.toString();
+    }
+  }
+
+  /** Reads the number of bytes allocated by the current thread, if the JVM supports it. */
+  private static final class AllocationCounter {
+
+    private static final Object threadMXBean;
+    private static final Method getThreadAllocatedBytes;
+
+    static {
+      Object bean = null;
+      Method method = null;
+      try {
+        bean =
+            Class.forName("java.lang.management.ManagementFactory")
+                .getMethod("getThreadMXBean")
+                .invoke(null);
+        method =
+            Class.forName("com.sun.management.ThreadMXBean")
+                .getMethod("getThreadAllocatedBytes", long.class);
+      } catch (ReflectiveOperationException e) {
+        // Not a HotSpot based JVM, allocations won't be measured.
+      }
+      threadMXBean = bean;
+      getThreadAllocatedBytes = method;
+    }
+
+    static long getAllocatedBytes() {
+      if (getThreadAllocatedBytes == null) {
+        return -1;
+      }
+      try {
+        return (Long) getThreadAllocatedBytes.invoke(threadMXBean, Thread.currentThread().getId());
+      } catch (ReflectiveOperationException e) {
+        return -1;
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.benchmark;
+
+import static org.robolectric.shadow.api.Shadow.directlyOn;
+
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowTypedArray;
+import org.robolectric.util.ReflectionHelpers.ClassParameter;
+
+/**
+ * A {@link Benchmark.Counter} of the {@link TypedArray}s obtained from resources and themes.
+ *
+ * <p>Every way of obtaining styled attributes goes through {@code TypedArray.obtain()}, which this
+ * shadow counts. Benchmarks which use it must install it with {@code @Config(shadows =
+ * TypedArrayCounter.class)}.
+ */
+@Implements(TypedArray.class)
+public class TypedArrayCounter extends ShadowTypedArray {
+
+  private static long obtainCount;
+
+  /** Returns a counter of the TypedArrays obtained, named {@code typedArrays}. */
+  public static Benchmark.Counter counter() {
+    return new Benchmark.Counter() {
+      @Override
+      public String getName() {
+        return "typedArrays";
+      }
+
+      @Override
+      public long getCount() {
+        return obtainCount;
+      }
+    };
+  }
+
+  @Implementation
+  protected static TypedArray obtain(Resources res, int len) {
+    obtainCount++;
+    return directlyOn(
+        TypedArray.class,
+        "obtain",
+        ClassParameter.from(Resources.class, res),
+        ClassParameter.from(int.class, len));
+  }
+}
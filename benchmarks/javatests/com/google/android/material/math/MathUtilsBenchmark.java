@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.math;
+
+import com.google.android.material.benchmark.Benchmark;
+import com.google.android.material.benchmark.Benchmark.Operation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Benchmarks for {@link MathUtils}. */
+@RunWith(JUnit4.class)
+public class MathUtilsBenchmark {
+
+  // Results are accumulated so that the measured code can't be eliminated.
+  private float sink;
+  private float input;
+
+  @Test
+  public void dist() {
+    Benchmark.run(
+        "MathUtils.dist",
+        new Operation() {
+          @Override
+          public void run() {
+            sink += MathUtils.dist(0, 0, input++, 40);
+          }
+        });
+  }
+
+  @Test
+  public void lerp() {
+    Benchmark.run(
+        "MathUtils.lerp",
+        new Operation() {
+          @Override
+          public void run() {
+            sink += MathUtils.lerp(0, 100, (input++ % 100) / 100f);
+          }
+        });
+  }
+
+  @Test
+  public void distanceToFurthestCorner() {
+    Benchmark.run(
+        "MathUtils.distanceToFurthestCorner",
+        new Operation() {
+          @Override
+          public void run() {
+            sink += MathUtils.distanceToFurthestCorner(input++ % 100, 20, 0, 0, 100, 50);
+          }
+        });
+  }
+}
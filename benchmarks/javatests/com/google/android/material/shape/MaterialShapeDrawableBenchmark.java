@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.RectF;
+import com.google.android.material.benchmark.Benchmark;
+import com.google.android.material.benchmark.Benchmark.Operation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/**
+ * Benchmarks for drawing {@link MaterialShapeDrawable}s, with and without compat shadows, and for
+ * drawing the same shapes with a {@link MaterialShapeBatch}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MaterialShapeDrawableBenchmark {
+
+  private static final int CELL_COUNT = 20;
+  private static final int CELL_SIZE = 40;
+  private static final float ELEVATION = 4;
+
+  private static final ShapeAppearanceModel CUT_SHAPE =
+      ShapeAppearanceModel.builder().setAllCorners(CornerFamily.CUT, 8).build();
+  private static final ShapeAppearanceModel TRIANGLE_EDGE_SHAPE =
+      ShapeAppearanceModel.builder()
+          .setAllCorners(CornerFamily.CUT, 8)
+          .setAllEdges(new TriangleEdgeTreatment(4, false))
+          .build();
+
+  private final Canvas canvas =
+      new Canvas(Bitmap.createBitmap(CELL_COUNT * CELL_SIZE, CELL_SIZE, Bitmap.Config.ARGB_8888));
+
+  @Test
+  public void draw_steadyState() {
+    benchmarkDraw("MaterialShapeDrawable.draw", createDrawable(CUT_SHAPE, 0), false);
+  }
+
+  @Test
+  public void draw_resized_analyticPath() {
+    benchmarkDraw(
+        "MaterialShapeDrawable.draw resized, analytic path", createDrawable(CUT_SHAPE, 0), true);
+  }
+
+  @Test
+  public void draw_resized_providerPath() {
+    // Edge treatments can't be written analytically, so the path goes through the provider.
+    benchmarkDraw(
+        "MaterialShapeDrawable.draw resized, provider path",
+        createDrawable(TRIANGLE_EDGE_SHAPE, 0),
+        true);
+  }
+
+  @Test
+  public void draw_compatShadow() {
+    benchmarkDraw(
+        "MaterialShapeDrawable.draw with compat shadow",
+        createDrawable(CUT_SHAPE, ELEVATION),
+        false);
+  }
+
+  @Test
+  public void draw_compatShadow_resized() {
+    benchmarkDraw(
+        "MaterialShapeDrawable.draw resized, with compat shadow",
+        createDrawable(CUT_SHAPE, ELEVATION),
+        true);
+  }
+
+  @Test
+  public void draw_cells_drawables() {
+    final MaterialShapeDrawable[] drawables = new MaterialShapeDrawable[CELL_COUNT];
+    for (int i = 0; i < CELL_COUNT; i++) {
+      drawables[i] = createDrawable(CUT_SHAPE, 0);
+      drawables[i].setBounds(i * CELL_SIZE, 0, (i + 1) * CELL_SIZE, CELL_SIZE);
+    }
+    Benchmark.run(
+        "MaterialShapeDrawable.draw " + CELL_COUNT + " cells",
+        new Operation() {
+          @Override
+          public void run() {
+            for (MaterialShapeDrawable drawable : drawables) {
+              drawable.draw(canvas);
+            }
+          }
+        });
+  }
+
+  @Test
+  public void draw_cells_batch() {
+    final MaterialShapeBatch batch = new MaterialShapeBatch();
+    final RectF bounds = new RectF();
+    Benchmark.run(
+        "MaterialShapeBatch.draw " + CELL_COUNT + " cells",
+        new Operation() {
+          @Override
+          public void run() {
+            batch.clear();
+            for (int i = 0; i < CELL_COUNT; i++) {
+              bounds.set(i * CELL_SIZE, 0, (i + 1) * CELL_SIZE, CELL_SIZE);
+              batch.add(CUT_SHAPE, bounds, Color.GRAY);
+            }
+            batch.draw(canvas);
+          }
+        });
+  }
+
+  private static MaterialShapeDrawable createDrawable(
+      ShapeAppearanceModel shapeAppearanceModel, float elevation) {
+    MaterialShapeDrawable drawable = new MaterialShapeDrawable(shapeAppearanceModel);
+    drawable.setFillColor(ColorStateList.valueOf(Color.GRAY));
+    drawable.setElevation(elevation);
+    drawable.setShadowCompatibilityMode(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS);
+    drawable.setBounds(0, 0, CELL_SIZE, CELL_SIZE);
+    return drawable;
+  }
+
+  /**
+   * Benchmarks drawing {@code drawable}, alternating between two sizes when {@code resize} is true
+   * so that the path is recalculated on every draw.
+   */
+  private void benchmarkDraw(
+      String name, final MaterialShapeDrawable drawable, final boolean resize) {
+    Benchmark.run(
+        name,
+        new Operation() {
+          private boolean large;
+
+          @Override
+          public void run() {
+            if (resize) {
+              large = !large;
+              int size = large ? CELL_SIZE : CELL_SIZE / 2;
+              drawable.setBounds(0, 0, size, size);
+            }
+            drawable.draw(canvas);
+          }
+        });
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import com.google.android.material.benchmark.Benchmark;
+import com.google.android.material.benchmark.Benchmark.Operation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/**
+ * Benchmarks for the geometry of shapes: {@link ShapeAppearancePathProvider}, {@link ShapePath},
+ * the corner treatments, and the analytic path written for rounded and cut shapes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapePathBenchmark {
+
+  private static final ShapeAppearanceModel ROUNDED_SHAPE =
+      ShapeAppearanceModel.builder().setCornerRadii(4, 8, 12, 16).build();
+  private static final ShapeAppearanceModel CUT_SHAPE =
+      ShapeAppearanceModel.builder().setAllCorners(CornerFamily.CUT, 12).build();
+  private static final ShapeAppearanceModel TRIANGLE_EDGE_SHAPE =
+      ShapeAppearanceModel.builder()
+          .setAllCorners(CornerFamily.ROUNDED, 12)
+          .setAllEdges(new TriangleEdgeTreatment(8, false))
+          .build();
+
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final AnalyticShapePath analyticShapePath = new AnalyticShapePath();
+  private final ShapeAppearanceKey shapeKey = new ShapeAppearanceKey();
+  private final ShapePath shapePath = new ShapePath();
+  private final Path path = new Path();
+  private final RectF bounds = new RectF(0, 0, 200, 100);
+
+  @Test
+  public void calculatePath_rounded() {
+    benchmarkCalculatePath("ShapeAppearancePathProvider.calculatePath rounded", ROUNDED_SHAPE);
+  }
+
+  @Test
+  public void calculatePath_cut() {
+    benchmarkCalculatePath("ShapeAppearancePathProvider.calculatePath cut", CUT_SHAPE);
+  }
+
+  @Test
+  public void calculatePath_triangleEdges() {
+    benchmarkCalculatePath(
+        "ShapeAppearancePathProvider.calculatePath triangle edges", TRIANGLE_EDGE_SHAPE);
+  }
+
+  @Test
+  public void analyticPath_rounded() {
+    benchmarkAnalyticPath("AnalyticShapePath.applyToPath rounded", ROUNDED_SHAPE);
+  }
+
+  @Test
+  public void analyticPath_cut() {
+    benchmarkAnalyticPath("AnalyticShapePath.applyToPath cut", CUT_SHAPE);
+  }
+
+  @Test
+  public void shapePath_construction() {
+    Benchmark.run(
+        "ShapePath reset, lineTo and addArc",
+        new Operation() {
+          @Override
+          public void run() {
+            shapePath.reset(0, 12);
+            shapePath.addArc(0, 0, 24, 24, 180, 90);
+            shapePath.lineTo(188, 0);
+            shapePath.addArc(176, 0, 200, 24, 270, 90);
+            shapePath.lineTo(200, 100);
+          }
+        });
+  }
+
+  @Test
+  public void roundedCornerTreatment_getCornerPath() {
+    benchmarkCornerTreatment(
+        "RoundedCornerTreatment.getCornerPath", new RoundedCornerTreatment(12));
+  }
+
+  @Test
+  public void cutCornerTreatment_getCornerPath() {
+    benchmarkCornerTreatment("CutCornerTreatment.getCornerPath", new CutCornerTreatment(12));
+  }
+
+  private void benchmarkCalculatePath(
+      String name, final ShapeAppearanceModel shapeAppearanceModel) {
+    Benchmark.run(
+        name,
+        new Operation() {
+          @Override
+          public void run() {
+            pathProvider.calculatePath(shapeAppearanceModel, 1, bounds, path);
+          }
+        });
+  }
+
+  private void benchmarkAnalyticPath(
+      String name, final ShapeAppearanceModel shapeAppearanceModel) {
+    Benchmark.run(
+        name,
+        new Operation() {
+          @Override
+          public void run() {
+            // Includes setting the key, as MaterialShapeDrawable does for every path.
+            shapeKey.set(shapeAppearanceModel, 1);
+            analyticShapePath.applyToPath(shapeKey, bounds, path);
+          }
+        });
+  }
+
+  private void benchmarkCornerTreatment(String name, final CornerTreatment cornerTreatment) {
+    Benchmark.run(
+        name,
+        new Operation() {
+          @Override
+          public void run() {
+            cornerTreatment.getCornerPath(90, 1, shapePath);
+          }
+        });
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.theme;
+
+import com.google.android.material.benchmarks.R;
+
+import androidx.appcompat.app.AppCompatActivity;
+import android.view.LayoutInflater;
+import android.widget.FrameLayout;
+import androidx.annotation.LayoutRes;
+import com.google.android.material.benchmark.Benchmark;
+import com.google.android.material.benchmark.Benchmark.Counter;
+import com.google.android.material.benchmark.Benchmark.Operation;
+import com.google.android.material.benchmark.TypedArrayCounter;
+import com.google.android.material.button.MaterialButton;
+import com.google.android.material.card.MaterialCardView;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.resources.ThemeAttributeCache;
+import com.google.android.material.tabs.TabLayout;
+import com.google.android.material.textfield.TextInputEditText;
+import com.google.android.material.textfield.TextInputLayout;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/**
+ * Benchmarks for creating Material components, either by inflating them from a layout through
+ * {@link MaterialComponentsViewInflater}, or by constructing them directly.
+ *
+ * <p>Besides time and allocations, each benchmark counts the {@link
+ * android.content.res.TypedArray}s obtained, and the theme attributes resolved from and found in
+ * {@link ThemeAttributeCache}, per component created.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = TypedArrayCounter.class)
+@DoNotInstrument
+public class InflationBenchmark {
+
+  // Creating a view is orders of magnitude slower than the operations of the other benchmarks.
+  private static final int WARMUP_ITERATIONS = 200;
+  private static final int MEASURED_ITERATIONS = 1_000;
+
+  private static final Counter[] COUNTERS = {
+    TypedArrayCounter.counter(),
+    new Counter() {
+      @Override
+      public String getName() {
+        return "themeLookups";
+      }
+
+      @Override
+      public long getCount() {
+        return ThemeAttributeCache.getLookupCount();
+      }
+    },
+    new Counter() {
+      @Override
+      public String getName() {
+        return "themeCacheHits";
+      }
+
+      @Override
+      public long getCount() {
+        return ThemeAttributeCache.getHitCount();
+      }
+    },
+  };
+
+  private AppCompatActivity activity;
+  private LayoutInflater layoutInflater;
+  private FrameLayout parent;
+
+  @Before
+  public void setUp() {
+    ActivityController<AppCompatActivity> controller =
+        Robolectric.buildActivity(AppCompatActivity.class);
+    controller.get().setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar);
+    activity = controller.setup().get();
+    // The activity's inflater goes through AppCompat, which uses MaterialComponentsViewInflater.
+    layoutInflater = activity.getLayoutInflater();
+    parent = new FrameLayout(activity);
+  }
+
+  @Test
+  public void inflate_materialButton() {
+    benchmarkInflate("MaterialButton inflate", R.layout.benchmark_material_button);
+  }
+
+  @Test
+  public void construct_materialButton() {
+    benchmarkConstruct(
+        "MaterialButton construct",
+        new Operation() {
+          @Override
+          public void run() {
+            new MaterialButton(activity);
+          }
+        });
+  }
+
+  @Test
+  public void inflate_chip() {
+    benchmarkInflate("Chip inflate", R.layout.benchmark_chip);
+  }
+
+  @Test
+  public void construct_chip() {
+    benchmarkConstruct(
+        "Chip construct",
+        new Operation() {
+          @Override
+          public void run() {
+            new Chip(activity);
+          }
+        });
+  }
+
+  @Test
+  public void inflate_textInputLayout() {
+    benchmarkInflate("TextInputLayout inflate", R.layout.benchmark_text_input_layout);
+  }
+
+  @Test
+  public void construct_textInputLayout() {
+    benchmarkConstruct(
+        "TextInputLayout construct",
+        new Operation() {
+          @Override
+          public void run() {
+            TextInputLayout textInputLayout = new TextInputLayout(activity);
+            textInputLayout.addView(new TextInputEditText(textInputLayout.getContext()));
+          }
+        });
+  }
+
+  @Test
+  public void inflate_materialCardView() {
+    benchmarkInflate("MaterialCardView inflate", R.layout.benchmark_material_card_view);
+  }
+
+  @Test
+  public void construct_materialCardView() {
+    benchmarkConstruct(
+        "MaterialCardView construct",
+        new Operation() {
+          @Override
+          public void run() {
+            new MaterialCardView(activity);
+          }
+        });
+  }
+
+  @Test
+  public void inflate_tabLayout() {
+    benchmarkInflate("TabLayout inflate", R.layout.benchmark_tab_layout);
+  }
+
+  @Test
+  public void construct_tabLayout() {
+    benchmarkConstruct(
+        "TabLayout construct",
+        new Operation() {
+          @Override
+          public void run() {
+            TabLayout tabLayout = new TabLayout(activity);
+            tabLayout.addTab(tabLayout.newTab().setText("One"));
+            tabLayout.addTab(tabLayout.newTab().setText("Two"));
+            tabLayout.addTab(tabLayout.newTab().setText("Three"));
+          }
+        });
+  }
+
+  private void benchmarkInflate(String name, @LayoutRes final int layoutResId) {
+    benchmarkConstruct(
+        name,
+        new Operation() {
+          @Override
+          public void run() {
+            layoutInflater.inflate(layoutResId, parent, false);
+          }
+        });
+  }
+
+  private static void benchmarkConstruct(String name, Operation operation) {
+    Benchmark.run(name, WARMUP_ITERATIONS, MEASURED_ITERATIONS, operation, COUNTERS);
+  }
+}
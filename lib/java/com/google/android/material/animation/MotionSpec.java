@@ -62,6 +62,11 @@ import java.util.List;
  *       android:duration="150"/>
  * </set>
  * }</pre>
+ *
+ * <p>Resources are parsed once per theme and configuration by {@link MotionSpecCache}. Each call to
+ * {@link #createFromResource(Context, int)} returns a new motion spec, which can be modified, but
+ * which shares its immutable {@link MotionTiming}s with the other motion specs inflated from the
+ * same resource.
  */
 public class MotionSpec {
 
@@ -71,6 +76,14 @@ public class MotionSpec {
   private final SimpleArrayMap<String, PropertyValuesHolder[]> propertyValues =
       new SimpleArrayMap<>();
 
+  public MotionSpec() {}
+
+  private MotionSpec(MotionSpec spec) {
+    // The property values holders don't need to be copied, since getPropertyValues() clones them.
+    timings.putAll(spec.timings);
+    propertyValues.putAll(spec.propertyValues);
+  }
+
   /** Returns whether this motion spec contains a MotionTiming with the given name. */
   public boolean hasTiming(String name) {
     return timings.get(name) != null;
@@ -157,6 +170,16 @@ public class MotionSpec {
   /** Inflates an instance of MotionSpec from the given animator resource. */
   @Nullable
   public static MotionSpec createFromResource(Context context, @AnimatorRes int id) {
+    MotionSpec spec = MotionSpecCache.getMotionSpec(context, id);
+    return spec != null ? new MotionSpec(spec) : null;
+  }
+
+  /**
+   * Parses an instance of MotionSpec from the given animator resource, without going through
+   * {@link MotionSpecCache}.
+   */
+  @Nullable
+  static MotionSpec parseFromResource(Context context, @AnimatorRes int id) {
     try {
       Animator animator = AnimatorInflater.loadAnimator(context, id);
       if (animator instanceof AnimatorSet) {
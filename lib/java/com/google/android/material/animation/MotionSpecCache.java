@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.animation;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import androidx.annotation.AnimatorRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import android.util.SparseArray;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caches the {@link MotionSpec}s parsed in each {@link Theme}, so that the animator resource of a
+ * motion spec is only inflated once, instead of every time a component is shown, hidden or
+ * transformed.
+ *
+ * <p>The cached motion specs are never returned to callers, which get a copy from {@link
+ * MotionSpec#createFromResource(Context, int)} instead. An animator resource can refer to theme
+ * attributes and to configuration qualified resources, so the motion specs cached for a theme are
+ * dropped when it's read with other resources or when the configuration of its resources changes.
+ * Below API 23, a theme which had a style applied to it can't be told apart from its old self, so
+ * motion specs aren't cached at all.
+ *
+ * @hide
+ */
+@RestrictTo(LIBRARY_GROUP)
+public final class MotionSpecCache {
+
+  private static final Map<Theme, ThemeMotionSpecs> themeMotionSpecs = new WeakHashMap<>();
+
+  private static int parseCount;
+  private static int hitCount;
+
+  private MotionSpecCache() {}
+
+  /**
+   * Returns the {@link MotionSpec} parsed from the animator resource {@code id} in the theme of
+   * {@code context}, or null if the resource can't be parsed. The returned motion spec is shared
+   * and must not be modified.
+   */
+  @Nullable
+  static synchronized MotionSpec getMotionSpec(@NonNull Context context, @AnimatorRes int id) {
+    if (VERSION.SDK_INT < VERSION_CODES.M) {
+      parseCount++;
+      return MotionSpec.parseFromResource(context, id);
+    }
+
+    Theme theme = context.getTheme();
+    Resources resources = context.getResources();
+    ThemeMotionSpecs motionSpecs = themeMotionSpecs.get(theme);
+    if (motionSpecs == null || !motionSpecs.isValidFor(resources)) {
+      motionSpecs = new ThemeMotionSpecs(resources);
+      themeMotionSpecs.put(theme, motionSpecs);
+    }
+
+    MotionSpec spec = motionSpecs.motionSpecs.get(id);
+    if (spec != null) {
+      hitCount++;
+    } else {
+      parseCount++;
+      spec = MotionSpec.parseFromResource(context, id);
+      // Resources which can't be parsed aren't cached, so that they keep being logged.
+      if (spec != null) {
+        motionSpecs.motionSpecs.put(id, spec);
+      }
+    }
+    return spec;
+  }
+
+  /** Drops the {@link MotionSpec}s cached for {@code theme}. */
+  public static synchronized void invalidate(@NonNull Theme theme) {
+    themeMotionSpecs.remove(theme);
+  }
+
+  /** Drops the {@link MotionSpec}s cached for all themes. */
+  public static synchronized void evictAll() {
+    themeMotionSpecs.clear();
+  }
+
+  /** Returns how many times an animator resource had to be parsed. */
+  public static synchronized int getParseCount() {
+    return parseCount;
+  }
+
+  /** Returns how many times a {@link MotionSpec} was found in the cache. */
+  public static synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  /** Resets the values returned by {@link #getParseCount()} and {@link #getHitCount()}. */
+  public static synchronized void resetStats() {
+    parseCount = 0;
+    hitCount = 0;
+  }
+
+  /**
+   * The motion specs parsed in a theme, with the resources and the configuration they were parsed
+   * for.
+   */
+  private static final class ThemeMotionSpecs {
+
+    // Themes which are equal on API 23 and up may still belong to different resources.
+    final WeakReference<Resources> resources;
+    final Configuration configuration;
+    final SparseArray<MotionSpec> motionSpecs = new SparseArray<>();
+
+    ThemeMotionSpecs(Resources resources) {
+      this.resources = new WeakReference<>(resources);
+      this.configuration = new Configuration(resources.getConfiguration());
+    }
+
+    boolean isValidFor(Resources resources) {
+      return this.resources.get() == resources
+          && configuration.equals(resources.getConfiguration());
+    }
+  }
+}
@@ -24,27 +24,41 @@ import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 
-/** A representation of timing for an animation. */
+/**
+ * A representation of timing for an animation.
+ *
+ * <p>Motion timings are immutable, so the motion specs inflated from the same resource share them.
+ */
 public class MotionTiming {
 
-  private long delay = 0;
-  private long duration = 300;
+  private final long delay;
+  private final long duration;
   /** Set to an instance, or null for {@link AnimationUtils#FAST_OUT_SLOW_IN_INTERPOLATOR}. */
-  @Nullable private TimeInterpolator interpolator = null;
+  @Nullable private final TimeInterpolator interpolator;
   /** Set to 0, greater than 0, or {@link ValueAnimator#INFINITE}. */
-  private int repeatCount = 0;
+  private final int repeatCount;
   /** Set to {@link ValueAnimator#RESTART} or {@link ValueAnimator#REVERSE}. */
-  private int repeatMode = ValueAnimator.RESTART;
+  private final int repeatMode;
 
   public MotionTiming(long delay, long duration) {
-    this.delay = delay;
-    this.duration = duration;
+    this(delay, duration, null, 0, ValueAnimator.RESTART);
   }
 
   public MotionTiming(long delay, long duration, @NonNull TimeInterpolator interpolator) {
+    this(delay, duration, interpolator, 0, ValueAnimator.RESTART);
+  }
+
+  private MotionTiming(
+      long delay,
+      long duration,
+      @Nullable TimeInterpolator interpolator,
+      int repeatCount,
+      int repeatMode) {
     this.delay = delay;
     this.duration = duration;
     this.interpolator = interpolator;
+    this.repeatCount = repeatCount;
+    this.repeatMode = repeatMode;
   }
 
   public void apply(Animator animator) {
@@ -78,12 +92,12 @@ public class MotionTiming {
   }
 
   static MotionTiming createFromAnimator(ValueAnimator animator) {
-    MotionTiming timing =
-        new MotionTiming(
-            animator.getStartDelay(), animator.getDuration(), getInterpolatorCompat(animator));
-    timing.repeatCount = animator.getRepeatCount();
-    timing.repeatMode = animator.getRepeatMode();
-    return timing;
+    return new MotionTiming(
+        animator.getStartDelay(),
+        animator.getDuration(),
+        getInterpolatorCompat(animator),
+        animator.getRepeatCount(),
+        animator.getRepeatMode());
   }
 
   /**
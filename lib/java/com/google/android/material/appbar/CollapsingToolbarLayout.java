@@ -216,6 +216,8 @@ public class CollapsingToolbarLayout extends FrameLayout {
       collapsingTextHelper.setCollapsedTextAppearance(
           a.getResourceId(R.styleable.CollapsingToolbarLayout_collapsedTitleTextAppearance, 0));
     }
+    collapsingTextHelper.setExpandedMaxLines(
+        a.getInt(R.styleable.CollapsingToolbarLayout_expandedTitleMaxLines, 1));
 
     scrimVisibleHeightTrigger =
         a.getDimensionPixelSize(R.styleable.CollapsingToolbarLayout_scrimVisibleHeightTrigger, -1);
@@ -905,6 +907,44 @@ public class CollapsingToolbarLayout extends FrameLayout {
     return collapsingTextHelper.getExpandedTextGravity();
   }
 
+  /**
+   * Sets the maximum number of lines of the expanded title. Titles which don't fit on these lines
+   * are ellipsized on API 23 and up, and cut off after the last line on lower API levels. As the
+   * title collapses, its lines crossfade to the single line of the collapsed title.
+   *
+   * @attr ref com.google.android.material.R.styleable#CollapsingToolbarLayout_expandedTitleMaxLines
+   */
+  public void setExpandedTitleMaxLines(int maxLines) {
+    collapsingTextHelper.setExpandedMaxLines(maxLines);
+  }
+
+  /**
+   * Returns the maximum number of lines of the expanded title.
+   *
+   * @attr ref com.google.android.material.R.styleable#CollapsingToolbarLayout_expandedTitleMaxLines
+   */
+  public int getExpandedTitleMaxLines() {
+    return collapsingTextHelper.getExpandedMaxLines();
+  }
+
+  /**
+   * Sets whether the title is animated from a table of its positions, sizes and colors, which is
+   * sampled whenever the title changes, instead of interpolating them on every frame. This reduces
+   * the work done on each frame of the collapse, at the cost of precomputing the table.
+   */
+  public void setTitleInterpolationTableEnabled(boolean enabled) {
+    collapsingTextHelper.setInterpolationTableEnabled(enabled);
+  }
+
+  /**
+   * Returns whether the title is animated from a table.
+   *
+   * @see #setTitleInterpolationTableEnabled(boolean)
+   */
+  public boolean isTitleInterpolationTableEnabled() {
+    return collapsingTextHelper.isInterpolationTableEnabled();
+  }
+
   /**
    * Set the typeface to use for the collapsed title.
    *
@@ -48,6 +48,7 @@ import com.google.android.material.internal.TextDrawableHelper.TextDrawableDeleg
 import com.google.android.material.internal.ThemeEnforcement;
 import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.resources.TextAppearance;
+import com.google.android.material.resources.TextAppearanceCache;
 import com.google.android.material.shape.MaterialShapeDrawable;
 import androidx.core.view.ViewCompat;
 import android.util.AttributeSet;
@@ -115,7 +116,8 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
       // If the badge text color attribute was not explicitly set, use the text color specified in
       // the TextAppearance.
       TextAppearance textAppearance =
-          new TextAppearance(context, R.style.TextAppearance_MaterialComponents_Badge);
+          TextAppearanceCache.getTextAppearance(
+              context, R.style.TextAppearance_MaterialComponents_Badge);
       return textAppearance.textColor.getDefaultColor();
     }
   }
@@ -359,7 +361,7 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
   }
 
   private void setTextAppearanceResource(@StyleRes int id) {
-    setTextAppearance(new TextAppearance(context, id));
+    setTextAppearance(TextAppearanceCache.getTextAppearance(context, id));
   }
 
   private void setTextAppearance(@Nullable TextAppearance textAppearance) {
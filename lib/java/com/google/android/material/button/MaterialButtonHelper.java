@@ -84,7 +84,7 @@ class MaterialButtonHelper {
     // cornerRadius should override whatever corner radius is set in shapeAppearanceModel
     if (attributes.hasValue(R.styleable.MaterialButton_cornerRadius)) {
       cornerRadius = attributes.getDimensionPixelSize(R.styleable.MaterialButton_cornerRadius, -1);
-      shapeAppearanceModel.setCornerRadius(cornerRadius);
+      setShapeAppearanceCornerRadius(cornerRadius);
       cornerRadiusSet = true;
     }
 
@@ -320,7 +320,7 @@ class MaterialButtonHelper {
     if (!cornerRadiusSet || this.cornerRadius != cornerRadius) {
       this.cornerRadius = cornerRadius;
       cornerRadiusSet = true;
-      shapeAppearanceModel.setCornerRadius(cornerRadius + (strokeWidth / 2f));
+      setShapeAppearanceCornerRadius(cornerRadius + (strokeWidth / 2f));
       updateButtonShape(shapeAppearanceModel);
     }
   }
@@ -329,6 +329,15 @@ class MaterialButtonHelper {
     return cornerRadius;
   }
 
+  private void setShapeAppearanceCornerRadius(float cornerRadius) {
+    if (shapeAppearanceModel.isImmutable()) {
+      // An immutable model may be shared with other views, so it is replaced by a modified copy.
+      shapeAppearanceModel = shapeAppearanceModel.toBuilder().setCornerRadius(cornerRadius).build();
+    } else {
+      shapeAppearanceModel.setCornerRadius(cornerRadius);
+    }
+  }
+
   private void adjustShapeAppearanceModelCornerRadius(
       ShapeAppearanceModel shapeAppearanceModel, float cornerRadiusAdjustment) {
     shapeAppearanceModel
@@ -205,10 +205,10 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     ShapeAppearanceModel shapeAppearanceModel = buttonChild.getShapeAppearanceModel();
     originalCornerData.add(
         new CornerData(
-            shapeAppearanceModel.getTopLeftCorner().getCornerSize(),
-            shapeAppearanceModel.getTopRightCorner().getCornerSize(),
-            shapeAppearanceModel.getBottomRightCorner().getCornerSize(),
-            shapeAppearanceModel.getBottomLeftCorner().getCornerSize()));
+            shapeAppearanceModel.getTopLeftCornerSize(),
+            shapeAppearanceModel.getTopRightCornerSize(),
+            shapeAppearanceModel.getBottomRightCornerSize(),
+            shapeAppearanceModel.getBottomLeftCornerSize()));
   }
 
   @Override
@@ -452,11 +452,11 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
       for (int i = 0; i < numChildren; i++) {
         MaterialButton button = childrenInOrder.get(i);
         if (button.getShapeAppearanceModel() != null) {
-          ShapeAppearanceModel shapeAppearanceModel = button.getShapeAppearanceModel();
           CornerData cornerData = originalCornerData.get(i);
           if (numChildren == 1) {
             // If there is only one child, sets its original corners
-            shapeAppearanceModel.setCornerRadii(
+            setCornerRadii(
+                button,
                 cornerData.topLeft,
                 cornerData.topRight,
                 cornerData.bottomRight,
@@ -464,22 +464,40 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
           } else {
             if (i == (ViewUtils.isLayoutRtl(this) ? (numChildren - 1) : 0)) {
               // Keeps the left corners of the first child in LTR, or the last child in RTL
-              shapeAppearanceModel.setCornerRadii(cornerData.topLeft, 0, 0, cornerData.bottomLeft);
+              setCornerRadii(button, cornerData.topLeft, 0, 0, cornerData.bottomLeft);
             } else if (i != 0 && i < numChildren - 1) {
               // Sets corner radii of all middle children to 0
-              shapeAppearanceModel.setCornerRadius(0);
+              setCornerRadii(button, 0, 0, 0, 0);
             } else if (i == (ViewUtils.isLayoutRtl(this) ? 0 : (numChildren - 1))) {
               // Keeps the right corners of the last child in LTR, or the first child in RTL
-              shapeAppearanceModel.setCornerRadii(
-                  0, cornerData.topRight, cornerData.bottomRight, 0);
+              setCornerRadii(button, 0, cornerData.topRight, cornerData.bottomRight, 0);
             }
           }
-          button.setShapeAppearanceModel(shapeAppearanceModel);
         }
       }
     }
   }
 
+  private static void setCornerRadii(
+      MaterialButton button,
+      float topLeft,
+      float topRight,
+      float bottomRight,
+      float bottomLeft) {
+    ShapeAppearanceModel shapeAppearanceModel = button.getShapeAppearanceModel();
+    if (shapeAppearanceModel.isImmutable()) {
+      // An immutable model may be shared with other views, so the button gets a modified copy.
+      shapeAppearanceModel =
+          shapeAppearanceModel
+              .toBuilder()
+              .setCornerRadii(topLeft, topRight, bottomRight, bottomLeft)
+              .build();
+    } else {
+      shapeAppearanceModel.setCornerRadii(topLeft, topRight, bottomRight, bottomLeft);
+    }
+    button.setShapeAppearanceModel(shapeAppearanceModel);
+  }
+
   /**
    * When a checked child is added, or a child is clicked, updates checked state and draw order of
    * children to draw all checked children on top of all unchecked children.
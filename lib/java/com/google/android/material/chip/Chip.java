@@ -59,9 +59,11 @@ import com.google.android.material.resources.TextAppearanceFontCallback;
 import com.google.android.material.ripple.RippleUtils;
 import com.google.android.material.shape.ShapeAppearanceModel;
 import com.google.android.material.shape.Shapeable;
+import androidx.core.text.PrecomputedTextCompat;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
 import androidx.core.view.accessibility.AccessibilityNodeInfoCompat.AccessibilityActionCompat;
+import androidx.core.widget.TextViewCompat;
 import androidx.customview.widget.ExploreByTouchHelper;
 import androidx.appcompat.widget.AppCompatCheckBox;
 import android.text.TextPaint;
@@ -1378,6 +1380,32 @@ public class Chip extends AppCompatCheckBox implements Delegate, Shapeable {
     }
   }
 
+  /**
+   * Sets this chip's text from a {@link MeasuredChipText}, which may have been measured on a
+   * background thread, so that the text isn't measured again while the chip is bound or laid out.
+   *
+   * <p>The text must have been measured with the {@link
+   * TextViewCompat#getTextMetricsParams(android.widget.TextView) text metrics params} of this
+   * chip. Otherwise, it's measured again like a text set by {@link #setText(CharSequence)}.
+   *
+   * @param measuredText This chip's text, measured ahead of time.
+   */
+  public void setMeasuredText(@NonNull MeasuredChipText measuredText) {
+    if (chipDrawable == null) {
+      return;
+    }
+    PrecomputedTextCompat text = measuredText.getText();
+    if (!text.getParams().equals(TextViewCompat.getTextMetricsParams(this))) {
+      setText(text);
+      return;
+    }
+
+    // Like setText(), this ends up in setText(CharSequence, BufferType), which also sets the text
+    // of the chip drawable.
+    TextViewCompat.setPrecomputedText(this, text);
+    chipDrawable.setTextWidth(measuredText.getTextWidth());
+  }
+
   /** @deprecated Use {@link Chip#setText(int)} instead. */
   @Deprecated
   public void setChipTextResource(@StringRes int id) {
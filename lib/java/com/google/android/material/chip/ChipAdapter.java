@@ -0,0 +1,324 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LongSparseArray;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.ViewGroup;
+import android.widget.CompoundButton;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link RecyclerView.Adapter} of {@link Chip}s, which keeps the checked state of its chips like
+ * a {@link ChipGroup} does. It is usually used with a {@link ChipFlowLayoutManager}, to show more
+ * chips than a {@link ChipGroup} could hold as child views.
+ *
+ * <p>Each chip is identified by its {@link #getItemId(int) stable id}. The ids of the checked chips
+ * are kept by the adapter rather than by the chips, which are recycled, so that the checked state
+ * of a chip is restored when it's bound again.
+ *
+ * <p>When you {@link #setSingleSelection(boolean) enable single selection}, checking a chip
+ * unchecks the previously checked chip, whether it's visible or not. The behavior mirrors that of
+ * {@link ChipGroup}.
+ */
+public abstract class ChipAdapter extends RecyclerView.Adapter<ChipAdapter.ChipViewHolder> {
+
+  /**
+   * Interface definition for a callback to be invoked when the checked chip changed in this
+   * adapter.
+   */
+  public interface OnCheckedChangeListener {
+    /**
+     * Called when the checked chip has changed. When the selection is cleared, checkedId is {@link
+     * RecyclerView#NO_ID}.
+     *
+     * @param adapter the adapter in which the checked chip has changed
+     * @param checkedId the stable id of the newly checked chip
+     */
+    void onCheckedChanged(ChipAdapter adapter, long checkedId);
+  }
+
+  /** A {@link RecyclerView.ViewHolder} which holds a {@link Chip}. */
+  public static class ChipViewHolder extends RecyclerView.ViewHolder {
+
+    private final Chip chip;
+    private final CompoundButton.OnCheckedChangeListener checkedStateTracker;
+
+    ChipViewHolder(@NonNull Chip chip, @NonNull ChipAdapter adapter) {
+      super(chip);
+      this.chip = chip;
+      this.checkedStateTracker = adapter.new CheckedStateTracker(this);
+    }
+
+    /** Returns the chip held by this view holder. */
+    @NonNull
+    public Chip getChip() {
+      return chip;
+    }
+  }
+
+  // The ids of the checked chips, mapped to Boolean.TRUE.
+  private final LongSparseArray<Boolean> checkedIds = new LongSparseArray<>();
+  private final List<RecyclerView> recyclerViews = new ArrayList<>(1);
+
+  private boolean singleSelection;
+  private long checkedId = RecyclerView.NO_ID;
+  private boolean protectFromCheckedChange = false;
+
+  @Nullable private OnCheckedChangeListener onCheckedChangeListener;
+
+  public ChipAdapter() {
+    setHasStableIds(true);
+  }
+
+  /** Returns the stable id of the chip at {@code position}, which identifies its checked state. */
+  @Override
+  public abstract long getItemId(int position);
+
+  /**
+   * Creates a chip of the given view type. By default, creates a {@link Chip} styled by the {@link
+   * com.google.android.material.R.attr#chipStyle} theme attribute.
+   */
+  @NonNull
+  protected Chip onCreateChip(@NonNull ViewGroup parent, int viewType) {
+    return new Chip(parent.getContext());
+  }
+
+  /**
+   * Binds the content of the chip at {@code position}, such as its text and icons. The checked
+   * state of the chip is bound by the adapter, and must not be changed here.
+   *
+   * <p>Texts which were measured ahead of time, on a background thread, can be set with {@link
+   * Chip#setMeasuredText(MeasuredChipText)} to skip measuring them while binding.
+   */
+  protected abstract void onBindChip(@NonNull Chip chip, int position);
+
+  @NonNull
+  @Override
+  public final ChipViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+    return new ChipViewHolder(onCreateChip(parent, viewType), this);
+  }
+
+  @Override
+  public final void onBindViewHolder(@NonNull ChipViewHolder holder, int position) {
+    Chip chip = holder.chip;
+    // The chip may have been bound to another id, so it must not report the changes of its checked
+    // state while it's bound.
+    chip.setOnCheckedChangeListenerInternal(null);
+    onBindChip(chip, position);
+    chip.setChecked(isChecked(holder.getItemId()));
+    // Skips the state change animations of the chip drawable.
+    chip.jumpDrawablesToCurrentState();
+    chip.setOnCheckedChangeListenerInternal(holder.checkedStateTracker);
+  }
+
+  @Override
+  public void onViewAttachedToWindow(@NonNull ChipViewHolder holder) {
+    // Chips which are attached again without being bound, from the cache of the RecyclerView, may
+    // have missed changes of their checked state while they were detached.
+    setCheckedStateForHolder(holder, isChecked(holder.getItemId()));
+  }
+
+  @Override
+  public void onViewRecycled(@NonNull ChipViewHolder holder) {
+    holder.chip.setOnCheckedChangeListenerInternal(null);
+  }
+
+  @Override
+  public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+    recyclerViews.add(recyclerView);
+  }
+
+  @Override
+  public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+    recyclerViews.remove(recyclerView);
+  }
+
+  /**
+   * Sets the selection to the chip whose stable id is passed in parameter, whether it's visible or
+   * not.
+   *
+   * <p>In {@link #isSingleSelection() single selection mode}, checking a chip also unchecks all
+   * others.
+   *
+   * @param id the stable id of the chip to select in this adapter
+   * @see #getCheckedChipId()
+   * @see #clearCheck()
+   */
+  public void check(long id) {
+    if (id == checkedId) {
+      return;
+    }
+
+    if (checkedId != RecyclerView.NO_ID && singleSelection) {
+      setCheckedStateForId(checkedId, false);
+    }
+
+    if (id != RecyclerView.NO_ID) {
+      setCheckedStateForId(id, true);
+    }
+
+    setCheckedId(id);
+  }
+
+  /**
+   * When in {@link #isSingleSelection() single selection mode}, returns the stable id of the
+   * selected chip in this adapter. Upon empty selection, the returned value is {@link
+   * RecyclerView#NO_ID}. If not in single selection mode, the return value is {@link
+   * RecyclerView#NO_ID}.
+   *
+   * @return the stable id of the selected chip in this adapter in single selection mode
+   * @see #check(long)
+   * @see #clearCheck()
+   */
+  public long getCheckedChipId() {
+    return singleSelection ? checkedId : RecyclerView.NO_ID;
+  }
+
+  /** Returns whether the chip whose stable id is passed in parameter is checked. */
+  public boolean isChecked(long id) {
+    return checkedIds.indexOfKey(id) >= 0;
+  }
+
+  /** Returns the stable ids of the checked chips, in ascending order. */
+  @NonNull
+  public long[] getCheckedChipIds() {
+    long[] ids = new long[checkedIds.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = checkedIds.keyAt(i);
+    }
+    return ids;
+  }
+
+  /**
+   * Clears the selection. When the selection is cleared, no chip in this adapter is selected and
+   * {@link #getCheckedChipId()} returns {@link RecyclerView#NO_ID}.
+   *
+   * @see #check(long)
+   * @see #getCheckedChipId()
+   */
+  public void clearCheck() {
+    checkedIds.clear();
+    for (RecyclerView recyclerView : recyclerViews) {
+      for (int i = 0; i < recyclerView.getChildCount(); i++) {
+        RecyclerView.ViewHolder holder =
+            recyclerView.getChildViewHolder(recyclerView.getChildAt(i));
+        if (holder instanceof ChipViewHolder) {
+          setCheckedStateForHolder((ChipViewHolder) holder, false);
+        }
+      }
+    }
+
+    setCheckedId(RecyclerView.NO_ID);
+  }
+
+  /**
+   * Register a callback to be invoked when the checked chip changes in this adapter. This callback
+   * is only invoked in {@link #isSingleSelection() single selection mode}.
+   *
+   * @param listener the callback to call on checked state change
+   */
+  public void setOnCheckedChangeListener(@Nullable OnCheckedChangeListener listener) {
+    onCheckedChangeListener = listener;
+  }
+
+  /** Returns whether this adapter only allows a single chip to be checked. */
+  public boolean isSingleSelection() {
+    return singleSelection;
+  }
+
+  /**
+   * Sets whether this adapter only allows a single chip to be checked.
+   *
+   * <p>Calling this method results in all the chips in this adapter to become unchecked.
+   */
+  public void setSingleSelection(boolean singleSelection) {
+    if (this.singleSelection != singleSelection) {
+      this.singleSelection = singleSelection;
+
+      clearCheck();
+    }
+  }
+
+  private void setCheckedId(long checkedId) {
+    this.checkedId = checkedId;
+
+    if (onCheckedChangeListener != null && singleSelection) {
+      onCheckedChangeListener.onCheckedChanged(this, checkedId);
+    }
+  }
+
+  private void setCheckedStateForId(long id, boolean checked) {
+    if (checked) {
+      checkedIds.put(id, Boolean.TRUE);
+    } else {
+      checkedIds.remove(id);
+    }
+
+    // Only the attached chips are updated, the others are updated when they're bound or attached.
+    for (RecyclerView recyclerView : recyclerViews) {
+      RecyclerView.ViewHolder holder = recyclerView.findViewHolderForItemId(id);
+      if (holder instanceof ChipViewHolder) {
+        setCheckedStateForHolder((ChipViewHolder) holder, checked);
+      }
+    }
+  }
+
+  private void setCheckedStateForHolder(ChipViewHolder holder, boolean checked) {
+    protectFromCheckedChange = true;
+    holder.chip.setChecked(checked);
+    protectFromCheckedChange = false;
+  }
+
+  private class CheckedStateTracker implements CompoundButton.OnCheckedChangeListener {
+
+    private final ChipViewHolder holder;
+
+    CheckedStateTracker(ChipViewHolder holder) {
+      this.holder = holder;
+    }
+
+    @Override
+    public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+      // prevents from infinite recursion
+      if (protectFromCheckedChange) {
+        return;
+      }
+
+      long id = holder.getItemId();
+      if (id == RecyclerView.NO_ID) {
+        return;
+      }
+
+      if (isChecked) {
+        if (checkedId != RecyclerView.NO_ID && checkedId != id && singleSelection) {
+          setCheckedStateForId(checkedId, false);
+        }
+        checkedIds.put(id, Boolean.TRUE);
+        setCheckedId(id);
+      } else {
+        checkedIds.remove(id);
+        if (checkedId == id) {
+          setCheckedId(RecyclerView.NO_ID);
+        }
+      }
+    }
+  }
+}
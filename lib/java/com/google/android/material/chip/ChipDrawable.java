@@ -64,9 +64,9 @@ import com.google.android.material.internal.TextDrawableHelper.TextDrawableDeleg
 import com.google.android.material.internal.ThemeEnforcement;
 import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.resources.TextAppearance;
+import com.google.android.material.resources.TextAppearanceCache;
 import com.google.android.material.ripple.RippleUtils;
 import com.google.android.material.shape.MaterialShapeDrawable;
-import com.google.android.material.shape.ShapeAppearanceModel;
 import androidx.core.graphics.ColorUtils;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.graphics.drawable.TintAwareDrawable;
@@ -247,10 +247,24 @@ public class ChipDrawable extends MaterialShapeDrawable
   @Nullable private final Paint debugPaint;
   private final FontMetrics fontMetrics = new FontMetrics();
   private final RectF rectF = new RectF();
-  private final PointF pointF = new PointF();
   private final Path shapePath = new Path();
   private final TextDrawableHelper textDrawableHelper;
 
+  // The bounds of the chip icon, text, close icon and touch areas only change with the bounds of
+  // the chip and its size, so they're calculated once for every change instead of at every draw.
+  private final Rect childBoundsSource = new Rect();
+  private int childBoundsLayoutDirection;
+  private boolean childBoundsDirty = true;
+  private final RectF chipIconBounds = new RectF();
+  private final RectF textBounds = new RectF();
+  private final PointF textOrigin = new PointF();
+  private Align textAlign = Align.LEFT;
+  private boolean textClipped;
+  @Nullable private CharSequence textToDraw;
+  private final RectF closeIconBounds = new RectF();
+  private final RectF chipTouchBounds = new RectF();
+  private final RectF closeIconTouchBounds = new RectF();
+
   @ColorInt private int currentChipSurfaceColor;
   @ColorInt private int currentChipBackgroundColor;
   @ColorInt private int currentChipStrokeColor;
@@ -463,6 +477,7 @@ public class ChipDrawable extends MaterialShapeDrawable
 
   /** Attempts to call {@link Delegate#onChipDrawableSizeChange()} on the delegate. */
   protected void onSizeChange() {
+    childBoundsDirty = true;
     Delegate delegate = this.delegate.get();
     if (delegate != null) {
       delegate.onChipDrawableSizeChange();
@@ -474,7 +489,8 @@ public class ChipDrawable extends MaterialShapeDrawable
    * [ChipDrawable.getBounds().left, ChipDrawable.getBounds().top]</code>).
    */
   public void getChipTouchBounds(RectF bounds) {
-    calculateChipTouchBounds(getBounds(), bounds);
+    updateChildBounds();
+    bounds.set(chipTouchBounds);
   }
 
   /**
@@ -482,7 +498,8 @@ public class ChipDrawable extends MaterialShapeDrawable
    * [ChipDrawable.getBounds().left, ChipDrawable.getBounds().top]</code>).
    */
   public void getCloseIconTouchBounds(RectF bounds) {
-    calculateCloseIconTouchBounds(getBounds(), bounds);
+    updateChildBounds();
+    bounds.set(closeIconTouchBounds);
   }
 
   /** Returns the width at which the chip would like to be laid out. */
@@ -493,7 +510,7 @@ public class ChipDrawable extends MaterialShapeDrawable
             (chipStartPadding
                 + calculateChipIconWidth()
                 + textStartPadding
-                + textDrawableHelper.getTextWidth(getText().toString())
+                + textDrawableHelper.getTextWidth(getText())
                 + textEndPadding
                 + calculateCloseIconWidth()
                 + chipEndPadding));
@@ -556,6 +573,8 @@ public class ChipDrawable extends MaterialShapeDrawable
       return;
     }
 
+    updateChildBounds();
+
     int saveCount = 0;
     if (alpha < 255) {
       saveCount =
@@ -656,13 +675,12 @@ public class ChipDrawable extends MaterialShapeDrawable
 
   private void drawChipIcon(@NonNull Canvas canvas, Rect bounds) {
     if (showsChipIcon()) {
-      calculateChipIconBounds(bounds, rectF);
-      float tx = rectF.left;
-      float ty = rectF.top;
+      float tx = chipIconBounds.left;
+      float ty = chipIconBounds.top;
 
       canvas.translate(tx, ty);
 
-      chipIcon.setBounds(0, 0, (int) rectF.width(), (int) rectF.height());
+      chipIcon.setBounds(0, 0, (int) chipIconBounds.width(), (int) chipIconBounds.height());
       chipIcon.draw(canvas);
 
       canvas.translate(-tx, -ty);
@@ -671,13 +689,12 @@ public class ChipDrawable extends MaterialShapeDrawable
 
   private void drawCheckedIcon(@NonNull Canvas canvas, Rect bounds) {
     if (showsCheckedIcon()) {
-      calculateChipIconBounds(bounds, rectF);
-      float tx = rectF.left;
-      float ty = rectF.top;
+      float tx = chipIconBounds.left;
+      float ty = chipIconBounds.top;
 
       canvas.translate(tx, ty);
 
-      checkedIcon.setBounds(0, 0, (int) rectF.width(), (int) rectF.height());
+      checkedIcon.setBounds(0, 0, (int) chipIconBounds.width(), (int) chipIconBounds.height());
       checkedIcon.draw(canvas);
 
       canvas.translate(-tx, -ty);
@@ -687,34 +704,28 @@ public class ChipDrawable extends MaterialShapeDrawable
   /** Draws the chip text, which should appear centered vertically in the chip. */
   private void drawText(@NonNull Canvas canvas, Rect bounds) {
     if (text != null) {
-      Align align = calculateTextOriginAndAlignment(bounds, pointF);
-      // If bounds are smaller than intrinsic size. Ellipsize or clip the text depending on
-      // ellipsize attribute.
-      calculateTextBounds(bounds, rectF);
-
       if (textDrawableHelper.getTextAppearance() != null) {
         textDrawableHelper.getTextPaint().drawableState = getState();
         textDrawableHelper.updateTextPaintDrawState(context);
       }
-      textDrawableHelper.getTextPaint().setTextAlign(align);
+      textDrawableHelper.getTextPaint().setTextAlign(textAlign);
 
-      boolean clip =
-          Math.round(textDrawableHelper.getTextWidth(getText().toString()))
-              > Math.round(rectF.width());
+      // If bounds are smaller than intrinsic size, the text is clipped, and ellipsized depending on
+      // the ellipsize attribute.
       int saveCount = 0;
-      if (clip) {
+      if (textClipped) {
         saveCount = canvas.save();
-        canvas.clipRect(rectF);
+        canvas.clipRect(textBounds);
       }
 
-      CharSequence finalText = text;
-      if (clip && truncateAt != null) {
-        finalText =
-            TextUtils.ellipsize(text, textDrawableHelper.getTextPaint(), rectF.width(), truncateAt);
-      }
       canvas.drawText(
-          finalText, 0, finalText.length(), pointF.x, pointF.y, textDrawableHelper.getTextPaint());
-      if (clip) {
+          textToDraw,
+          0,
+          textToDraw.length(),
+          textOrigin.x,
+          textOrigin.y,
+          textDrawableHelper.getTextPaint());
+      if (textClipped) {
         canvas.restoreToCount(saveCount);
       }
     }
@@ -722,13 +733,12 @@ public class ChipDrawable extends MaterialShapeDrawable
 
   private void drawCloseIcon(@NonNull Canvas canvas, Rect bounds) {
     if (showsCloseIcon()) {
-      calculateCloseIconBounds(bounds, rectF);
-      float tx = rectF.left;
-      float ty = rectF.top;
+      float tx = closeIconBounds.left;
+      float ty = closeIconBounds.top;
 
       canvas.translate(tx, ty);
 
-      closeIcon.setBounds(0, 0, (int) rectF.width(), (int) rectF.height());
+      closeIcon.setBounds(0, 0, (int) closeIconBounds.width(), (int) closeIconBounds.height());
       closeIcon.draw(canvas);
 
       canvas.translate(-tx, -ty);
@@ -744,8 +754,7 @@ public class ChipDrawable extends MaterialShapeDrawable
 
       // Chip and checked icon.
       if (showsChipIcon() || (showsCheckedIcon())) {
-        calculateChipIconBounds(bounds, rectF);
-        canvas.drawRect(rectF, debugPaint);
+        canvas.drawRect(chipIconBounds, debugPaint);
       }
 
       // Chip text.
@@ -756,19 +765,53 @@ public class ChipDrawable extends MaterialShapeDrawable
 
       // Close icon.
       if (showsCloseIcon()) {
-        calculateCloseIconBounds(bounds, rectF);
-        canvas.drawRect(rectF, debugPaint);
+        canvas.drawRect(closeIconBounds, debugPaint);
       }
 
       // Chip touch bounds.
       debugPaint.setColor(ColorUtils.setAlphaComponent(Color.RED, 255 / 2));
-      calculateChipTouchBounds(bounds, rectF);
-      canvas.drawRect(rectF, debugPaint);
+      canvas.drawRect(chipTouchBounds, debugPaint);
 
       // Close icon touch bounds.
       debugPaint.setColor(ColorUtils.setAlphaComponent(Color.GREEN, 255 / 2));
-      calculateCloseIconTouchBounds(bounds, rectF);
-      canvas.drawRect(rectF, debugPaint);
+      canvas.drawRect(closeIconTouchBounds, debugPaint);
+    }
+  }
+
+  /**
+   * Calculates the bounds of the chip icon, text, close icon and touch areas, if the bounds, layout
+   * direction or size of this chip changed since they were last calculated.
+   */
+  private void updateChildBounds() {
+    Rect bounds = getBounds();
+    int layoutDirection = DrawableCompat.getLayoutDirection(this);
+    if (!childBoundsDirty
+        && childBoundsSource.equals(bounds)
+        && childBoundsLayoutDirection == layoutDirection) {
+      return;
+    }
+    childBoundsDirty = false;
+    childBoundsSource.set(bounds);
+    childBoundsLayoutDirection = layoutDirection;
+
+    calculateChipIconBounds(bounds, chipIconBounds);
+    textAlign = calculateTextOriginAndAlignment(bounds, textOrigin);
+    calculateTextBounds(bounds, textBounds);
+    calculateCloseIconBounds(bounds, closeIconBounds);
+    calculateChipTouchBounds(bounds, chipTouchBounds);
+    calculateCloseIconTouchBounds(bounds, closeIconTouchBounds);
+
+    textToDraw = text;
+    textClipped = false;
+    // Chips draw their own text, so the text is only measured for standalone ChipDrawables.
+    if (text != null && shouldDrawText) {
+      textClipped =
+          Math.round(textDrawableHelper.getTextWidth(text)) > Math.round(textBounds.width());
+      if (textClipped && truncateAt != null) {
+        textToDraw =
+            TextUtils.ellipsize(
+                text, textDrawableHelper.getTextPaint(), textBounds.width(), truncateAt);
+      }
     }
   }
 
@@ -1415,7 +1458,7 @@ public class ChipDrawable extends MaterialShapeDrawable
    */
   public float getChipCornerRadius() {
     return isShapeThemingEnabled
-        ? getShapeAppearanceModel().getTopLeftCorner().getCornerSize()
+        ? getShapeAppearanceModel().getTopLeftCornerSize()
         : chipCornerRadius;
   }
 
@@ -1436,10 +1479,7 @@ public class ChipDrawable extends MaterialShapeDrawable
   public void setChipCornerRadius(float chipCornerRadius) {
     if (this.chipCornerRadius != chipCornerRadius) {
       this.chipCornerRadius = chipCornerRadius;
-
-      ShapeAppearanceModel shapeAppearanceModel = getShapeAppearanceModel();
-      shapeAppearanceModel.setCornerRadius(chipCornerRadius);
-      invalidateSelf();
+      setCornerRadius(chipCornerRadius);
     }
   }
 
@@ -1574,13 +1614,21 @@ public class ChipDrawable extends MaterialShapeDrawable
     }
   }
 
+  /**
+   * Sets the width of the current text, measured ahead of time by {@link MeasuredChipText}, so that
+   * it isn't measured again.
+   */
+  void setTextWidth(float textWidth) {
+    textDrawableHelper.setTextWidth(text, textWidth);
+  }
+
   @Nullable
   public TextAppearance getTextAppearance() {
     return textDrawableHelper.getTextAppearance();
   }
 
   public void setTextAppearanceResource(@StyleRes int id) {
-    setTextAppearance(new TextAppearance(context, id));
+    setTextAppearance(TextAppearanceCache.getTextAppearance(context, id));
   }
 
   public void setTextAppearance(@Nullable TextAppearance textAppearance) {
@@ -1593,6 +1641,7 @@ public class ChipDrawable extends MaterialShapeDrawable
 
   public void setEllipsize(@Nullable TruncateAt truncateAt) {
     this.truncateAt = truncateAt;
+    childBoundsDirty = true;
   }
 
   public boolean isChipIconVisible() {
@@ -2345,5 +2394,6 @@ public class ChipDrawable extends MaterialShapeDrawable
    */
   void setShouldDrawText(boolean shouldDrawText) {
     this.shouldDrawText = shouldDrawText;
+    childBoundsDirty = true;
   }
 }
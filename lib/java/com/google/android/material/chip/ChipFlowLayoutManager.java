@@ -0,0 +1,649 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import android.graphics.PointF;
+import android.os.Bundle;
+import android.os.Parcelable;
+import androidx.annotation.Dimension;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.RecyclerView;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import java.util.Arrays;
+
+/**
+ * A {@link RecyclerView.LayoutManager} which reflows its items across multiple lines, like a {@link
+ * ChipGroup} does with its chips, and scrolls vertically.
+ *
+ * <p>Unlike a {@link ChipGroup}, which keeps all of its chips as child views, only the chips of the
+ * visible lines are created and laid out, and the chips which scroll out of view are recycled. It
+ * is usually used with a {@link ChipAdapter}, to show thousands of chips.
+ *
+ * <p>The lines are flowed on demand from the first item, as they're scrolled to, and only the lines
+ * which contain changed items, or follow them, are flowed again when the adapter changes. The sizes
+ * of the measured chips are kept, so that flowing the lines again, for example when the width of
+ * the RecyclerView changes, only binds the chips which haven't been measured yet.
+ */
+public class ChipFlowLayoutManager extends RecyclerView.LayoutManager
+    implements RecyclerView.SmoothScroller.ScrollVectorProvider {
+
+  private static final String STATE_FIRST_VISIBLE_POSITION = "firstVisiblePosition";
+  private static final String STATE_FLOW_WIDTH = "flowWidth";
+  private static final String STATE_LINE_STARTS = "lineStarts";
+  private static final String STATE_LINE_TOPS = "lineTops";
+  private static final String STATE_LINE_HEIGHTS = "lineHeights";
+  private static final String STATE_FLOWED_ITEM_COUNT = "flowedItemCount";
+  private static final int INITIAL_LINE_CAPACITY = 16;
+
+  @Dimension private int chipSpacingHorizontal;
+  @Dimension private int chipSpacingVertical;
+
+  // The lines flowed so far, starting at the first item: the position of their first item, and
+  // their top and height relative to the top of the content.
+  private int[] lineStarts = new int[INITIAL_LINE_CAPACITY];
+  private int[] lineTops = new int[INITIAL_LINE_CAPACITY];
+  private int[] lineHeights = new int[INITIAL_LINE_CAPACITY];
+  private int lineCount;
+  // The number of items in the lines flowed so far.
+  private int flowedItemCount;
+  // The width the lines were flowed in.
+  private int flowWidth = -1;
+
+  // The width and height, with margins, of the items measured so far, or -1 for the items which
+  // haven't been measured since they changed.
+  private int[] itemWidths = new int[0];
+  private int[] itemHeights = new int[0];
+
+  // The views measured while flowing the lines, which are kept for the layout to use them.
+  private final SparseArray<View> measuredViews = new SparseArray<>();
+
+  private int scrollY;
+  private int pendingScrollPosition = RecyclerView.NO_POSITION;
+
+  public ChipFlowLayoutManager() {}
+
+  /** Sets the horizontal and vertical spacing between the chips. */
+  public void setChipSpacing(@Dimension int chipSpacing) {
+    setChipSpacingHorizontal(chipSpacing);
+    setChipSpacingVertical(chipSpacing);
+  }
+
+  /** Returns the horizontal spacing between the chips. */
+  @Dimension
+  public int getChipSpacingHorizontal() {
+    return chipSpacingHorizontal;
+  }
+
+  /** Sets the horizontal spacing between the chips. */
+  public void setChipSpacingHorizontal(@Dimension int chipSpacingHorizontal) {
+    if (this.chipSpacingHorizontal != chipSpacingHorizontal) {
+      this.chipSpacingHorizontal = chipSpacingHorizontal;
+      invalidateLines();
+      requestLayout();
+    }
+  }
+
+  /** Returns the vertical spacing between the lines of chips. */
+  @Dimension
+  public int getChipSpacingVertical() {
+    return chipSpacingVertical;
+  }
+
+  /** Sets the vertical spacing between the lines of chips. */
+  public void setChipSpacingVertical(@Dimension int chipSpacingVertical) {
+    if (this.chipSpacingVertical != chipSpacingVertical) {
+      this.chipSpacingVertical = chipSpacingVertical;
+      invalidateLines();
+      requestLayout();
+    }
+  }
+
+  @Override
+  public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+    return new RecyclerView.LayoutParams(
+        ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+  }
+
+  @Override
+  public boolean isAutoMeasureEnabled() {
+    return true;
+  }
+
+  @Override
+  public boolean canScrollVertically() {
+    return true;
+  }
+
+  @Override
+  public void onAdapterChanged(
+      @Nullable RecyclerView.Adapter oldAdapter, @Nullable RecyclerView.Adapter newAdapter) {
+    invalidateLines();
+    clearItemSizes();
+    scrollY = 0;
+  }
+
+  @Override
+  public void onItemsChanged(@NonNull RecyclerView recyclerView) {
+    invalidateLines();
+    clearItemSizes();
+  }
+
+  @Override
+  public void onItemsAdded(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+    invalidateLinesFrom(positionStart);
+    moveItemSizes(positionStart, positionStart + itemCount);
+  }
+
+  @Override
+  public void onItemsRemoved(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+    invalidateLinesFrom(positionStart);
+    moveItemSizes(positionStart + itemCount, positionStart);
+  }
+
+  @Override
+  public void onItemsUpdated(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+    invalidateLinesFrom(positionStart);
+    invalidateItemSizes(positionStart, positionStart + itemCount);
+  }
+
+  @Override
+  public void onItemsMoved(@NonNull RecyclerView recyclerView, int from, int to, int itemCount) {
+    invalidateLinesFrom(Math.min(from, to));
+    invalidateItemSizes(Math.min(from, to), Math.max(from, to) + itemCount);
+  }
+
+  @Override
+  public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+    int itemCount = state.getItemCount();
+    if (itemCount == 0) {
+      removeAndRecycleAllViews(recycler);
+      invalidateLines();
+      scrollY = 0;
+      return;
+    }
+    if (state.isPreLayout()) {
+      return;
+    }
+
+    int width = getWidth() - getPaddingLeft() - getPaddingRight();
+    if (flowWidth != width) {
+      flowWidth = width;
+      invalidateLines();
+      // Keeps the first visible chip at the top, rather than the scroll offset of the old lines.
+      if (pendingScrollPosition == RecyclerView.NO_POSITION) {
+        pendingScrollPosition = findFirstAttachedPosition();
+      }
+    }
+    if (flowedItemCount > itemCount) {
+      // The restored lines are for more items than the adapter has.
+      invalidateLines();
+    }
+    // The visible chips may have changed size without the adapter being notified, for example when
+    // they are checked, so they are measured and their lines are flowed again.
+    int firstPosition = findFirstAttachedPosition();
+    if (firstPosition != RecyclerView.NO_POSITION) {
+      invalidateLinesFrom(firstPosition);
+      invalidateItemSizes(firstPosition, findLastAttachedPosition() + 1);
+    }
+    detachAndScrapAttachedViews(recycler);
+
+    if (pendingScrollPosition != RecyclerView.NO_POSITION) {
+      int position = Math.min(pendingScrollPosition, itemCount - 1);
+      pendingScrollPosition = RecyclerView.NO_POSITION;
+      while (flowedItemCount <= position) {
+        flowLine(recycler, itemCount);
+        if (flowedItemCount <= position) {
+          recycleMeasuredViews(recycler);
+        }
+      }
+      scrollY = lineTops[findLineForPosition(position)];
+    }
+
+    flowLines(recycler, itemCount, scrollY);
+    scrollY = clampScrollY(scrollY, itemCount);
+    fill(recycler);
+  }
+
+  @Override
+  public int scrollVerticallyBy(
+      int dy, RecyclerView.Recycler recycler, RecyclerView.State state) {
+    if (getChildCount() == 0 || dy == 0) {
+      return 0;
+    }
+
+    int itemCount = state.getItemCount();
+    int targetScrollY = Math.max(0, scrollY + dy);
+    flowLines(recycler, itemCount, targetScrollY);
+    int scrolled = clampScrollY(targetScrollY, itemCount) - scrollY;
+    if (scrolled == 0) {
+      recycleMeasuredViews(recycler);
+      return 0;
+    }
+
+    // The chips which stay in view are moved, and only the lines which scroll in or out of view are
+    // laid out or recycled.
+    scrollY += scrolled;
+    offsetChildrenVertical(-scrolled);
+    recycleLinesOutOfView(recycler);
+    fill(recycler);
+    return scrolled;
+  }
+
+  @Override
+  public void scrollToPosition(int position) {
+    pendingScrollPosition = position;
+    requestLayout();
+  }
+
+  @Override
+  public void smoothScrollToPosition(
+      RecyclerView recyclerView, RecyclerView.State state, int position) {
+    LinearSmoothScroller smoothScroller = new LinearSmoothScroller(recyclerView.getContext());
+    smoothScroller.setTargetPosition(position);
+    startSmoothScroll(smoothScroller);
+  }
+
+  @Nullable
+  @Override
+  public PointF computeScrollVectorForPosition(int targetPosition) {
+    if (getChildCount() == 0) {
+      return null;
+    }
+    return new PointF(0, targetPosition < getPosition(getChildAt(0)) ? -1 : 1);
+  }
+
+  @Override
+  public int computeVerticalScrollOffset(@NonNull RecyclerView.State state) {
+    return getChildCount() == 0 ? 0 : scrollY;
+  }
+
+  @Override
+  public int computeVerticalScrollExtent(@NonNull RecyclerView.State state) {
+    return getChildCount() == 0 ? 0 : getHeight() - getPaddingTop() - getPaddingBottom();
+  }
+
+  @Override
+  public int computeVerticalScrollRange(@NonNull RecyclerView.State state) {
+    if (getChildCount() == 0 || lineCount == 0) {
+      return 0;
+    }
+    // Extrapolates the height of the lines which have not been flowed yet.
+    int flowedHeight = getLineBottom(lineCount - 1);
+    return (int) ((long) flowedHeight * state.getItemCount() / flowedItemCount);
+  }
+
+  @Override
+  public Parcelable onSaveInstanceState() {
+    Bundle state = new Bundle();
+    int firstVisiblePosition = findFirstAttachedPosition();
+    state.putInt(STATE_FIRST_VISIBLE_POSITION, firstVisiblePosition);
+
+    // The lines down to the first visible chip are saved, so that restoring the scroll position
+    // doesn't bind all the chips above it to flow their lines again.
+    int savedLineCount =
+        firstVisiblePosition != RecyclerView.NO_POSITION
+            ? findLineForPosition(firstVisiblePosition) + 1
+            : 0;
+    if (savedLineCount > 0) {
+      state.putInt(STATE_FLOW_WIDTH, flowWidth);
+      state.putIntArray(STATE_LINE_STARTS, Arrays.copyOf(lineStarts, savedLineCount));
+      state.putIntArray(STATE_LINE_TOPS, Arrays.copyOf(lineTops, savedLineCount));
+      state.putIntArray(STATE_LINE_HEIGHTS, Arrays.copyOf(lineHeights, savedLineCount));
+      state.putInt(
+          STATE_FLOWED_ITEM_COUNT,
+          savedLineCount < lineCount ? lineStarts[savedLineCount] : flowedItemCount);
+    }
+    return state;
+  }
+
+  @Override
+  public void onRestoreInstanceState(Parcelable state) {
+    if (state instanceof Bundle) {
+      Bundle bundle = (Bundle) state;
+      pendingScrollPosition =
+          bundle.getInt(STATE_FIRST_VISIBLE_POSITION, RecyclerView.NO_POSITION);
+      int[] savedLineStarts = bundle.getIntArray(STATE_LINE_STARTS);
+      int[] savedLineTops = bundle.getIntArray(STATE_LINE_TOPS);
+      int[] savedLineHeights = bundle.getIntArray(STATE_LINE_HEIGHTS);
+      if (savedLineStarts != null && savedLineTops != null && savedLineHeights != null) {
+        // The lines are only used if they are laid out in the same width.
+        int capacity = Math.max(INITIAL_LINE_CAPACITY, savedLineStarts.length);
+        lineStarts = Arrays.copyOf(savedLineStarts, capacity);
+        lineTops = Arrays.copyOf(savedLineTops, capacity);
+        lineHeights = Arrays.copyOf(savedLineHeights, capacity);
+        lineCount = savedLineStarts.length;
+        flowedItemCount = bundle.getInt(STATE_FLOWED_ITEM_COUNT);
+        flowWidth = bundle.getInt(STATE_FLOW_WIDTH);
+      }
+      requestLayout();
+    }
+  }
+
+  /** Flows the lines until they fill the viewport when it's scrolled to {@code top}. */
+  private void flowLines(RecyclerView.Recycler recycler, int itemCount, int top) {
+    int bottom = getVisibleBottom(top);
+    while (flowedItemCount < itemCount
+        && (lineCount == 0 || getLineBottom(lineCount - 1) < bottom)) {
+      flowLine(recycler, itemCount);
+      if (getLineBottom(lineCount - 1) <= top) {
+        // The line is above the viewport, so its chips won't be laid out.
+        recycleMeasuredViews(recycler);
+      }
+    }
+  }
+
+  /** Flows the line after the last flowed line, measuring its chips. */
+  private void flowLine(RecyclerView.Recycler recycler, int itemCount) {
+    int start = flowedItemCount;
+    int top = lineCount == 0 ? 0 : getLineBottom(lineCount - 1) + chipSpacingVertical;
+    int end = start;
+    int lineWidth = 0;
+    int lineHeight = 0;
+    while (end < itemCount) {
+      int childWidth;
+      int childHeight;
+      if (hasItemSize(end)) {
+        childWidth = itemWidths[end];
+        childHeight = itemHeights[end];
+      } else {
+        View child = getMeasuredView(recycler, end);
+        childWidth = getChildWidthWithMargins(child);
+        childHeight = getChildHeightWithMargins(child);
+      }
+      if (end > start && lineWidth + childWidth > flowWidth) {
+        break;
+      }
+      lineWidth += childWidth + chipSpacingHorizontal;
+      lineHeight = Math.max(lineHeight, childHeight);
+      end++;
+    }
+
+    if (lineCount == lineStarts.length) {
+      int capacity = lineCount * 2;
+      lineStarts = Arrays.copyOf(lineStarts, capacity);
+      lineTops = Arrays.copyOf(lineTops, capacity);
+      lineHeights = Arrays.copyOf(lineHeights, capacity);
+    }
+    lineStarts[lineCount] = start;
+    lineTops[lineCount] = top;
+    lineHeights[lineCount] = lineHeight;
+    lineCount++;
+    flowedItemCount = end;
+  }
+
+  /**
+   * Lays out the chips of the lines visible at {@link #scrollY} which aren't laid out yet. The
+   * chips which are already laid out must be those of consecutive visible lines.
+   */
+  private void fill(RecyclerView.Recycler recycler) {
+    int firstAttachedLine = Integer.MAX_VALUE;
+    int lastAttachedLine = Integer.MIN_VALUE;
+    if (getChildCount() > 0) {
+      firstAttachedLine = findLineForPosition(getPosition(getChildAt(0)));
+      lastAttachedLine = findLineForPosition(getPosition(getChildAt(getChildCount() - 1)));
+    }
+
+    int bottom = getVisibleBottom(scrollY);
+    // The lines above the chips already laid out are added before them.
+    int childIndex = 0;
+    for (int line = Math.max(0, findLine(scrollY));
+        line < lineCount && lineTops[line] < bottom;
+        line++) {
+      if (getLineBottom(line) <= scrollY
+          || (line >= firstAttachedLine && line <= lastAttachedLine)) {
+        continue;
+      }
+      childIndex = layoutLine(recycler, line, line < firstAttachedLine ? childIndex : -1);
+    }
+    recycleMeasuredViews(recycler);
+  }
+
+  /**
+   * Adds and lays out the chips of {@code line}, from {@code childIndex}, or after the other
+   * children if it's -1. Returns the index after the added chips, or -1.
+   */
+  private int layoutLine(RecyclerView.Recycler recycler, int line, int childIndex) {
+    boolean isRtl = getLayoutDirection() == ViewCompat.LAYOUT_DIRECTION_RTL;
+    int end = line + 1 < lineCount ? lineStarts[line + 1] : flowedItemCount;
+    int childStart = 0;
+    int childTop = getPaddingTop() + lineTops[line] - scrollY;
+    for (int position = lineStarts[line]; position < end; position++) {
+      View child = getMeasuredView(recycler, position);
+      measuredViews.remove(position);
+      if (childIndex == -1) {
+        addView(child);
+      } else {
+        addView(child, childIndex++);
+      }
+
+      int childWidth = getChildWidthWithMargins(child);
+      int left =
+          isRtl
+              ? getWidth() - getPaddingRight() - childStart - childWidth
+              : getPaddingLeft() + childStart;
+      layoutDecoratedWithMargins(
+          child, left, childTop, left + childWidth, childTop + getChildHeightWithMargins(child));
+      childStart += childWidth + chipSpacingHorizontal;
+    }
+    return childIndex;
+  }
+
+  /** Recycles the chips of the lines which aren't visible at {@link #scrollY} anymore. */
+  private void recycleLinesOutOfView(RecyclerView.Recycler recycler) {
+    int bottom = getVisibleBottom(scrollY);
+    for (int i = getChildCount() - 1; i >= 0; i--) {
+      int line = findLineForPosition(getPosition(getChildAt(i)));
+      if (getLineBottom(line) <= scrollY || lineTops[line] >= bottom) {
+        removeAndRecycleViewAt(i, recycler);
+      }
+    }
+  }
+
+  private View getMeasuredView(RecyclerView.Recycler recycler, int position) {
+    View child = measuredViews.get(position);
+    if (child == null) {
+      child = recycler.getViewForPosition(position);
+      measureChildWithMargins(child, 0, 0);
+      measuredViews.put(position, child);
+      setItemSize(position, getChildWidthWithMargins(child), getChildHeightWithMargins(child));
+    }
+    return child;
+  }
+
+  private void recycleMeasuredViews(RecyclerView.Recycler recycler) {
+    for (int i = 0; i < measuredViews.size(); i++) {
+      recycler.recycleView(measuredViews.valueAt(i));
+    }
+    measuredViews.clear();
+  }
+
+  private int clampScrollY(int scrollY, int itemCount) {
+    if (flowedItemCount < itemCount || lineCount == 0) {
+      // The lines were flowed past the bottom of the viewport.
+      return scrollY;
+    }
+    int visibleHeight = getVisibleBottom(0);
+    int maxScrollY = Math.max(0, getLineBottom(lineCount - 1) - visibleHeight);
+    return Math.min(scrollY, maxScrollY);
+  }
+
+  /**
+   * Returns the bottom of the viewport, relative to the top of the content, when it's scrolled to
+   * {@code top}. The viewport is unbounded when the height of the RecyclerView is unspecified.
+   */
+  private int getVisibleBottom(int top) {
+    if (getHeightMode() == MeasureSpec.UNSPECIFIED) {
+      return Integer.MAX_VALUE;
+    }
+    return top + getHeight() - getPaddingTop() - getPaddingBottom();
+  }
+
+  private int getLineBottom(int line) {
+    return lineTops[line] + lineHeights[line];
+  }
+
+  /** Returns the last line which starts at or above {@code y}, or -1 if there's none. */
+  private int findLine(int y) {
+    return findLastAtMost(lineTops, lineCount, y);
+  }
+
+  /** Returns the flowed line which contains the item at {@code position}. */
+  private int findLineForPosition(int position) {
+    return findLastAtMost(lineStarts, lineCount, position);
+  }
+
+  private static int findLastAtMost(int[] values, int count, int value) {
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (values[middle] <= value) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return high;
+  }
+
+  private void invalidateLines() {
+    lineCount = 0;
+    flowedItemCount = 0;
+  }
+
+  /** Drops the flowed lines from the one which contains the item at {@code position}. */
+  private void invalidateLinesFrom(int position) {
+    if (position > flowedItemCount) {
+      return;
+    }
+    int line = findLineForPosition(position);
+    if (line >= 0) {
+      lineCount = line;
+      flowedItemCount = lineStarts[line];
+    }
+  }
+
+  /**
+   * Returns the position of the first attached chip which wasn't removed from the adapter, or
+   * {@link RecyclerView#NO_POSITION}. The removed chips are still attached until the next layout,
+   * and their position may be negative.
+   */
+  private int findFirstAttachedPosition() {
+    for (int i = 0; i < getChildCount(); i++) {
+      RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) getChildAt(i).getLayoutParams();
+      if (!lp.isItemRemoved()) {
+        return lp.getViewLayoutPosition();
+      }
+    }
+    return RecyclerView.NO_POSITION;
+  }
+
+  /**
+   * Returns the position of the last attached chip which wasn't removed from the adapter, or
+   * {@link RecyclerView#NO_POSITION}.
+   */
+  private int findLastAttachedPosition() {
+    for (int i = getChildCount() - 1; i >= 0; i--) {
+      RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) getChildAt(i).getLayoutParams();
+      if (!lp.isItemRemoved()) {
+        return lp.getViewLayoutPosition();
+      }
+    }
+    return RecyclerView.NO_POSITION;
+  }
+
+  /**
+   * Returns whether the size of the item at {@code position} is known, and can be used to flow the
+   * lines in the current width without measuring it again.
+   */
+  private boolean hasItemSize(int position) {
+    return position < itemWidths.length
+        && itemWidths[position] >= 0
+        && itemWidths[position] < flowWidth;
+  }
+
+  private void setItemSize(int position, int width, int height) {
+    if (position >= itemWidths.length) {
+      int capacity = Math.max(position + 1, itemWidths.length * 2);
+      itemWidths = copyOfItemSizes(itemWidths, capacity);
+      itemHeights = copyOfItemSizes(itemHeights, capacity);
+    }
+    // The chips which are as wide as the lines may have been shrunk to fit them, so they're
+    // measured again if the lines get wider.
+    itemWidths[position] = width < flowWidth ? width : -1;
+    itemHeights[position] = height;
+  }
+
+  private void clearItemSizes() {
+    itemWidths = new int[0];
+    itemHeights = new int[0];
+  }
+
+  /** Forgets the sizes of the items from {@code start} to {@code end}, exclusive. */
+  private void invalidateItemSizes(int start, int end) {
+    end = Math.min(end, itemWidths.length);
+    if (start < end) {
+      Arrays.fill(itemWidths, start, end, -1);
+    }
+  }
+
+  /**
+   * Moves the sizes of the items from {@code from} on to {@code to}, after items were inserted or
+   * removed before them.
+   */
+  private void moveItemSizes(int from, int to) {
+    if (from >= itemWidths.length) {
+      invalidateItemSizes(Math.min(from, to), itemWidths.length);
+      return;
+    }
+    int count = itemWidths.length - from;
+    if (to > from) {
+      itemWidths = copyOfItemSizes(itemWidths, to + count);
+      itemHeights = copyOfItemSizes(itemHeights, to + count);
+    }
+    System.arraycopy(itemWidths, from, itemWidths, to, count);
+    System.arraycopy(itemHeights, from, itemHeights, to, count);
+    if (to > from) {
+      // The inserted items haven't been measured yet.
+      Arrays.fill(itemWidths, from, to, -1);
+    } else {
+      Arrays.fill(itemWidths, to + count, itemWidths.length, -1);
+    }
+  }
+
+  private static int[] copyOfItemSizes(int[] sizes, int capacity) {
+    int[] copy = Arrays.copyOf(sizes, capacity);
+    Arrays.fill(copy, sizes.length, capacity, -1);
+    return copy;
+  }
+
+  private int getChildWidthWithMargins(View child) {
+    RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+    return getDecoratedMeasuredWidth(child) + lp.leftMargin + lp.rightMargin;
+  }
+
+  private int getChildHeightWithMargins(View child) {
+    RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+    return getDecoratedMeasuredHeight(child) + lp.topMargin + lp.bottomMargin;
+  }
+}
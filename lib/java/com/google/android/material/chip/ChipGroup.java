@@ -46,6 +46,10 @@ import android.widget.CompoundButton;
  * R.attr#singleSelection app:singleSelection} attribute, checking one chip that belongs to a chip
  * group unchecks any previously checked chip within the same group. The behavior mirrors that of
  * {@link android.widget.RadioGroup}.
+ *
+ * <p>To show a large number of chips, such as thousands of tags, use a {@link
+ * androidx.recyclerview.widget.RecyclerView} with a {@link ChipAdapter} and a {@link
+ * ChipFlowLayoutManager} instead, which only create the visible chips.
  */
 public class ChipGroup extends FlowLayout {
 
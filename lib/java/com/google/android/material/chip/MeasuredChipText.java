@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import android.text.TextPaint;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The text of a {@link Chip}, measured ahead of time, which can be set with {@link
+ * Chip#setMeasuredText(MeasuredChipText)}.
+ *
+ * <p>Measuring the glyphs of a text is the most expensive part of binding a chip. A
+ * MeasuredChipText holds the {@link PrecomputedTextCompat} of the text, which the chip lays out
+ * without measuring the glyphs again, and the width of the text, which the {@link ChipDrawable} of
+ * the chip uses instead of measuring it. It can be created on a background thread, for example
+ * while a {@link ChipAdapter} binds other chips.
+ */
+public final class MeasuredChipText {
+
+  private final PrecomputedTextCompat text;
+  private final float textWidth;
+
+  @VisibleForTesting
+  MeasuredChipText(PrecomputedTextCompat text, float textWidth) {
+    this.text = text;
+    this.textWidth = textWidth;
+  }
+
+  /**
+   * Measures {@code text} with the given params, which must be the {@link
+   * TextViewCompat#getTextMetricsParams(android.widget.TextView) text metrics params} of the chips
+   * it will be set on. This can be called on a background thread.
+   */
+  @NonNull
+  public static MeasuredChipText create(
+      @NonNull CharSequence text, @NonNull PrecomputedTextCompat.Params params) {
+    PrecomputedTextCompat precomputedText = PrecomputedTextCompat.create(text, params);
+    // The paint of the params may be used by other threads, so the text is measured with a copy.
+    TextPaint textPaint = new TextPaint(params.getTextPaint());
+    return new MeasuredChipText(precomputedText, textPaint.measureText(text, 0, text.length()));
+  }
+
+  /**
+   * Returns a {@link Future} of the {@link #create(CharSequence, PrecomputedTextCompat.Params)
+   * measurement} of {@code text}, which runs on {@code executor}.
+   */
+  @NonNull
+  public static Future<MeasuredChipText> getMeasuredTextFuture(
+      @NonNull final CharSequence text,
+      @NonNull final PrecomputedTextCompat.Params params,
+      @NonNull Executor executor) {
+    FutureTask<MeasuredChipText> task =
+        new FutureTask<>(
+            new Callable<MeasuredChipText>() {
+              @Override
+              public MeasuredChipText call() {
+                return create(text, params);
+              }
+            });
+    executor.execute(task);
+    return task;
+  }
+
+  /** Returns the text, precomputed for the text metrics params it was measured with. */
+  @NonNull
+  public PrecomputedTextCompat getText() {
+    return text;
+  }
+
+  /** Returns the width of the text, in pixels. */
+  public float getTextWidth() {
+    return textWidth;
+  }
+}
@@ -19,22 +19,67 @@ package com.google.android.material.elevation;
 import com.google.android.material.R;
 
 import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
 import android.graphics.Color;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
 import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
 import com.google.android.material.color.MaterialColors;
 import com.google.android.material.resources.MaterialAttributes;
 import androidx.core.graphics.ColorUtils;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /** Utility for calculating elevation overlay alpha values and colors. */
 public class ElevationOverlayProvider {
 
   private static final float ELEVATION_OVERLAY_MULTIPLIER = 4.5f;
 
+  // How many of the last colors returned by layerOverlay() are remembered.
+  private static final int LAYERED_COLOR_MEMO_SIZE = 4;
+
+  private static final Map<Theme, SharedProvider> sharedProviders = new WeakHashMap<>();
+
   private final boolean elevationOverlaysEnabled;
   private final int elevationOverlaysColor;
   private final int colorSurface;
   private final float displayDensity;
 
+  // The last colors returned by layerOverlay(), which components of a theme tend to ask for again
+  // with the same few elevations. The memo is exact, since it only returns a color for the exact
+  // background color and elevation it was calculated with by the formula. Its entries are
+  // immutable, so that it can be used from any thread.
+  private final LayeredColor[] layeredColors = new LayeredColor[LAYERED_COLOR_MEMO_SIZE];
+  private int nextLayeredColor;
+
+  /**
+   * Returns an {@link ElevationOverlayProvider} for the theme of {@code context}, which is shared
+   * with the other components that use the same theme, so that they share its memo of colors.
+   * Below API 23, where a theme which had a style applied to it still equals its old self, a new
+   * provider is returned every time.
+   */
+  @NonNull
+  public static ElevationOverlayProvider getSharedProvider(@NonNull Context context) {
+    if (VERSION.SDK_INT < VERSION_CODES.M) {
+      return new ElevationOverlayProvider(context);
+    }
+
+    Theme theme = context.getTheme();
+    Resources resources = context.getResources();
+    synchronized (sharedProviders) {
+      SharedProvider sharedProvider = sharedProviders.get(theme);
+      if (sharedProvider == null || !sharedProvider.isValidFor(resources)) {
+        sharedProvider = new SharedProvider(resources, new ElevationOverlayProvider(context));
+        sharedProviders.put(theme, sharedProvider);
+      }
+      return sharedProvider.provider;
+    }
+  }
+
   public ElevationOverlayProvider(Context context) {
     this.elevationOverlaysEnabled =
         MaterialAttributes.resolveBooleanAttribute(context, R.attr.elevationOverlaysEnabled);
@@ -68,8 +113,20 @@ public class ElevationOverlayProvider {
    */
   @ColorInt
   public int layerOverlay(@ColorInt int backgroundColor, float elevation) {
+    for (LayeredColor layeredColor : layeredColors) {
+      if (layeredColor != null
+          && layeredColor.backgroundColor == backgroundColor
+          && layeredColor.elevation == elevation) {
+        return layeredColor.color;
+      }
+    }
+
     float overlayAlpha = calculateOverlayAlphaFraction(elevation);
-    return MaterialColors.layer(backgroundColor, elevationOverlaysColor, overlayAlpha);
+    int color = MaterialColors.layer(backgroundColor, elevationOverlaysColor, overlayAlpha);
+    int index = nextLayeredColor;
+    layeredColors[index] = new LayeredColor(backgroundColor, elevation, color);
+    nextLayeredColor = (index + 1) % LAYERED_COLOR_MEMO_SIZE;
+    return color;
   }
 
   /**
@@ -113,4 +170,41 @@ public class ElevationOverlayProvider {
   private boolean isSurfaceColor(@ColorInt int color) {
     return ColorUtils.setAlphaComponent(color, 255) == colorSurface;
   }
+
+  /** A color returned by layerOverlay(), with the background color and elevation it's for. */
+  private static final class LayeredColor {
+
+    final int backgroundColor;
+    final float elevation;
+    final int color;
+
+    LayeredColor(int backgroundColor, float elevation, int color) {
+      this.backgroundColor = backgroundColor;
+      this.elevation = elevation;
+      this.color = color;
+    }
+  }
+
+  /**
+   * A provider shared by the components of a theme, with the resources and the configuration it was
+   * created for.
+   */
+  private static final class SharedProvider {
+
+    // Themes which are equal on API 23 and up may still belong to different resources.
+    final WeakReference<Resources> resources;
+    final Configuration configuration;
+    final ElevationOverlayProvider provider;
+
+    SharedProvider(Resources resources, ElevationOverlayProvider provider) {
+      this.resources = new WeakReference<>(resources);
+      this.configuration = new Configuration(resources.getConfiguration());
+      this.provider = provider;
+    }
+
+    boolean isValidFor(Resources resources) {
+      return this.resources.get() == resources
+          && configuration.equals(resources.getConfiguration());
+    }
+  }
 }
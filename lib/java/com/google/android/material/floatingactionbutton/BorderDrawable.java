@@ -129,7 +129,7 @@ class BorderDrawable extends Drawable {
 
     // We need to inset the oval bounds by half the border width. This is because stroke draws
     // the center of the border on the dimension. Whereas we want the stroke on the inside.
-    float cornerSize = shapeAppearanceModel.getTopLeftCorner().getCornerSize();
+    float cornerSize = shapeAppearanceModel.getTopLeftCornerSize();
     float radius = Math.min(cornerSize, rectF.width() / 2f);
     if (shapeAppearanceModel.isRoundRect()) {
       rectF.inset(halfBorderWidth, halfBorderWidth);
@@ -141,7 +141,7 @@ class BorderDrawable extends Drawable {
   @Override
   public void getOutline(@NonNull Outline outline) {
     if (shapeAppearanceModel.isRoundRect()) {
-      float radius = shapeAppearanceModel.getTopLeftCorner().getCornerSize();
+      float radius = shapeAppearanceModel.getTopLeftCornerSize();
       outline.setRoundRect(getBounds(), radius);
       return;
     }
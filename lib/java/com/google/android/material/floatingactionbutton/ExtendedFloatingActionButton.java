@@ -22,6 +22,7 @@ import android.animation.Animator;
 import android.animation.Animator.AnimatorListener;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
 import android.content.Context;
 import android.content.res.TypedArray;
@@ -50,6 +51,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewGroup.LayoutParams;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -74,6 +76,12 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
   private static final int ANIM_STATE_HIDING = 1;
   private static final int ANIM_STATE_SHOWING = 2;
 
+  private static final int ANIMATION_SHOW = 0;
+  private static final int ANIMATION_HIDE = 1;
+  private static final int ANIMATION_EXTEND = 2;
+  private static final int ANIMATION_SHRINK = 3;
+  private static final int ANIMATION_COUNT = 4;
+
   private final Rect shadowPadding = new Rect();
   private int animState = ANIM_STATE_NONE;
   @Nullable private Animator currentShowHideAnimator;
@@ -88,6 +96,12 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
   @Nullable private MotionSpec defaultExtendMotionSpec;
   @Nullable private MotionSpec defaultShrinkMotionSpec;
 
+  private boolean animatorReuseEnabled;
+  // The animations kept while animator reuse is enabled, and the motion specs they were created
+  // for, indexed by ANIMATION_SHOW, ANIMATION_HIDE, ANIMATION_EXTEND and ANIMATION_SHRINK.
+  private final AnimatorSet[] reusableAnimators = new AnimatorSet[ANIMATION_COUNT];
+  private final MotionSpec[] reusableAnimatorSpecs = new MotionSpec[ANIMATION_COUNT];
+
   private final Behavior<ExtendedFloatingActionButton> behavior;
   private int userSetVisibility;
   @Nullable private ArrayList<AnimatorListener> showListeners;
@@ -323,7 +337,7 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
     }
 
     if (animate && shouldAnimateVisibilityChange()) {
-      Animator hideAnimation = createAnimator(getCurrentHideMotionSpec());
+      Animator hideAnimation = obtainAnimator(ANIMATION_HIDE, getCurrentHideMotionSpec());
       hideAnimation.addListener(
           new AnimatorListenerAdapter() {
             private boolean cancelled;
@@ -411,7 +425,7 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
     }
 
     if (animate && shouldAnimateVisibilityChange()) {
-      Animator showAnimation = createAnimator(getCurrentShowMotionSpec());
+      Animator showAnimation = obtainAnimator(ANIMATION_SHOW, getCurrentShowMotionSpec());
       showAnimation.addListener(
           new AnimatorListenerAdapter() {
             @Override
@@ -615,6 +629,26 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
     setShrinkMotionSpec(MotionSpec.createFromResource(getContext(), id));
   }
 
+  /** Returns whether the show, hide, extend and shrink animations reuse their animators. */
+  public boolean isAnimatorReuseEnabled() {
+    return animatorReuseEnabled;
+  }
+
+  /**
+   * Sets whether the show, hide, extend and shrink animations reuse their animators. When enabled,
+   * the animators of each animation are created once per motion spec and rebound to the current
+   * size of the button when they are played again, so the same {@link Animator} is passed to the
+   * animation listeners every time. Motion specs must not be modified after they are set while
+   * animator reuse is enabled. Disabled by default.
+   */
+  public void setAnimatorReuseEnabled(boolean enabled) {
+    animatorReuseEnabled = enabled;
+    if (!enabled) {
+      Arrays.fill(reusableAnimators, null);
+      Arrays.fill(reusableAnimatorSpecs, null);
+    }
+  }
+
   /**
    * Sets the extended state of this FAB. When {@code true}, the FAB will show the icon and the
    * text, and when {@code false}, it will show just the icon.
@@ -697,6 +731,27 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
     }
   }
 
+  /**
+   * Returns the animator for the given {@code animation}, which is created for {@code spec} or, if
+   * animator reuse is enabled, reused from the previous time the animation was played with the
+   * same motion spec.
+   */
+  private AnimatorSet obtainAnimator(int animation, @NonNull MotionSpec spec) {
+    if (!animatorReuseEnabled) {
+      return createAnimator(spec);
+    }
+
+    AnimatorSet set = reusableAnimators[animation];
+    if (set == null || reusableAnimatorSpecs[animation] != spec) {
+      set = createAnimator(spec);
+      reusableAnimators[animation] = set;
+      reusableAnimatorSpecs[animation] = spec;
+    } else {
+      set.removeAllListeners();
+    }
+    return set;
+  }
+
   private AnimatorSet createAnimator(@NonNull MotionSpec spec) {
     List<Animator> animators = new ArrayList<>();
 
@@ -732,40 +787,55 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
    */
   private AnimatorSet createShrinkExtendAnimator(@NonNull MotionSpec spec, boolean shrinking) {
     int collapsedSize = ViewCompat.getPaddingStart(this) * 2 + getIconSize();
-
-    if (spec.hasPropertyValues("width")) {
-      PropertyValuesHolder[] widthValues = spec.getPropertyValues("width");
-      if (shrinking) {
-        widthValues[0].setFloatValues(getMeasuredWidth(), collapsedSize);
-      } else {
-        widthValues[0].setFloatValues(getWidth(), getMeasuredWidth());
-      }
-      spec.setPropertyValues("width", widthValues);
-    }
-
-    if (spec.hasPropertyValues("height")) {
-      PropertyValuesHolder[] heightValues = spec.getPropertyValues("height");
-      if (shrinking) {
-        heightValues[0].setFloatValues(getMeasuredHeight(), collapsedSize);
-      } else {
-        heightValues[0].setFloatValues(getHeight(), getMeasuredHeight());
-      }
-      spec.setPropertyValues("height", heightValues);
+    float[] widthValues;
+    float[] heightValues;
+    float[] cornerRadiusValues;
+    if (shrinking) {
+      widthValues = new float[] {getMeasuredWidth(), collapsedSize};
+      heightValues = new float[] {getMeasuredHeight(), collapsedSize};
+      cornerRadiusValues = new float[] {getCornerRadius(), getAdjustedRadius(collapsedSize)};
+    } else {
+      widthValues = new float[] {getWidth(), getMeasuredWidth()};
+      heightValues = new float[] {getHeight(), getMeasuredHeight()};
+      cornerRadiusValues = new float[] {getCornerRadius(), getAdjustedRadius(getHeight())};
     }
 
-    if (spec.hasPropertyValues("cornerRadius")) {
-      PropertyValuesHolder[] cornerRadiusValues = spec.getPropertyValues("cornerRadius");
-      if (shrinking) {
-        cornerRadiusValues[0].setFloatValues(getCornerRadius(), getAdjustedRadius(collapsedSize));
-      } else {
-        cornerRadiusValues[0].setFloatValues(getCornerRadius(), getAdjustedRadius(getHeight()));
+    if (animatorReuseEnabled) {
+      // Rebinds the animators to the current size instead of modifying the motion spec, which
+      // would make the animation be created again.
+      AnimatorSet set = obtainAnimator(shrinking ? ANIMATION_SHRINK : ANIMATION_EXTEND, spec);
+      List<Animator> animators = set.getChildAnimations();
+      for (int i = 0, count = animators.size(); i < count; i++) {
+        Animator animator = animators.get(i);
+        if (animator instanceof ObjectAnimator) {
+          ObjectAnimator objectAnimator = (ObjectAnimator) animator;
+          String propertyName = objectAnimator.getPropertyName();
+          if (WIDTH.getName().equals(propertyName)) {
+            objectAnimator.setFloatValues(widthValues);
+          } else if (HEIGHT.getName().equals(propertyName)) {
+            objectAnimator.setFloatValues(heightValues);
+          } else if (CORNER_RADIUS.getName().equals(propertyName)) {
+            objectAnimator.setFloatValues(cornerRadiusValues);
+          }
+        }
       }
-      spec.setPropertyValues("cornerRadius", cornerRadiusValues);
+      return set;
     }
 
+    setFloatValues(spec, "width", widthValues);
+    setFloatValues(spec, "height", heightValues);
+    setFloatValues(spec, "cornerRadius", cornerRadiusValues);
     return createAnimator(spec);
   }
 
+  private static void setFloatValues(@NonNull MotionSpec spec, String name, float[] values) {
+    if (spec.hasPropertyValues(name)) {
+      PropertyValuesHolder[] propertyValues = spec.getPropertyValues(name);
+      propertyValues[0].setFloatValues(values);
+      spec.setPropertyValues(name, propertyValues);
+    }
+  }
+
   private boolean isOrWillBeShown() {
     if (getVisibility() != View.VISIBLE) {
       // If we're not currently visible, return true if we're animating to be shown
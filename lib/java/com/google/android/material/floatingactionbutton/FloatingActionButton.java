@@ -1325,6 +1325,21 @@ public class FloatingActionButton extends VisibilityAwareImageButton
     setHideMotionSpec(MotionSpec.createFromResource(getContext(), id));
   }
 
+  /** Returns whether the show and hide animations reuse their animators. */
+  public boolean isAnimatorReuseEnabled() {
+    return getImpl().isAnimatorReuseEnabled();
+  }
+
+  /**
+   * Sets whether the show and hide animations reuse their animators. When enabled, the animators
+   * are created once and rebound to the motion spec and end values of each show or hide, instead
+   * of being created again, so the same {@link android.animation.Animator} is passed to the
+   * animation listeners of every show and hide. Disabled by default.
+   */
+  public void setAnimatorReuseEnabled(boolean enabled) {
+    getImpl().setAnimatorReuseEnabled(enabled);
+  }
+
   /**
    * Add a {@link TransformationListener} which can watch for changes to this view.
    */
@@ -97,6 +97,13 @@ class FloatingActionButtonImpl {
   @Nullable private MotionSpec showMotionSpec;
   @Nullable private MotionSpec hideMotionSpec;
 
+  private boolean animatorReuseEnabled;
+  // The show and hide animation kept while animator reuse is enabled, and its animators.
+  @Nullable private AnimatorSet reusableAnimator;
+  @Nullable private List<Animator> reusableAnimators;
+  // The end value of the icon scale animator of the reusable animation, updated in place.
+  private final Matrix reusableIconMatrix = new Matrix();
+
   private float rotation;
   private float imageMatrixScale = 1f;
   private int maxImageSize;
@@ -302,7 +309,7 @@ class FloatingActionButtonImpl {
 
   final void setShapeAppearance(ShapeAppearanceModel shapeAppearance, boolean usingDefaultCorner) {
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2);
+      shapeAppearance = applyDefaultCornerRadius(shapeAppearance);
     }
 
     this.shapeAppearance = shapeAppearance;
@@ -325,6 +332,20 @@ class FloatingActionButtonImpl {
     return shapeAppearance;
   }
 
+  /**
+   * Rounds the corners of {@code shapeAppearance} to half the size of the button, and returns the
+   * result. An immutable model may be shared with other views, so a rounded copy of it is returned
+   * instead of modifying it.
+   */
+  final ShapeAppearanceModel applyDefaultCornerRadius(ShapeAppearanceModel shapeAppearance) {
+    float cornerRadius = view.getSizeDimension() / 2f;
+    if (shapeAppearance.isImmutable()) {
+      return shapeAppearance.toBuilder().setCornerRadius(cornerRadius).build();
+    }
+    shapeAppearance.setCornerRadius(cornerRadius);
+    return shapeAppearance;
+  }
+
   @Nullable
   final MotionSpec getShowMotionSpec() {
     return showMotionSpec;
@@ -343,6 +364,18 @@ class FloatingActionButtonImpl {
     hideMotionSpec = spec;
   }
 
+  final boolean isAnimatorReuseEnabled() {
+    return animatorReuseEnabled;
+  }
+
+  final void setAnimatorReuseEnabled(boolean enabled) {
+    animatorReuseEnabled = enabled;
+    if (!enabled) {
+      reusableAnimator = null;
+      reusableAnimators = null;
+    }
+  }
+
   final boolean shouldExpandBoundsForA11y() {
     return !ensureMinTouchTargetSize || view.getSizeDimension() >= minTouchTargetSize;
   }
@@ -554,6 +587,10 @@ class FloatingActionButtonImpl {
   @NonNull
   private AnimatorSet createAnimator(
       @NonNull MotionSpec spec, float opacity, float scale, float iconScale) {
+    if (reusableAnimator != null) {
+      return rebindAnimator(reusableAnimator, spec, opacity, scale, iconScale);
+    }
+
     List<Animator> animators = new ArrayList<>();
     Animator animator;
 
@@ -569,7 +606,8 @@ class FloatingActionButtonImpl {
     spec.getTiming("scale").apply(animator);
     animators.add(animator);
 
-    calculateImageMatrixFromScale(iconScale, tmpMatrix);
+    Matrix iconMatrix = animatorReuseEnabled ? reusableIconMatrix : new Matrix();
+    calculateImageMatrixFromScale(iconScale, iconMatrix);
     animator =
         ObjectAnimator.ofObject(
             view,
@@ -583,12 +621,63 @@ class FloatingActionButtonImpl {
                 return super.evaluate(fraction, startValue, endValue);
               }
             },
-            new Matrix(tmpMatrix));
+            iconMatrix);
     spec.getTiming("iconScale").apply(animator);
     animators.add(animator);
 
     AnimatorSet set = new AnimatorSet();
     AnimatorSetCompat.playTogether(set, animators);
+    if (animatorReuseEnabled) {
+      reusableAnimator = set;
+      reusableAnimators = animators;
+    }
+    return set;
+  }
+
+  /**
+   * Rebinds the animators of {@code set}, the reusable show and hide animation, to the timings of
+   * {@code spec} and to the given end values, so that it can be played again instead of creating
+   * new animators. The show and hide animations animate the same properties and never run at the
+   * same time, so they share a single animation.
+   */
+  @NonNull
+  private AnimatorSet rebindAnimator(
+      @NonNull AnimatorSet set,
+      @NonNull MotionSpec spec,
+      float opacity,
+      float scale,
+      float iconScale) {
+    // The animators are in the order createAnimator() added them in, after the animator which
+    // AnimatorSetCompat added to work around the start delays of pre-M animator sets.
+    List<Animator> animators = checkNotNull(reusableAnimators);
+    ObjectAnimator animator;
+
+    animator = (ObjectAnimator) animators.get(1);
+    animator.setFloatValues(opacity);
+    spec.getTiming("opacity").apply(animator);
+
+    animator = (ObjectAnimator) animators.get(2);
+    animator.setFloatValues(scale);
+    spec.getTiming("scale").apply(animator);
+
+    animator = (ObjectAnimator) animators.get(3);
+    animator.setFloatValues(scale);
+    spec.getTiming("scale").apply(animator);
+
+    // The previous animation was canceled or has ended, so its end value can be updated in place.
+    calculateImageMatrixFromScale(iconScale, reusableIconMatrix);
+    animator = (ObjectAnimator) animators.get(4);
+    animator.setObjectValues(reusableIconMatrix);
+    spec.getTiming("iconScale").apply(animator);
+
+    long totalDuration = 0;
+    for (int i = 1, count = animators.size(); i < count; i++) {
+      Animator child = animators.get(i);
+      totalDuration = Math.max(totalDuration, child.getStartDelay() + child.getDuration());
+    }
+    animators.get(0).setDuration(totalDuration);
+
+    set.removeAllListeners();
     return set;
   }
 
@@ -640,7 +729,11 @@ class FloatingActionButtonImpl {
     }
 
     ShapeAppearanceModel shapeAppearanceModel = shapeDrawable.getShapeAppearanceModel();
-    shapeAppearanceModel.setCornerRadius(view.getSizeDimension() / 2f);
+    ShapeAppearanceModel resizedShapeAppearance = applyDefaultCornerRadius(shapeAppearanceModel);
+    if (resizedShapeAppearance != shapeAppearanceModel) {
+      // The drawables don't see the copy of an immutable model until it is set on them.
+      setShapeAppearance(resizedShapeAppearance, true);
+    }
   }
 
   final void updatePadding() {
@@ -719,7 +812,8 @@ class FloatingActionButtonImpl {
   MaterialShapeDrawable createShapeDrawable() {
     ShapeAppearanceModel shapeAppearance = checkNotNull(this.shapeAppearance);
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2f);
+      shapeAppearance = applyDefaultCornerRadius(shapeAppearance);
+      this.shapeAppearance = shapeAppearance;
     }
     return new MaterialShapeDrawable(shapeAppearance);
   }
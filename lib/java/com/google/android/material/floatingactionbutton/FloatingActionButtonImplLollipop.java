@@ -229,7 +229,8 @@ class FloatingActionButtonImplLollipop extends FloatingActionButtonImpl {
   MaterialShapeDrawable createShapeDrawable() {
     ShapeAppearanceModel shapeAppearance = checkNotNull(this.shapeAppearance);
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2f);
+      shapeAppearance = applyDefaultCornerRadius(shapeAppearance);
+      this.shapeAppearance = shapeAppearance;
     }
     return new AlwaysStatefulMaterialShapeDrawable(shapeAppearance);
   }
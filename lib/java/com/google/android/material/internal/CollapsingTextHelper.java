@@ -31,14 +31,18 @@ import android.os.Build;
 import androidx.annotation.ColorInt;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
 import com.google.android.material.animation.AnimationUtils;
 import com.google.android.material.resources.CancelableFontCallback;
 import com.google.android.material.resources.CancelableFontCallback.ApplyFont;
 import com.google.android.material.resources.TextAppearance;
+import com.google.android.material.resources.TextAppearanceCache;
 import androidx.core.math.MathUtils;
 import androidx.core.text.TextDirectionHeuristicsCompat;
 import androidx.core.view.GravityCompat;
 import androidx.core.view.ViewCompat;
+import android.text.Layout;
+import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.text.TextUtils;
 import android.view.Gravity;
@@ -94,8 +98,24 @@ public final class CollapsingTextHelper {
   private CharSequence textToDraw;
   private boolean isRtl;
 
+  // The text ellipsized for each state, which is reused across animation frames.
+  private final DrawText collapsedDrawText = new DrawText();
+  private final DrawText expandedDrawText = new DrawText();
+  private int textLayoutCount;
+
+  private int expandedMaxLines = 1;
+
+  private boolean interpolationTableEnabled;
+  @Nullable private InterpolationTable interpolationTable;
+  // The multi-line layout of the state being drawn, or null if it fits on one line.
+  @Nullable private StaticLayout currentLayout;
+  private int currentLayoutLineCount;
+
   private boolean useTexture;
   private Bitmap expandedTitleTexture;
+  private Canvas expandedTitleTextureCanvas;
+  private boolean expandedTitleTextureValid;
+  private int textureCreateCount;
   private Paint texturePaint;
   private float textureAscent;
   private float textureDescent;
@@ -105,10 +125,9 @@ public final class CollapsingTextHelper {
 
   private int[] state;
 
-  private boolean boundsChanged;
-
   private final TextPaint textPaint;
   private final TextPaint tmpPaint;
+  private final TextPaint layoutPaint;
 
   private TimeInterpolator positionInterpolator;
   private TimeInterpolator textSizeInterpolator;
@@ -128,6 +147,7 @@ public final class CollapsingTextHelper {
 
     textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.SUBPIXEL_TEXT_FLAG);
     tmpPaint = new TextPaint(textPaint);
+    layoutPaint = new TextPaint(textPaint);
 
     collapsedBounds = new Rect();
     expandedBounds = new Rect();
@@ -151,6 +171,23 @@ public final class CollapsingTextHelper {
     }
   }
 
+  /**
+   * Sets the maximum number of lines of the expanded text. Titles which don't fit on these lines
+   * are ellipsized on API 23 and up, and cut off after the last line on lower API levels. As the
+   * text collapses, its lines crossfade to the single line of the collapsed text.
+   */
+  public void setExpandedMaxLines(int maxLines) {
+    if (expandedMaxLines != maxLines) {
+      expandedMaxLines = maxLines;
+      clearTexture();
+      recalculate();
+    }
+  }
+
+  public int getExpandedMaxLines() {
+    return expandedMaxLines;
+  }
+
   public void setCollapsedTextSize(float textSize) {
     if (collapsedTextSize != textSize) {
       collapsedTextSize = textSize;
@@ -175,7 +212,6 @@ public final class CollapsingTextHelper {
   public void setExpandedBounds(int left, int top, int right, int bottom) {
     if (!rectEquals(expandedBounds, left, top, right, bottom)) {
       expandedBounds.set(left, top, right, bottom);
-      boundsChanged = true;
       onBoundsChanged();
     }
   }
@@ -187,7 +223,6 @@ public final class CollapsingTextHelper {
   public void setCollapsedBounds(int left, int top, int right, int bottom) {
     if (!rectEquals(collapsedBounds, left, top, right, bottom)) {
       collapsedBounds.set(left, top, right, bottom);
-      boundsChanged = true;
       onBoundsChanged();
     }
   }
@@ -267,7 +302,8 @@ public final class CollapsingTextHelper {
   }
 
   public void setCollapsedTextAppearance(int resId) {
-    TextAppearance textAppearance = new TextAppearance(view.getContext(), resId);
+    TextAppearance textAppearance =
+        TextAppearanceCache.getTextAppearance(view.getContext(), resId);
 
     if (textAppearance.textColor != null) {
       collapsedTextColor = textAppearance.textColor;
@@ -301,7 +337,8 @@ public final class CollapsingTextHelper {
   }
 
   public void setExpandedTextAppearance(int resId) {
-    TextAppearance textAppearance = new TextAppearance(view.getContext(), resId);
+    TextAppearance textAppearance =
+        TextAppearanceCache.getTextAppearance(view.getContext(), resId);
     if (textAppearance.textColor != null) {
       expandedTextColor = textAppearance.textColor;
     }
@@ -438,6 +475,11 @@ public final class CollapsingTextHelper {
   }
 
   private void calculateOffsets(final float fraction) {
+    if (interpolationTableEnabled) {
+      calculateOffsetsFromTable(fraction);
+      return;
+    }
+
     interpolateBounds(fraction);
     currentDrawX = lerp(expandedDrawX, collapsedDrawX, fraction, positionInterpolator);
     currentDrawY = lerp(expandedDrawY, collapsedDrawY, fraction, positionInterpolator);
@@ -464,6 +506,54 @@ public final class CollapsingTextHelper {
     ViewCompat.postInvalidateOnAnimation(view);
   }
 
+  /**
+   * Sets whether the positions, text size, colors and shadow of the text are looked up in a table
+   * sampled over the expansion fraction, instead of being interpolated on every frame. The table is
+   * only rebuilt when the text is recalculated, which makes each frame cheaper on slow devices.
+   */
+  public void setInterpolationTableEnabled(boolean enabled) {
+    if (interpolationTableEnabled != enabled) {
+      interpolationTableEnabled = enabled;
+      interpolationTable = enabled ? new InterpolationTable() : null;
+      calculateCurrentOffsets();
+    }
+  }
+
+  public boolean isInterpolationTableEnabled() {
+    return interpolationTableEnabled;
+  }
+
+  private void calculateOffsetsFromTable(float fraction) {
+    final InterpolationTable table = interpolationTable;
+    if (!table.valid) {
+      table.build();
+    }
+
+    // Linearly interpolate between the two closest samples, and take the colors of the closest.
+    final float position = fraction * InterpolationTable.SAMPLES;
+    int sample = Math.min((int) position, InterpolationTable.SAMPLES - 1);
+    final float sampleFraction = position - sample;
+    final int closestSample = sampleFraction < 0.5f ? sample : sample + 1;
+
+    currentBounds.left = table.get(sample, sampleFraction, InterpolationTable.BOUNDS_LEFT);
+    currentBounds.top = table.get(sample, sampleFraction, InterpolationTable.DRAW_Y);
+    currentBounds.right = table.get(sample, sampleFraction, InterpolationTable.BOUNDS_RIGHT);
+    currentBounds.bottom = table.get(sample, sampleFraction, InterpolationTable.BOUNDS_BOTTOM);
+    currentDrawX = table.get(sample, sampleFraction, InterpolationTable.DRAW_X);
+    currentDrawY = currentBounds.top;
+
+    setInterpolatedTextSize(table.get(sample, sampleFraction, InterpolationTable.TEXT_SIZE));
+
+    textPaint.setColor(table.textColors[closestSample]);
+    textPaint.setShadowLayer(
+        table.get(sample, sampleFraction, InterpolationTable.SHADOW_RADIUS),
+        table.get(sample, sampleFraction, InterpolationTable.SHADOW_DX),
+        table.get(sample, sampleFraction, InterpolationTable.SHADOW_DY),
+        table.shadowColors[closestSample]);
+
+    ViewCompat.postInvalidateOnAnimation(view);
+  }
+
   @ColorInt
   private int getCurrentExpandedTextColor() {
     return getCurrentColor(expandedTextColor);
@@ -490,8 +580,7 @@ public final class CollapsingTextHelper {
 
     // We then calculate the collapsed text size, using the same logic
     calculateUsingTextSize(collapsedTextSize);
-    float width =
-        textToDraw != null ? textPaint.measureText(textToDraw, 0, textToDraw.length()) : 0;
+    float width = textToDraw != null ? collapsedDrawText.width : 0;
     final int collapsedAbsGravity =
         GravityCompat.getAbsoluteGravity(
             collapsedTextGravity,
@@ -524,24 +613,49 @@ public final class CollapsingTextHelper {
     }
 
     calculateUsingTextSize(expandedTextSize);
-    width = textToDraw != null ? textPaint.measureText(textToDraw, 0, textToDraw.length()) : 0;
+    final StaticLayout expandedLayout = textToDraw != null ? currentLayout : null;
+    if (expandedLayout != null) {
+      width = expandedLayout.getWidth();
+    } else {
+      width = textToDraw != null ? expandedDrawText.width : 0;
+    }
     final int expandedAbsGravity =
         GravityCompat.getAbsoluteGravity(
             expandedTextGravity,
             isRtl ? ViewCompat.LAYOUT_DIRECTION_RTL : ViewCompat.LAYOUT_DIRECTION_LTR);
-    switch (expandedAbsGravity & Gravity.VERTICAL_GRAVITY_MASK) {
-      case Gravity.BOTTOM:
-        expandedDrawY = expandedBounds.bottom;
-        break;
-      case Gravity.TOP:
-        expandedDrawY = expandedBounds.top - textPaint.ascent();
-        break;
-      case Gravity.CENTER_VERTICAL:
-      default:
-        float textHeight = textPaint.descent() - textPaint.ascent();
-        float textOffset = (textHeight / 2) - textPaint.descent();
-        expandedDrawY = expandedBounds.centerY() + textOffset;
-        break;
+    if (expandedLayout != null) {
+      // The draw position is the baseline of the first line, which the lines are drawn from.
+      final int lastLine = currentLayoutLineCount - 1;
+      final float firstBaseline = expandedLayout.getLineBaseline(0);
+      switch (expandedAbsGravity & Gravity.VERTICAL_GRAVITY_MASK) {
+        case Gravity.BOTTOM:
+          expandedDrawY =
+              expandedBounds.bottom - (expandedLayout.getLineBaseline(lastLine) - firstBaseline);
+          break;
+        case Gravity.TOP:
+          expandedDrawY = expandedBounds.top + firstBaseline;
+          break;
+        case Gravity.CENTER_VERTICAL:
+        default:
+          float layoutHeight = expandedLayout.getLineBottom(lastLine);
+          expandedDrawY = expandedBounds.centerY() - layoutHeight / 2 + firstBaseline;
+          break;
+      }
+    } else {
+      switch (expandedAbsGravity & Gravity.VERTICAL_GRAVITY_MASK) {
+        case Gravity.BOTTOM:
+          expandedDrawY = expandedBounds.bottom;
+          break;
+        case Gravity.TOP:
+          expandedDrawY = expandedBounds.top - textPaint.ascent();
+          break;
+        case Gravity.CENTER_VERTICAL:
+        default:
+          float textHeight = textPaint.descent() - textPaint.ascent();
+          float textOffset = (textHeight / 2) - textPaint.descent();
+          expandedDrawY = expandedBounds.centerY() + textOffset;
+          break;
+      }
     }
     switch (expandedAbsGravity & GravityCompat.RELATIVE_HORIZONTAL_GRAVITY_MASK) {
       case Gravity.CENTER_HORIZONTAL:
@@ -579,7 +693,7 @@ public final class CollapsingTextHelper {
       float x = currentDrawX;
       float y = currentDrawY;
 
-      final boolean drawTexture = useTexture && expandedTitleTexture != null;
+      final boolean drawTexture = useTexture && expandedTitleTextureValid;
 
       final float ascent;
       final float descent;
@@ -608,6 +722,8 @@ public final class CollapsingTextHelper {
       if (drawTexture) {
         // If we should use a texture, draw it instead of text
         canvas.drawBitmap(expandedTitleTexture, x, y, texturePaint);
+      } else if (currentLayout != null) {
+        drawLayoutCrossfade(canvas, currentLayout, x, y);
       } else {
         canvas.drawText(textToDraw, 0, textToDraw.length(), x, y, textPaint);
       }
@@ -616,6 +732,33 @@ public final class CollapsingTextHelper {
     canvas.restoreToCount(saveCount);
   }
 
+  /**
+   * Draws the lines of the expanded text, with its first baseline at {@code y}, crossfaded with the
+   * single line of text which the collapsed text is animated from.
+   */
+  private void drawLayoutCrossfade(Canvas canvas, StaticLayout layout, float x, float y) {
+    final int alpha = textPaint.getAlpha();
+
+    layoutPaint.set(textPaint);
+    layoutPaint.setAlpha(Math.round(alpha * (1f - expandedFraction)));
+    drawLayout(canvas, layout, x, y - layout.getLineBaseline(0));
+
+    textPaint.setAlpha(Math.round(alpha * expandedFraction));
+    canvas.drawText(
+        textToDraw, 0, textToDraw.length(), x + layout.getLineLeft(0), y, textPaint);
+    textPaint.setAlpha(alpha);
+  }
+
+  /** Draws the visible lines of {@code layout} with its top left corner at {@code x, y}. */
+  private void drawLayout(Canvas canvas, StaticLayout layout, float x, float y) {
+    final int saveCount = canvas.save();
+    canvas.translate(x, y);
+    // Before API 23 the layout can have more lines than the maximum, which are cut off.
+    canvas.clipRect(0, 0, layout.getWidth(), layout.getLineBottom(currentLayoutLineCount - 1));
+    layout.draw(canvas);
+    canvas.restoreToCount(saveCount);
+  }
+
   private boolean calculateIsRtl(CharSequence text) {
     final boolean defaultIsRtl =
         ViewCompat.getLayoutDirection(view) == ViewCompat.LAYOUT_DIRECTION_RTL;
@@ -628,8 +771,9 @@ public final class CollapsingTextHelper {
   private void setInterpolatedTextSize(float textSize) {
     calculateUsingTextSize(textSize);
 
-    // Use our texture if the scale isn't 1.0
-    useTexture = USE_SCALING_TEXTURE && scale != 1f;
+    // Use our texture if the scale isn't 1.0. Multi-line text is drawn directly, since its lines
+    // crossfade to the single line of text while it's scaled.
+    useTexture = USE_SCALING_TEXTURE && scale != 1f && currentLayout == null;
 
     if (useTexture) {
       // Make sure we have an expanded texture if needed
@@ -645,27 +789,24 @@ public final class CollapsingTextHelper {
       return;
     }
 
-    final float collapsedWidth = collapsedBounds.width();
-    final float expandedWidth = expandedBounds.width();
-
-    final float availableWidth;
     final float newTextSize;
-    boolean updateDrawText = false;
+    final Typeface newTypeface;
+    final DrawText drawText;
 
     if (isClose(textSize, collapsedTextSize)) {
       newTextSize = collapsedTextSize;
+      newTypeface = collapsedTypeface;
       scale = 1f;
-      if (currentTypeface != collapsedTypeface) {
-        currentTypeface = collapsedTypeface;
-        updateDrawText = true;
-      }
-      availableWidth = collapsedWidth;
+      drawText =
+          updateDrawText(
+              collapsedDrawText,
+              collapsedTextSize,
+              collapsedTypeface,
+              collapsedBounds.width(),
+              /* maxLines= */ 1);
     } else {
       newTextSize = expandedTextSize;
-      if (currentTypeface != expandedTypeface) {
-        currentTypeface = expandedTypeface;
-        updateDrawText = true;
-      }
+      newTypeface = expandedTypeface;
       if (isClose(textSize, expandedTextSize)) {
         // If we're close to the expanded text size, snap to it and use a scale of 1
         scale = 1f;
@@ -673,54 +814,169 @@ public final class CollapsingTextHelper {
         // Else, we'll scale down from the expanded text size
         scale = textSize / expandedTextSize;
       }
+      drawText =
+          updateDrawText(
+              expandedDrawText,
+              expandedTextSize,
+              expandedTypeface,
+              calculateExpandedAvailableWidth(),
+              expandedMaxLines);
+    }
 
-      final float textSizeRatio = collapsedTextSize / expandedTextSize;
-      // This is the size of the expanded bounds when it is scaled to match the
-      // collapsed text size
-      final float scaledDownWidth = expandedWidth * textSizeRatio;
+    // Use linear text scaling if we're scaling the canvas
+    final boolean linearText = scale != 1f;
+    if (currentTextSize != newTextSize
+        || currentTypeface != newTypeface
+        || textPaint.isLinearText() != linearText) {
+      currentTextSize = newTextSize;
+      currentTypeface = newTypeface;
+      textPaint.setTextSize(currentTextSize);
+      textPaint.setTypeface(currentTypeface);
+      textPaint.setLinearText(linearText);
+    }
 
-      if (scaledDownWidth > collapsedWidth) {
-        // If the scaled down size is larger than the actual collapsed width, we need to
-        // cap the available width so that when the expanded text scales down, it matches
-        // the collapsed width
-        availableWidth = Math.min(collapsedWidth / textSizeRatio, expandedWidth);
-      } else {
-        // Otherwise we'll just use the expanded width
-        availableWidth = expandedWidth;
-      }
+    textToDraw = drawText.text;
+    isRtl = drawText.isRtl;
+    currentLayout = drawText.layout;
+    currentLayoutLineCount = drawText.layoutLineCount;
+  }
+
+  private float calculateExpandedAvailableWidth() {
+    final float collapsedWidth = collapsedBounds.width();
+    final float expandedWidth = expandedBounds.width();
+    final float textSizeRatio = collapsedTextSize / expandedTextSize;
+    // This is the size of the expanded bounds when it is scaled to match the
+    // collapsed text size
+    final float scaledDownWidth = expandedWidth * textSizeRatio;
+
+    if (scaledDownWidth > collapsedWidth) {
+      // If the scaled down size is larger than the actual collapsed width, we need to
+      // cap the available width so that when the expanded text scales down, it matches
+      // the collapsed width
+      return Math.min(collapsedWidth / textSizeRatio, expandedWidth);
+    } else {
+      // Otherwise we'll just use the expanded width
+      return expandedWidth;
     }
+  }
 
-    if (availableWidth > 0) {
-      updateDrawText = (currentTextSize != newTextSize) || boundsChanged || updateDrawText;
-      currentTextSize = newTextSize;
-      boundsChanged = false;
+  /**
+   * Ellipsizes and measures the text for a state into {@code drawText}, and lays it out on up to
+   * {@code maxLines} lines, unless it has already been done with the same text, size, typeface,
+   * width, gravity and layout direction, which is the case on every frame of the collapsing
+   * animation.
+   */
+  @SuppressWarnings("ReferenceEquality") // Matches the Typeface comparison in TextView
+  private DrawText updateDrawText(
+      DrawText drawText, float textSize, Typeface typeface, float availableWidth, int maxLines) {
+    final int layoutDirection = ViewCompat.getLayoutDirection(view);
+    if (drawText.sourceText == text
+        && drawText.textSize == textSize
+        && drawText.typeface == typeface
+        && drawText.availableWidth == availableWidth
+        && drawText.layoutDirection == layoutDirection
+        && drawText.maxLines == maxLines
+        && drawText.gravity == expandedTextGravity) {
+      return drawText;
     }
 
-    if (textToDraw == null || updateDrawText) {
-      textPaint.setTextSize(currentTextSize);
-      textPaint.setTypeface(currentTypeface);
-      // Use linear text scaling if we're scaling the canvas
-      textPaint.setLinearText(scale != 1f);
-
-      // If we don't currently have text to draw, or the text size has changed, ellipsize...
-      final CharSequence title =
-          TextUtils.ellipsize(text, textPaint, availableWidth, TextUtils.TruncateAt.END);
-      if (!TextUtils.equals(title, textToDraw)) {
-        textToDraw = title;
-        isRtl = calculateIsRtl(textToDraw);
+    tmpPaint.setTextSize(textSize);
+    tmpPaint.setTypeface(typeface);
+    drawText.text = TextUtils.ellipsize(text, tmpPaint, availableWidth, TextUtils.TruncateAt.END);
+    drawText.isRtl = calculateIsRtl(drawText.text);
+    drawText.width = tmpPaint.measureText(drawText.text, 0, drawText.text.length());
+
+    drawText.layout = null;
+    drawText.layoutLineCount = 0;
+    if (maxLines > 1 && availableWidth > 0 && !TextUtils.equals(drawText.text, text)) {
+      // The text doesn't fit on one line, lay it out on several.
+      layoutPaint.setTextSize(textSize);
+      layoutPaint.setTypeface(typeface);
+      StaticLayout layout =
+          createLayout(text, (int) availableWidth, maxLines, getLayoutAlignment(drawText.isRtl));
+      if (layout.getLineCount() > 1) {
+        drawText.layout = layout;
+        drawText.layoutLineCount = Math.min(layout.getLineCount(), maxLines);
       }
     }
+
+    drawText.sourceText = text;
+    drawText.textSize = textSize;
+    drawText.typeface = typeface;
+    drawText.availableWidth = availableWidth;
+    drawText.layoutDirection = layoutDirection;
+    drawText.maxLines = maxLines;
+    drawText.gravity = expandedTextGravity;
+    textLayoutCount++;
+    return drawText;
+  }
+
+  private StaticLayout createLayout(
+      CharSequence text, int width, int maxLines, Layout.Alignment alignment) {
+    if (Build.VERSION.SDK_INT >= 23) {
+      return StaticLayout.Builder.obtain(text, 0, text.length(), layoutPaint, width)
+          .setAlignment(alignment)
+          .setIncludePad(false)
+          .setMaxLines(maxLines)
+          .setEllipsize(TextUtils.TruncateAt.END)
+          .build();
+    }
+    return new StaticLayout(
+        text, layoutPaint, width, alignment, /* spacingmult= */ 1f, /* spacingadd= */ 0f, false);
+  }
+
+  private Layout.Alignment getLayoutAlignment(boolean isRtl) {
+    final int absGravity =
+        GravityCompat.getAbsoluteGravity(
+            expandedTextGravity,
+            isRtl ? ViewCompat.LAYOUT_DIRECTION_RTL : ViewCompat.LAYOUT_DIRECTION_LTR);
+    switch (absGravity & GravityCompat.RELATIVE_HORIZONTAL_GRAVITY_MASK) {
+      case Gravity.CENTER_HORIZONTAL:
+        return Layout.Alignment.ALIGN_CENTER;
+      case Gravity.RIGHT:
+        return isRtl ? Layout.Alignment.ALIGN_NORMAL : Layout.Alignment.ALIGN_OPPOSITE;
+      case Gravity.LEFT:
+      default:
+        return isRtl ? Layout.Alignment.ALIGN_OPPOSITE : Layout.Alignment.ALIGN_NORMAL;
+    }
+  }
+
+  /** Returns how many times the text has been ellipsized and measured, for tests. */
+  @VisibleForTesting
+  int getTextLayoutCount() {
+    return textLayoutCount;
+  }
+
+  /**
+   * Returns how many lines of the expanded text are currently drawn, or 0 if the text is drawn on a
+   * single line, for tests.
+   */
+  @VisibleForTesting
+  int getCurrentLayoutLineCount() {
+    return currentLayout != null ? currentLayoutLineCount : 0;
+  }
+
+  /** Returns the texture of the expanded text, or null if there isn't one, for tests. */
+  @VisibleForTesting
+  @Nullable
+  Bitmap getExpandedTitleTexture() {
+    return expandedTitleTexture;
+  }
+
+  /** Returns how many bitmaps have been created for the texture of the expanded text, for tests. */
+  @VisibleForTesting
+  int getTextureCreateCount() {
+    return textureCreateCount;
   }
 
   private void ensureExpandedTexture() {
-    if (expandedTitleTexture != null || expandedBounds.isEmpty() || TextUtils.isEmpty(textToDraw)) {
+    if (expandedTitleTextureValid || expandedBounds.isEmpty() || TextUtils.isEmpty(textToDraw)) {
       return;
     }
 
     calculateOffsets(0f);
     textureAscent = textPaint.ascent();
     textureDescent = textPaint.descent();
-
     final int w = Math.round(textPaint.measureText(textToDraw, 0, textToDraw.length()));
     final int h = Math.round(textureDescent - textureAscent);
 
@@ -728,10 +984,21 @@ public final class CollapsingTextHelper {
       return; // If the width or height are 0, return
     }
 
-    expandedTitleTexture = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+    if (expandedTitleTexture != null
+        && expandedTitleTexture.getWidth() == w
+        && expandedTitleTexture.getHeight() == h) {
+      // Reuse the texture, which only has to be redrawn.
+      expandedTitleTexture.eraseColor(Color.TRANSPARENT);
+    } else {
+      recycleTexture();
+      expandedTitleTexture = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+      expandedTitleTextureCanvas = new Canvas(expandedTitleTexture);
+      textureCreateCount++;
+    }
 
-    Canvas c = new Canvas(expandedTitleTexture);
-    c.drawText(textToDraw, 0, textToDraw.length(), 0, h - textPaint.descent(), textPaint);
+    expandedTitleTextureCanvas.drawText(
+        textToDraw, 0, textToDraw.length(), 0, h - textPaint.descent(), textPaint);
+    expandedTitleTextureValid = true;
 
     if (texturePaint == null) {
       // Make sure we have a paint
@@ -740,6 +1007,9 @@ public final class CollapsingTextHelper {
   }
 
   public void recalculate() {
+    if (interpolationTable != null) {
+      interpolationTable.valid = false;
+    }
     if (view.getHeight() > 0 && view.getWidth() > 0) {
       // If we've already been laid out, calculate everything now otherwise we'll wait
       // until a layout
@@ -767,9 +1037,16 @@ public final class CollapsingTextHelper {
   }
 
   private void clearTexture() {
+    // Keep the bitmap, so that it can be reused if the new texture has the same size.
+    expandedTitleTextureValid = false;
+  }
+
+  private void recycleTexture() {
+    expandedTitleTextureValid = false;
     if (expandedTitleTexture != null) {
       expandedTitleTexture.recycle();
       expandedTitleTexture = null;
+      expandedTitleTextureCanvas = null;
     }
   }
 
@@ -815,4 +1092,92 @@ public final class CollapsingTextHelper {
   private static boolean rectEquals(Rect r, int left, int top, int right, int bottom) {
     return !(r.left != left || r.top != top || r.right != right || r.bottom != bottom);
   }
+
+  /** The text drawn in a state, ellipsized to fit its bounds, and what it was ellipsized with. */
+  private static final class DrawText {
+
+    @Nullable CharSequence sourceText;
+    float textSize;
+    @Nullable Typeface typeface;
+    float availableWidth;
+    int layoutDirection;
+
+    int maxLines;
+    int gravity;
+
+    @Nullable CharSequence text;
+    boolean isRtl;
+    float width;
+    // The text laid out on several lines, if allowed and needed, with the number of visible lines.
+    @Nullable StaticLayout layout;
+    int layoutLineCount;
+  }
+
+  /**
+   * The values of the text at evenly spaced expansion fractions, interpolated in the same way as
+   * calculateOffsets() does.
+   */
+  private final class InterpolationTable {
+
+    static final int SAMPLES = 128;
+
+    static final int DRAW_X = 0;
+    static final int DRAW_Y = 1;
+    static final int BOUNDS_LEFT = 2;
+    static final int BOUNDS_RIGHT = 3;
+    static final int BOUNDS_BOTTOM = 4;
+    static final int TEXT_SIZE = 5;
+    static final int SHADOW_RADIUS = 6;
+    static final int SHADOW_DX = 7;
+    static final int SHADOW_DY = 8;
+    private static final int VALUE_COUNT = 9;
+
+    private final float[] values = new float[(SAMPLES + 1) * VALUE_COUNT];
+    final int[] textColors = new int[SAMPLES + 1];
+    final int[] shadowColors = new int[SAMPLES + 1];
+    boolean valid;
+
+    void build() {
+      final int expandedColor = getCurrentExpandedTextColor();
+      final int collapsedColor = getCurrentCollapsedTextColor();
+      final int expandedShadow = getCurrentColor(expandedShadowColor);
+      final int collapsedShadow = getCurrentColor(collapsedShadowColor);
+
+      for (int sample = 0; sample <= SAMPLES; sample++) {
+        final float fraction = (float) sample / SAMPLES;
+        final int offset = sample * VALUE_COUNT;
+        values[offset + DRAW_X] =
+            lerp(expandedDrawX, collapsedDrawX, fraction, positionInterpolator);
+        values[offset + DRAW_Y] =
+            lerp(expandedDrawY, collapsedDrawY, fraction, positionInterpolator);
+        values[offset + BOUNDS_LEFT] =
+            lerp(expandedBounds.left, collapsedBounds.left, fraction, positionInterpolator);
+        values[offset + BOUNDS_RIGHT] =
+            lerp(expandedBounds.right, collapsedBounds.right, fraction, positionInterpolator);
+        values[offset + BOUNDS_BOTTOM] =
+            lerp(expandedBounds.bottom, collapsedBounds.bottom, fraction, positionInterpolator);
+        values[offset + TEXT_SIZE] =
+            lerp(expandedTextSize, collapsedTextSize, fraction, textSizeInterpolator);
+        values[offset + SHADOW_RADIUS] =
+            lerp(expandedShadowRadius, collapsedShadowRadius, fraction, null);
+        values[offset + SHADOW_DX] = lerp(expandedShadowDx, collapsedShadowDx, fraction, null);
+        values[offset + SHADOW_DY] = lerp(expandedShadowDy, collapsedShadowDy, fraction, null);
+
+        textColors[sample] =
+            collapsedTextColor != expandedTextColor
+                ? blendColors(expandedColor, collapsedColor, fraction)
+                : collapsedColor;
+        shadowColors[sample] = blendColors(expandedShadow, collapsedShadow, fraction);
+      }
+      valid = true;
+    }
+
+    /** Returns the value at {@code fraction} of the way from {@code sample} to the next one. */
+    float get(int sample, float fraction, int value) {
+      final float start = values[sample * VALUE_COUNT + value];
+      final float end = values[(sample + 1) * VALUE_COUNT + value];
+      // Gives exactly the sampled values at the ends, so that the text sizes still snap.
+      return (1 - fraction) * start + fraction * end;
+    }
+  }
 }
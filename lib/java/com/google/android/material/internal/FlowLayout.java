@@ -30,6 +30,7 @@ import androidx.core.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
+import java.util.Arrays;
 
 /**
  * Horizontally lay out children until the row is filled and then moved to the next line. Call
@@ -43,6 +44,16 @@ public class FlowLayout extends ViewGroup {
   private int itemSpacing;
   private boolean singleLine;
 
+  // The flows computed by the last measure and layout passes, and what they were computed with.
+  private final Flow measureFlow = new Flow();
+  private final Flow layoutFlow = new Flow();
+  private boolean layoutFlowRtl;
+  private boolean layoutAllChildren;
+  private int lastWidthMeasureSpec = -1;
+  private int lastHeightMeasureSpec = -1;
+  private int lastHorizontalPadding;
+  private int lastVerticalPadding;
+
   public FlowLayout(Context context) {
     this(context, null);
   }
@@ -110,55 +121,45 @@ public class FlowLayout extends ViewGroup {
             ? width
             : Integer.MAX_VALUE;
 
-    int childLeft = getPaddingLeft();
-    int childTop = getPaddingTop();
-    int childBottom = childTop;
-    int childRight = childLeft;
-    int maxChildRight = 0;
-    final int maxRight = maxWidth - getPaddingRight();
-    for (int i = 0; i < getChildCount(); i++) {
+    // Children which haven't requested a layout keep their measured size as long as the measure
+    // specs they are measured with don't change.
+    int horizontalPadding = getPaddingLeft() + getPaddingRight();
+    int verticalPadding = getPaddingTop() + getPaddingBottom();
+    boolean measureSpecsChanged =
+        widthMeasureSpec != lastWidthMeasureSpec
+            || heightMeasureSpec != lastHeightMeasureSpec
+            || horizontalPadding != lastHorizontalPadding
+            || verticalPadding != lastVerticalPadding;
+    if (measureSpecsChanged) {
+      // The children may have been measured differently even if their sizes didn't change.
+      layoutAllChildren = true;
+    }
+    lastWidthMeasureSpec = widthMeasureSpec;
+    lastHeightMeasureSpec = heightMeasureSpec;
+    lastHorizontalPadding = horizontalPadding;
+    lastVerticalPadding = verticalPadding;
+
+    final int childCount = getChildCount();
+    for (int i = 0; i < childCount; i++) {
       View child = getChildAt(i);
 
       if (child.getVisibility() == View.GONE) {
         continue;
       }
-      measureChild(child, widthMeasureSpec, heightMeasureSpec);
-
-      LayoutParams lp = child.getLayoutParams();
-      int leftMargin = 0;
-      int rightMargin = 0;
-      if (lp instanceof MarginLayoutParams) {
-        MarginLayoutParams marginLp = (MarginLayoutParams) lp;
-        leftMargin += marginLp.leftMargin;
-        rightMargin += marginLp.rightMargin;
-      }
-
-      childRight = childLeft + leftMargin + child.getMeasuredWidth();
-
-      // If the current child's right bound exceeds Flowlayout's max right bound and flowlayout is
-      // not confined to a single line, move this child to the next line and reset its left bound to
-      // flowlayout's left bound.
-      if (childRight > maxRight && !isSingleLine()) {
-        childLeft = getPaddingLeft();
-        childTop = childBottom + lineSpacing;
-      }
-
-      childRight = childLeft + leftMargin + child.getMeasuredWidth();
-      childBottom = childTop + child.getMeasuredHeight();
-
-      // Updates Flowlayout's max right bound if current child's right bound exceeds it.
-      if (childRight > maxChildRight) {
-        maxChildRight = childRight;
+      if (measureSpecsChanged || child.isLayoutRequested() || !measureFlow.isFlowed(child, i)) {
+        measureChild(child, widthMeasureSpec, heightMeasureSpec);
       }
+    }
 
-      childLeft += (leftMargin + rightMargin + child.getMeasuredWidth()) + itemSpacing;
+    measureFlow.flow(this, getPaddingLeft(), maxWidth - getPaddingRight(), false);
+    int maxChildRight = measureFlow.getMaxChildEnd();
+    int childBottom = measureFlow.getChildBottom();
 
-      // For all preceding children, the child's right margin is taken into account in the next
-      // child's left bound (childLeft). However, childLeft is ignored after the last child so the
-      // last child's right margin needs to be explicitly added to Flowlayout's max right bound.
-      if (i == (getChildCount() - 1)) {
-        maxChildRight += rightMargin;
-      }
+    // For all preceding children, the child's right margin is taken into account in the next
+    // child's left bound. However, the last child's right margin needs to be explicitly added to
+    // Flowlayout's max right bound.
+    if (childCount > 0 && getChildAt(childCount - 1).getVisibility() != View.GONE) {
+      maxChildRight += measureFlow.getEndMargin(childCount - 1);
     }
 
     maxChildRight += getPaddingRight();
@@ -190,38 +191,31 @@ public class FlowLayout extends ViewGroup {
     boolean isRtl = ViewCompat.getLayoutDirection(this) == LAYOUT_DIRECTION_RTL;
     int paddingStart = isRtl ? getPaddingRight() : getPaddingLeft();
     int paddingEnd = isRtl ? getPaddingLeft() : getPaddingRight();
-    int childStart = paddingStart;
-    int childTop = getPaddingTop();
-    int childBottom = childTop;
-    int childEnd;
 
     final int maxChildEnd = right - left - paddingEnd;
 
+    // The children before the first one whose position changed only need to be laid out again if
+    // they requested it. Positions are mirrored in RTL, so maxChildEnd is part of the flow's key.
+    int firstChangedChild = layoutFlow.flow(this, paddingStart, maxChildEnd, true);
+    if (layoutAllChildren || isRtl != layoutFlowRtl) {
+      layoutAllChildren = false;
+      layoutFlowRtl = isRtl;
+      firstChangedChild = 0;
+    }
+
     for (int i = 0; i < getChildCount(); i++) {
       View child = getChildAt(i);
 
-      if (child.getVisibility() == View.GONE) {
+      if (child.getVisibility() == View.GONE
+          || (i < firstChangedChild && !child.isLayoutRequested())) {
         continue;
       }
 
-      LayoutParams lp = child.getLayoutParams();
-      int startMargin = 0;
-      int endMargin = 0;
-      if (lp instanceof MarginLayoutParams) {
-        MarginLayoutParams marginLp = (MarginLayoutParams) lp;
-        startMargin = MarginLayoutParamsCompat.getMarginStart(marginLp);
-        endMargin = MarginLayoutParamsCompat.getMarginEnd(marginLp);
-      }
-
-      childEnd = childStart + startMargin + child.getMeasuredWidth();
-
-      if (!singleLine && (childEnd > maxChildEnd)) {
-        childStart = paddingStart;
-        childTop = childBottom + lineSpacing;
-      }
-
-      childEnd = childStart + startMargin + child.getMeasuredWidth();
-      childBottom = childTop + child.getMeasuredHeight();
+      int startMargin = layoutFlow.getStartMargin(i);
+      int childStart = layoutFlow.getChildStart(i);
+      int childTop = layoutFlow.getChildTop(i);
+      int childEnd = childStart + startMargin + child.getMeasuredWidth();
+      int childBottom = childTop + child.getMeasuredHeight();
 
       if (isRtl) {
         child.layout(
@@ -229,8 +223,206 @@ public class FlowLayout extends ViewGroup {
       } else {
         child.layout(childStart + startMargin, childTop, childEnd, childBottom);
       }
+    }
+  }
+
+  /**
+   * The line breaks and positions of the children of a {@link FlowLayout}, which are kept between
+   * passes so that each pass only flows the children again from the first one whose visibility,
+   * measured size or margins changed.
+   */
+  private static final class Flow {
+
+    // The parameters the children were flowed with.
+    private int paddingStart = -1;
+    private int paddingTop;
+    private int maxChildEnd;
+    private int lineSpacing;
+    private int itemSpacing;
+    private boolean singleLine;
+
+    // The children which were flowed and what they were flowed with, GONE children having a
+    // width of -1.
+    private int count;
+    private View[] children = new View[0];
+    private int[] widths = new int[0];
+    private int[] heights = new int[0];
+    private int[] startMargins = new int[0];
+    private int[] endMargins = new int[0];
+
+    // The position of each child, and the state of the flow after it.
+    private int[] childStarts = new int[0];
+    private int[] childTops = new int[0];
+    private int[] nextChildStarts = new int[0];
+    private int[] childBottoms = new int[0];
+    private int[] maxChildEnds = new int[0];
+
+    /** Returns whether {@code child} was flowed at {@code index} and wasn't GONE. */
+    boolean isFlowed(View child, int index) {
+      return index < count && children[index] == child && widths[index] != -1;
+    }
+
+    int getChildStart(int index) {
+      return childStarts[index];
+    }
+
+    int getChildTop(int index) {
+      return childTops[index];
+    }
+
+    int getStartMargin(int index) {
+      return startMargins[index];
+    }
+
+    int getEndMargin(int index) {
+      return endMargins[index];
+    }
+
+    /** Returns the bottom of the last child, without the bottom padding. */
+    int getChildBottom() {
+      return count > 0 ? childBottoms[count - 1] : paddingTop;
+    }
+
+    /** Returns the maximum end of the children, without their last end margin and end padding. */
+    int getMaxChildEnd() {
+      return count > 0 ? maxChildEnds[count - 1] : 0;
+    }
+
+    /**
+     * Flows the children of {@code parent} from the first one which changed since the last flow,
+     * and returns its index, which is the child count if none of the children changed.
+     *
+     * @param relativeMargins whether the start and end margins of the children are used, instead
+     *     of their left and right margins
+     */
+    int flow(FlowLayout parent, int paddingStart, int maxChildEnd, boolean relativeMargins) {
+      int first = 0;
+      if (paddingStart == this.paddingStart
+          && parent.getPaddingTop() == paddingTop
+          && maxChildEnd == this.maxChildEnd
+          && parent.getLineSpacing() == lineSpacing
+          && parent.getItemSpacing() == itemSpacing
+          && parent.isSingleLine() == singleLine) {
+        first = getFirstChangedChild(parent, relativeMargins);
+      }
+      this.paddingStart = paddingStart;
+      paddingTop = parent.getPaddingTop();
+      this.maxChildEnd = maxChildEnd;
+      lineSpacing = parent.getLineSpacing();
+      itemSpacing = parent.getItemSpacing();
+      singleLine = parent.isSingleLine();
+
+      int childCount = parent.getChildCount();
+      ensureCapacity(childCount);
+      int childStart = first > 0 ? nextChildStarts[first - 1] : paddingStart;
+      int childTop = first > 0 ? childTops[first - 1] : paddingTop;
+      int childBottom = first > 0 ? childBottoms[first - 1] : paddingTop;
+      int maxEnd = first > 0 ? maxChildEnds[first - 1] : 0;
+      for (int i = first; i < childCount; i++) {
+        View child = parent.getChildAt(i);
+        children[i] = child;
+
+        if (child.getVisibility() == View.GONE) {
+          widths[i] = -1;
+          heights[i] = -1;
+          startMargins[i] = 0;
+          endMargins[i] = 0;
+        } else {
+          int width = child.getMeasuredWidth();
+          int startMargin = getStartMargin(child, relativeMargins);
+          int endMargin = getEndMargin(child, relativeMargins);
+          widths[i] = width;
+          heights[i] = child.getMeasuredHeight();
+          startMargins[i] = startMargin;
+          endMargins[i] = endMargin;
+
+          // If the current child's end bound exceeds Flowlayout's max end bound and flowlayout is
+          // not confined to a single line, move this child to the next line and reset its start
+          // bound to flowlayout's start bound.
+          if (childStart + startMargin + width > maxChildEnd && !singleLine) {
+            childStart = paddingStart;
+            childTop = childBottom + lineSpacing;
+          }
+
+          childBottom = childTop + heights[i];
+          // Updates Flowlayout's max end bound if current child's end bound exceeds it.
+          maxEnd = Math.max(maxEnd, childStart + startMargin + width);
+          childStarts[i] = childStart;
+          childStart += startMargin + endMargin + width + itemSpacing;
+        }
+
+        childTops[i] = childTop;
+        nextChildStarts[i] = childStart;
+        childBottoms[i] = childBottom;
+        maxChildEnds[i] = maxEnd;
+      }
+      // Drops the removed children, so that they can be garbage collected.
+      for (int i = childCount; i < count; i++) {
+        children[i] = null;
+      }
+      count = childCount;
+      return first;
+    }
+
+    private int getFirstChangedChild(FlowLayout parent, boolean relativeMargins) {
+      int childCount = parent.getChildCount();
+      int flowedCount = Math.min(count, childCount);
+      for (int i = 0; i < flowedCount; i++) {
+        View child = parent.getChildAt(i);
+        if (children[i] != child) {
+          return i;
+        }
+        if (child.getVisibility() == View.GONE) {
+          if (widths[i] != -1) {
+            return i;
+          }
+        } else if (widths[i] != child.getMeasuredWidth()
+            || heights[i] != child.getMeasuredHeight()
+            || startMargins[i] != getStartMargin(child, relativeMargins)
+            || endMargins[i] != getEndMargin(child, relativeMargins)) {
+          return i;
+        }
+      }
+      return flowedCount;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (children.length >= capacity) {
+        return;
+      }
+      int length = Math.max(capacity, children.length * 2);
+      children = Arrays.copyOf(children, length);
+      widths = Arrays.copyOf(widths, length);
+      heights = Arrays.copyOf(heights, length);
+      startMargins = Arrays.copyOf(startMargins, length);
+      endMargins = Arrays.copyOf(endMargins, length);
+      childStarts = Arrays.copyOf(childStarts, length);
+      childTops = Arrays.copyOf(childTops, length);
+      nextChildStarts = Arrays.copyOf(nextChildStarts, length);
+      childBottoms = Arrays.copyOf(childBottoms, length);
+      maxChildEnds = Arrays.copyOf(maxChildEnds, length);
+    }
 
-      childStart += (startMargin + endMargin + child.getMeasuredWidth()) + itemSpacing;
+    private static int getStartMargin(View child, boolean relativeMargins) {
+      LayoutParams lp = child.getLayoutParams();
+      if (!(lp instanceof MarginLayoutParams)) {
+        return 0;
+      }
+      MarginLayoutParams marginLp = (MarginLayoutParams) lp;
+      return relativeMargins
+          ? MarginLayoutParamsCompat.getMarginStart(marginLp)
+          : marginLp.leftMargin;
+    }
+
+    private static int getEndMargin(View child, boolean relativeMargins) {
+      LayoutParams lp = child.getLayoutParams();
+      if (!(lp instanceof MarginLayoutParams)) {
+        return 0;
+      }
+      MarginLayoutParams marginLp = (MarginLayoutParams) lp;
+      return relativeMargins
+          ? MarginLayoutParamsCompat.getMarginEnd(marginLp)
+          : marginLp.rightMargin;
     }
   }
 }
@@ -41,8 +41,10 @@ import androidx.appcompat.view.menu.MenuItemImpl;
 import androidx.appcompat.view.menu.MenuPresenter;
 import androidx.appcompat.view.menu.MenuView;
 import androidx.appcompat.view.menu.SubMenuBuilder;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.RecyclerViewAccessibilityDelegate;
+import android.text.TextUtils;
 import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.SubMenu;
@@ -51,6 +53,8 @@ import android.view.ViewGroup;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /** @hide */
 @RestrictTo(LIBRARY_GROUP)
@@ -245,7 +249,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemIconTintList(@Nullable ColorStateList tint) {
     iconTintList = tint;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   @Nullable
@@ -255,13 +259,13 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemTextColor(@Nullable ColorStateList textColor) {
     this.textColor = textColor;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public void setItemTextAppearance(@StyleRes int resId) {
     textAppearance = resId;
     textAppearanceSet = true;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   @Nullable
@@ -271,7 +275,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemBackground(@Nullable Drawable itemBackground) {
     this.itemBackground = itemBackground;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public int getItemHorizontalPadding() {
@@ -280,7 +284,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemHorizontalPadding(int itemHorizontalPadding) {
     this.itemHorizontalPadding = itemHorizontalPadding;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public int getItemIconPadding() {
@@ -289,14 +293,14 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemIconPadding(int itemIconPadding) {
     this.itemIconPadding = itemIconPadding;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public void setItemIconSize(@Dimension int itemIconSize) {
     if (this.itemIconSize != itemIconSize) {
       this.itemIconSize = itemIconSize;
       hasCustomItemIconSize = true;
-      updateMenuView(false);
+      updateItemAppearance();
     }
   }
 
@@ -306,6 +310,13 @@ public class NavigationMenuPresenter implements MenuPresenter {
     }
   }
 
+  /** Rebinds all the menu items, after a change to the appearance they share. */
+  private void updateItemAppearance() {
+    if (adapter != null) {
+      adapter.updateAll();
+    }
+  }
+
   public void dispatchApplyWindowInsets(WindowInsetsCompat insets) {
     int top = insets.getSystemWindowInsetTop();
     if (paddingTopDefault != top) {
@@ -366,13 +377,13 @@ public class NavigationMenuPresenter implements MenuPresenter {
           setUpdateSuspended(true);
           MenuItemImpl item = itemView.getItemData();
           boolean result = menu.performItemAction(item, NavigationMenuPresenter.this, 0);
-          boolean checkStateChanged = false;
           if (item != null && item.isCheckable() && result) {
+            // Only updates the rows of the previous and new checked items.
             adapter.setCheckedItem(item);
-            checkStateChanged = true;
           }
           setUpdateSuspended(false);
-          if (checkStateChanged) {
+          if (adapter.isUpdatePending()) {
+            // The menu was changed while handling the click.
             updateMenuView(false);
           }
         }
@@ -389,16 +400,28 @@ public class NavigationMenuPresenter implements MenuPresenter {
     private static final int VIEW_TYPE_HEADER = 3;
 
     private final ArrayList<NavigationMenuItem> items = new ArrayList<>();
+    // The items before the last update, which are diffed against the new ones.
+    private final ArrayList<NavigationMenuItem> previousItems = new ArrayList<>();
+    private final NavigationMenuHeaderItem headerItem = new NavigationMenuHeaderItem();
+    // The text items of the menu items in items, which are reused when the menu is flattened again
+    // so that each menu item keeps the same stable ID, and a spare map to flatten the menu into.
+    private Map<MenuItemImpl, NavigationMenuTextItem> textItems = new HashMap<>();
+    private Map<MenuItemImpl, NavigationMenuTextItem> spareTextItems = new HashMap<>();
+    private long lastTextItemId = NavigationMenuHeaderItem.ID;
     private MenuItemImpl checkedItem;
     private boolean updateSuspended;
+    private boolean updatePending;
+    private boolean checkingItem;
 
     NavigationMenuAdapter() {
+      setHasStableIds(true);
       prepareMenuItems();
+      updateBoundStates();
     }
 
     @Override
     public long getItemId(int position) {
-      return position;
+      return items.get(position).getId();
     }
 
     @Override
@@ -492,9 +515,96 @@ public class NavigationMenuPresenter implements MenuPresenter {
       }
     }
 
+    /**
+     * Flattens the menu again, and notifies the changes to the rows whose menu items were added,
+     * removed, moved, or changed since the last update.
+     */
     public void update() {
+      if (checkingItem) {
+        // setCheckedItem() updates the rows of the items it checks and unchecks itself.
+        return;
+      }
+      if (updateSuspended) {
+        updatePending = true;
+        return;
+      }
+      updatePending = false;
+
+      previousItems.clear();
+      previousItems.addAll(items);
       prepareMenuItems();
-      notifyDataSetChanged();
+      updateBoundStates();
+
+      boolean sameIds = previousItems.size() == items.size();
+      for (int i = 0, size = items.size(); sameIds && i < size; i++) {
+        sameIds = previousItems.get(i).getId() == items.get(i).getId();
+      }
+      if (sameIds) {
+        // The usual case of menu items being changed without being added, removed or moved, which
+        // doesn't need to be diffed.
+        for (int i = 0, size = items.size(); i < size; i++) {
+          if (!areContentsTheSame(previousItems.get(i), items.get(i))) {
+            notifyItemChanged(i);
+          }
+        }
+      } else {
+        DiffUtil.calculateDiff(
+                new DiffUtil.Callback() {
+                  @Override
+                  public int getOldListSize() {
+                    return previousItems.size();
+                  }
+
+                  @Override
+                  public int getNewListSize() {
+                    return items.size();
+                  }
+
+                  @Override
+                  public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                    return previousItems.get(oldItemPosition).getId()
+                        == items.get(newItemPosition).getId();
+                  }
+
+                  @Override
+                  public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                    return NavigationMenuAdapter.this.areContentsTheSame(
+                        previousItems.get(oldItemPosition), items.get(newItemPosition));
+                  }
+                },
+                false)
+            .dispatchUpdatesTo(this);
+      }
+      previousItems.clear();
+    }
+
+    /** Updates the menu items, and rebinds all the rows for a change to their appearance. */
+    void updateAll() {
+      update();
+      notifyItemRangeChanged(0, items.size());
+    }
+
+    boolean isUpdatePending() {
+      return updatePending;
+    }
+
+    private boolean areContentsTheSame(NavigationMenuItem oldItem, NavigationMenuItem newItem) {
+      // Text items are reused and compare their menu item with the state it was last bound to.
+      // Separator items are replaced when their padding changes.
+      if (oldItem != newItem) {
+        return false;
+      }
+      return !(newItem instanceof NavigationMenuTextItem)
+          || !((NavigationMenuTextItem) newItem).boundStateChanged;
+    }
+
+    private void updateBoundStates() {
+      for (int i = 0, size = items.size(); i < size; i++) {
+        NavigationMenuItem item = items.get(i);
+        if (item instanceof NavigationMenuTextItem) {
+          ((NavigationMenuTextItem) item).updateBoundState();
+        }
+      }
     }
 
     /**
@@ -506,8 +616,11 @@ public class NavigationMenuPresenter implements MenuPresenter {
         return;
       }
       updateSuspended = true;
+      Map<MenuItemImpl, NavigationMenuTextItem> previousTextItems = textItems;
+      textItems = spareTextItems;
+      spareTextItems = previousTextItems;
       items.clear();
-      items.add(new NavigationMenuHeaderItem());
+      items.add(headerItem);
 
       int currentGroupId = -1;
       int currentGroupStart = 0;
@@ -515,7 +628,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
       for (int i = 0, totalSize = menu.getVisibleItems().size(); i < totalSize; i++) {
         MenuItemImpl item = menu.getVisibleItems().get(i);
         if (item.isChecked()) {
-          setCheckedItem(item);
+          updateCheckedItem(item);
         }
         if (item.isCheckable()) {
           item.setExclusiveCheckable(false);
@@ -523,10 +636,11 @@ public class NavigationMenuPresenter implements MenuPresenter {
         if (item.hasSubMenu()) {
           SubMenu subMenu = item.getSubMenu();
           if (subMenu.hasVisibleItems()) {
+            NavigationMenuTextItem textItem = obtainTextItem(item, previousTextItems);
             if (i != 0) {
-              items.add(new NavigationMenuSeparatorItem(paddingSeparator, 0));
+              addSeparatorItem(textItem, paddingSeparator, 0);
             }
-            items.add(new NavigationMenuTextItem(item));
+            addTextItem(textItem);
             boolean subMenuHasIcon = false;
             int subMenuStart = items.size();
             for (int j = 0, size = subMenu.size(); j < size; j++) {
@@ -539,9 +653,9 @@ public class NavigationMenuPresenter implements MenuPresenter {
                   subMenuItem.setExclusiveCheckable(false);
                 }
                 if (item.isChecked()) {
-                  setCheckedItem(item);
+                  updateCheckedItem(item);
                 }
-                items.add(new NavigationMenuTextItem(subMenuItem));
+                addTextItem(obtainTextItem(subMenuItem, previousTextItems));
               }
             }
             if (subMenuHasIcon) {
@@ -549,27 +663,64 @@ public class NavigationMenuPresenter implements MenuPresenter {
             }
           }
         } else {
+          NavigationMenuTextItem textItem = obtainTextItem(item, previousTextItems);
           int groupId = item.getGroupId();
           if (groupId != currentGroupId) { // first item in group
             currentGroupStart = items.size();
             currentGroupHasIcon = item.getIcon() != null;
             if (i != 0) {
               currentGroupStart++;
-              items.add(new NavigationMenuSeparatorItem(paddingSeparator, paddingSeparator));
+              addSeparatorItem(textItem, paddingSeparator, paddingSeparator);
             }
           } else if (!currentGroupHasIcon && item.getIcon() != null) {
             currentGroupHasIcon = true;
             appendTransparentIconIfMissing(currentGroupStart, items.size());
           }
-          NavigationMenuTextItem textItem = new NavigationMenuTextItem(item);
           textItem.needsEmptyIcon = currentGroupHasIcon;
-          items.add(textItem);
+          addTextItem(textItem);
           currentGroupId = groupId;
         }
       }
+      // Drops the text items of the menu items which are no longer visible.
+      previousTextItems.clear();
       updateSuspended = false;
     }
 
+    /**
+     * Returns the text item of {@code menuItem}, reusing the one it had before the menu was
+     * flattened again if there is one.
+     */
+    private NavigationMenuTextItem obtainTextItem(
+        MenuItemImpl menuItem, Map<MenuItemImpl, NavigationMenuTextItem> previousTextItems) {
+      NavigationMenuTextItem textItem = previousTextItems.remove(menuItem);
+      if (textItem == null) {
+        lastTextItemId += 2;
+        textItem = new NavigationMenuTextItem(menuItem, lastTextItemId);
+      }
+      textItem.needsEmptyIcon = false;
+      textItems.put(menuItem, textItem);
+      return textItem;
+    }
+
+    private void addTextItem(NavigationMenuTextItem textItem) {
+      textItem.position = items.size();
+      items.add(textItem);
+    }
+
+    /** Adds the separator placed before {@code nextItem}, which is reused when possible. */
+    private void addSeparatorItem(
+        NavigationMenuTextItem nextItem, int paddingTop, int paddingBottom) {
+      NavigationMenuSeparatorItem separator = nextItem.separator;
+      if (separator == null
+          || separator.getPaddingTop() != paddingTop
+          || separator.getPaddingBottom() != paddingBottom) {
+        separator =
+            new NavigationMenuSeparatorItem(nextItem.getId() + 1, paddingTop, paddingBottom);
+        nextItem.separator = separator;
+      }
+      items.add(separator);
+    }
+
     private void appendTransparentIconIfMissing(int startIndex, int endIndex) {
       for (int i = startIndex; i < endIndex; i++) {
         NavigationMenuTextItem textItem = (NavigationMenuTextItem) items.get(i);
@@ -578,14 +729,36 @@ public class NavigationMenuPresenter implements MenuPresenter {
     }
 
     public void setCheckedItem(MenuItemImpl checkedItem) {
+      MenuItemImpl previousCheckedItem = this.checkedItem;
+      if (updateCheckedItem(checkedItem)) {
+        // Only the rows of the previous and new checked items change, so the menu doesn't need to
+        // be flattened again.
+        notifyMenuItemChanged(previousCheckedItem);
+        notifyMenuItemChanged(checkedItem);
+      }
+    }
+
+    /** Checks {@code checkedItem} and unchecks the previous checked item, without updating rows. */
+    private boolean updateCheckedItem(MenuItemImpl checkedItem) {
       if (this.checkedItem == checkedItem || !checkedItem.isCheckable()) {
-        return;
+        return false;
       }
+      // Changing checked states makes the menu dispatch updates, which are ignored.
+      checkingItem = true;
       if (this.checkedItem != null) {
         this.checkedItem.setChecked(false);
       }
       this.checkedItem = checkedItem;
       checkedItem.setChecked(true);
+      checkingItem = false;
+      return true;
+    }
+
+    private void notifyMenuItemChanged(@Nullable MenuItemImpl menuItem) {
+      NavigationMenuTextItem textItem = menuItem != null ? textItems.get(menuItem) : null;
+      if (textItem != null && textItem.updateBoundState()) {
+        notifyItemChanged(textItem.position);
+      }
     }
 
     public MenuItemImpl getCheckedItem() {
@@ -630,7 +803,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
           }
         }
         updateSuspended = false;
-        prepareMenuItems();
+        update();
       }
       // Restore the states of the action views.
       SparseArray<ParcelableSparseArray> actionViewStates =
@@ -675,36 +848,108 @@ public class NavigationMenuPresenter implements MenuPresenter {
   }
 
   /** Unified data model for all sorts of navigation menu items. */
-  private interface NavigationMenuItem {}
+  private interface NavigationMenuItem {
+
+    /** Returns the stable ID of the row of this item. */
+    long getId();
+  }
 
-  /** Normal or subheader items. */
+  /**
+   * Normal or subheader items. Text items have even IDs, and the separator placed before a text
+   * item has the next odd ID.
+   */
   private static class NavigationMenuTextItem implements NavigationMenuItem {
 
     private final MenuItemImpl menuItem;
+    private final long id;
 
     boolean needsEmptyIcon;
-
-    NavigationMenuTextItem(MenuItemImpl item) {
+    /** The position of this item in the adapter. */
+    int position;
+    /** The separator placed before this item, if any. */
+    @Nullable NavigationMenuSeparatorItem separator;
+
+    /** Whether the state of the menu item changed in the last update of this item. */
+    boolean boundStateChanged;
+    // The state of the menu item the last time this item was updated, which is what its row shows.
+    private boolean boundNeedsEmptyIcon;
+    private boolean boundHasSubMenu;
+    private boolean boundCheckable;
+    private boolean boundChecked;
+    private boolean boundEnabled;
+    @Nullable private CharSequence boundTitle;
+    @Nullable private Drawable boundIcon;
+    @Nullable private View boundActionView;
+    @Nullable private CharSequence boundContentDescription;
+    @Nullable private CharSequence boundTooltipText;
+
+    NavigationMenuTextItem(MenuItemImpl item, long id) {
       menuItem = item;
+      this.id = id;
     }
 
     public MenuItemImpl getMenuItem() {
       return menuItem;
     }
+
+    @Override
+    public long getId() {
+      return id;
+    }
+
+    /**
+     * Records the current state of the menu item, and returns whether it changed since the last
+     * update, which means that the row of this item needs to be bound again.
+     */
+    boolean updateBoundState() {
+      boolean changed =
+          boundNeedsEmptyIcon != needsEmptyIcon
+              || boundHasSubMenu != menuItem.hasSubMenu()
+              || boundCheckable != menuItem.isCheckable()
+              || boundChecked != menuItem.isChecked()
+              || boundEnabled != menuItem.isEnabled()
+              || !TextUtils.equals(boundTitle, menuItem.getTitle())
+              || boundIcon != menuItem.getIcon()
+              || boundActionView != menuItem.getActionView()
+              || !TextUtils.equals(boundContentDescription, menuItem.getContentDescription())
+              || !TextUtils.equals(boundTooltipText, menuItem.getTooltipText());
+      boundStateChanged = changed;
+      if (changed) {
+        boundNeedsEmptyIcon = needsEmptyIcon;
+        boundHasSubMenu = menuItem.hasSubMenu();
+        boundCheckable = menuItem.isCheckable();
+        boundChecked = menuItem.isChecked();
+        boundEnabled = menuItem.isEnabled();
+        boundTitle = menuItem.getTitle();
+        boundIcon = menuItem.getIcon();
+        boundActionView = menuItem.getActionView();
+        boundContentDescription = menuItem.getContentDescription();
+        boundTooltipText = menuItem.getTooltipText();
+      }
+      return changed;
+    }
   }
 
   /** Separator items. */
   private static class NavigationMenuSeparatorItem implements NavigationMenuItem {
 
+    private final long id;
+
     private final int paddingTop;
 
     private final int paddingBottom;
 
-    public NavigationMenuSeparatorItem(int paddingTop, int paddingBottom) {
+    public NavigationMenuSeparatorItem(long id, int paddingTop, int paddingBottom) {
+      this.id = id;
       this.paddingTop = paddingTop;
       this.paddingBottom = paddingBottom;
     }
 
+    @Override
+    public long getId() {
+      return id;
+    }
+
     public int getPaddingTop() {
       return paddingTop;
     }
@@ -716,8 +961,16 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   /** Header (not subheader) items. */
   private static class NavigationMenuHeaderItem implements NavigationMenuItem {
+
+    static final long ID = 0;
+
     NavigationMenuHeaderItem() {}
     // The actual content is hold by NavigationMenuPresenter#mHeaderLayout.
+
+    @Override
+    public long getId() {
+      return ID;
+    }
   }
 
   private class NavigationMenuViewAccessibilityDelegate extends RecyclerViewAccessibilityDelegate {
@@ -27,6 +27,7 @@ import androidx.annotation.RestrictTo;
 import com.google.android.material.resources.TextAppearance;
 import com.google.android.material.resources.TextAppearanceFontCallback;
 import android.text.TextPaint;
+import android.text.TextUtils;
 import java.lang.ref.WeakReference;
 
 /**
@@ -67,6 +68,8 @@ public class TextDrawableHelper {
 
   private float textWidth;
   private boolean textWidthDirty = true;
+  // The text whose width was last measured.
+  @Nullable private CharSequence measuredText;
   private WeakReference<TextDrawableDelegate> delegate = new WeakReference<>(null);
   @Nullable private TextAppearance textAppearance;
 
@@ -87,17 +90,33 @@ public class TextDrawableHelper {
     return textWidthDirty;
   }
 
-  /** Returns the visual width of the {@code text} based on its current text appearance. */
-  public float getTextWidth(String text) {
-    if (!textWidthDirty) {
+  /**
+   * Returns the visual width of the {@code text} based on its current text appearance.
+   *
+   * <p>The width is only measured again when the text differs from the last measured one, or when
+   * the width was {@link #setTextWidthDirty(boolean) marked as dirty}.
+   */
+  public float getTextWidth(@Nullable CharSequence text) {
+    if (!textWidthDirty && TextUtils.equals(text, measuredText)) {
       return textWidth;
     }
 
     textWidth = calculateTextWidth(text);
+    measuredText = text;
     textWidthDirty = false;
     return textWidth;
   }
 
+  /**
+   * Sets the visual width of the {@code text}, measured ahead of time with the current text
+   * appearance, so that {@link #getTextWidth(CharSequence)} doesn't measure it again.
+   */
+  public void setTextWidth(@Nullable CharSequence text, float textWidth) {
+    this.textWidth = textWidth;
+    measuredText = text;
+    textWidthDirty = false;
+  }
+
   private float calculateTextWidth(@Nullable CharSequence charSequence) {
     if (charSequence == null) {
       return 0f;
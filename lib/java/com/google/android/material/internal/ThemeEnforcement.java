@@ -21,15 +21,21 @@ import com.google.android.material.R;
 import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
 
 import android.content.Context;
+import android.content.res.Resources.Theme;
 import android.content.res.TypedArray;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
 import androidx.annotation.AttrRes;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.StyleRes;
 import androidx.annotation.StyleableRes;
 import androidx.appcompat.view.ContextThemeWrapper;
 import androidx.appcompat.widget.TintTypedArray;
+import com.google.android.material.resources.MaterialAttributes;
 import android.util.AttributeSet;
 import android.util.TypedValue;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Utility methods to check Theme compatibility with components.
@@ -49,8 +55,29 @@ public final class ThemeEnforcement {
       new int[] {android.R.attr.theme, R.attr.theme};
   private static final int[] MATERIAL_THEME_OVERLAY_ATTR = new int[] {R.attr.materialThemeOverlay};
 
+  private static final int APPCOMPAT_THEME = 1;
+  private static final int MATERIAL_THEME = 1 << 1;
+
+  // The result of the theme checks already done for each theme, see isTheme().
+  private static final Map<Theme, ThemeCompatibility> themeCompatibility = new WeakHashMap<>();
+
+  private static volatile boolean enabled = true;
+
   private ThemeEnforcement() {}
 
+  /**
+   * Sets whether components check that they are used with a compatible theme and text appearance.
+   * Apps set it through {@link com.google.android.material.theme.ThemeEnforcementConfig}.
+   */
+  public static void setEnabled(boolean enabled) {
+    ThemeEnforcement.enabled = enabled;
+  }
+
+  /** Returns whether theme enforcement is enabled, see {@link #setEnabled(boolean)}. */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
   /**
    * Safely retrieve styled attribute information in this Context's theme, after checking whether
    * the theme is compatible with the component's given style.
@@ -73,15 +100,27 @@ public final class ThemeEnforcement {
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
+    if (!enabled) {
+      return context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
+    }
 
-    // First, check for a compatible theme.
-    checkCompatibleTheme(context, set, defStyleAttr, defStyleRes);
-
-    // Then, check that a textAppearance is set if enforceTextAppearance attribute is true
-    checkTextAppearance(context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
-
-    // Then, safely retrieve the styled attribute information.
-    return context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
+    // First, check for a compatible theme, and whether a textAppearance is required.
+    boolean checkCustomTextAppearances =
+        checkThemeEnforcementAttributes(
+            context, set, defStyleAttr, defStyleRes, textAppearanceResIndices);
+
+    // Then, retrieve the styled attribute information, which the custom TextAppearances are
+    // checked against.
+    TypedArray a = context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
+    if (checkCustomTextAppearances) {
+      for (int customTextAppearanceIndex : textAppearanceResIndices) {
+        if (a.getResourceId(customTextAppearanceIndex, -1) == -1) {
+          a.recycle();
+          throwInvalidTextAppearance();
+        }
+      }
+    }
+    return a;
   }
 
   /**
@@ -111,116 +150,138 @@ public final class ThemeEnforcement {
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
+    if (!enabled) {
+      return TintTypedArray.obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
+    }
 
-    // First, check for a compatible theme.
-    checkCompatibleTheme(context, set, defStyleAttr, defStyleRes);
-
-    // Then, check that a textAppearance is set if enforceTextAppearance attribute is true
-    checkTextAppearance(context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
-
-    // Then, safely retrieve the styled attribute information.
-    return TintTypedArray.obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
-  }
-
-  private static void checkCompatibleTheme(
-      Context context, AttributeSet set, @AttrRes int defStyleAttr, @StyleRes int defStyleRes) {
-    TypedArray a =
-        context.obtainStyledAttributes(
-            set, R.styleable.ThemeEnforcement, defStyleAttr, defStyleRes);
-    boolean enforceMaterialTheme =
-        a.getBoolean(R.styleable.ThemeEnforcement_enforceMaterialTheme, false);
-    a.recycle();
-
-    if (enforceMaterialTheme) {
-      TypedValue isMaterialTheme = new TypedValue();
-      boolean resolvedValue =
-          context.getTheme().resolveAttribute(R.attr.isMaterialTheme, isMaterialTheme, true);
-
-      if (!resolvedValue
-          || (isMaterialTheme.type == TypedValue.TYPE_INT_BOOLEAN && isMaterialTheme.data == 0)) {
-        // If we were unable to resolve isMaterialTheme boolean attribute, or isMaterialTheme is
-        // false, check for Material Theme color attributes
-        checkMaterialTheme(context);
+    // First, check for a compatible theme, and whether a textAppearance is required.
+    boolean checkCustomTextAppearances =
+        checkThemeEnforcementAttributes(
+            context, set, defStyleAttr, defStyleRes, textAppearanceResIndices);
+
+    // Then, retrieve the styled attribute information, which the custom TextAppearances are
+    // checked against.
+    TintTypedArray a =
+        TintTypedArray.obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
+    if (checkCustomTextAppearances) {
+      for (int customTextAppearanceIndex : textAppearanceResIndices) {
+        if (a.getResourceId(customTextAppearanceIndex, -1) == -1) {
+          a.recycle();
+          throwInvalidTextAppearance();
+        }
       }
     }
-    checkAppCompatTheme(context);
+    return a;
   }
 
-  private static void checkTextAppearance(
+  /**
+   * Reads the enforcement attributes of the component in a single pass, checks that the theme is
+   * compatible and that {@code android:textAppearance} is set if required, and returns whether the
+   * custom TextAppearances in {@code textAppearanceResIndices} still need to be checked against the
+   * component's attributes.
+   */
+  private static boolean checkThemeEnforcementAttributes(
       Context context,
       AttributeSet set,
-      @StyleableRes int[] attrs,
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
-    TypedArray themeEnforcementAttrs =
+    TypedArray a =
         context.obtainStyledAttributes(
             set, R.styleable.ThemeEnforcement, defStyleAttr, defStyleRes);
+    boolean enforceMaterialTheme =
+        a.getBoolean(R.styleable.ThemeEnforcement_enforceMaterialTheme, false);
     boolean enforceTextAppearance =
-        themeEnforcementAttrs.getBoolean(R.styleable.ThemeEnforcement_enforceTextAppearance, false);
+        a.getBoolean(R.styleable.ThemeEnforcement_enforceTextAppearance, false);
+    boolean hasTextAppearance =
+        a.getResourceId(R.styleable.ThemeEnforcement_android_textAppearance, -1) != -1;
+    a.recycle();
+
+    checkCompatibleTheme(context, enforceMaterialTheme);
 
     if (!enforceTextAppearance) {
-      themeEnforcementAttrs.recycle();
-      return;
+      return false;
     }
-
-    boolean validTextAppearance;
-
     if (textAppearanceResIndices == null || textAppearanceResIndices.length == 0) {
       // No custom TextAppearance attributes passed in, check android:textAppearance
-      validTextAppearance =
-          themeEnforcementAttrs.getResourceId(
-                  R.styleable.ThemeEnforcement_android_textAppearance, -1)
-              != -1;
-    } else {
-      // Check custom TextAppearances are valid
-      validTextAppearance =
-          isCustomTextAppearanceValid(
-              context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
+      if (!hasTextAppearance) {
+        throwInvalidTextAppearance();
+      }
+      return false;
     }
+    return true;
+  }
 
-    themeEnforcementAttrs.recycle();
+  private static void checkCompatibleTheme(Context context, boolean enforceMaterialTheme) {
+    if (enforceMaterialTheme) {
+      TypedValue isMaterialTheme =
+          MaterialAttributes.resolveAttribute(context, R.attr.isMaterialTheme);
 
-    if (!validTextAppearance) {
-      throw new IllegalArgumentException(
-          "This component requires that you specify a valid TextAppearance attribute. Update your "
-              + "app theme to inherit from Theme.MaterialComponents (or a descendant).");
+      if (isMaterialTheme == null
+          || (isMaterialTheme.type == TypedValue.TYPE_INT_BOOLEAN && isMaterialTheme.data == 0)) {
+        // If we were unable to resolve isMaterialTheme boolean attribute, or isMaterialTheme is
+        // false, check for Material Theme color attributes
+        checkMaterialTheme(context);
+      }
     }
+    checkAppCompatTheme(context);
   }
 
-  private static boolean isCustomTextAppearanceValid(
-      Context context,
-      AttributeSet set,
-      @StyleableRes int[] attrs,
-      @AttrRes int defStyleAttr,
-      @StyleRes int defStyleRes,
-      @StyleableRes int... textAppearanceResIndices) {
-    TypedArray componentAttrs =
-        context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
-    for (int customTextAppearanceIndex : textAppearanceResIndices) {
-      if (componentAttrs.getResourceId(customTextAppearanceIndex, -1) == -1) {
-        componentAttrs.recycle();
-        return false;
-      }
-    }
-    componentAttrs.recycle();
-    return true;
+  private static void throwInvalidTextAppearance() {
+    throw new IllegalArgumentException(
+        "This component requires that you specify a valid TextAppearance attribute. Update your "
+            + "app theme to inherit from Theme.MaterialComponents (or a descendant).");
   }
 
   public static void checkAppCompatTheme(Context context) {
-    checkTheme(context, APPCOMPAT_CHECK_ATTRS, APPCOMPAT_THEME_NAME);
+    checkTheme(context, APPCOMPAT_CHECK_ATTRS, APPCOMPAT_THEME, APPCOMPAT_THEME_NAME);
   }
 
   public static void checkMaterialTheme(Context context) {
-    checkTheme(context, MATERIAL_CHECK_ATTRS, MATERIAL_THEME_NAME);
+    checkTheme(context, MATERIAL_CHECK_ATTRS, MATERIAL_THEME, MATERIAL_THEME_NAME);
   }
 
   public static boolean isAppCompatTheme(Context context) {
-    return isTheme(context, APPCOMPAT_CHECK_ATTRS);
+    return isTheme(context, APPCOMPAT_CHECK_ATTRS, APPCOMPAT_THEME);
   }
 
   public static boolean isMaterialTheme(Context context) {
-    return isTheme(context, MATERIAL_CHECK_ATTRS);
+    return isTheme(context, MATERIAL_CHECK_ATTRS, MATERIAL_THEME);
+  }
+
+  /**
+   * Returns whether the theme of {@code context} has values for all {@code themeAttributes}. The
+   * result is memoized per theme under {@code themeFlag}, since it only depends on the theme. Below
+   * API 23, themes are compared by identity, so the memo would survive a style being applied to the
+   * theme, and the theme is checked every time instead.
+   */
+  private static boolean isTheme(Context context, int[] themeAttributes, int themeFlag) {
+    if (VERSION.SDK_INT < VERSION_CODES.M) {
+      return isTheme(context, themeAttributes);
+    }
+
+    Theme theme = context.getTheme();
+    synchronized (themeCompatibility) {
+      ThemeCompatibility compatibility = themeCompatibility.get(theme);
+      if (compatibility != null && (compatibility.checkedFlags & themeFlag) != 0) {
+        return (compatibility.compatibleFlags & themeFlag) != 0;
+      }
+    }
+
+    boolean isTheme = isTheme(context, themeAttributes);
+
+    synchronized (themeCompatibility) {
+      ThemeCompatibility compatibility = themeCompatibility.get(theme);
+      if (compatibility == null) {
+        compatibility = new ThemeCompatibility();
+        themeCompatibility.put(theme, compatibility);
+      }
+      compatibility.checkedFlags |= themeFlag;
+      if (isTheme) {
+        compatibility.compatibleFlags |= themeFlag;
+      }
+    }
+    return isTheme;
   }
 
   private static boolean isTheme(Context context, int[] themeAttributes) {
@@ -235,8 +296,9 @@ public final class ThemeEnforcement {
     return true;
   }
 
-  private static void checkTheme(Context context, int[] themeAttributes, String themeName) {
-    if (!isTheme(context, themeAttributes)) {
+  private static void checkTheme(
+      Context context, int[] themeAttributes, int themeFlag, String themeName) {
+    if (!isTheme(context, themeAttributes, themeFlag)) {
       throw new IllegalArgumentException(
           "The style on this component requires your app theme to be "
               + themeName
@@ -304,4 +366,11 @@ public final class ThemeEnforcement {
     a.recycle();
     return materialThemeOverlayId;
   }
+
+  /** The theme checks done for a theme, as flags such as {@link #MATERIAL_THEME}. */
+  private static final class ThemeCompatibility {
+
+    int checkedFlags;
+    int compatibleFlags;
+  }
 }
@@ -88,14 +88,13 @@ public class MaterialAttributes {
     return typedValue;
   }
 
-  /** Returns the {@link TypedValue} for the provided {@code attributeResId}. */
+  /**
+   * Returns the {@link TypedValue} for the provided {@code attributeResId}. Values are cached per
+   * theme by {@link ThemeAttributeCache}, which returns a copy of the cached value.
+   */
   @Nullable
   public static TypedValue resolveAttribute(Context context, @AttrRes int attributeResId) {
-    TypedValue typedValue = new TypedValue();
-    if (context.getTheme().resolveAttribute(attributeResId, typedValue, true)) {
-      return typedValue;
-    }
-    return null;
+    return ThemeAttributeCache.resolveAttribute(context, attributeResId);
   }
 
   /** Returns the minimum touch target size, acceptable for accessibility, in pixels. */
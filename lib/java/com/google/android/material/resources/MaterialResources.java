@@ -130,7 +130,7 @@ public class MaterialResources {
     if (attributes.hasValue(index)) {
       int resourceId = attributes.getResourceId(index, 0);
       if (resourceId != 0) {
-        return new TextAppearance(context, resourceId);
+        return TextAppearanceCache.getTextAppearance(context, resourceId);
       }
     }
     return null;
@@ -36,10 +36,17 @@ import androidx.core.content.res.ResourcesCompat.FontCallback;
 import androidx.core.provider.FontsContractCompat.FontRequestCallback;
 import android.text.TextPaint;
 import android.util.Log;
+import android.util.SparseArray;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Utility class that contains the data from parsing a TextAppearance style resource.
  *
+ * <p>Use {@link TextAppearanceCache} to share the TextAppearance of a style between components, so
+ * that its font is only resolved once.
+ *
  * @hide
  */
 @RestrictTo(Scope.LIBRARY_GROUP)
@@ -52,6 +59,10 @@ public class TextAppearance {
   private static final int TYPEFACE_SERIF = 2;
   private static final int TYPEFACE_MONOSPACE = 3;
 
+  // The callbacks waiting for each font resource being fetched asynchronously, so that concurrent
+  // requests for the same font are coalesced into a single fetch.
+  private static final SparseArray<List<FontCallback>> pendingFontRequests = new SparseArray<>();
+
   public final float textSize;
   @Nullable public final ColorStateList textColor;
   @Nullable public final ColorStateList textColorHint;
@@ -67,8 +78,9 @@ public class TextAppearance {
 
   @FontRes private final int fontFamilyResourceId;
 
-  private boolean fontResolved = false;
-  private Typeface font;
+  // Written from a background thread when the font is prefetched, see prefetchFont().
+  private volatile boolean fontResolved = false;
+  private volatile Typeface font;
 
   /** Parses the given TextAppearance style resource. */
   public TextAppearance(Context context, @StyleRes int id) {
@@ -117,17 +129,9 @@ public class TextAppearance {
     }
 
     // Try resolving fontFamily as a font resource.
-    if (!context.isRestricted()) {
-      try {
-        font = ResourcesCompat.getFont(context, fontFamilyResourceId);
-        if (font != null) {
-          font = Typeface.create(font, textStyle);
-        }
-      } catch (UnsupportedOperationException | Resources.NotFoundException e) {
-        // Expected if it is not a font resource.
-      } catch (Exception e) {
-        Log.d(TAG, "Error loading font " + fontFamily, e);
-      }
+    Typeface loadedFont = loadFont(context);
+    if (loadedFont != null) {
+      font = loadedFont;
     }
 
     // If not resolved create fallback and resolve.
@@ -137,6 +141,46 @@ public class TextAppearance {
     return font;
   }
 
+  /**
+   * Resolves the font ahead of time, so that later calls to {@link #getFontAsync} complete
+   * synchronously. The font is loaded synchronously, so this should be called from a background
+   * thread. Fonts which can't be loaded are left for {@link #getFontAsync} to resolve.
+   */
+  void prefetchFont(Context context) {
+    if (fontResolved || fontFamilyResourceId == 0) {
+      return;
+    }
+
+    Typeface loadedFont = loadFont(context);
+    if (loadedFont != null) {
+      synchronized (this) {
+        if (!fontResolved) {
+          font = loadedFont;
+          fontResolved = true;
+        }
+      }
+    }
+  }
+
+  /** Loads fontFamily as a font resource, or returns null if it is not one. */
+  @Nullable
+  private Typeface loadFont(Context context) {
+    if (context.isRestricted()) {
+      return null;
+    }
+    try {
+      Typeface loadedFont = ResourcesCompat.getFont(context, fontFamilyResourceId);
+      if (loadedFont != null) {
+        return Typeface.create(loadedFont, textStyle);
+      }
+    } catch (UnsupportedOperationException | Resources.NotFoundException e) {
+      // Expected if it is not a font resource.
+    } catch (Exception e) {
+      Log.d(TAG, "Error loading font " + fontFamily, e);
+    }
+    return null;
+  }
+
   /**
    * Resolves the requested font using the fontFamily, style, and typeface. Immediately (and
    * synchronously) calls {@link TextAppearanceFontCallback#onFontRetrieved(Typeface, boolean)} with
@@ -170,14 +214,16 @@ public class TextAppearance {
 
     // Try to resolve fontFamily asynchronously. If failed fallback font is used instead.
     try {
-      ResourcesCompat.getFont(
+      requestFont(
           context,
           fontFamilyResourceId,
           new FontCallback() {
             @Override
             public void onFontRetrieved(@NonNull Typeface typeface) {
-              font = Typeface.create(typeface, textStyle);
-              fontResolved = true;
+              if (!fontResolved) {
+                font = Typeface.create(typeface, textStyle);
+                fontResolved = true;
+              }
               callback.onFontRetrieved(font, false);
             }
 
@@ -186,8 +232,7 @@ public class TextAppearance {
               fontResolved = true;
               callback.onFontRetrievalFailed(reason);
             }
-          },
-          /* handler */ null);
+          });
     } catch (Resources.NotFoundException e) {
       // Expected if it is not a font resource.
       fontResolved = true;
@@ -199,6 +244,63 @@ public class TextAppearance {
     }
   }
 
+  /**
+   * Fetches the font {@code fontResId} asynchronously, and calls {@code callback} when it is
+   * loaded. If the font is already being fetched, {@code callback} is called when that fetch
+   * completes instead of starting another one.
+   */
+  private static void requestFont(
+      Context context, @FontRes final int fontResId, @NonNull FontCallback callback) {
+    synchronized (pendingFontRequests) {
+      List<FontCallback> callbacks = pendingFontRequests.get(fontResId);
+      if (callbacks != null) {
+        callbacks.add(callback);
+        return;
+      }
+      callbacks = new ArrayList<>();
+      callbacks.add(callback);
+      pendingFontRequests.put(fontResId, callbacks);
+    }
+
+    try {
+      ResourcesCompat.getFont(
+          context,
+          fontResId,
+          new FontCallback() {
+            @Override
+            public void onFontRetrieved(@NonNull Typeface typeface) {
+              for (FontCallback pendingCallback : removePendingFontRequest(fontResId)) {
+                pendingCallback.onFontRetrieved(typeface);
+              }
+            }
+
+            @Override
+            public void onFontRetrievalFailed(int reason) {
+              for (FontCallback pendingCallback : removePendingFontRequest(fontResId)) {
+                pendingCallback.onFontRetrievalFailed(reason);
+              }
+            }
+          },
+          /* handler */ null);
+    } catch (RuntimeException e) {
+      // The caller handles the failure for its own callback, fail the requests which joined it.
+      List<FontCallback> callbacks = removePendingFontRequest(fontResId);
+      for (int i = 1; i < callbacks.size(); i++) {
+        callbacks.get(i).onFontRetrievalFailed(FontRequestCallback.FAIL_REASON_FONT_LOAD_ERROR);
+      }
+      throw e;
+    }
+  }
+
+  @NonNull
+  private static List<FontCallback> removePendingFontRequest(@FontRes int fontResId) {
+    synchronized (pendingFontRequests) {
+      List<FontCallback> callbacks = pendingFontRequests.get(fontResId);
+      pendingFontRequests.remove(fontResId);
+      return callbacks != null ? callbacks : Collections.<FontCallback>emptyList();
+    }
+  }
+
   /**
    * Asynchronously resolves the requested font Typeface using the fontFamily, style, and typeface,
    * and automatically updates given {@code textPaint} using {@link #updateTextPaintMeasureState} on
@@ -246,7 +348,8 @@ public class TextAppearance {
     return font;
   }
 
-  private void createFallbackFont() {
+  // Synchronized so that the fallback font doesn't replace a font prefetched concurrently.
+  private synchronized void createFallbackFont() {
     // Try resolving fontFamily as a string name if specified.
     if (font == null && fontFamily != null) {
       font = Typeface.create(fontFamily, textStyle);
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.StyleRes;
+import android.util.SparseArray;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caches the {@link TextAppearance}s parsed in each {@link Theme}, so that components which use the
+ * same text appearance, such as all the chips of a screen, share a single {@link TextAppearance}
+ * and resolve its font once.
+ *
+ * <p>A {@link TextAppearance} depends on the theme it is parsed in, since its colors can refer to
+ * theme attributes, and on the resources of the theme and their configuration. Themes, resources
+ * and configurations are handled in the same way as by {@link ThemeAttributeCache}, so text
+ * appearances aren't shared below API 23. Their fonts are still shared there, through the font
+ * cache of {@link androidx.core.content.res.ResourcesCompat}.
+ *
+ * @hide
+ */
+@RestrictTo(LIBRARY_GROUP)
+public final class TextAppearanceCache {
+
+  private static final Map<Theme, ThemeTextAppearances> themeTextAppearances = new WeakHashMap<>();
+
+  private static int parseCount;
+  private static int hitCount;
+
+  private TextAppearanceCache() {}
+
+  /**
+   * Returns the {@link TextAppearance} parsed from the style {@code id} in the theme of {@code
+   * context}. The returned {@link TextAppearance} is shared with the other callers which use the
+   * same style in the same theme.
+   */
+  @NonNull
+  public static synchronized TextAppearance getTextAppearance(
+      @NonNull Context context, @StyleRes int id) {
+    if (VERSION.SDK_INT < VERSION_CODES.M) {
+      parseCount++;
+      return new TextAppearance(context, id);
+    }
+
+    Theme theme = context.getTheme();
+    Resources resources = context.getResources();
+    ThemeTextAppearances textAppearances = themeTextAppearances.get(theme);
+    if (textAppearances == null || !textAppearances.isValidFor(resources)) {
+      textAppearances = new ThemeTextAppearances(resources);
+      themeTextAppearances.put(theme, textAppearances);
+    }
+
+    TextAppearance textAppearance = textAppearances.textAppearances.get(id);
+    if (textAppearance != null) {
+      hitCount++;
+    } else {
+      parseCount++;
+      textAppearance = new TextAppearance(context, id);
+      textAppearances.textAppearances.put(id, textAppearance);
+    }
+    return textAppearance;
+  }
+
+  /** Drops the {@link TextAppearance}s cached for {@code theme}. */
+  public static synchronized void invalidate(@NonNull Theme theme) {
+    themeTextAppearances.remove(theme);
+  }
+
+  /** Drops the {@link TextAppearance}s cached for all themes. */
+  public static synchronized void evictAll() {
+    themeTextAppearances.clear();
+  }
+
+  /** Returns how many times a {@link TextAppearance} had to be parsed. */
+  public static synchronized int getParseCount() {
+    return parseCount;
+  }
+
+  /** Returns how many times a {@link TextAppearance} was found in the cache. */
+  public static synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  /** Resets the values returned by {@link #getParseCount()} and {@link #getHitCount()}. */
+  public static synchronized void resetStats() {
+    parseCount = 0;
+    hitCount = 0;
+  }
+
+  /**
+   * The text appearances parsed in a theme, with the resources and the configuration they were
+   * parsed for.
+   */
+  private static final class ThemeTextAppearances {
+
+    // Themes which are equal on API 23 and up may still belong to different resources.
+    final WeakReference<Resources> resources;
+    final Configuration configuration;
+    final SparseArray<TextAppearance> textAppearances = new SparseArray<>();
+
+    ThemeTextAppearances(Resources resources) {
+      this.resources = new WeakReference<>(resources);
+      this.configuration = new Configuration(resources.getConfiguration());
+    }
+
+    boolean isValidFor(Resources resources) {
+      return this.resources.get() == resources
+          && configuration.equals(resources.getConfiguration());
+    }
+  }
+}
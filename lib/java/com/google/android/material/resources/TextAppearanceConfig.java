@@ -18,6 +18,12 @@ package com.google.android.material.resources;
 
 import com.google.android.material.R;
 
+import android.content.Context;
+import android.os.AsyncTask;
+import androidx.annotation.NonNull;
+import androidx.annotation.StyleRes;
+import java.util.concurrent.Executor;
+
 /** Utility for configuring TextAppearance. */
 public class TextAppearanceConfig {
 
@@ -36,4 +42,40 @@ public class TextAppearanceConfig {
   public static boolean shouldLoadFontSynchronously() {
     return shouldLoadFontSynchronously;
   }
+
+  /**
+   * Resolves the fonts of the given TextAppearance styles in the background, so that components
+   * which use them later, such as chips or collapsing toolbars inflated in an upcoming screen, get
+   * their font immediately instead of drawing with a fallback font until it is loaded.
+   *
+   * <p>The styles are parsed in the theme of {@code context}, and shared with the components which
+   * use them in the same theme on API 23 and up. Below API 23, only the fonts are shared.
+   */
+  public static void prefetchFonts(
+      @NonNull Context context, @NonNull @StyleRes int... textAppearanceResIds) {
+    prefetchFonts(context, AsyncTask.THREAD_POOL_EXECUTOR, textAppearanceResIds);
+  }
+
+  /**
+   * Parses the given TextAppearance styles and resolves their fonts on {@code executor}.
+   *
+   * @see #prefetchFonts(Context, int...)
+   */
+  public static void prefetchFonts(
+      @NonNull final Context context,
+      @NonNull Executor executor,
+      @NonNull @StyleRes int... textAppearanceResIds) {
+    for (final int textAppearanceResId : textAppearanceResIds) {
+      executor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              // The style is parsed on the executor as well, so that the caller only pays for
+              // posting the task.
+              TextAppearanceCache.getTextAppearance(context, textAppearanceResId)
+                  .prefetchFont(context);
+            }
+          });
+    }
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import androidx.annotation.AttrRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import android.util.SparseArray;
+import android.util.TypedValue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caches the attributes resolved from each {@link Theme}, so that components which read the same
+ * theme attributes, such as {@code colorSurface}, only resolve each of them once per theme.
+ *
+ * <p>Resolved values depend on the resources of a theme and on their configuration, so the values
+ * cached for a theme are dropped when it's read with other resources, or when the configuration of
+ * its resources changes. Themes are compared with {@link Theme#equals(Object)}, which on API 23 and
+ * up takes into account the styles applied to the theme, so applying a style to a theme stops its
+ * old values from being used. On lower API levels, themes are only equal to themselves whatever
+ * styles are applied to them, so attributes are resolved from the theme every time.
+ *
+ * @hide
+ */
+@RestrictTo(LIBRARY_GROUP)
+public final class ThemeAttributeCache {
+
+  // Marks attributes which are not set in a theme, so that they aren't looked up again either.
+  private static final TypedValue UNRESOLVED = new TypedValue();
+
+  private static final Map<Theme, ThemeValues> themeValues = new WeakHashMap<>();
+
+  private static int lookupCount;
+  private static int hitCount;
+
+  private ThemeAttributeCache() {}
+
+  /**
+   * Returns a copy of the {@link TypedValue} of {@code attributeResId} in the theme of {@code
+   * context}, or null if the attribute is not set in the theme. The cached value itself is never
+   * returned, so callers may modify the returned value.
+   */
+  @Nullable
+  public static synchronized TypedValue resolveAttribute(
+      @NonNull Context context, @AttrRes int attributeResId) {
+    Theme theme = context.getTheme();
+    if (VERSION.SDK_INT < VERSION_CODES.M) {
+      lookupCount++;
+      TypedValue typedValue = new TypedValue();
+      return theme.resolveAttribute(attributeResId, typedValue, true) ? typedValue : null;
+    }
+
+    Resources resources = context.getResources();
+    ThemeValues values = themeValues.get(theme);
+    if (values == null || !values.isValidFor(resources)) {
+      values = new ThemeValues(resources);
+      themeValues.put(theme, values);
+    }
+
+    TypedValue typedValue = values.attributes.get(attributeResId);
+    if (typedValue != null) {
+      hitCount++;
+    } else {
+      lookupCount++;
+      typedValue = new TypedValue();
+      if (!theme.resolveAttribute(attributeResId, typedValue, true)) {
+        typedValue = UNRESOLVED;
+      }
+      values.attributes.put(attributeResId, typedValue);
+    }
+    if (typedValue == UNRESOLVED) {
+      return null;
+    }
+    TypedValue copy = new TypedValue();
+    copy.setTo(typedValue);
+    return copy;
+  }
+
+  /** Drops the values cached for {@code theme}. */
+  public static synchronized void invalidate(@NonNull Theme theme) {
+    themeValues.remove(theme);
+  }
+
+  /** Drops the values cached for all themes. */
+  public static synchronized void evictAll() {
+    themeValues.clear();
+  }
+
+  /** Returns how many times an attribute had to be resolved from a theme. */
+  public static synchronized int getLookupCount() {
+    return lookupCount;
+  }
+
+  /** Returns how many times an attribute was found in the cache. */
+  public static synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  /** Resets the values returned by {@link #getLookupCount()} and {@link #getHitCount()}. */
+  public static synchronized void resetStats() {
+    lookupCount = 0;
+    hitCount = 0;
+  }
+
+  /**
+   * The attributes resolved from a theme, with the resources and the configuration they were
+   * resolved for.
+   */
+  private static final class ThemeValues {
+
+    // Themes which are equal on API 23 and up may still belong to different resources.
+    final WeakReference<Resources> resources;
+    final Configuration configuration;
+    final SparseArray<TypedValue> attributes = new SparseArray<>();
+
+    ThemeValues(Resources resources) {
+      this.resources = new WeakReference<>(resources);
+      this.configuration = new Configuration(resources.getConfiguration());
+    }
+
+    boolean isValidFor(Resources resources) {
+      return this.resources.get() == resources
+          && configuration.equals(resources.getConfiguration());
+    }
+  }
+}
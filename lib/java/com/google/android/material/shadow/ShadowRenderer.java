@@ -28,6 +28,7 @@ import android.graphics.RadialGradient;
 import android.graphics.RectF;
 import android.graphics.Region.Op;
 import android.graphics.Shader;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.core.graphics.ColorUtils;
 
@@ -46,6 +47,12 @@ public class ShadowRenderer {
 
   private static final int COLOR_ALPHA_END = 0;
 
+  /**
+   * Number of corner shaders kept, enough for four corners of different sizes each drawn inside or
+   * outside of their bounds.
+   */
+  private static final int CORNER_SHADER_CACHE_SIZE = 8;
+
   private final Paint shadowPaint;
   private final Paint cornerShadowPaint;
   private final Paint edgeShadowPaint;
@@ -63,6 +70,13 @@ public class ShadowRenderer {
   private static final float[] cornerPositions = new float[] {0f, 0f, .5f, 1f};
 
   private final Path scratch = new Path();
+  private final Matrix shaderMatrix = new Matrix();
+
+  // Shaders are created at the origin and moved into place with their local matrix, so that they
+  // can be reused as long as the elevation, colors and size of the shadow stay the same.
+  private final CachedShader edgeShader = new CachedShader();
+  private final CachedShader[] cornerShaders = new CachedShader[CORNER_SHADER_CACHE_SIZE];
+  private int nextCornerShader;
 
   public ShadowRenderer() {
     this(Color.BLACK);
@@ -78,6 +92,10 @@ public class ShadowRenderer {
     shadowPaint.setColor(shadowStartColor);
 
     edgeShadowPaint = new Paint(cornerShadowPaint);
+
+    for (int i = 0; i < CORNER_SHADER_CACHE_SIZE; i++) {
+      cornerShaders[i] = new CachedShader();
+    }
   }
 
   public void setShadowColor(int color) {
@@ -86,24 +104,32 @@ public class ShadowRenderer {
     shadowEndColor = ColorUtils.setAlphaComponent(color, COLOR_ALPHA_END);
   }
 
+  /** Returns the color at the start of the shadow gradients, which the other colors derive from. */
+  public int getShadowStartColor() {
+    return shadowStartColor;
+  }
+
   /** Draws an edge shadow on the canvas in the current bounds with the matrix transform applied. */
   public void drawEdgeShadow(Canvas canvas, Matrix transform, RectF bounds, int elevation) {
     bounds.bottom += elevation;
     bounds.offset(0, -elevation);
 
-    edgeColors[0] = shadowEndColor;
-    edgeColors[1] = shadowMiddleColor;
-    edgeColors[2] = shadowStartColor;
-
-    edgeShadowPaint.setShader(
-        new LinearGradient(
-            bounds.left,
-            bounds.top,
-            bounds.left,
-            bounds.bottom,
-            edgeColors,
-            edgePositions,
-            Shader.TileMode.CLAMP));
+    float height = bounds.height();
+    if (!edgeShader.matches(height, elevation, false, shadowStartColor)) {
+      edgeColors[0] = shadowEndColor;
+      edgeColors[1] = shadowMiddleColor;
+      edgeColors[2] = shadowStartColor;
+
+      edgeShader.set(
+          new LinearGradient(0, 0, 0, height, edgeColors, edgePositions, Shader.TileMode.CLAMP),
+          height,
+          elevation,
+          false,
+          shadowStartColor);
+    }
+    shaderMatrix.setTranslate(bounds.left, bounds.top);
+    edgeShader.shader.setLocalMatrix(shaderMatrix);
+    edgeShadowPaint.setShader(edgeShader.shader);
 
     canvas.save();
     canvas.concat(transform);
@@ -126,12 +152,7 @@ public class ShadowRenderer {
 
     Path arcBounds = scratch;
 
-    if (drawShadowInsideBounds) {
-      cornerColors[0] = 0;
-      cornerColors[1] = shadowEndColor;
-      cornerColors[2] = shadowMiddleColor;
-      cornerColors[3] = shadowStartColor;
-    } else {
+    if (!drawShadowInsideBounds) {
       // Calculate the arc bounds to prevent drawing shadow in the same part of the arc.
       arcBounds.rewind();
       arcBounds.moveTo(bounds.centerX(), bounds.centerY());
@@ -139,25 +160,13 @@ public class ShadowRenderer {
       arcBounds.close();
 
       bounds.inset(-elevation, -elevation);
-      cornerColors[0] = 0;
-      cornerColors[1] = shadowStartColor;
-      cornerColors[2] = shadowMiddleColor;
-      cornerColors[3] = shadowEndColor;
     }
 
-    float startRatio = 1f - (elevation / (bounds.width() / 2f));
-    float midRatio = startRatio + ((1f - startRatio) / 2f);
-    cornerPositions[1] = startRatio;
-    cornerPositions[2] = midRatio;
-
-    cornerShadowPaint.setShader(
-        new RadialGradient(
-            bounds.centerX(),
-            bounds.centerY(),
-            bounds.width() / 2,
-            cornerColors,
-            cornerPositions,
-            Shader.TileMode.CLAMP));
+    float radius = bounds.width() / 2f;
+    CachedShader cornerShader = getCornerShader(radius, elevation, drawShadowInsideBounds);
+    shaderMatrix.setTranslate(bounds.centerX(), bounds.centerY());
+    cornerShader.shader.setLocalMatrix(shaderMatrix);
+    cornerShadowPaint.setShader(cornerShader.shader);
 
     // TODO: handle oval bounds by scaling the canvas.
 
@@ -175,4 +184,67 @@ public class ShadowRenderer {
   public Paint getShadowPaint() {
     return shadowPaint;
   }
+
+  /** Returns a corner shader centered at the origin, creating it if it isn't cached. */
+  private CachedShader getCornerShader(float radius, int elevation, boolean insideBounds) {
+    for (CachedShader cornerShader : cornerShaders) {
+      if (cornerShader.matches(radius, elevation, insideBounds, shadowStartColor)) {
+        return cornerShader;
+      }
+    }
+
+    if (insideBounds) {
+      cornerColors[0] = 0;
+      cornerColors[1] = shadowEndColor;
+      cornerColors[2] = shadowMiddleColor;
+      cornerColors[3] = shadowStartColor;
+    } else {
+      cornerColors[0] = 0;
+      cornerColors[1] = shadowStartColor;
+      cornerColors[2] = shadowMiddleColor;
+      cornerColors[3] = shadowEndColor;
+    }
+
+    float startRatio = 1f - (elevation / radius);
+    float midRatio = startRatio + ((1f - startRatio) / 2f);
+    cornerPositions[1] = startRatio;
+    cornerPositions[2] = midRatio;
+
+    // Replace the cached shaders in a round robin, which is enough for the handful of corner
+    // shaders a shape uses.
+    CachedShader cornerShader = cornerShaders[nextCornerShader];
+    nextCornerShader = (nextCornerShader + 1) % CORNER_SHADER_CACHE_SIZE;
+    cornerShader.set(
+        new RadialGradient(0, 0, radius, cornerColors, cornerPositions, Shader.TileMode.CLAMP),
+        radius,
+        elevation,
+        insideBounds,
+        shadowStartColor);
+    return cornerShader;
+  }
+
+  /** A shader along with the shadow parameters it was created for. */
+  private static final class CachedShader {
+    @Nullable Shader shader;
+    float size;
+    int elevation;
+    boolean insideBounds;
+    int color;
+
+    boolean matches(float size, int elevation, boolean insideBounds, int color) {
+      return shader != null
+          && this.size == size
+          && this.elevation == elevation
+          && this.insideBounds == insideBounds
+          && this.color == color;
+    }
+
+    void set(Shader shader, float size, int elevation, boolean insideBounds, int color) {
+      this.shader = shader;
+      this.size = size;
+      this.elevation = elevation;
+      this.insideBounds = insideBounds;
+      this.color = color;
+    }
+  }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.shape.ShapeAppearanceKey.BOTTOM_LEFT;
+import static com.google.android.material.shape.ShapeAppearanceKey.BOTTOM_RIGHT;
+import static com.google.android.material.shape.ShapeAppearanceKey.TOP_LEFT;
+import static com.google.android.material.shape.ShapeAppearanceKey.TOP_RIGHT;
+
+import android.graphics.Path;
+import android.graphics.Path.Direction;
+import android.graphics.RectF;
+
+/**
+ * Writes the path of a shape described by a {@link ShapeAppearanceKey} directly from its corner
+ * sizes, rather than walking the corner and edge treatments with a {@link
+ * ShapeAppearancePathProvider}.
+ *
+ * <p>Shapes with only rounded corners are added as a single round rect, which the renderer can
+ * draw and outline without tessellating a generic path. Shapes with cut corners are written as a
+ * polygon, with an arc for each rounded corner. The result is the same shape as the one calculated
+ * by {@link ShapeAppearancePathProvider}, as long as the corners of each side don't overlap, see
+ * {@link #canApply(ShapeAppearanceKey, RectF)}.
+ */
+final class AnalyticShapePath {
+
+  private final float[] radii = new float[8];
+  private final RectF oval = new RectF();
+
+  /**
+   * Returns whether the path for {@code key} can be written analytically within {@code bounds},
+   * which is the case when the corners on each side of the bounds fit without overlapping.
+   */
+  static boolean canApply(ShapeAppearanceKey key, RectF bounds) {
+    float width = bounds.width();
+    float height = bounds.height();
+    return key.getCornerSize(TOP_LEFT) + key.getCornerSize(TOP_RIGHT) <= width
+        && key.getCornerSize(BOTTOM_LEFT) + key.getCornerSize(BOTTOM_RIGHT) <= width
+        && key.getCornerSize(TOP_LEFT) + key.getCornerSize(BOTTOM_LEFT) <= height
+        && key.getCornerSize(TOP_RIGHT) + key.getCornerSize(BOTTOM_RIGHT) <= height;
+  }
+
+  /** Writes the path of {@code key} within {@code bounds} to {@code path}. */
+  void applyToPath(ShapeAppearanceKey key, RectF bounds, Path path) {
+    path.rewind();
+    if (!key.hasCutCorners()) {
+      for (int i = 0; i < 4; i++) {
+        radii[2 * i] = key.getCornerSize(i);
+        radii[2 * i + 1] = key.getCornerSize(i);
+      }
+      path.addRoundRect(bounds, radii, Direction.CW);
+      return;
+    }
+
+    // Clockwise from the start of the top right corner, like ShapeAppearancePathProvider.
+    float topRight = key.getCornerSize(TOP_RIGHT);
+    path.moveTo(bounds.right - topRight, bounds.top);
+    appendCorner(key, TOP_RIGHT, bounds.right - 2 * topRight, bounds.top, 270, path);
+    path.lineTo(bounds.right, bounds.top + topRight);
+
+    float bottomRight = key.getCornerSize(BOTTOM_RIGHT);
+    path.lineTo(bounds.right, bounds.bottom - bottomRight);
+    appendCorner(
+        key,
+        BOTTOM_RIGHT,
+        bounds.right - 2 * bottomRight,
+        bounds.bottom - 2 * bottomRight,
+        0,
+        path);
+    path.lineTo(bounds.right - bottomRight, bounds.bottom);
+
+    float bottomLeft = key.getCornerSize(BOTTOM_LEFT);
+    path.lineTo(bounds.left + bottomLeft, bounds.bottom);
+    appendCorner(key, BOTTOM_LEFT, bounds.left, bounds.bottom - 2 * bottomLeft, 90, path);
+    path.lineTo(bounds.left, bounds.bottom - bottomLeft);
+
+    float topLeft = key.getCornerSize(TOP_LEFT);
+    path.lineTo(bounds.left, bounds.top + topLeft);
+    appendCorner(key, TOP_LEFT, bounds.left, bounds.top, 180, path);
+    path.lineTo(bounds.left + topLeft, bounds.top);
+    path.close();
+  }
+
+  /**
+   * Appends the arc of a rounded corner, whose oval starts at ({@code left}, {@code top}). Cut
+   * corners are a straight line, which is added by the caller.
+   */
+  private void appendCorner(
+      ShapeAppearanceKey key, int index, float left, float top, float startAngle, Path path) {
+    float size = key.getCornerSize(index);
+    if (size == 0 || key.isCutCorner(index)) {
+      return;
+    }
+    oval.set(left, top, left + 2 * size, top + 2 * size);
+    path.arcTo(oval, startAngle, 90, false);
+  }
+}
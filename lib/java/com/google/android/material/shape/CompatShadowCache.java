@@ -0,0 +1,372 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds the memory used by the bitmaps that {@link MaterialShapeDrawable} renders its
+ * compatibility shadows into.
+ *
+ * <p>Each drawable keeps its shadow layer between frames and only renders it again when the shape
+ * or the shadow changes. Layers are tracked in least recently drawn order, and once their total
+ * size exceeds {@link #getMaxSizeBytes()} the least recently drawn layers are recycled. An evicted
+ * layer is rendered again the next time its drawable is drawn.
+ *
+ * <p>Shapes with {@link RoundedCornerTreatment} or {@link CutCornerTreatment} corners and default
+ * edges share their shadows instead. The shadow is rendered once around the smallest shape with the
+ * same corners, and every drawable with the same corners, interpolation and shadow parameters
+ * draws it stretched along its straight edges, like a nine-patch. {@link #getSharedHitCount()} and
+ * {@link #getSharedMissCount()} report how often drawables find an already rendered shadow.
+ */
+public final class CompatShadowCache {
+
+  /** The default maximum size, in bytes, of all cached shadow layers. */
+  public static final int DEFAULT_MAX_SIZE_BYTES = 4 * 1024 * 1024;
+
+  // Access ordered, so iteration starts at the least recently drawn layer.
+  private static final Map<ShadowLayer, Boolean> layers = new LinkedHashMap<>(16, 0.75f, true);
+
+  private static final Map<SharedShadowKey, ShadowLayer> sharedLayers = new HashMap<>();
+
+  private static int maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+  private static int sizeBytes;
+  private static int sharedHitCount;
+  private static int sharedMissCount;
+
+  private CompatShadowCache() {}
+
+  /**
+   * Sets the maximum size, in bytes, of all cached shadow layers. Layers are evicted immediately if
+   * the cache is currently larger than {@code maxSizeBytes}. A value of 0 disables caching, which
+   * means that shadows are rendered into a new bitmap on every frame.
+   */
+  public static synchronized void setMaxSizeBytes(int maxSizeBytes) {
+    if (maxSizeBytes < 0) {
+      throw new IllegalArgumentException("maxSizeBytes must be >= 0");
+    }
+    CompatShadowCache.maxSizeBytes = maxSizeBytes;
+    trimToSize(maxSizeBytes);
+  }
+
+  /** Returns the maximum size, in bytes, of all cached shadow layers. */
+  public static synchronized int getMaxSizeBytes() {
+    return maxSizeBytes;
+  }
+
+  /** Returns the size, in bytes, of all shadow layers currently held by the cache. */
+  public static synchronized int getSizeBytes() {
+    return sizeBytes;
+  }
+
+  /**
+   * Evicts the least recently drawn shadow layers until the cache is no larger than {@code
+   * sizeBytes}. This can be used in response to {@link android.content.ComponentCallbacks2}
+   * memory trim callbacks.
+   */
+  public static synchronized void trimToSize(int sizeBytes) {
+    Iterator<ShadowLayer> iterator = layers.keySet().iterator();
+    while (CompatShadowCache.sizeBytes > sizeBytes && iterator.hasNext()) {
+      ShadowLayer layer = iterator.next();
+      iterator.remove();
+      CompatShadowCache.sizeBytes -= layer.recycle();
+      if (layer.sharedKey != null) {
+        sharedLayers.remove(layer.sharedKey);
+      }
+    }
+  }
+
+  /** Evicts all cached shadow layers. */
+  public static synchronized void evictAll() {
+    trimToSize(0);
+  }
+
+  /** Returns the number of shared shadow layers currently held by the cache. */
+  public static synchronized int getSharedLayerCount() {
+    return sharedLayers.size();
+  }
+
+  /**
+   * Returns how many times a drawable found its shadow already rendered by another drawable with
+   * the same shape and shadow parameters.
+   */
+  public static synchronized int getSharedHitCount() {
+    return sharedHitCount;
+  }
+
+  /** Returns how many times a shared shadow had to be rendered because it wasn't in the cache. */
+  public static synchronized int getSharedMissCount() {
+    return sharedMissCount;
+  }
+
+  /**
+   * Resets the values returned by {@link #getSharedHitCount()} and {@link #getSharedMissCount()}.
+   */
+  public static synchronized void resetSharedStats() {
+    sharedHitCount = 0;
+    sharedMissCount = 0;
+  }
+
+  /**
+   * Returns the shared layer for {@code key}. If the shadow hasn't been rendered yet a new layer is
+   * returned, which the caller is expected to render through {@link #obtainBitmap} right away.
+   */
+  @NonNull
+  static synchronized ShadowLayer getSharedLayer(@NonNull SharedShadowKey key) {
+    ShadowLayer layer = sharedLayers.get(key);
+    if (layer != null) {
+      sharedHitCount++;
+      return layer;
+    }
+    sharedMissCount++;
+    SharedShadowKey sharedKey = new SharedShadowKey(key);
+    layer = new ShadowLayer(sharedKey);
+    sharedLayers.put(sharedKey, layer);
+    return layer;
+  }
+
+  /** Recycles the bitmap of {@code layer} if it holds one, without waiting for it to be evicted. */
+  static synchronized void release(@NonNull ShadowLayer layer) {
+    if (layers.remove(layer) != null) {
+      sizeBytes -= layer.recycle();
+    }
+  }
+
+  /**
+   * Returns the bitmap of {@code layer} if it is still cached, matches the requested size and
+   * doesn't need to be rendered again, or null otherwise.
+   */
+  @Nullable
+  static synchronized Bitmap getBitmap(@NonNull ShadowLayer layer, int width, int height) {
+    if (layer.dirty || !layer.hasBitmap(width, height)) {
+      return null;
+    }
+    // Marks the layer as the most recently drawn.
+    layers.get(layer);
+    return layer.bitmap;
+  }
+
+  /**
+   * Returns a cleared bitmap of the requested size for {@code layer} to render into, reusing the
+   * layer's current bitmap if possible. The caller must call {@link #trimToMaxSize()} once it is
+   * done drawing the bitmap.
+   */
+  @NonNull
+  static synchronized Bitmap obtainBitmap(@NonNull ShadowLayer layer, int width, int height) {
+    if (layer.hasBitmap(width, height)) {
+      layers.get(layer);
+      layer.bitmap.eraseColor(Color.TRANSPARENT);
+    } else {
+      if (layers.remove(layer) != null) {
+        sizeBytes -= layer.recycle();
+      }
+      layer.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+      layers.put(layer, Boolean.TRUE);
+      sizeBytes += layer.getSizeBytes();
+    }
+    layer.canvas.setBitmap(layer.bitmap);
+    layer.dirty = false;
+    return layer.bitmap;
+  }
+
+  /** Evicts the least recently drawn shadow layers until the cache fits its maximum size. */
+  static synchronized void trimToMaxSize() {
+    trimToSize(maxSizeBytes);
+  }
+
+  /**
+   * A compatibility shadow rendered into a bitmap, either owned by a single drawable or shared by
+   * all drawables with the same {@link SharedShadowKey}.
+   */
+  static final class ShadowLayer {
+
+    @Nullable private final SharedShadowKey sharedKey;
+    @Nullable private Bitmap bitmap;
+    private final Canvas canvas = new Canvas();
+    private boolean dirty = true;
+
+    ShadowLayer() {
+      this(null);
+    }
+
+    private ShadowLayer(@Nullable SharedShadowKey sharedKey) {
+      this.sharedKey = sharedKey;
+    }
+
+    /** Marks the layer as stale, so that it's rendered again the next time it's drawn. */
+    void invalidate() {
+      dirty = true;
+    }
+
+    /** Returns the canvas that draws into the bitmap from the last call to obtainBitmap. */
+    @NonNull
+    Canvas getCanvas() {
+      return canvas;
+    }
+
+    private boolean hasBitmap(int width, int height) {
+      return bitmap != null && bitmap.getWidth() == width && bitmap.getHeight() == height;
+    }
+
+    private int getSizeBytes() {
+      return bitmap == null ? 0 : bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /** Recycles the bitmap of this layer and returns the number of bytes freed. */
+    private int recycle() {
+      int size = getSizeBytes();
+      if (bitmap != null) {
+        canvas.setBitmap(null);
+        bitmap.recycle();
+        bitmap = null;
+      }
+      dirty = true;
+      return size;
+    }
+  }
+
+  /**
+   * Describes a shadow that can be shared, which is a shadow around a shape with rounded or cut
+   * corners and straight edges. The shadow is rendered around the smallest such shape that still
+   * has a straight section on every edge, given by {@link #getWidth()} and {@link #getHeight()},
+   * and is stretched at {@link #getStretchX()} and {@link #getStretchY()} to fit larger bounds.
+   *
+   * <p>The shape is compared through a {@link ShapeAppearanceKey}, and the shadow through the
+   * radius and offset derived from the elevation and the shadow color. The size of the rendered
+   * shadow follows from those, so it isn't part of the key.
+   */
+  static final class SharedShadowKey {
+
+    /** Extra pixels on both sides of the stretched section, to stay clear of anti-aliasing. */
+    private static final int STRETCH_MARGIN = 1;
+
+    private final ShapeAppearanceKey shapeKey = new ShapeAppearanceKey();
+    private int radius;
+    private int offsetX;
+    private int offsetY;
+    private int color;
+
+    SharedShadowKey() {}
+
+    private SharedShadowKey(SharedShadowKey other) {
+      shapeKey.set(other.shapeKey);
+      radius = other.radius;
+      offsetX = other.offsetX;
+      offsetY = other.offsetY;
+      color = other.color;
+    }
+
+    /**
+     * Sets this key from the shape and shadow parameters of a drawable, and returns false if the
+     * shadow of the shape can't be shared.
+     */
+    boolean set(
+        ShapeAppearanceModel shapeAppearanceModel,
+        float interpolation,
+        int radius,
+        int offsetX,
+        int offsetY,
+        int color) {
+      if (!shapeKey.set(shapeAppearanceModel, interpolation)) {
+        return false;
+      }
+      this.radius = radius;
+      this.offsetX = offsetX;
+      this.offsetY = offsetY;
+      this.color = color;
+      return true;
+    }
+
+    /** Returns the width of the shape the shared shadow is rendered around. */
+    int getWidth() {
+      return getLeftInset() + getRightInset() + Math.abs(offsetX) + 1 + 2 * STRETCH_MARGIN;
+    }
+
+    /** Returns the height of the shape the shared shadow is rendered around. */
+    int getHeight() {
+      return getTopInset() + getBottomInset() + Math.abs(offsetY) + 1 + 2 * STRETCH_MARGIN;
+    }
+
+    /**
+     * Returns the column of the shadow layer that is stretched horizontally. Both the shape and the
+     * shape cleared from the shadow, which is offset by the shadow offset, are straight there.
+     */
+    int getStretchX() {
+      return radius + getLeftInset() + Math.max(0, -offsetX) + STRETCH_MARGIN;
+    }
+
+    /** Returns the row of the shadow layer that is stretched vertically. */
+    int getStretchY() {
+      return radius + getTopInset() + Math.max(0, -offsetY) + STRETCH_MARGIN;
+    }
+
+    private int getLeftInset() {
+      return getInset(ShapeAppearanceKey.TOP_LEFT, ShapeAppearanceKey.BOTTOM_LEFT);
+    }
+
+    private int getTopInset() {
+      return getInset(ShapeAppearanceKey.TOP_LEFT, ShapeAppearanceKey.TOP_RIGHT);
+    }
+
+    private int getRightInset() {
+      return getInset(ShapeAppearanceKey.TOP_RIGHT, ShapeAppearanceKey.BOTTOM_RIGHT);
+    }
+
+    private int getBottomInset() {
+      return getInset(ShapeAppearanceKey.BOTTOM_RIGHT, ShapeAppearanceKey.BOTTOM_LEFT);
+    }
+
+    private int getInset(int corner, int otherCorner) {
+      return (int)
+          Math.ceil(Math.max(shapeKey.getCornerSize(corner), shapeKey.getCornerSize(otherCorner)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SharedShadowKey)) {
+        return false;
+      }
+      SharedShadowKey that = (SharedShadowKey) o;
+      return radius == that.radius
+          && offsetX == that.offsetX
+          && offsetY == that.offsetY
+          && color == that.color
+          && shapeKey.equals(that.shapeKey);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = shapeKey.hashCode();
+      result = 31 * result + radius;
+      result = 31 * result + offsetX;
+      result = 31 * result + offsetY;
+      result = 31 * result + color;
+      return result;
+    }
+  }
+}
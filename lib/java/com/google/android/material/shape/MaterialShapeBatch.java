@@ -0,0 +1,397 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Paint.Style;
+import android.graphics.Path;
+import android.graphics.PorterDuff.Mode;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import com.google.android.material.canvas.CanvasCompat;
+import com.google.android.material.shadow.ShadowRenderer;
+import com.google.android.material.shape.ShapeAppearancePathProvider.PathListener;
+import com.google.android.material.shape.ShapePath.ShadowCompatOperation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws many shapes, each described by a {@link ShapeAppearanceModel}, its bounds, a fill, a stroke
+ * and an elevation, with shared paints and paths and as few draw calls as their paints allow.
+ *
+ * <p>This is meant for custom views which draw many small shaped cells, such as the days of a
+ * calendar or a row of tags, where a {@link MaterialShapeDrawable} per cell would mean as many
+ * paints, tint filters and paths. Instead the batch shares its paints and paths between all shapes:
+ *
+ * <ul>
+ *   <li>The compat shadows of all shapes with an elevation are drawn first, into a single layer.
+ *       Each shadow is still made of the corner and edge gradients of its own shape.
+ *   <li>Fills are then drawn grouped by color, and strokes grouped by color and width. Round rects
+ *       are drawn with {@link Canvas#drawRoundRect(RectF, float, float, Paint)}, and all other
+ *       shapes of a group are combined into a single path which is drawn with one call.
+ * </ul>
+ *
+ * <p>Since shapes are drawn grouped rather than in the order they were added, the shapes of a batch
+ * should not overlap. The groups are only sorted again when shapes are added or removed. A batch
+ * can be cleared and refilled on every frame without allocating once it has grown to the number of
+ * shapes drawn.
+ */
+public class MaterialShapeBatch {
+
+  // The same proportions of the elevation as the compat shadow of MaterialShapeDrawable.
+  private static final float SHADOW_RADIUS_MULTIPLIER = .75f;
+  private static final float SHADOW_OFFSET_MULTIPLIER = .25f;
+
+  private final List<Entry> entries = new ArrayList<>();
+  private int size;
+
+  // The indices of the entries sorted by fill and by stroke paint state, valid unless dirty.
+  private int[] fillOrder = new int[0];
+  private int[] strokeOrder = new int[0];
+  private boolean ordersDirty;
+
+  private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final Path groupPath = new Path();
+  private final Path shapePath = new Path();
+  private final RectF shapeBounds = new RectF();
+  private final ShapeAppearanceKey shapeKey = new ShapeAppearanceKey();
+  private final AnalyticShapePath analyticShapePath = new AnalyticShapePath();
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+
+  private final ShadowRenderer shadowRenderer = new ShadowRenderer();
+  private final Paint clearPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final RectF shadowLayerBounds = new RectF();
+  private final ShadowCompatOperation[] cornerShadowOperations = new ShadowCompatOperation[4];
+  private final ShadowCompatOperation[] edgeShadowOperations = new ShadowCompatOperation[4];
+  private final PathListener shadowPathListener =
+      new PathListener() {
+        @Override
+        public void onCornerPathCreated(ShapePath cornerPath, Matrix transform, int count) {
+          cornerShadowOperations[count] = cornerPath.createShadowCompatOperation(transform);
+        }
+
+        @Override
+        public void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count) {
+          edgeShadowOperations[count] = edgePath.createShadowCompatOperation(transform);
+        }
+      };
+
+  public MaterialShapeBatch() {
+    fillPaint.setStyle(Style.FILL);
+    strokePaint.setStyle(Style.STROKE);
+    clearPaint.setColor(Color.WHITE);
+    clearPaint.setXfermode(new PorterDuffXfermode(Mode.DST_OUT));
+  }
+
+  /** Adds a filled shape without a stroke or a shadow. */
+  public void add(
+      @NonNull ShapeAppearanceModel shapeAppearanceModel,
+      @NonNull RectF bounds,
+      @ColorInt int fillColor) {
+    add(shapeAppearanceModel, bounds, fillColor, 0, Color.TRANSPARENT, 0);
+  }
+
+  /**
+   * Adds a shape.
+   *
+   * @param shapeAppearanceModel the shape, which must not be modified until the batch is drawn.
+   * @param bounds the bounds of the shape, which are copied.
+   * @param fillColor the color of the fill, or {@link Color#TRANSPARENT} for no fill.
+   * @param strokeWidth the width of the stroke, which is drawn inside the bounds, or 0 for no
+   *     stroke.
+   * @param strokeColor the color of the stroke.
+   * @param elevation the elevation used to draw the compat shadow of the shape, or 0 for no shadow.
+   */
+  public void add(
+      @NonNull ShapeAppearanceModel shapeAppearanceModel,
+      @NonNull RectF bounds,
+      @ColorInt int fillColor,
+      float strokeWidth,
+      @ColorInt int strokeColor,
+      float elevation) {
+    Entry entry;
+    if (size < entries.size()) {
+      entry = entries.get(size);
+    } else {
+      entry = new Entry();
+      entries.add(entry);
+    }
+    entry.shapeAppearanceModel = shapeAppearanceModel;
+    entry.bounds.set(bounds);
+    entry.fillColor = fillColor;
+    entry.strokeWidth = strokeWidth;
+    entry.strokeColor = strokeColor;
+    entry.elevation = elevation;
+    size++;
+    ordersDirty = true;
+  }
+
+  /** Removes all shapes from the batch. */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      entries.get(i).shapeAppearanceModel = null;
+    }
+    size = 0;
+    ordersDirty = true;
+  }
+
+  /** Returns the number of shapes in the batch. */
+  public int size() {
+    return size;
+  }
+
+  /** Sets the color of the compat shadows drawn for shapes with an elevation. */
+  public void setShadowColor(@ColorInt int shadowColor) {
+    shadowRenderer.setShadowColor(shadowColor);
+  }
+
+  /** Draws all shapes of the batch to {@code canvas}. */
+  public void draw(@NonNull Canvas canvas) {
+    if (ordersDirty) {
+      updateOrders();
+      ordersDirty = false;
+    }
+    drawShadows(canvas);
+    drawGroups(canvas, fillPaint, fillOrder, false);
+    drawGroups(canvas, strokePaint, strokeOrder, true);
+  }
+
+  /**
+   * Draws the compat shadows of all shapes with an elevation into one layer. Like {@link
+   * MaterialShapeDrawable}, the shape itself is then cleared from its shadow, so that it doesn't
+   * show through a translucent fill.
+   */
+  private void drawShadows(Canvas canvas) {
+    shadowLayerBounds.setEmpty();
+    for (int i = 0; i < size; i++) {
+      Entry entry = entries.get(i);
+      if (entry.hasShadow()) {
+        float radius = getShadowRadius(entry);
+        float offset = getShadowOffset(entry);
+        shadowLayerBounds.union(
+            entry.bounds.left - radius,
+            entry.bounds.top - radius,
+            entry.bounds.right + radius,
+            entry.bounds.bottom + radius + offset);
+      }
+    }
+    if (shadowLayerBounds.isEmpty()) {
+      return;
+    }
+
+    int saveCount = CanvasCompat.saveLayerAlpha(canvas, shadowLayerBounds, 255);
+    for (int i = 0; i < size; i++) {
+      Entry entry = entries.get(i);
+      if (!entry.hasShadow()) {
+        continue;
+      }
+      int radius = getShadowRadius(entry);
+      int offset = getShadowOffset(entry);
+      pathProvider.calculatePath(
+          entry.shapeAppearanceModel, 1, entry.bounds, shadowPathListener, shapePath);
+
+      canvas.translate(0, offset);
+      if (offset != 0) {
+        canvas.drawPath(shapePath, shadowRenderer.getShadowPaint());
+      }
+      for (int index = 0; index < 4; index++) {
+        cornerShadowOperations[index].draw(shadowRenderer, radius, canvas);
+        edgeShadowOperations[index].draw(shadowRenderer, radius, canvas);
+      }
+      canvas.translate(0, -offset);
+      canvas.drawPath(shapePath, clearPaint);
+    }
+    canvas.restoreToCount(saveCount);
+  }
+
+  private static int getShadowRadius(Entry entry) {
+    return (int) Math.ceil(entry.elevation * SHADOW_RADIUS_MULTIPLIER);
+  }
+
+  private static int getShadowOffset(Entry entry) {
+    return (int) Math.ceil(entry.elevation * SHADOW_OFFSET_MULTIPLIER);
+  }
+
+  /** Draws each run of entries in {@code order} which share the same paint state. */
+  private void drawGroups(Canvas canvas, Paint paint, int[] order, boolean stroke) {
+    int start = 0;
+    while (start < size) {
+      Entry first = entries.get(order[start]);
+      int end = start + 1;
+      while (end < size && hasSamePaint(first, entries.get(order[end]), stroke)) {
+        end++;
+      }
+      if (stroke ? first.hasStroke() : first.hasFill()) {
+        if (stroke) {
+          paint.setColor(first.strokeColor);
+          paint.setStrokeWidth(first.strokeWidth);
+        } else {
+          paint.setColor(first.fillColor);
+        }
+        drawGroup(canvas, paint, order, start, end, stroke);
+      }
+      start = end;
+    }
+  }
+
+  private void drawGroup(
+      Canvas canvas, Paint paint, int[] order, int start, int end, boolean stroke) {
+    groupPath.rewind();
+    boolean hasGroupPath = false;
+    for (int i = start; i < end; i++) {
+      Entry entry = entries.get(order[i]);
+      // Like MaterialShapeDrawable, the stroke is drawn entirely inside the bounds, with corners
+      // reduced by the inset.
+      float inset = stroke ? entry.strokeWidth / 2 : 0;
+      shapeBounds.set(entry.bounds);
+      shapeBounds.inset(inset, inset);
+      boolean analytic =
+          shapeKey.set(entry.shapeAppearanceModel, 1, inset)
+              && AnalyticShapePath.canApply(shapeKey, shapeBounds);
+      if (analytic && shapeKey.isRoundRect()) {
+        float radius = shapeKey.getCornerSize(ShapeAppearanceKey.TOP_LEFT);
+        canvas.drawRoundRect(shapeBounds, radius, radius, paint);
+        continue;
+      }
+      if (analytic) {
+        analyticShapePath.applyToPath(shapeKey, shapeBounds, shapePath);
+      } else {
+        ShapeAppearanceModel shapeAppearanceModel =
+            stroke ? getStrokeShapeAppearanceModel(entry, inset) : entry.shapeAppearanceModel;
+        pathProvider.calculatePath(shapeAppearanceModel, 1, shapeBounds, shapePath);
+      }
+      groupPath.addPath(shapePath);
+      hasGroupPath = true;
+    }
+    if (hasGroupPath) {
+      canvas.drawPath(groupPath, paint);
+    }
+  }
+
+  /**
+   * Returns the model of the stroke of {@code entry}, with every corner reduced by {@code inset}.
+   * The model is kept by the entry and updated in place, so that drawing a stroke doesn't build a
+   * model on every frame.
+   */
+  private static ShapeAppearanceModel getStrokeShapeAppearanceModel(Entry entry, float inset) {
+    ShapeAppearanceModel shapeAppearanceModel = entry.shapeAppearanceModel;
+    entry.strokeShapeAppearanceModel.setCornerTreatments(
+        getStrokeCorner(entry, 0, shapeAppearanceModel.getTopLeftCornerInternal(), inset),
+        getStrokeCorner(entry, 1, shapeAppearanceModel.getTopRightCornerInternal(), inset),
+        getStrokeCorner(entry, 2, shapeAppearanceModel.getBottomRightCornerInternal(), inset),
+        getStrokeCorner(entry, 3, shapeAppearanceModel.getBottomLeftCornerInternal(), inset));
+    // The edges aren't resized, so the stroke uses the edges of the shape itself.
+    entry.strokeShapeAppearanceModel.setEdgeTreatments(
+        shapeAppearanceModel.getLeftEdgeInternal(),
+        shapeAppearanceModel.getTopEdgeInternal(),
+        shapeAppearanceModel.getRightEdgeInternal(),
+        shapeAppearanceModel.getBottomEdgeInternal());
+    return entry.strokeShapeAppearanceModel;
+  }
+
+  /**
+   * Returns the copy of {@code corner} used by the stroke of {@code entry}, resized for {@code
+   * inset}. The corner is only copied again when the shape has another corner at {@code index}.
+   */
+  private static CornerTreatment getStrokeCorner(
+      Entry entry, int index, CornerTreatment corner, float inset) {
+    if (entry.strokeSourceCorners[index] != corner) {
+      entry.strokeSourceCorners[index] = corner;
+      entry.strokeCorners[index] = corner.clone();
+    }
+    CornerTreatment strokeCorner = entry.strokeCorners[index];
+    strokeCorner.setCornerSize(Math.max(corner.getCornerSize() - inset, 0));
+    return strokeCorner;
+  }
+
+  /** Sorts the entry indices by fill and by stroke paint state. */
+  private void updateOrders() {
+    if (fillOrder.length < size) {
+      fillOrder = new int[entries.size()];
+      strokeOrder = new int[entries.size()];
+    }
+    sortOrder(fillOrder, false);
+    sortOrder(strokeOrder, true);
+  }
+
+  /**
+   * Sorts the first {@link #size} indices of {@code order} by paint state, with a stable insertion
+   * sort since batches are small and usually already grouped.
+   */
+  private void sortOrder(int[] order, boolean stroke) {
+    for (int i = 0; i < size; i++) {
+      Entry entry = entries.get(i);
+      int j = i - 1;
+      while (j >= 0 && compare(entries.get(order[j]), entry, stroke) > 0) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = i;
+    }
+  }
+
+  private static int compare(Entry a, Entry b, boolean stroke) {
+    if (!stroke) {
+      return compareInts(a.fillColor, b.fillColor);
+    }
+    int result = compareInts(a.strokeColor, b.strokeColor);
+    return result != 0 ? result : Float.compare(a.strokeWidth, b.strokeWidth);
+  }
+
+  private static int compareInts(int a, int b) {
+    return a < b ? -1 : (a == b ? 0 : 1);
+  }
+
+  private static boolean hasSamePaint(Entry a, Entry b, boolean stroke) {
+    return stroke
+        ? a.strokeColor == b.strokeColor && a.strokeWidth == b.strokeWidth
+        : a.fillColor == b.fillColor;
+  }
+
+  private static final class Entry {
+
+    ShapeAppearanceModel shapeAppearanceModel;
+    final RectF bounds = new RectF();
+    // The model of the stroke, whose corners are copies of strokeSourceCorners, the corners of the
+    // shape, reduced by the stroke inset.
+    final ShapeAppearanceModel strokeShapeAppearanceModel = new ShapeAppearanceModel();
+    final CornerTreatment[] strokeSourceCorners = new CornerTreatment[4];
+    final CornerTreatment[] strokeCorners = new CornerTreatment[4];
+    @ColorInt int fillColor;
+    float strokeWidth;
+    @ColorInt int strokeColor;
+    float elevation;
+
+    boolean hasFill() {
+      return Color.alpha(fillColor) != 0;
+    }
+
+    boolean hasStroke() {
+      return strokeWidth > 0 && Color.alpha(strokeColor) != 0;
+    }
+
+    boolean hasShadow() {
+      return elevation > 0;
+    }
+  }
+}
@@ -51,9 +51,12 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.StyleRes;
 import com.google.android.material.elevation.ElevationOverlayProvider;
+import com.google.android.material.shape.CompatShadowCache.ShadowLayer;
+import com.google.android.material.shape.CompatShadowCache.SharedShadowKey;
 import com.google.android.material.shadow.ShadowRenderer;
 import com.google.android.material.shape.ShapeAppearancePathProvider.PathListener;
 import com.google.android.material.shape.ShapePath.ShadowCompatOperation;
+import com.google.android.material.shape.ShapePathCache.PathKey;
 import androidx.core.graphics.drawable.TintAwareDrawable;
 import androidx.core.util.ObjectsCompat;
 import android.util.AttributeSet;
@@ -114,12 +117,23 @@ public class MaterialShapeDrawable extends Drawable
   private final RectF insetRectF = new RectF();
   private final Region transparentRegion = new Region();
   private final Region scratchRegion = new Region();
-  private ShapeAppearanceModel strokeShapeAppearance;
+  private final PathKey pathKey = new PathKey();
+  private final AnalyticShapePath analyticShapePath = new AnalyticShapePath();
+  // Whether the compat shadow operations are out of date because the path came from the cache, or
+  // was written by the analytic path.
+  private boolean shadowOperationsDirty = true;
 
   private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
   private final Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
 
   private final ShadowRenderer shadowRenderer = new ShadowRenderer();
+  private final ShadowLayer compatShadowLayer = new ShadowLayer();
+  private final SharedShadowKey sharedShadowKey = new SharedShadowKey();
+  @Nullable private ShadowLayer sharedShadowLayer;
+  private final Path shadowScratchPath = new Path();
+  private final RectF sharedShadowBounds = new RectF();
+  private final Rect sharedShadowSrc = new Rect();
+  private final RectF sharedShadowDst = new RectF();
   private final PathListener pathShadowListener;
   private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
 
@@ -193,9 +207,16 @@ public class MaterialShapeDrawable extends Drawable
    * Set the {@link ShapeAppearanceModel} containing the path that will be rendered in this
    * drawable.
    *
+   * <p>Setting the immutable model this drawable already renders is a no-op, so sharing a model
+   * built with {@link ShapeAppearanceModel#builder()} between many drawables is cheap.
+   *
    * @param shapeAppearanceModel the desired model.
    */
   public void setShapeAppearanceModel(@NonNull ShapeAppearanceModel shapeAppearanceModel) {
+    if (drawableState.shapeAppearanceModel == shapeAppearanceModel
+        && shapeAppearanceModel.isImmutable()) {
+      return;
+    }
     drawableState.shapeAppearanceModel.removeOnChangedListener(this);
     drawableState.shapeAppearanceModel = shapeAppearanceModel;
     shapeAppearanceModel.addOnChangedListener(this);
@@ -425,7 +446,13 @@ public class MaterialShapeDrawable extends Drawable
   }
 
   public void setCornerRadius(float cornerRadius) {
-    drawableState.shapeAppearanceModel.setCornerRadius(cornerRadius);
+    ShapeAppearanceModel shapeAppearanceModel = drawableState.shapeAppearanceModel;
+    if (shapeAppearanceModel.isImmutable()) {
+      setShapeAppearanceModel(
+          shapeAppearanceModel.toBuilder().setCornerRadius(cornerRadius).build());
+      return;
+    }
+    shapeAppearanceModel.setCornerRadius(cornerRadius);
     invalidateSelf();
   }
 
@@ -494,7 +521,7 @@ public class MaterialShapeDrawable extends Drawable
   }
 
   public void initializeElevationOverlay(Context context) {
-    drawableState.elevationOverlayProvider = new ElevationOverlayProvider(context);
+    drawableState.elevationOverlayProvider = ElevationOverlayProvider.getSharedProvider(context);
     updateElevationOverlayTint();
     invalidateSelfIgnoreShape();
   }
@@ -556,6 +583,7 @@ public class MaterialShapeDrawable extends Drawable
       drawableState.shadowCompatRadius = (int) Math.ceil(elevation * SHADOW_RADIUS_MULTIPLIER);
       drawableState.shadowCompatOffset = (int) Math.ceil(elevation * SHADOW_OFFSET_MULTIPLIER);
       drawableState.elevation = elevation;
+      invalidateCompatShadow();
       updateElevationOverlayTint();
       invalidateSelfIgnoreShape();
     }
@@ -602,6 +630,7 @@ public class MaterialShapeDrawable extends Drawable
   public void setShadowVerticalOffset(int shadowOffset) {
     if (drawableState.shadowCompatOffset != shadowOffset) {
       drawableState.shadowCompatOffset = shadowOffset;
+      invalidateCompatShadow();
       invalidateSelfIgnoreShape();
     }
   }
@@ -625,6 +654,7 @@ public class MaterialShapeDrawable extends Drawable
   public void setShadowCompatRotation(int shadowRotation) {
     if (drawableState.shadowCompatRotation != shadowRotation) {
       drawableState.shadowCompatRotation = shadowRotation;
+      invalidateCompatShadow();
       invalidateSelfIgnoreShape();
     }
   }
@@ -649,6 +679,7 @@ public class MaterialShapeDrawable extends Drawable
   @Deprecated
   public void setShadowRadius(int shadowRadius) {
     drawableState.shadowCompatRadius = shadowRadius;
+    invalidateCompatShadow();
   }
 
   /**
@@ -725,6 +756,7 @@ public class MaterialShapeDrawable extends Drawable
    */
   public void setShadowColor(int shadowColor) {
     shadowRenderer.setShadowColor(shadowColor);
+    invalidateCompatShadow();
     drawableState.useTintColorForShadow = false;
     invalidateSelfIgnoreShape();
   }
@@ -789,6 +821,7 @@ public class MaterialShapeDrawable extends Drawable
     if (pathDirty) {
       calculateStrokePath();
       calculatePath(getBoundsAsRectF(), path);
+      invalidateCompatShadow();
       pathDirty = false;
     }
 
@@ -797,29 +830,7 @@ public class MaterialShapeDrawable extends Drawable
       canvas.save();
 
       prepareCanvasForShadow(canvas);
-
-      // Drawing the shadow in a bitmap lets us use the clear paint rather than using clipPath to
-      // prevent drawing shadow under the shape. clipPath has problems :-/
-      Bitmap shadowLayer =
-          Bitmap.createBitmap(
-              getBounds().width() + drawableState.shadowCompatRadius * 2,
-              getBounds().height() + drawableState.shadowCompatRadius * 2,
-              Bitmap.Config.ARGB_8888);
-      Canvas shadowCanvas = new Canvas(shadowLayer);
-
-      // Top Left of shadow (left - shadowCompatRadius, top - shadowCompatRadius) should be drawn at
-      // (0, 0) on shadowCanvas. Offset is handled by prepareCanvasForShadow and drawCompatShadow.
-      float shadowLeft = getBounds().left - drawableState.shadowCompatRadius;
-      float shadowTop = getBounds().top - drawableState.shadowCompatRadius;
-      shadowCanvas.translate(-shadowLeft, -shadowTop);
-
-      drawCompatShadow(shadowCanvas);
-
-      canvas.drawBitmap(shadowLayer, shadowLeft, shadowTop, null);
-
-      // Because we create the bitmap every time, we can recycle it. We may need to stop doing this
-      // if we end up keeping the bitmap in memory for performance.
-      shadowLayer.recycle();
+      drawCompatShadowLayer(canvas);
 
       // Restore the canvas to the same size it was before drawing any shadows.
       canvas.restore();
@@ -857,7 +868,7 @@ public class MaterialShapeDrawable extends Drawable
       ShapeAppearanceModel shapeAppearanceModel,
       RectF bounds) {
     if (shapeAppearanceModel.isRoundRect()) {
-      float cornerSize = shapeAppearanceModel.getTopRightCorner().getCornerSize();
+      float cornerSize = shapeAppearanceModel.getTopRightCornerSize();
       canvas.drawRoundRect(bounds, cornerSize, cornerSize, paint);
     } else {
       canvas.drawPath(path, paint);
@@ -869,20 +880,165 @@ public class MaterialShapeDrawable extends Drawable
   }
 
   private void drawStrokeShape(Canvas canvas) {
-    drawShape(
-        canvas, strokePaint, pathInsetByStroke, strokeShapeAppearance, getBoundsInsetByStroke());
+    // The stroke shape has the same corners as the shape, with sizes adjusted for the stroke.
+    ShapeAppearanceModel shapeAppearanceModel = drawableState.shapeAppearanceModel;
+    if (shapeAppearanceModel.isRoundRect()) {
+      float cornerSize =
+          adjustCornerSizeForStrokeSize(shapeAppearanceModel.getTopRightCornerSize());
+      canvas.drawRoundRect(getBoundsInsetByStroke(), cornerSize, cornerSize, strokePaint);
+    } else {
+      canvas.drawPath(pathInsetByStroke, strokePaint);
+    }
+  }
+
+  /**
+   * Draws the compat shadow from a cached bitmap, rendering it first if the shape or the shadow has
+   * changed since it was last drawn.
+   */
+  private void drawCompatShadowLayer(Canvas canvas) {
+    if (drawSharedShadowLayer(canvas)) {
+      return;
+    }
+
+    // Top Left of shadow (left - shadowCompatRadius, top - shadowCompatRadius) should be drawn at
+    // (0, 0) on the shadow layer. Offset is handled by prepareCanvasForShadow and drawCompatShadow.
+    float shadowLeft = getBounds().left - drawableState.shadowCompatRadius;
+    float shadowTop = getBounds().top - drawableState.shadowCompatRadius;
+    int shadowWidth = getBounds().width() + drawableState.shadowCompatRadius * 2;
+    int shadowHeight = getBounds().height() + drawableState.shadowCompatRadius * 2;
+
+    Bitmap shadowLayer = CompatShadowCache.getBitmap(compatShadowLayer, shadowWidth, shadowHeight);
+    if (shadowLayer == null) {
+      // Drawing the shadow in a bitmap lets us use the clear paint rather than using clipPath to
+      // prevent drawing shadow under the shape. clipPath has problems :-/
+      shadowLayer = CompatShadowCache.obtainBitmap(compatShadowLayer, shadowWidth, shadowHeight);
+      updateShadowOperationsIfNeeded();
+      Canvas shadowCanvas = compatShadowLayer.getCanvas();
+      shadowCanvas.save();
+      shadowCanvas.translate(-shadowLeft, -shadowTop);
+      drawCompatShadow(shadowCanvas, path);
+      shadowCanvas.restore();
+    }
+
+    canvas.drawBitmap(shadowLayer, shadowLeft, shadowTop, null);
+
+    // Evicts the least recently drawn shadow layers if the cache has grown past its budget. This
+    // may recycle the layer that was just drawn if it is larger than the budget by itself.
+    CompatShadowCache.trimToMaxSize();
+  }
+
+  /**
+   * Draws the compat shadow by stretching a shadow shared with other drawables that have the same
+   * corners and shadow parameters, see {@link CompatShadowCache}.
+   *
+   * @return false if the shadow of this shape can't be shared, in which case nothing is drawn.
+   */
+  private boolean drawSharedShadowLayer(Canvas canvas) {
+    int radius = drawableState.shadowCompatRadius;
+    if (drawableState.scale != 1f
+        || !sharedShadowKey.set(
+            drawableState.shapeAppearanceModel,
+            drawableState.interpolation,
+            radius,
+            getShadowOffsetX(),
+            getShadowOffsetY(),
+            shadowRenderer.getShadowStartColor())
+        || getBounds().width() < sharedShadowKey.getWidth()
+        || getBounds().height() < sharedShadowKey.getHeight()) {
+      return false;
+    }
+
+    int layerWidth = sharedShadowKey.getWidth() + radius * 2;
+    int layerHeight = sharedShadowKey.getHeight() + radius * 2;
+    Bitmap shadowLayer =
+        sharedShadowLayer == null
+            ? null
+            : CompatShadowCache.getBitmap(sharedShadowLayer, layerWidth, layerHeight);
+    if (shadowLayer == null) {
+      // This drawable doesn't need a shadow layer of its own while it draws a shared one.
+      CompatShadowCache.release(compatShadowLayer);
+      sharedShadowLayer = CompatShadowCache.getSharedLayer(sharedShadowKey);
+      shadowLayer = CompatShadowCache.getBitmap(sharedShadowLayer, layerWidth, layerHeight);
+    }
+    if (shadowLayer == null) {
+      shadowLayer = CompatShadowCache.obtainBitmap(sharedShadowLayer, layerWidth, layerHeight);
+      renderSharedShadowLayer(sharedShadowLayer.getCanvas());
+    }
+
+    // Draw the layer in a 3x3 grid, stretching only the middle row and column.
+    int stretchX = sharedShadowKey.getStretchX();
+    int stretchY = sharedShadowKey.getStretchY();
+    float left = getBounds().left - radius;
+    float top = getBounds().top - radius;
+    float stretchedX = left + stretchX + getBounds().width() - sharedShadowKey.getWidth() + 1;
+    float stretchedY = top + stretchY + getBounds().height() - sharedShadowKey.getHeight() + 1;
+    for (int row = 0; row < 3; row++) {
+      int srcTop = row == 0 ? 0 : (row == 1 ? stretchY : stretchY + 1);
+      int srcBottom = row == 0 ? stretchY : (row == 1 ? stretchY + 1 : layerHeight);
+      float dstTop = row == 0 ? top : (row == 1 ? top + stretchY : stretchedY);
+      float dstBottom = dstTop + (row == 1 ? stretchedY - top - stretchY : srcBottom - srcTop);
+      for (int column = 0; column < 3; column++) {
+        int srcLeft = column == 0 ? 0 : (column == 1 ? stretchX : stretchX + 1);
+        int srcRight = column == 0 ? stretchX : (column == 1 ? stretchX + 1 : layerWidth);
+        float dstLeft = column == 0 ? left : (column == 1 ? left + stretchX : stretchedX);
+        float dstRight =
+            dstLeft + (column == 1 ? stretchedX - left - stretchX : srcRight - srcLeft);
+        sharedShadowSrc.set(srcLeft, srcTop, srcRight, srcBottom);
+        sharedShadowDst.set(dstLeft, dstTop, dstRight, dstBottom);
+        canvas.drawBitmap(shadowLayer, sharedShadowSrc, sharedShadowDst, null);
+      }
+    }
+
+    CompatShadowCache.trimToMaxSize();
+    return true;
+  }
+
+  /** Renders the shadow around the smallest shape described by {@link #sharedShadowKey}. */
+  private void renderSharedShadowLayer(Canvas shadowCanvas) {
+    int radius = drawableState.shadowCompatRadius;
+    sharedShadowBounds.set(0, 0, sharedShadowKey.getWidth(), sharedShadowKey.getHeight());
+    calculatePathForSize(sharedShadowBounds, shadowScratchPath);
+    shadowCanvas.save();
+    shadowCanvas.translate(radius, radius);
+    drawCompatShadow(shadowCanvas, shadowScratchPath);
+    shadowCanvas.restore();
+    // The shadow operations now belong to the smaller shape.
+    shadowOperationsDirty = true;
+  }
+
+  /**
+   * Recalculates the compat shadow operations for the current bounds if the path was last taken
+   * from the {@link ShapePathCache} or calculated for different bounds.
+   */
+  private void updateShadowOperationsIfNeeded() {
+    if (shadowOperationsDirty) {
+      calculatePathForSize(getBoundsAsRectF(), shadowScratchPath);
+      shadowOperationsDirty = false;
+    }
+  }
+
+  /** Marks the compat shadow as stale so it is rendered or looked up again on the next draw. */
+  private void invalidateCompatShadow() {
+    compatShadowLayer.invalidate();
+    sharedShadowLayer = null;
+  }
+
+  private int getShadowOffsetX() {
+    return (int)
+        (drawableState.shadowCompatOffset
+            * Math.sin(Math.toRadians(drawableState.shadowCompatRotation)));
+  }
+
+  private int getShadowOffsetY() {
+    return (int)
+        (drawableState.shadowCompatOffset
+            * Math.cos(Math.toRadians(drawableState.shadowCompatRotation)));
   }
 
   private void prepareCanvasForShadow(Canvas canvas) {
     // Calculate the translation to offset the canvas for the given offset and rotation.
-    int shadowOffsetX =
-        (int)
-            (drawableState.shadowCompatOffset
-                * Math.sin(Math.toRadians(drawableState.shadowCompatRotation)));
-    int shadowOffsetY =
-        (int)
-            (drawableState.shadowCompatOffset
-                * Math.cos(Math.toRadians(drawableState.shadowCompatRotation)));
+    int shadowOffsetX = getShadowOffsetX();
+    int shadowOffsetY = getShadowOffsetY();
 
     // We only handle clipping as a convenience for older apis where we are trying to seamlessly
     // provide fake shadows. On newer versions of android, we require that the parent is set so that
@@ -908,7 +1064,7 @@ public class MaterialShapeDrawable extends Drawable
    * no shadow offset, this will skip the drawing of the center filled shadow since that will be
    * completely covered by the shape.
    */
-  private void drawCompatShadow(Canvas canvas) {
+  private void drawCompatShadow(Canvas canvas, Path path) {
     if (drawableState.shadowCompatOffset != 0) {
       canvas.drawPath(path, shadowRenderer.getShadowPaint());
     }
@@ -919,14 +1075,8 @@ public class MaterialShapeDrawable extends Drawable
       edgeShadowOperation[index].draw(shadowRenderer, drawableState.shadowCompatRadius, canvas);
     }
 
-    int shadowOffsetX =
-        (int)
-            (drawableState.shadowCompatOffset
-                * Math.sin(Math.toRadians(drawableState.shadowCompatRotation)));
-    int shadowOffsetY =
-        (int)
-            (drawableState.shadowCompatOffset
-                * Math.cos(Math.toRadians(drawableState.shadowCompatRotation)));
+    int shadowOffsetX = getShadowOffsetX();
+    int shadowOffsetY = getShadowOffsetY();
 
     canvas.translate(-shadowOffsetX, -shadowOffsetY);
     canvas.drawPath(path, clearPaint);
@@ -937,12 +1087,14 @@ public class MaterialShapeDrawable extends Drawable
   @Deprecated
   public void getPathForSize(int width, int height, Path path) {
     calculatePathForSize(new RectF(0, 0, width, height), path);
+    shadowOperationsDirty = true;
   }
 
   /** @deprecated see {@link ShapeAppearancePathProvider} */
   @Deprecated
   public void getPathForSize(Rect bounds, Path path) {
     calculatePathForSize(new RectF(bounds), path);
+    shadowOperationsDirty = true;
   }
 
   private void calculatePathForSize(RectF bounds, Path path) {
@@ -956,25 +1108,40 @@ public class MaterialShapeDrawable extends Drawable
 
   /** Calculates the path that can be used to draw the stroke entirely inside the shape */
   private void calculateStrokePath() {
-    strokeShapeAppearance = new ShapeAppearanceModel(getShapeAppearanceModel());
-    float cornerSizeTopLeft = strokeShapeAppearance.getTopLeftCorner().cornerSize;
-    float cornerSizeTopRight = strokeShapeAppearance.getTopRightCorner().cornerSize;
-    float cornerSizeBottomRight = strokeShapeAppearance.getBottomRightCorner().cornerSize;
-    float cornerSizeBottomLeft = strokeShapeAppearance.getBottomLeftCorner().cornerSize;
+    RectF bounds = getBoundsInsetByStroke();
+    boolean cacheable =
+        pathKey.set(
+            getShapeAppearanceModel(),
+            drawableState.interpolation,
+            getStrokeInsetLength(),
+            bounds);
+    if (cacheable && AnalyticShapePath.canApply(pathKey.getShapeKey(), bounds)) {
+      analyticShapePath.applyToPath(pathKey.getShapeKey(), bounds, pathInsetByStroke);
+      return;
+    }
+    if (cacheable && ShapePathCache.get(pathKey, bounds, pathInsetByStroke)) {
+      return;
+    }
 
+    ShapeAppearanceModel shapeAppearanceModel = getShapeAppearanceModel();
     // Adjust corner radius in order to draw the stroke so that the corners of the background are
-    // drawn on top of the edges.
-    strokeShapeAppearance.setCornerRadii(
-        adjustCornerSizeForStrokeSize(cornerSizeTopLeft),
-        adjustCornerSizeForStrokeSize(cornerSizeTopRight),
-        adjustCornerSizeForStrokeSize(cornerSizeBottomRight),
-        adjustCornerSizeForStrokeSize(cornerSizeBottomLeft));
+    // drawn on top of the edges. The builder interns the adjusted model when it can, so drawables
+    // with the same stroked shape don't each allocate a copy of it.
+    ShapeAppearanceModel strokeShapeAppearance =
+        shapeAppearanceModel
+            .toBuilder()
+            .setCornerRadii(
+                adjustCornerSizeForStrokeSize(shapeAppearanceModel.getTopLeftCornerSize()),
+                adjustCornerSizeForStrokeSize(shapeAppearanceModel.getTopRightCornerSize()),
+                adjustCornerSizeForStrokeSize(shapeAppearanceModel.getBottomRightCornerSize()),
+                adjustCornerSizeForStrokeSize(shapeAppearanceModel.getBottomLeftCornerSize()))
+            .build();
 
     pathProvider.calculatePath(
-        strokeShapeAppearance,
-        drawableState.interpolation,
-        getBoundsInsetByStroke(),
-        pathInsetByStroke);
+        strokeShapeAppearance, drawableState.interpolation, bounds, pathInsetByStroke);
+    if (cacheable) {
+      ShapePathCache.put(pathKey, bounds, pathInsetByStroke);
+    }
   }
 
   private float adjustCornerSizeForStrokeSize(float cornerSize) {
@@ -993,7 +1160,7 @@ public class MaterialShapeDrawable extends Drawable
     boolean isRoundRect = drawableState.shapeAppearanceModel.isRoundRect();
 
     if (isRoundRect) {
-      float radius = drawableState.shapeAppearanceModel.getTopLeftCorner().getCornerSize();
+      float radius = drawableState.shapeAppearanceModel.getTopLeftCornerSize();
       outline.setRoundRect(getBounds(), radius);
       return;
     }
@@ -1005,7 +1172,22 @@ public class MaterialShapeDrawable extends Drawable
   }
 
   private void calculatePath(RectF bounds, Path path) {
-    calculatePathForSize(bounds, path);
+    boolean cacheable =
+        pathKey.set(drawableState.shapeAppearanceModel, drawableState.interpolation, 0, bounds);
+    if (cacheable && AnalyticShapePath.canApply(pathKey.getShapeKey(), bounds)) {
+      // Like a cached path, an analytic path doesn't go through the path listener.
+      analyticShapePath.applyToPath(pathKey.getShapeKey(), bounds, path);
+      shadowOperationsDirty = true;
+    } else if (cacheable && ShapePathCache.get(pathKey, bounds, path)) {
+      // The cached path didn't go through the path listener, so the shadow operations are stale.
+      shadowOperationsDirty = true;
+    } else {
+      calculatePathForSize(bounds, path);
+      shadowOperationsDirty = false;
+      if (cacheable) {
+        ShapePathCache.put(pathKey, bounds, path);
+      }
+    }
     if (drawableState.scale == 1f) {
       return;
     }
@@ -1033,6 +1215,7 @@ public class MaterialShapeDrawable extends Drawable
     if (drawableState.useTintColorForShadow) {
       shadowRenderer.setShadowColor(
           drawableState.tintList.getColorForState(getState(), Color.TRANSPARENT));
+      invalidateCompatShadow();
     }
     return !ObjectsCompat.equals(originalTintFilter, tintFilter)
         || !ObjectsCompat.equals(originalStrokeTintFilter, strokeTintFilter);
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import java.util.Arrays;
+
+/**
+ * A snapshot of the geometry of a {@link ShapeAppearanceModel}, which can be compared and hashed to
+ * tell whether two models produce the same path.
+ *
+ * <p>Only models with {@link RoundedCornerTreatment} or {@link CutCornerTreatment} corners and
+ * default edges can be described by a key, since the path of those treatments only depends on their
+ * size and the interpolation. Corner sizes are stored already interpolated.
+ */
+final class ShapeAppearanceKey {
+
+  static final int TOP_LEFT = 0;
+  static final int TOP_RIGHT = 1;
+  static final int BOTTOM_RIGHT = 2;
+  static final int BOTTOM_LEFT = 3;
+
+  private final float[] cornerSizes = new float[4];
+  private int cutCornerMask;
+
+  ShapeAppearanceKey() {}
+
+  ShapeAppearanceKey(ShapeAppearanceKey other) {
+    set(other);
+  }
+
+  void set(ShapeAppearanceKey other) {
+    System.arraycopy(other.cornerSizes, 0, cornerSizes, 0, cornerSizes.length);
+    cutCornerMask = other.cutCornerMask;
+  }
+
+  /**
+   * Sets this key from {@code shapeAppearanceModel}, and returns false if the model has corners or
+   * edges that can't be described by a key.
+   */
+  boolean set(ShapeAppearanceModel shapeAppearanceModel, float interpolation) {
+    return set(shapeAppearanceModel, interpolation, 0);
+  }
+
+  /**
+   * Sets this key from {@code shapeAppearanceModel} with every corner size reduced by {@code
+   * inset}, as done for the path of a stroke, and returns false if the model has corners or edges
+   * that can't be described by a key.
+   */
+  boolean set(ShapeAppearanceModel shapeAppearanceModel, float interpolation, float inset) {
+    return isDefaultEdge(shapeAppearanceModel.getLeftEdgeInternal())
+        && isDefaultEdge(shapeAppearanceModel.getTopEdgeInternal())
+        && isDefaultEdge(shapeAppearanceModel.getRightEdgeInternal())
+        && isDefaultEdge(shapeAppearanceModel.getBottomEdgeInternal())
+        && setCorners(
+            shapeAppearanceModel.getTopLeftCornerInternal(),
+            shapeAppearanceModel.getTopRightCornerInternal(),
+            shapeAppearanceModel.getBottomRightCornerInternal(),
+            shapeAppearanceModel.getBottomLeftCornerInternal(),
+            interpolation,
+            inset);
+  }
+
+  /**
+   * Sets this key from the given corners, assuming default edges, and returns false if any of the
+   * corners can't be described by a key.
+   */
+  boolean setCorners(
+      CornerTreatment topLeftCorner,
+      CornerTreatment topRightCorner,
+      CornerTreatment bottomRightCorner,
+      CornerTreatment bottomLeftCorner,
+      float interpolation,
+      float inset) {
+    cutCornerMask = 0;
+    return setCorner(TOP_LEFT, topLeftCorner, interpolation, inset)
+        && setCorner(TOP_RIGHT, topRightCorner, interpolation, inset)
+        && setCorner(BOTTOM_RIGHT, bottomRightCorner, interpolation, inset)
+        && setCorner(BOTTOM_LEFT, bottomLeftCorner, interpolation, inset);
+  }
+
+  /** Returns the interpolated size of the corner at {@code index}. */
+  float getCornerSize(int index) {
+    return cornerSizes[index];
+  }
+
+  /** Returns whether the corner at {@code index} is a {@link CutCornerTreatment}. */
+  boolean isCutCorner(int index) {
+    return (cutCornerMask & (1 << index)) != 0;
+  }
+
+  /** Returns whether the shape is a round rect, with four rounded corners of the same size. */
+  boolean isRoundRect() {
+    return cutCornerMask == 0
+        && cornerSizes[TOP_LEFT] == cornerSizes[TOP_RIGHT]
+        && cornerSizes[TOP_LEFT] == cornerSizes[BOTTOM_RIGHT]
+        && cornerSizes[TOP_LEFT] == cornerSizes[BOTTOM_LEFT];
+  }
+
+  /** Returns whether any of the corners is a {@link CutCornerTreatment}. */
+  boolean hasCutCorners() {
+    return cutCornerMask != 0;
+  }
+
+  private boolean setCorner(int index, CornerTreatment corner, float interpolation, float inset) {
+    Class<?> cornerClass = corner.getClass();
+    if (cornerClass == CutCornerTreatment.class) {
+      cutCornerMask |= 1 << index;
+    } else if (cornerClass != RoundedCornerTreatment.class) {
+      return false;
+    }
+    cornerSizes[index] = Math.max(corner.getCornerSize() - inset, 0) * interpolation;
+    return true;
+  }
+
+  /** Returns whether {@code edge} is a plain {@link EdgeTreatment}, which draws a straight line. */
+  static boolean isDefaultEdge(EdgeTreatment edge) {
+    return edge.getClass() == EdgeTreatment.class;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ShapeAppearanceKey)) {
+      return false;
+    }
+    ShapeAppearanceKey that = (ShapeAppearanceKey) o;
+    return cutCornerMask == that.cutCornerMask && Arrays.equals(cornerSizes, that.cornerSizes);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(cornerSizes) + cutCornerMask;
+  }
+}
@@ -32,12 +32,19 @@ import androidx.annotation.RestrictTo;
 import androidx.annotation.StyleRes;
 import android.util.AttributeSet;
 import android.view.ContextThemeWrapper;
+import java.lang.ref.WeakReference;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * This class models the edges and corners of a shape, which are used by {@link
  * MaterialShapeDrawable} to generate and render the shape for a view's background.
+ *
+ * <p>Models created with a constructor are mutable, and notify the drawables they are set on of
+ * every change. Models created with a {@link Builder} are immutable and can be shared freely
+ * between drawables, see {@link #builder()}.
  */
 public class ShapeAppearanceModel {
 
@@ -64,8 +71,26 @@ public class ShapeAppearanceModel {
 
   private final Set<OnChangedListener> onChangedListeners = new LinkedHashSet<>();
 
+  // Interned immutable models, keyed by their geometry. Each interned model holds a strong
+  // reference to its key, so entries are only removed once the model itself is unreachable.
+  private static final Map<ShapeAppearanceKey, WeakReference<ShapeAppearanceModel>>
+      internedModels = new WeakHashMap<>();
+  private static final ShapeAppearanceKey internLookupKey = new ShapeAppearanceKey();
+
+  private final boolean immutable;
+  @Nullable private final ShapeAppearanceKey internKey;
+
+  /**
+   * Returns a new {@link Builder} for an immutable model with default edge and corner treatments.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
   /** Constructs a default path generator with default edge and corner treatments. */
   public ShapeAppearanceModel() {
+    immutable = false;
+    internKey = null;
     setTopLeftCornerInternal(MaterialShapeUtils.createDefaultCornerTreatment());
     setTopRightCornerInternal(MaterialShapeUtils.createDefaultCornerTreatment());
     setBottomRightCornerInternal(MaterialShapeUtils.createDefaultCornerTreatment());
@@ -79,16 +104,22 @@ public class ShapeAppearanceModel {
     onShapeAppearanceModelChanged();
   }
 
+  /**
+   * Constructs a mutable copy of {@code shapeAppearanceModel}, with clones of its edge and corner
+   * treatments.
+   */
   public ShapeAppearanceModel(ShapeAppearanceModel shapeAppearanceModel) {
-    setTopLeftCornerInternal(shapeAppearanceModel.getTopLeftCorner().clone());
-    setTopRightCornerInternal(shapeAppearanceModel.getTopRightCorner().clone());
-    setBottomRightCornerInternal(shapeAppearanceModel.getBottomRightCorner().clone());
-    setBottomLeftCornerInternal(shapeAppearanceModel.getBottomLeftCorner().clone());
-
-    setLeftEdgeInternal(shapeAppearanceModel.getLeftEdge().clone());
-    setTopEdgeInternal(shapeAppearanceModel.getTopEdge().clone());
-    setRightEdgeInternal(shapeAppearanceModel.getRightEdge().clone());
-    setBottomEdgeInternal(shapeAppearanceModel.getBottomEdge().clone());
+    immutable = false;
+    internKey = null;
+    setTopLeftCornerInternal(shapeAppearanceModel.getTopLeftCornerInternal().clone());
+    setTopRightCornerInternal(shapeAppearanceModel.getTopRightCornerInternal().clone());
+    setBottomRightCornerInternal(shapeAppearanceModel.getBottomRightCornerInternal().clone());
+    setBottomLeftCornerInternal(shapeAppearanceModel.getBottomLeftCornerInternal().clone());
+
+    setLeftEdgeInternal(shapeAppearanceModel.getLeftEdgeInternal().clone());
+    setTopEdgeInternal(shapeAppearanceModel.getTopEdgeInternal().clone());
+    setRightEdgeInternal(shapeAppearanceModel.getRightEdgeInternal().clone());
+    setBottomEdgeInternal(shapeAppearanceModel.getBottomEdgeInternal().clone());
   }
 
   public ShapeAppearanceModel(
@@ -102,6 +133,8 @@ public class ShapeAppearanceModel {
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes,
       int defaultCornerSize) {
+    immutable = false;
+    internKey = null;
     TypedArray a =
         context.obtainStyledAttributes(attrs, R.styleable.MaterialShape, defStyleAttr, defStyleRes);
 
@@ -156,6 +189,35 @@ public class ShapeAppearanceModel {
     a.recycle();
   }
 
+  private ShapeAppearanceModel(Builder builder, @Nullable ShapeAppearanceKey internKey) {
+    immutable = true;
+    this.internKey = internKey;
+    topLeftCorner = builder.topLeftCorner.clone();
+    topRightCorner = builder.topRightCorner.clone();
+    bottomRightCorner = builder.bottomRightCorner.clone();
+    bottomLeftCorner = builder.bottomLeftCorner.clone();
+    leftEdge = builder.leftEdge.clone();
+    topEdge = builder.topEdge.clone();
+    rightEdge = builder.rightEdge.clone();
+    bottomEdge = builder.bottomEdge.clone();
+  }
+
+  /**
+   * Returns a {@link Builder} initialized with the edge and corner treatments of this model, which
+   * can be used to create a modified immutable copy of it.
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Returns whether this model was created by a {@link Builder}, in which case its setters throw an
+   * {@link UnsupportedOperationException}, and it never notifies any listeners.
+   */
+  public boolean isImmutable() {
+    return immutable;
+  }
+
   /**
    * Sets all corner treatments to {@link CornerTreatment}s generated from a {@code cornerFamily}
    * and {@code cornerSize}.
@@ -175,6 +237,7 @@ public class ShapeAppearanceModel {
    * @param cornerTreatment the corner treatment to use for all four corners.
    */
   public void setAllCorners(CornerTreatment cornerTreatment) {
+    checkMutable();
     boolean changed = setTopLeftCornerInternal(cornerTreatment.clone());
     changed |= setTopRightCornerInternal(cornerTreatment.clone());
     changed |= setBottomRightCornerInternal(cornerTreatment.clone());
@@ -211,6 +274,7 @@ public class ShapeAppearanceModel {
       float topRightCornerRadius,
       float bottomRightCornerRadius,
       float bottomLeftCornerRadius) {
+    checkMutable();
     boolean changed = setTopLeftCornerSizeInternal(topLeftCornerRadius);
     changed |= setTopRightCornerSizeInternal(topRightCornerRadius);
     changed |= setBottomRightCornerSizeInternal(bottomRightCornerRadius);
@@ -263,6 +327,7 @@ public class ShapeAppearanceModel {
    * @param edgeTreatment the edge treatment to use for all four edges.
    */
   public void setAllEdges(EdgeTreatment edgeTreatment) {
+    checkMutable();
     boolean changed = setLeftEdgeInternal(edgeTreatment.clone());
     changed |= setTopEdgeInternal(edgeTreatment.clone());
     changed |= setRightEdgeInternal(edgeTreatment.clone());
@@ -286,6 +351,7 @@ public class ShapeAppearanceModel {
       CornerTreatment topRightCorner,
       CornerTreatment bottomRightCorner,
       CornerTreatment bottomLeftCorner) {
+    checkMutable();
     boolean changed = setTopLeftCornerInternal(topLeftCorner);
     changed |= setTopRightCornerInternal(topRightCorner);
     changed |= setBottomRightCornerInternal(bottomRightCorner);
@@ -309,6 +375,7 @@ public class ShapeAppearanceModel {
       EdgeTreatment topEdge,
       EdgeTreatment rightEdge,
       EdgeTreatment bottomEdge) {
+    checkMutable();
     boolean changed = setLeftEdgeInternal(leftEdge);
     changed |= setTopEdgeInternal(topEdge);
     changed |= setRightEdgeInternal(rightEdge);
@@ -335,6 +402,7 @@ public class ShapeAppearanceModel {
    * @param topLeftCorner the desired treatment.
    */
   public void setTopLeftCorner(CornerTreatment topLeftCorner) {
+    checkMutable();
     if (setTopLeftCornerInternal(topLeftCorner)) {
       onShapeAppearanceModelChanged();
     }
@@ -350,11 +418,28 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the corner treatment for the top left corner.
+   * Gets the corner treatment for the top left corner. The treatment of an immutable model is a
+   * copy, since changing it wouldn't change the model.
    *
    * @return the corner treatment for the top left corner.
    */
   public CornerTreatment getTopLeftCorner() {
+    return immutable ? topLeftCorner.clone() : topLeftCorner;
+  }
+
+  /**
+   * Returns the size of the top left corner treatment, without copying the treatment of an
+   * immutable model.
+   *
+   * @hide
+   */
+  @RestrictTo(LIBRARY_GROUP)
+  public float getTopLeftCornerSize() {
+    return topLeftCorner.getCornerSize();
+  }
+
+  /** Returns the corner treatment for the top left corner, which must not be modified. */
+  CornerTreatment getTopLeftCornerInternal() {
     return topLeftCorner;
   }
 
@@ -374,6 +459,7 @@ public class ShapeAppearanceModel {
    * @param topRightCorner the desired treatment.
    */
   public void setTopRightCorner(CornerTreatment topRightCorner) {
+    checkMutable();
     if (setTopRightCornerInternal(topRightCorner)) {
       onShapeAppearanceModelChanged();
     }
@@ -389,11 +475,28 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the corner treatment for the top right corner.
+   * Gets the corner treatment for the top right corner. The treatment of an immutable model is a
+   * copy, since changing it wouldn't change the model.
    *
    * @return the corner treatment for the top right corner.
    */
   public CornerTreatment getTopRightCorner() {
+    return immutable ? topRightCorner.clone() : topRightCorner;
+  }
+
+  /**
+   * Returns the size of the top right corner treatment, without copying the treatment of an
+   * immutable model.
+   *
+   * @hide
+   */
+  @RestrictTo(LIBRARY_GROUP)
+  public float getTopRightCornerSize() {
+    return topRightCorner.getCornerSize();
+  }
+
+  /** Returns the corner treatment for the top right corner, which must not be modified. */
+  CornerTreatment getTopRightCornerInternal() {
     return topRightCorner;
   }
 
@@ -413,6 +516,7 @@ public class ShapeAppearanceModel {
    * @param bottomRightCorner the desired treatment.
    */
   public void setBottomRightCorner(CornerTreatment bottomRightCorner) {
+    checkMutable();
     if (setBottomRightCornerInternal(bottomRightCorner)) {
       onShapeAppearanceModelChanged();
     }
@@ -428,11 +532,28 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the corner treatment for the bottom right corner.
+   * Gets the corner treatment for the bottom right corner. The treatment of an immutable model is a
+   * copy, since changing it wouldn't change the model.
    *
    * @return the corner treatment for the bottom right corner.
    */
   public CornerTreatment getBottomRightCorner() {
+    return immutable ? bottomRightCorner.clone() : bottomRightCorner;
+  }
+
+  /**
+   * Returns the size of the bottom right corner treatment, without copying the treatment of an
+   * immutable model.
+   *
+   * @hide
+   */
+  @RestrictTo(LIBRARY_GROUP)
+  public float getBottomRightCornerSize() {
+    return bottomRightCorner.getCornerSize();
+  }
+
+  /** Returns the corner treatment for the bottom right corner, which must not be modified. */
+  CornerTreatment getBottomRightCornerInternal() {
     return bottomRightCorner;
   }
 
@@ -452,6 +573,7 @@ public class ShapeAppearanceModel {
    * @param bottomLeftCorner the desired treatment.
    */
   public void setBottomLeftCorner(CornerTreatment bottomLeftCorner) {
+    checkMutable();
     if (setBottomLeftCornerInternal(bottomLeftCorner)) {
       onShapeAppearanceModelChanged();
     }
@@ -467,11 +589,28 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the corner treatment for the bottom left corner.
+   * Gets the corner treatment for the bottom left corner. The treatment of an immutable model is a
+   * copy, since changing it wouldn't change the model.
    *
    * @return the corner treatment for the bottom left corner.
    */
   public CornerTreatment getBottomLeftCorner() {
+    return immutable ? bottomLeftCorner.clone() : bottomLeftCorner;
+  }
+
+  /**
+   * Returns the size of the bottom left corner treatment, without copying the treatment of an
+   * immutable model.
+   *
+   * @hide
+   */
+  @RestrictTo(LIBRARY_GROUP)
+  public float getBottomLeftCornerSize() {
+    return bottomLeftCorner.getCornerSize();
+  }
+
+  /** Returns the corner treatment for the bottom left corner, which must not be modified. */
+  CornerTreatment getBottomLeftCornerInternal() {
     return bottomLeftCorner;
   }
 
@@ -481,6 +620,7 @@ public class ShapeAppearanceModel {
    * @param leftEdge the desired treatment.
    */
   public void setLeftEdge(EdgeTreatment leftEdge) {
+    checkMutable();
     if (setLeftEdgeInternal(leftEdge)) {
       onShapeAppearanceModelChanged();
     }
@@ -496,11 +636,17 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the edge treatment for the left edge.
+   * Gets the edge treatment for the left edge. The treatment of an immutable model is a copy,
+   * since changing it wouldn't change the model.
    *
    * @return the edge treatment for the left edge.
    */
   public EdgeTreatment getLeftEdge() {
+    return immutable ? leftEdge.clone() : leftEdge;
+  }
+
+  /** Returns the edge treatment for the left edge, which must not be modified. */
+  EdgeTreatment getLeftEdgeInternal() {
     return leftEdge;
   }
 
@@ -510,6 +656,7 @@ public class ShapeAppearanceModel {
    * @param topEdge the desired treatment.
    */
   public void setTopEdge(EdgeTreatment topEdge) {
+    checkMutable();
     if (setTopEdgeInternal(topEdge)) {
       onShapeAppearanceModelChanged();
     }
@@ -525,11 +672,17 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the edge treatment for the top edge.
+   * Gets the edge treatment for the top edge. The treatment of an immutable model is a copy,
+   * since changing it wouldn't change the model.
    *
    * @return the edge treatment for the top edge.
    */
   public EdgeTreatment getTopEdge() {
+    return immutable ? topEdge.clone() : topEdge;
+  }
+
+  /** Returns the edge treatment for the top edge, which must not be modified. */
+  EdgeTreatment getTopEdgeInternal() {
     return topEdge;
   }
 
@@ -539,6 +692,7 @@ public class ShapeAppearanceModel {
    * @param rightEdge the desired treatment.
    */
   public void setRightEdge(EdgeTreatment rightEdge) {
+    checkMutable();
     if (setRightEdgeInternal(rightEdge)) {
       onShapeAppearanceModelChanged();
     }
@@ -554,11 +708,17 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the edge treatment for the right edge.
+   * Gets the edge treatment for the right edge. The treatment of an immutable model is a copy,
+   * since changing it wouldn't change the model.
    *
    * @return the edge treatment for the right edge.
    */
   public EdgeTreatment getRightEdge() {
+    return immutable ? rightEdge.clone() : rightEdge;
+  }
+
+  /** Returns the edge treatment for the right edge, which must not be modified. */
+  EdgeTreatment getRightEdgeInternal() {
     return rightEdge;
   }
 
@@ -568,6 +728,7 @@ public class ShapeAppearanceModel {
    * @param bottomEdge the desired treatment.
    */
   public void setBottomEdge(EdgeTreatment bottomEdge) {
+    checkMutable();
     if (setBottomEdgeInternal(bottomEdge)) {
       onShapeAppearanceModelChanged();
     }
@@ -583,22 +744,38 @@ public class ShapeAppearanceModel {
   }
 
   /**
-   * Gets the edge treatment for the bottom edge.
+   * Gets the edge treatment for the bottom edge. The treatment of an immutable model is a copy,
+   * since changing it wouldn't change the model.
    *
    * @return the edge treatment for the bottom edge.
    */
   public EdgeTreatment getBottomEdge() {
+    return immutable ? bottomEdge.clone() : bottomEdge;
+  }
+
+  /** Returns the edge treatment for the bottom edge, which must not be modified. */
+  EdgeTreatment getBottomEdgeInternal() {
     return bottomEdge;
   }
 
   void addOnChangedListener(@Nullable OnChangedListener onChangedListener) {
-    onChangedListeners.add(onChangedListener);
+    // An immutable model never changes, so there is no need to hold on to its listeners.
+    if (!immutable) {
+      onChangedListeners.add(onChangedListener);
+    }
   }
 
   void removeOnChangedListener(@Nullable OnChangedListener onChangedListener) {
     onChangedListeners.remove(onChangedListener);
   }
 
+  private void checkMutable() {
+    if (immutable) {
+      throw new UnsupportedOperationException(
+          "This ShapeAppearanceModel is immutable, use toBuilder() to create a modified copy.");
+    }
+  }
+
   private void onShapeAppearanceModelChanged() {
     for (OnChangedListener onChangedListener : onChangedListeners) {
       if (onChangedListener != null) {
@@ -636,4 +813,215 @@ public class ShapeAppearanceModel {
 
     return hasDefaultEdges && cornersHaveSameSize && hasRoundedCorners;
   }
+
+  /**
+   * Builds immutable {@link ShapeAppearanceModel}s.
+   *
+   * <p>Models with {@link RoundedCornerTreatment} or {@link CutCornerTreatment} corners and default
+   * edges are interned, so building a model equal to one that is still in use returns that same
+   * instance instead of allocating a new one. This makes it cheap to set the same shape on many
+   * drawables, which can then compare shapes by reference. The edge and corner treatments of a
+   * built model must not be modified.
+   */
+  public static final class Builder {
+
+    private CornerTreatment topLeftCorner;
+    private CornerTreatment topRightCorner;
+    private CornerTreatment bottomRightCorner;
+    private CornerTreatment bottomLeftCorner;
+    private EdgeTreatment topEdge;
+    private EdgeTreatment rightEdge;
+    private EdgeTreatment bottomEdge;
+    private EdgeTreatment leftEdge;
+
+    private Builder() {
+      topLeftCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+      topRightCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+      bottomRightCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+      bottomLeftCorner = MaterialShapeUtils.createDefaultCornerTreatment();
+      EdgeTreatment edge = MaterialShapeUtils.createDefaultEdgeTreatment();
+      topEdge = edge;
+      rightEdge = edge;
+      bottomEdge = edge;
+      leftEdge = edge;
+    }
+
+    private Builder(ShapeAppearanceModel other) {
+      // Treatments are only cloned when they are modified or when a new model is built.
+      topLeftCorner = other.getTopLeftCornerInternal();
+      topRightCorner = other.getTopRightCornerInternal();
+      bottomRightCorner = other.getBottomRightCornerInternal();
+      bottomLeftCorner = other.getBottomLeftCornerInternal();
+      topEdge = other.getTopEdgeInternal();
+      rightEdge = other.getRightEdgeInternal();
+      bottomEdge = other.getBottomEdgeInternal();
+      leftEdge = other.getLeftEdgeInternal();
+    }
+
+    /**
+     * Sets all corner treatments to {@link CornerTreatment}s generated from a {@code cornerFamily}
+     * and {@code cornerSize}.
+     */
+    public Builder setAllCorners(@CornerFamily int cornerFamily, @Dimension int cornerSize) {
+      return setAllCorners(MaterialShapeUtils.createCornerTreatment(cornerFamily, cornerSize));
+    }
+
+    /** Sets all corner treatments to {@code cornerTreatment}. */
+    public Builder setAllCorners(CornerTreatment cornerTreatment) {
+      topLeftCorner = cornerTreatment;
+      topRightCorner = cornerTreatment;
+      bottomRightCorner = cornerTreatment;
+      bottomLeftCorner = cornerTreatment;
+      return this;
+    }
+
+    /** Sets the corner size of all four corner treatments to {@code cornerRadius}. */
+    public Builder setCornerRadius(float cornerRadius) {
+      return setCornerRadii(cornerRadius, cornerRadius, cornerRadius, cornerRadius);
+    }
+
+    /** Sets the corner size of each of the four corner treatments. */
+    public Builder setCornerRadii(
+        float topLeftCornerRadius,
+        float topRightCornerRadius,
+        float bottomRightCornerRadius,
+        float bottomLeftCornerRadius) {
+      topLeftCorner = withCornerSize(topLeftCorner, topLeftCornerRadius);
+      topRightCorner = withCornerSize(topRightCorner, topRightCornerRadius);
+      bottomRightCorner = withCornerSize(bottomRightCorner, bottomRightCornerRadius);
+      bottomLeftCorner = withCornerSize(bottomLeftCorner, bottomLeftCornerRadius);
+      return this;
+    }
+
+    /** Sets the corner treatment for the top left corner. */
+    public Builder setTopLeftCorner(@CornerFamily int cornerFamily, @Dimension int cornerSize) {
+      return setTopLeftCorner(MaterialShapeUtils.createCornerTreatment(cornerFamily, cornerSize));
+    }
+
+    /** Sets the corner treatment for the top left corner. */
+    public Builder setTopLeftCorner(CornerTreatment topLeftCorner) {
+      this.topLeftCorner = topLeftCorner;
+      return this;
+    }
+
+    /** Sets the corner treatment for the top right corner. */
+    public Builder setTopRightCorner(@CornerFamily int cornerFamily, @Dimension int cornerSize) {
+      return setTopRightCorner(MaterialShapeUtils.createCornerTreatment(cornerFamily, cornerSize));
+    }
+
+    /** Sets the corner treatment for the top right corner. */
+    public Builder setTopRightCorner(CornerTreatment topRightCorner) {
+      this.topRightCorner = topRightCorner;
+      return this;
+    }
+
+    /** Sets the corner treatment for the bottom right corner. */
+    public Builder setBottomRightCorner(@CornerFamily int cornerFamily, @Dimension int cornerSize) {
+      return setBottomRightCorner(
+          MaterialShapeUtils.createCornerTreatment(cornerFamily, cornerSize));
+    }
+
+    /** Sets the corner treatment for the bottom right corner. */
+    public Builder setBottomRightCorner(CornerTreatment bottomRightCorner) {
+      this.bottomRightCorner = bottomRightCorner;
+      return this;
+    }
+
+    /** Sets the corner treatment for the bottom left corner. */
+    public Builder setBottomLeftCorner(@CornerFamily int cornerFamily, @Dimension int cornerSize) {
+      return setBottomLeftCorner(
+          MaterialShapeUtils.createCornerTreatment(cornerFamily, cornerSize));
+    }
+
+    /** Sets the corner treatment for the bottom left corner. */
+    public Builder setBottomLeftCorner(CornerTreatment bottomLeftCorner) {
+      this.bottomLeftCorner = bottomLeftCorner;
+      return this;
+    }
+
+    /** Sets all edge treatments to {@code edgeTreatment}. */
+    public Builder setAllEdges(EdgeTreatment edgeTreatment) {
+      leftEdge = edgeTreatment;
+      topEdge = edgeTreatment;
+      rightEdge = edgeTreatment;
+      bottomEdge = edgeTreatment;
+      return this;
+    }
+
+    /** Sets the edge treatment for the left edge. */
+    public Builder setLeftEdge(EdgeTreatment leftEdge) {
+      this.leftEdge = leftEdge;
+      return this;
+    }
+
+    /** Sets the edge treatment for the top edge. */
+    public Builder setTopEdge(EdgeTreatment topEdge) {
+      this.topEdge = topEdge;
+      return this;
+    }
+
+    /** Sets the edge treatment for the right edge. */
+    public Builder setRightEdge(EdgeTreatment rightEdge) {
+      this.rightEdge = rightEdge;
+      return this;
+    }
+
+    /** Sets the edge treatment for the bottom edge. */
+    public Builder setBottomEdge(EdgeTreatment bottomEdge) {
+      this.bottomEdge = bottomEdge;
+      return this;
+    }
+
+    /**
+     * Returns an immutable {@link ShapeAppearanceModel} with the treatments of this builder. If an
+     * equal model has already been built and is still in use, that instance is returned.
+     */
+    public ShapeAppearanceModel build() {
+      if (!isInternable()) {
+        return new ShapeAppearanceModel(this, null);
+      }
+      synchronized (internedModels) {
+        internLookupKey.setCorners(
+            topLeftCorner, topRightCorner, bottomRightCorner, bottomLeftCorner, 1, 0);
+        WeakReference<ShapeAppearanceModel> reference = internedModels.get(internLookupKey);
+        ShapeAppearanceModel model = reference != null ? reference.get() : null;
+        if (model == null) {
+          ShapeAppearanceKey key = new ShapeAppearanceKey(internLookupKey);
+          model = new ShapeAppearanceModel(this, key);
+          internedModels.put(key, new WeakReference<>(model));
+        }
+        return model;
+      }
+    }
+
+    private boolean isInternable() {
+      return ShapeAppearanceKey.isDefaultEdge(leftEdge)
+          && ShapeAppearanceKey.isDefaultEdge(topEdge)
+          && ShapeAppearanceKey.isDefaultEdge(rightEdge)
+          && ShapeAppearanceKey.isDefaultEdge(bottomEdge)
+          && isInternable(topLeftCorner)
+          && isInternable(topRightCorner)
+          && isInternable(bottomRightCorner)
+          && isInternable(bottomLeftCorner);
+    }
+
+    private static boolean isInternable(CornerTreatment corner) {
+      // The key clamps negative corner sizes to 0, which would merge models that report different
+      // corner sizes.
+      Class<?> cornerClass = corner.getClass();
+      return (cornerClass == RoundedCornerTreatment.class
+              || cornerClass == CutCornerTreatment.class)
+          && corner.getCornerSize() >= 0;
+    }
+
+    private static CornerTreatment withCornerSize(CornerTreatment corner, float cornerSize) {
+      if (corner.getCornerSize() == cornerSize) {
+        return corner;
+      }
+      // The treatment may be shared with another model, so it is never modified in place.
+      CornerTreatment resized = corner.clone();
+      resized.setCornerSize(cornerSize);
+      return resized;
+    }
+  }
 }
@@ -35,6 +35,9 @@ public class ShapeAppearancePathProvider {
 
   /**
    * Listener called every time a {@link ShapePath} is created for a corner or an edge treatment.
+   *
+   * <p>The paths and transforms passed to the listener are reused by the provider, so they are only
+   * valid until the next path is calculated.
    */
   public interface PathListener {
     void onCornerPathCreated(ShapePath cornerPath, Matrix transform, int count);
@@ -44,18 +47,20 @@ public class ShapeAppearancePathProvider {
 
   // Inter-method state.
   private final ShapePath[] cornerPaths = new ShapePath[4];
+  private final ShapePath[] edgePaths = new ShapePath[4];
   private final Matrix[] cornerTransforms = new Matrix[4];
   private final Matrix[] edgeTransforms = new Matrix[4];
 
   // Pre-allocated objects that are re-used several times during path computation and rendering.
   private final PointF pointF = new PointF();
-  private final ShapePath shapePath = new ShapePath();
+  private final ShapeAppearancePathSpec spec = new ShapeAppearancePathSpec();
   private final float[] scratch = new float[2];
   private final float[] scratch2 = new float[2];
 
   public ShapeAppearancePathProvider() {
     for (int i = 0; i < 4; i++) {
       cornerPaths[i] = new ShapePath();
+      edgePaths[i] = new ShapePath();
       cornerTransforms[i] = new Matrix();
       edgeTransforms[i] = new Matrix();
     }
@@ -90,9 +95,7 @@ public class ShapeAppearancePathProvider {
       PathListener pathListener,
       Path path) {
     path.rewind();
-    ShapeAppearancePathSpec spec =
-        new ShapeAppearancePathSpec(
-            shapeAppearanceModel, interpolation, bounds, pathListener, path);
+    spec.set(shapeAppearanceModel, interpolation, bounds, pathListener, path);
 
     // Calculate the transformations (rotations and translations) necessary for each edge and
     // corner treatment.
@@ -111,6 +114,7 @@ public class ShapeAppearancePathProvider {
     }
 
     path.close();
+    spec.clear();
   }
 
   private void setCornerPathAndTransform(ShapeAppearancePathSpec spec, int index) {
@@ -163,12 +167,13 @@ public class ShapeAppearancePathProvider {
     // TODO: Remove this -.001f that is currently needed to handle rounding errors
     edgeLength = Math.max(edgeLength - .001f, 0);
     float center = getEdgeCenterForIndex(spec.bounds, index);
-    shapePath.reset(0, 0);
+    ShapePath edgePath = edgePaths[index];
+    edgePath.reset(0, 0);
     getEdgeTreatmentForIndex(index, spec.shapeAppearanceModel)
-        .getEdgePath(edgeLength, center, spec.interpolation, shapePath);
-    shapePath.applyToPath(edgeTransforms[index], spec.path);
+        .getEdgePath(edgeLength, center, spec.interpolation, edgePath);
+    edgePath.applyToPath(edgeTransforms[index], spec.path);
     if (spec.pathListener != null) {
-      spec.pathListener.onEdgePathCreated(shapePath, edgeTransforms[index], index);
+      spec.pathListener.onEdgePathCreated(edgePath, edgeTransforms[index], index);
     }
   }
 
@@ -191,14 +196,14 @@ public class ShapeAppearancePathProvider {
       int index, ShapeAppearanceModel shapeAppearanceModel) {
     switch (index) {
       case 1:
-        return shapeAppearanceModel.getBottomRightCorner();
+        return shapeAppearanceModel.getBottomRightCornerInternal();
       case 2:
-        return shapeAppearanceModel.getBottomLeftCorner();
+        return shapeAppearanceModel.getBottomLeftCornerInternal();
       case 3:
-        return shapeAppearanceModel.getTopLeftCorner();
+        return shapeAppearanceModel.getTopLeftCornerInternal();
       case 0:
       default:
-        return shapeAppearanceModel.getTopRightCorner();
+        return shapeAppearanceModel.getTopRightCornerInternal();
     }
   }
 
@@ -206,14 +211,14 @@ public class ShapeAppearancePathProvider {
       int index, ShapeAppearanceModel shapeAppearanceModel) {
     switch (index) {
       case 1:
-        return shapeAppearanceModel.getBottomEdge();
+        return shapeAppearanceModel.getBottomEdgeInternal();
       case 2:
-        return shapeAppearanceModel.getLeftEdge();
+        return shapeAppearanceModel.getLeftEdgeInternal();
       case 3:
-        return shapeAppearanceModel.getTopEdge();
+        return shapeAppearanceModel.getTopEdgeInternal();
       case 0:
       default:
-        return shapeAppearanceModel.getRightEdge();
+        return shapeAppearanceModel.getRightEdgeInternal();
     }
   }
 
@@ -239,18 +244,21 @@ public class ShapeAppearancePathProvider {
     return 90 * (index + 1 % 4);
   }
 
-  /** Necessary information to map a {@link ShapeAppearanceModel} into a Path. */
+  /**
+   * Necessary information to map a {@link ShapeAppearanceModel} into a Path. A single instance is
+   * reused for every path calculated by the provider.
+   */
   static final class ShapeAppearancePathSpec {
 
-    @NonNull public final ShapeAppearanceModel shapeAppearanceModel;
-    @NonNull public final Path path;
-    @NonNull public final RectF bounds;
+    public ShapeAppearanceModel shapeAppearanceModel;
+    public Path path;
+    public RectF bounds;
 
-    @Nullable public final PathListener pathListener;
+    @Nullable public PathListener pathListener;
 
-    public final float interpolation;
+    public float interpolation;
 
-    ShapeAppearancePathSpec(
+    void set(
         @NonNull ShapeAppearanceModel shapeAppearanceModel,
         float interpolation,
         RectF bounds,
@@ -262,5 +270,13 @@ public class ShapeAppearancePathProvider {
       this.bounds = bounds;
       this.path = path;
     }
+
+    /** Drops the references to the arguments of the last calculation. */
+    void clear() {
+      shapeAppearanceModel = null;
+      bounds = null;
+      pathListener = null;
+      path = null;
+    }
   }
 }
@@ -21,19 +21,33 @@ import android.graphics.Matrix;
 import android.graphics.Path;
 import android.graphics.RectF;
 import com.google.android.material.shadow.ShadowRenderer;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Represents the descriptive path of a shape. Path segments are stored in sequence so that
  * transformations can be applied to them when the {@link android.graphics.Path} is produced by the
  * {@link MaterialShapeDrawable}.
+ *
+ * <p>Segments are packed into a float array of verbs, each followed by its coordinates, rather than
+ * stored as objects. This keeps a ShapePath cheap to reset, copy and compare.
  */
 public class ShapePath {
 
   private static final float ANGLE_UP = 270;
   protected static final float ANGLE_LEFT = 180;
 
+  // Verbs of the path and shadow command buffers. Each verb is followed by its coordinates.
+  /** Followed by x, y. */
+  private static final int VERB_LINE = 0;
+  /** Followed by controlX, controlY, endX, endY. */
+  private static final int VERB_QUAD = 1;
+  /** Followed by left, top, right, bottom, startAngle, sweepAngle. */
+  private static final int VERB_ARC = 2;
+  /** Shadow only, followed by startX, startY, endX, endY. */
+  private static final int VERB_LINE_SHADOW = 3;
+
+  private static final int INITIAL_CAPACITY = 16;
+
   public float startX;
   public float startY;
   public float endX;
@@ -41,8 +55,18 @@ public class ShapePath {
   public float currentShadowAngle;
   public float endShadowAngle;
 
-  private final List<PathOperation> operations = new ArrayList<>();
-  private final List<ShadowCompatOperation> shadowCompatOperations = new ArrayList<>();
+  private float[] commands = new float[INITIAL_CAPACITY];
+  private int commandsSize;
+  private float[] shadowCommands = new float[INITIAL_CAPACITY];
+  private int shadowCommandsSize;
+
+  private final PathShadowCompatOperation pathShadowCompatOperation =
+      new PathShadowCompatOperation(this);
+
+  // Pre-allocated objects that are re-used while replaying the commands.
+  private final Matrix inverse = new Matrix();
+  private final Matrix shadowTransform = new Matrix();
+  private final RectF rectF = new RectF();
 
   public ShapePath() {
     reset(0, 0);
@@ -63,8 +87,31 @@ public class ShapePath {
     this.endY = startY;
     this.currentShadowAngle = shadowStartAngle;
     this.endShadowAngle = (shadowStartAngle + shadowSweepAngle) % 360;
-    this.operations.clear();
-    this.shadowCompatOperations.clear();
+    this.commandsSize = 0;
+    this.shadowCommandsSize = 0;
+  }
+
+  /**
+   * Sets this ShapePath to a copy of {@code other}, reusing the buffers of this ShapePath where
+   * possible.
+   */
+  public void set(ShapePath other) {
+    startX = other.startX;
+    startY = other.startY;
+    endX = other.endX;
+    endY = other.endY;
+    currentShadowAngle = other.currentShadowAngle;
+    endShadowAngle = other.endShadowAngle;
+    if (commands.length < other.commandsSize) {
+      commands = new float[other.commands.length];
+    }
+    System.arraycopy(other.commands, 0, commands, 0, other.commandsSize);
+    commandsSize = other.commandsSize;
+    if (shadowCommands.length < other.shadowCommandsSize) {
+      shadowCommands = new float[other.shadowCommands.length];
+    }
+    System.arraycopy(other.shadowCommands, 0, shadowCommands, 0, other.shadowCommandsSize);
+    shadowCommandsSize = other.shadowCommandsSize;
   }
 
   /**
@@ -74,18 +121,21 @@ public class ShapePath {
    * @param y the y to which the line should be drawn.
    */
   public void lineTo(float x, float y) {
-    PathLineOperation operation = new PathLineOperation();
-    operation.x = x;
-    operation.y = y;
-    operations.add(operation);
-
-    LineShadowOperation shadowOperation = new LineShadowOperation(operation, endX, endY);
+    ensureCommandsCapacity(3);
+    commands[commandsSize++] = VERB_LINE;
+    commands[commandsSize++] = x;
+    commands[commandsSize++] = y;
 
     // The previous endX and endY is the starting point for this shadow operation.
-    addShadowCompatOperation(
-        shadowOperation,
-        ANGLE_UP + shadowOperation.getAngle(),
-        ANGLE_UP + shadowOperation.getAngle());
+    float shadowAngle = ANGLE_UP + getLineAngle(endX, endY, x, y);
+    addConnectingShadowIfNecessary(shadowAngle);
+    ensureShadowCommandsCapacity(5);
+    shadowCommands[shadowCommandsSize++] = VERB_LINE_SHADOW;
+    shadowCommands[shadowCommandsSize++] = endX;
+    shadowCommands[shadowCommandsSize++] = endY;
+    shadowCommands[shadowCommandsSize++] = x;
+    shadowCommands[shadowCommandsSize++] = y;
+    currentShadowAngle = shadowAngle;
 
     endX = x;
     endY = y;
@@ -100,12 +150,12 @@ public class ShapePath {
    * @param toY the end y of the arc.
    */
   public void quadToPoint(float controlX, float controlY, float toX, float toY) {
-    PathQuadOperation operation = new PathQuadOperation();
-    operation.controlX = controlX;
-    operation.controlY = controlY;
-    operation.endX = toX;
-    operation.endY = toY;
-    operations.add(operation);
+    ensureCommandsCapacity(5);
+    commands[commandsSize++] = VERB_QUAD;
+    commands[commandsSize++] = controlX;
+    commands[commandsSize++] = controlY;
+    commands[commandsSize++] = toX;
+    commands[commandsSize++] = toY;
 
     endX = toX;
     endY = toY;
@@ -123,21 +173,24 @@ public class ShapePath {
    */
   public void addArc(float left, float top, float right, float bottom, float startAngle,
       float sweepAngle) {
-    PathArcOperation operation = new PathArcOperation(left, top, right, bottom);
-    operation.startAngle = startAngle;
-    operation.sweepAngle = sweepAngle;
-    operations.add(operation);
+    ensureCommandsCapacity(7);
+    commands[commandsSize++] = VERB_ARC;
+    commands[commandsSize++] = left;
+    commands[commandsSize++] = top;
+    commands[commandsSize++] = right;
+    commands[commandsSize++] = bottom;
+    commands[commandsSize++] = startAngle;
+    commands[commandsSize++] = sweepAngle;
 
-    ArcShadowOperation arcShadowOperation = new ArcShadowOperation(operation);
     float endAngle = startAngle + sweepAngle;
     // Flip the startAngle and endAngle when drawing the shadow inside the bounds. They represent
     // the angles from the center of the circle to the start or end of the arc, respectively. When
     // the shadow is drawn inside the arc, it is going the opposite direction.
     boolean drawShadowInsideBounds = sweepAngle < 0;
-    addShadowCompatOperation(
-        arcShadowOperation,
-        drawShadowInsideBounds ? (180 + startAngle) % 360 : startAngle,
-        drawShadowInsideBounds ? (180 + endAngle) % 360 : endAngle);
+    addConnectingShadowIfNecessary(
+        drawShadowInsideBounds ? (180 + startAngle) % 360 : startAngle);
+    addArcShadow(left, top, right, bottom, startAngle, sweepAngle);
+    currentShadowAngle = drawShadowInsideBounds ? (180 + endAngle) % 360 : endAngle;
 
     endX = (left + right) * 0.5f
         + (right - left) / 2 * (float) Math.cos(Math.toRadians(startAngle + sweepAngle));
@@ -152,45 +205,51 @@ public class ShapePath {
    * @param path the path to which this ShapePath is applied
    */
   public void applyToPath(Matrix transform, Path path) {
-    for (int i = 0, size = operations.size(); i < size; i++) {
-      PathOperation operation = operations.get(i);
-      operation.applyToPath(transform, path);
+    if (commandsSize == 0) {
+      return;
+    }
+    // Each segment is added in the space of the ShapePath, and the path is moved back afterwards.
+    transform.invert(inverse);
+    int i = 0;
+    while (i < commandsSize) {
+      path.transform(inverse);
+      switch ((int) commands[i]) {
+        case VERB_LINE:
+          path.lineTo(commands[i + 1], commands[i + 2]);
+          i += 3;
+          break;
+        case VERB_QUAD:
+          path.quadTo(commands[i + 1], commands[i + 2], commands[i + 3], commands[i + 4]);
+          i += 5;
+          break;
+        case VERB_ARC:
+        default:
+          rectF.set(commands[i + 1], commands[i + 2], commands[i + 3], commands[i + 4]);
+          path.arcTo(rectF, commands[i + 5], commands[i + 6], false);
+          i += 7;
+          break;
+      }
+      path.transform(transform);
     }
   }
 
   /**
    * Creates a ShadowCompatOperation to draw compatibility shadow under the matrix transform for the
    * whole path defined by this ShapePath.
+   *
+   * <p>The returned operation is owned by this ShapePath, and is only valid until the ShapePath is
+   * reset.
    */
   ShadowCompatOperation createShadowCompatOperation(final Matrix transform) {
-    // If the shadowCompatOperations don't end on the desired endShadowAngle, add an arc to do so.
+    // If the shadow commands don't end on the desired endShadowAngle, add an arc to do so.
     addConnectingShadowIfNecessary(endShadowAngle);
-    final List<ShadowCompatOperation> operations = new ArrayList<>(shadowCompatOperations);
-    return new ShadowCompatOperation() {
-      @Override
-      public void draw(
-          Matrix matrix, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-        for (ShadowCompatOperation op : operations) {
-          op.draw(transform, shadowRenderer, shadowElevation, canvas);
-        }
-      }
-    };
+    pathShadowCompatOperation.transform = transform;
+    return pathShadowCompatOperation;
   }
 
   /**
-   * Adds a {@link ShadowCompatOperation}, adding an {@link ArcShadowOperation} if needed in order
-   * to connect the previous shadow end to the new shadow operation's beginning.
-   */
-  private void addShadowCompatOperation(
-      ShadowCompatOperation shadowOperation, float startShadowAngle, float endShadowAngle) {
-    addConnectingShadowIfNecessary(startShadowAngle);
-    shadowCompatOperations.add(shadowOperation);
-    currentShadowAngle = endShadowAngle;
-  }
-
-  /**
-   * Create an {@link ArcShadowOperation} to fill in a shadow between the currently drawn shadow and
-   * the next shadow angle, if there would be a gap.
+   * Add an arc shadow to fill in a shadow between the currently drawn shadow and the next shadow
+   * angle, if there would be a gap.
    */
   private void addConnectingShadowIfNecessary(float nextShadowAngle) {
     if (currentShadowAngle == nextShadowAngle) {
@@ -202,13 +261,125 @@ public class ShapePath {
       // Shadows are actually overlapping, so don't draw anything.
       return;
     }
-    PathArcOperation pathArcOperation = new PathArcOperation(endX, endY, endX, endY);
-    pathArcOperation.startAngle = currentShadowAngle;
-    pathArcOperation.sweepAngle = shadowSweep;
-    shadowCompatOperations.add(new ArcShadowOperation(pathArcOperation));
+    addArcShadow(endX, endY, endX, endY, currentShadowAngle, shadowSweep);
     currentShadowAngle = nextShadowAngle;
   }
 
+  private void addArcShadow(
+      float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+    ensureShadowCommandsCapacity(7);
+    shadowCommands[shadowCommandsSize++] = VERB_ARC;
+    shadowCommands[shadowCommandsSize++] = left;
+    shadowCommands[shadowCommandsSize++] = top;
+    shadowCommands[shadowCommandsSize++] = right;
+    shadowCommands[shadowCommandsSize++] = bottom;
+    shadowCommands[shadowCommandsSize++] = startAngle;
+    shadowCommands[shadowCommandsSize++] = sweepAngle;
+  }
+
+  /** Draws the shadow commands of this ShapePath on the canvas under the matrix transform. */
+  private void drawShadow(
+      Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
+    int i = 0;
+    while (i < shadowCommandsSize) {
+      if (shadowCommands[i] == VERB_LINE_SHADOW) {
+        float startX = shadowCommands[i + 1];
+        float startY = shadowCommands[i + 2];
+        float x = shadowCommands[i + 3];
+        float y = shadowCommands[i + 4];
+        rectF.set(0, 0, (float) Math.hypot(y - startY, x - startX), 0);
+        // transform & rotate the canvas so that the rect passed to drawEdgeShadow is horizontal.
+        shadowTransform.set(transform);
+        shadowTransform.preTranslate(startX, startY);
+        shadowTransform.preRotate(getLineAngle(startX, startY, x, y));
+        shadowRenderer.drawEdgeShadow(canvas, shadowTransform, rectF, shadowElevation);
+        i += 5;
+      } else {
+        rectF.set(
+            shadowCommands[i + 1],
+            shadowCommands[i + 2],
+            shadowCommands[i + 3],
+            shadowCommands[i + 4]);
+        shadowRenderer.drawCornerShadow(
+            canvas,
+            transform,
+            rectF,
+            shadowElevation,
+            shadowCommands[i + 5],
+            shadowCommands[i + 6]);
+        i += 7;
+      }
+    }
+  }
+
+  private static float getLineAngle(float startX, float startY, float x, float y) {
+    return (float) Math.toDegrees(Math.atan((y - startY) / (x - startX)));
+  }
+
+  private void ensureCommandsCapacity(int count) {
+    commands = ensureCapacity(commands, commandsSize + count);
+  }
+
+  private void ensureShadowCommandsCapacity(int count) {
+    shadowCommands = ensureCapacity(shadowCommands, shadowCommandsSize + count);
+  }
+
+  private static float[] ensureCapacity(float[] buffer, int capacity) {
+    if (buffer.length >= capacity) {
+      return buffer;
+    }
+    return Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ShapePath)) {
+      return false;
+    }
+    ShapePath that = (ShapePath) o;
+    if (startX != that.startX
+        || startY != that.startY
+        || endX != that.endX
+        || endY != that.endY
+        || currentShadowAngle != that.currentShadowAngle
+        || endShadowAngle != that.endShadowAngle
+        || commandsSize != that.commandsSize
+        || shadowCommandsSize != that.shadowCommandsSize) {
+      return false;
+    }
+    for (int i = 0; i < commandsSize; i++) {
+      if (commands[i] != that.commands[i]) {
+        return false;
+      }
+    }
+    for (int i = 0; i < shadowCommandsSize; i++) {
+      if (shadowCommands[i] != that.shadowCommands[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Float.floatToIntBits(startX);
+    result = 31 * result + Float.floatToIntBits(startY);
+    result = 31 * result + Float.floatToIntBits(endX);
+    result = 31 * result + Float.floatToIntBits(endY);
+    result = 31 * result + Float.floatToIntBits(currentShadowAngle);
+    result = 31 * result + Float.floatToIntBits(endShadowAngle);
+    for (int i = 0; i < commandsSize; i++) {
+      result = 31 * result + Float.floatToIntBits(commands[i]);
+    }
+    for (int i = 0; i < shadowCommandsSize; i++) {
+      result = 31 * result + Float.floatToIntBits(shadowCommands[i]);
+    }
+    return result;
+  }
+
   /**
    * Interface to hold operations that will draw a compatible shadow in the case that native shadows
    * can't be rendered.
@@ -227,65 +398,42 @@ public class ShapePath {
         Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas);
   }
 
-  /** Sets up the correct shadow to be drawn for a line. */
-  static class LineShadowOperation extends ShadowCompatOperation {
+  /** Draws the shadow commands of a ShapePath under a matrix transform. */
+  static class PathShadowCompatOperation extends ShadowCompatOperation {
 
-    private final PathLineOperation operation;
-    private final float startX;
-    private final float startY;
+    private final ShapePath shapePath;
+    private Matrix transform;
 
-    public LineShadowOperation(PathLineOperation operation, float startX, float startY) {
-      this.operation = operation;
-      this.startX = startX;
-      this.startY = startY;
+    PathShadowCompatOperation(ShapePath shapePath) {
+      this.shapePath = shapePath;
     }
 
     @Override
     public void draw(
-        Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-      final float height = operation.y - startY;
-      final float width = operation.x - startX;
-      final RectF rect = new RectF(0, 0, (float) Math.hypot(height, width), 0);
-      final Matrix edgeTransform = new Matrix(transform);
-      // transform & rotate the canvas so that the rect passed to drawEdgeShadow is horizontal.
-      edgeTransform.preTranslate(startX, startY);
-      edgeTransform.preRotate(getAngle());
-      shadowRenderer.drawEdgeShadow(canvas, edgeTransform, rect, shadowElevation);
-    }
-
-    float getAngle() {
-      return (float) Math.toDegrees(Math.atan((operation.y - startY) / (operation.x - startX)));
+        Matrix matrix, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
+      shapePath.drawShadow(transform, shadowRenderer, shadowElevation, canvas);
     }
   }
 
-  /** Sets up the shadow to be drawn for an arc. */
-  static class ArcShadowOperation extends ShadowCompatOperation {
-
-    private final PathArcOperation operation;
-
-    public ArcShadowOperation(PathArcOperation operation) {
-      this.operation = operation;
-    }
-
-    @Override
-    public void draw(
-        Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-      float startAngle = operation.startAngle;
-      float sweepAngle = operation.sweepAngle;
-      RectF rect = new RectF(operation.left, operation.top, operation.right, operation.bottom);
-      shadowRenderer.drawCornerShadow(
-          canvas, transform, rect, shadowElevation, startAngle, sweepAngle);
-    }
-  }
-
-  /** Interface for a path operation to be appended to the operations list. */
+  /**
+   * Interface for a path operation to be appended to the operations list.
+   *
+   * @deprecated ShapePath stores its segments in a packed buffer and no longer uses path
+   *     operations.
+   */
+  @Deprecated
   public abstract static class PathOperation {
     protected final Matrix matrix = new Matrix();
 
     public abstract void applyToPath(Matrix transform, Path path);
   }
 
-  /** Straight line operation. */
+  /**
+   * Straight line operation.
+   *
+   * @deprecated Use {@link ShapePath#lineTo(float, float)} instead.
+   */
+  @Deprecated
   public static class PathLineOperation extends PathOperation {
     private float x;
     private float y;
@@ -300,7 +448,12 @@ public class ShapePath {
     }
   }
 
-  /** Path quad operation. */
+  /**
+   * Path quad operation.
+   *
+   * @deprecated Use {@link ShapePath#quadToPoint(float, float, float, float)} instead.
+   */
+  @Deprecated
   public static class PathQuadOperation extends PathOperation {
     public float controlX;
     public float controlY;
@@ -317,7 +470,12 @@ public class ShapePath {
     }
   }
 
-  /** Path arc operation. */
+  /**
+   * Path arc operation.
+   *
+   * @deprecated Use {@link ShapePath#addArc(float, float, float, float, float, float)} instead.
+   */
+  @Deprecated
   public static class PathArcOperation extends PathOperation {
     private static final RectF rectF = new RectF();
 
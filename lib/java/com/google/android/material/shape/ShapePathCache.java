@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import androidx.annotation.NonNull;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the paths calculated by {@link MaterialShapeDrawable}s, shared by all
+ * drawables.
+ *
+ * <p>Paths are keyed by the corners of the {@link ShapeAppearanceModel}, the interpolation and the
+ * size of the bounds, so drawables with equal shapes and sizes reuse the same path rather than each
+ * calculating it. Only shapes with {@link RoundedCornerTreatment} or {@link CutCornerTreatment}
+ * corners and default edges are cached, since custom treatments can't be compared. Once the cache
+ * holds {@link #getMaxSize()} paths, the least recently used one is evicted.
+ */
+public final class ShapePathCache {
+
+  /** The default maximum number of cached paths. */
+  public static final int DEFAULT_MAX_SIZE = 64;
+
+  // Access ordered, so iteration starts at the least recently used path.
+  private static final Map<PathKey, Path> paths = new LinkedHashMap<>(16, 0.75f, true);
+
+  private static int maxSize = DEFAULT_MAX_SIZE;
+  private static int hitCount;
+  private static int missCount;
+
+  private ShapePathCache() {}
+
+  /**
+   * Sets the maximum number of cached paths, evicting the least recently used paths if the cache
+   * currently holds more. A value of 0 disables the cache.
+   */
+  public static synchronized void setMaxSize(int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize must be >= 0");
+    }
+    ShapePathCache.maxSize = maxSize;
+    trimToSize(maxSize);
+  }
+
+  /** Returns the maximum number of cached paths. */
+  public static synchronized int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Returns the number of paths currently held by the cache. */
+  public static synchronized int getSize() {
+    return paths.size();
+  }
+
+  /** Evicts all cached paths. */
+  public static synchronized void evictAll() {
+    paths.clear();
+  }
+
+  /** Returns how many times a drawable found its path in the cache. */
+  public static synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  /** Returns how many times a drawable had to calculate a path which could have been cached. */
+  public static synchronized int getMissCount() {
+    return missCount;
+  }
+
+  /** Resets the values returned by {@link #getHitCount()} and {@link #getMissCount()}. */
+  public static synchronized void resetStats() {
+    hitCount = 0;
+    missCount = 0;
+  }
+
+  /**
+   * Sets {@code path} to the cached path for {@code key}, moved to the position of {@code bounds},
+   * and returns true, or returns false if there is no cached path for the key.
+   */
+  static synchronized boolean get(@NonNull PathKey key, @NonNull RectF bounds, @NonNull Path path) {
+    Path cachedPath = paths.get(key);
+    if (cachedPath == null) {
+      missCount++;
+      return false;
+    }
+    hitCount++;
+    path.set(cachedPath);
+    path.offset(bounds.left, bounds.top);
+    return true;
+  }
+
+  /** Caches a copy of {@code path}, which was calculated for {@code bounds}, for {@code key}. */
+  static synchronized void put(@NonNull PathKey key, @NonNull RectF bounds, @NonNull Path path) {
+    if (maxSize == 0) {
+      return;
+    }
+    Path cachedPath = new Path(path);
+    // Paths are cached at the origin, so that they can be moved to any bounds of the same size.
+    cachedPath.offset(-bounds.left, -bounds.top);
+    paths.put(new PathKey(key), cachedPath);
+    trimToSize(maxSize);
+  }
+
+  private static void trimToSize(int maxSize) {
+    Iterator<PathKey> iterator = paths.keySet().iterator();
+    while (paths.size() > maxSize && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /** Identifies a path by the geometry of its shape and the size of its bounds. */
+  static final class PathKey {
+
+    private final ShapeAppearanceKey shapeKey;
+    private float width;
+    private float height;
+
+    PathKey() {
+      shapeKey = new ShapeAppearanceKey();
+    }
+
+    private PathKey(PathKey other) {
+      shapeKey = new ShapeAppearanceKey(other.shapeKey);
+      width = other.width;
+      height = other.height;
+    }
+
+    /**
+     * Sets this key, and returns false if the path of {@code shapeAppearanceModel} can't be cached.
+     *
+     * @param cornerSizeInset the amount every corner size is reduced by, as done for the path of a
+     *     stroke.
+     */
+    boolean set(
+        ShapeAppearanceModel shapeAppearanceModel,
+        float interpolation,
+        float cornerSizeInset,
+        RectF bounds) {
+      width = bounds.width();
+      height = bounds.height();
+      return shapeKey.set(shapeAppearanceModel, interpolation, cornerSizeInset);
+    }
+
+    /** Returns the geometry of the shape this key was last set from. */
+    ShapeAppearanceKey getShapeKey() {
+      return shapeKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PathKey)) {
+        return false;
+      }
+      PathKey that = (PathKey) o;
+      return width == that.width && height == that.height && shapeKey.equals(that.shapeKey);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = shapeKey.hashCode();
+      result = 31 * result + Float.floatToIntBits(width);
+      result = 31 * result + Float.floatToIntBits(height);
+      return result;
+    }
+  }
+}
@@ -68,7 +68,7 @@ public class SwitchMaterial extends SwitchCompat {
     // Ensure we are using the correctly themed context rather than the context that was passed in.
     context = getContext();
 
-    elevationOverlayProvider = new ElevationOverlayProvider(context);
+    elevationOverlayProvider = ElevationOverlayProvider.getSharedProvider(context);
 
     TypedArray attributes =
         ThemeEnforcement.obtainStyledAttributes(
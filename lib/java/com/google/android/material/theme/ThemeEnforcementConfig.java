@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.theme;
+
+import com.google.android.material.internal.ThemeEnforcement;
+
+/**
+ * Utility for configuring the theme checks of components.
+ *
+ * <p>Components which require a {@code Theme.MaterialComponents} or {@code Theme.AppCompat} theme,
+ * or a text appearance, check it when they are inflated and throw an {@link
+ * IllegalArgumentException} if it's missing. The checks cost extra style lookups for every
+ * component, so apps which have verified their themes during development can disable them in
+ * release builds.
+ */
+public class ThemeEnforcementConfig {
+
+  /**
+   * Sets whether components check that they are used with a compatible theme and text appearance.
+   * Enforcement is enabled by default. When it's disabled, a component used with an incompatible
+   * theme isn't reported, and may crash or draw incorrectly later on.
+   */
+  public static void setEnabled(boolean enabled) {
+    ThemeEnforcement.setEnabled(enabled);
+  }
+
+  /** Returns whether theme enforcement is enabled, see {@link #setEnabled(boolean)}. */
+  public static boolean isEnabled() {
+    return ThemeEnforcement.isEnabled();
+  }
+}
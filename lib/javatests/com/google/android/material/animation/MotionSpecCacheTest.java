@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.animation;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
+import android.os.Build.VERSION_CODES;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link MotionSpecCache}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MotionSpecCacheTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void setUp() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    MotionSpecCache.evictAll();
+    MotionSpecCache.resetStats();
+  }
+
+  @Test
+  public void createFromResource_sameTheme_parsesOnce() {
+    MotionSpec first =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+    MotionSpec second =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second).isEqualTo(first);
+    assertThat(second.getTiming("opacity")).isSameAs(first.getTiming("opacity"));
+    assertThat(MotionSpecCache.getParseCount()).isEqualTo(1);
+    assertThat(MotionSpecCache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void createFromResource_modifiedSpec_doesNotAffectOtherSpecs() {
+    MotionSpec first =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+    MotionTiming timing = first.getTiming("opacity");
+
+    first.setTiming("opacity", new MotionTiming(0, 1));
+    MotionSpec second =
+        MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    assertThat(second.getTiming("opacity")).isSameAs(timing);
+  }
+
+  @Test
+  public void createFromResource_invalidatedTheme_parsesAgain() {
+    MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    MotionSpecCache.invalidate(context.getTheme());
+    MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    assertThat(MotionSpecCache.getParseCount()).isEqualTo(2);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.LOLLIPOP_MR1)
+  public void createFromResource_belowApi23_parsesEveryTime() {
+    MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+    MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    // A style applied to the theme in between couldn't be detected, so nothing is cached.
+    assertThat(MotionSpecCache.getParseCount()).isEqualTo(2);
+    assertThat(MotionSpecCache.getHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void createFromResource_equalThemeOfOtherResources_parsesAgain() {
+    MotionSpec.createFromResource(context, R.animator.design_fab_show_motion_spec);
+
+    Resources resources = context.getResources();
+    final Resources otherResources =
+        new Resources(
+            resources.getAssets(), resources.getDisplayMetrics(), resources.getConfiguration());
+    final Theme otherTheme = otherResources.newTheme();
+    otherTheme.setTo(context.getTheme());
+    Context otherContext =
+        new ContextWrapper(context) {
+          @Override
+          public Resources getResources() {
+            return otherResources;
+          }
+
+          @Override
+          public Theme getTheme() {
+            return otherTheme;
+          }
+        };
+    MotionSpec.createFromResource(otherContext, R.animator.design_fab_show_motion_spec);
+
+    assertThat(MotionSpecCache.getParseCount()).isEqualTo(2);
+  }
+}
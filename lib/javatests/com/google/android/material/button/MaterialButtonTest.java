@@ -84,6 +84,22 @@ public class MaterialButtonTest {
         materialButton.getShapeAppearanceModel(), CUT_CORNER_FAMILY_CLASS);
   }
 
+  @Test
+  public void testSetCornerRadius_immutableShapeAppearanceModel_setsCopy() {
+    MaterialButton materialButton = new MaterialButton(context);
+    ShapeAppearanceModel immutableShapeAppearanceModel =
+        ShapeAppearanceModel.builder().setAllCorners(CUT_CORNER_FAMILY, 0).build();
+    materialButton.setShapeAppearanceModel(immutableShapeAppearanceModel);
+
+    materialButton.setCornerRadius((int) LARGE_CORNER_SIZE);
+
+    ShapeAppearanceModel newShapeAppearanceModel = materialButton.getShapeAppearanceModel();
+    assertThat(immutableShapeAppearanceModel.getTopLeftCornerSize()).isEqualTo(0f);
+    assertThat(newShapeAppearanceModel.getTopLeftCornerSize())
+        .isEqualTo(LARGE_CORNER_SIZE + materialButton.getStrokeWidth() / 2f);
+    assertThatCornerFamilyMatches(newShapeAppearanceModel, CUT_CORNER_FAMILY_CLASS);
+  }
+
   private void assertThatCornerFamilyMatches(
       ShapeAppearanceModel shapeAppearanceModel,
       Class<? extends CornerTreatment> expectedCornerFamily) {
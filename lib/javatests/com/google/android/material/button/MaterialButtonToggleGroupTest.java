@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.button;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.view.View.MeasureSpec;
+import com.google.android.material.shape.ShapeAppearanceModel;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.button.MaterialButtonToggleGroup}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MaterialButtonToggleGroupTest {
+
+  private static final float CORNER_SIZE = 20f;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void themeApplicationContext() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+  }
+
+  @Test
+  public void immutableShapeAppearanceModels_innerCornersAreSquaredOnCopies() {
+    ShapeAppearanceModel shapeAppearanceModel =
+        ShapeAppearanceModel.builder().setCornerRadius(CORNER_SIZE).build();
+    MaterialButtonToggleGroup toggleGroup = new MaterialButtonToggleGroup(context);
+    MaterialButton first = new MaterialButton(context);
+    MaterialButton middle = new MaterialButton(context);
+    MaterialButton last = new MaterialButton(context);
+    for (MaterialButton button : new MaterialButton[] {first, middle, last}) {
+      button.setShapeAppearanceModel(shapeAppearanceModel);
+      toggleGroup.addView(button);
+    }
+
+    int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+    toggleGroup.measure(measureSpec, measureSpec);
+
+    assertCornerSizes(shapeAppearanceModel, CORNER_SIZE, CORNER_SIZE, CORNER_SIZE, CORNER_SIZE);
+    assertCornerSizes(first.getShapeAppearanceModel(), CORNER_SIZE, 0, 0, CORNER_SIZE);
+    assertCornerSizes(middle.getShapeAppearanceModel(), 0, 0, 0, 0);
+    assertCornerSizes(last.getShapeAppearanceModel(), 0, CORNER_SIZE, CORNER_SIZE, 0);
+  }
+
+  private static void assertCornerSizes(
+      ShapeAppearanceModel shapeAppearanceModel,
+      float topLeft,
+      float topRight,
+      float bottomRight,
+      float bottomLeft) {
+    assertThat(shapeAppearanceModel.getTopLeftCornerSize()).isEqualTo(topLeft);
+    assertThat(shapeAppearanceModel.getTopRightCornerSize()).isEqualTo(topRight);
+    assertThat(shapeAppearanceModel.getBottomRightCornerSize()).isEqualTo(bottomRight);
+    assertThat(shapeAppearanceModel.getBottomLeftCornerSize()).isEqualTo(bottomLeft);
+  }
+}
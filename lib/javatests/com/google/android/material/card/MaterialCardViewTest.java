@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.card;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.shape.ShapeAppearanceModel;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.card.MaterialCardView}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MaterialCardViewTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void themeApplicationContext() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+  }
+
+  @Test
+  public void setRadius_withStroke_updatesSharedShape() {
+    MaterialCardView card = new MaterialCardView(context);
+    card.setStrokeWidth(4);
+
+    card.setRadius(16);
+    card.setRadius(24);
+
+    assertThat(card.getRadius()).isEqualTo(24f);
+  }
+
+  @Test
+  public void setRadius_leavesEqualImmutableModelUnchanged() {
+    MaterialCardView card = new MaterialCardView(context);
+    float radius = card.getRadius();
+    // An immutable model with the same shape as the card, which is interned and shared by the views
+    // which use it.
+    ShapeAppearanceModel sharedModel =
+        ShapeAppearanceModel.builder().setCornerRadius(radius).build();
+    card.setStrokeWidth(4);
+
+    card.setRadius(24);
+
+    assertThat(card.getRadius()).isEqualTo(24f);
+    assertThat(sharedModel.isImmutable()).isTrue();
+    assertThat(sharedModel.getTopLeftCorner().getCornerSize()).isEqualTo(radius);
+    assertThat(sharedModel.getBottomRightCorner().getCornerSize()).isEqualTo(radius);
+    assertThat(ShapeAppearanceModel.builder().setCornerRadius(radius).build())
+        .isSameAs(sharedModel);
+  }
+}
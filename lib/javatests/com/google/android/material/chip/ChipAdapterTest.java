@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.View.MeasureSpec;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ChipAdapter}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipAdapterTest {
+
+  private static final int CHIP_COUNT = 1_000;
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 200;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  private RecyclerView recyclerView;
+  private ChipAdapter adapter;
+  private long lastCheckedId;
+
+  @Before
+  public void setUp() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    recyclerView = new RecyclerView(context);
+    adapter = new TestChipAdapter();
+    adapter.setOnCheckedChangeListener(
+        new ChipAdapter.OnCheckedChangeListener() {
+          @Override
+          public void onCheckedChanged(ChipAdapter adapter, long checkedId) {
+            lastCheckedId = checkedId;
+          }
+        });
+    recyclerView.setItemAnimator(null);
+    recyclerView.setLayoutManager(new ChipFlowLayoutManager());
+    recyclerView.setAdapter(adapter);
+    layout();
+  }
+
+  @Test
+  public void check_singleSelection_unchecksPreviousChip() {
+    adapter.setSingleSelection(true);
+
+    adapter.check(getId(0));
+    assertThat(getChip(0).isChecked()).isTrue();
+
+    adapter.check(getId(1));
+    assertThat(getChip(0).isChecked()).isFalse();
+    assertThat(getChip(1).isChecked()).isTrue();
+    assertThat(adapter.getCheckedChipId()).isEqualTo(getId(1));
+    assertThat(adapter.getCheckedChipIds()).asList().containsExactly(getId(1));
+    assertThat(lastCheckedId).isEqualTo(getId(1));
+  }
+
+  @Test
+  public void checkChip_singleSelection_unchecksPreviousChip() {
+    adapter.setSingleSelection(true);
+
+    getChip(0).setChecked(true);
+    getChip(1).setChecked(true);
+
+    assertThat(getChip(0).isChecked()).isFalse();
+    assertThat(adapter.getCheckedChipId()).isEqualTo(getId(1));
+    assertThat(lastCheckedId).isEqualTo(getId(1));
+
+    getChip(1).setChecked(false);
+    assertThat(adapter.getCheckedChipId()).isEqualTo(RecyclerView.NO_ID);
+    assertThat(adapter.getCheckedChipIds()).isEmpty();
+  }
+
+  @Test
+  public void checkChip_multipleSelection_keepsAllChecked() {
+    getChip(0).setChecked(true);
+    getChip(1).setChecked(true);
+
+    assertThat(adapter.getCheckedChipId()).isEqualTo(RecyclerView.NO_ID);
+    assertThat(adapter.getCheckedChipIds()).asList().containsExactly(getId(0), getId(1)).inOrder();
+  }
+
+  @Test
+  public void check_chipOutOfView_isCheckedWhenBound() {
+    adapter.setSingleSelection(true);
+    adapter.check(getId(CHIP_COUNT - 1));
+    assertThat(recyclerView.findViewHolderForItemId(getId(CHIP_COUNT - 1))).isNull();
+
+    recyclerView.scrollToPosition(CHIP_COUNT - 1);
+    layout();
+
+    ChipAdapter.ChipViewHolder holder =
+        (ChipAdapter.ChipViewHolder) recyclerView.findViewHolderForItemId(getId(CHIP_COUNT - 1));
+    assertThat(holder.getChip().isChecked()).isTrue();
+    for (int i = 0; i < recyclerView.getChildCount(); i++) {
+      RecyclerView.ViewHolder child = recyclerView.getChildViewHolder(recyclerView.getChildAt(i));
+      if (child != holder) {
+        assertThat(((ChipAdapter.ChipViewHolder) child).getChip().isChecked()).isFalse();
+      }
+    }
+  }
+
+  @Test
+  public void clearCheck_unchecksAllChips() {
+    getChip(0).setChecked(true);
+    adapter.check(getId(CHIP_COUNT - 1));
+
+    adapter.clearCheck();
+
+    assertThat(getChip(0).isChecked()).isFalse();
+    assertThat(adapter.isChecked(getId(CHIP_COUNT - 1))).isFalse();
+    assertThat(adapter.getCheckedChipIds()).isEmpty();
+  }
+
+  private void layout() {
+    recyclerView.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    recyclerView.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  private static long getId(int position) {
+    return position * 10L;
+  }
+
+  private Chip getChip(int position) {
+    return ((ChipAdapter.ChipViewHolder) recyclerView.findViewHolderForItemId(getId(position)))
+        .getChip();
+  }
+
+  private static class TestChipAdapter extends ChipAdapter {
+
+    @Override
+    public long getItemId(int position) {
+      return getId(position);
+    }
+
+    @Override
+    protected void onBindChip(@NonNull Chip chip, int position) {
+      chip.setCheckable(true);
+      chip.setText("Tag " + position);
+    }
+
+    @Override
+    public int getItemCount() {
+      return CHIP_COUNT;
+    }
+  }
+}
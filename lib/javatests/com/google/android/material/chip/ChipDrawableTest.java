@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.graphics.RectF;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ChipDrawable}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipDrawableTest {
+
+  private static final int WIDTH = 200;
+  private static final int HEIGHT = 32;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private final RectF touchBounds = new RectF();
+
+  private ChipDrawable chipDrawable;
+
+  @Before
+  public void setUp() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    chipDrawable =
+        ChipDrawable.createFromAttributes(
+            context, null, 0, R.style.Widget_MaterialComponents_Chip_Entry);
+    chipDrawable.setText("Chip");
+    chipDrawable.setBounds(0, 0, WIDTH, HEIGHT);
+  }
+
+  @Test
+  public void getCloseIconTouchBounds_followsBounds() {
+    chipDrawable.getCloseIconTouchBounds(touchBounds);
+    assertThat(touchBounds.right).isEqualTo((float) WIDTH);
+
+    chipDrawable.setBounds(10, 0, 2 * WIDTH, HEIGHT);
+    chipDrawable.getCloseIconTouchBounds(touchBounds);
+    assertThat(touchBounds.right).isEqualTo(2f * WIDTH);
+
+    chipDrawable.getChipTouchBounds(touchBounds);
+    assertThat(touchBounds.left).isEqualTo(10f);
+  }
+
+  @Test
+  public void getCloseIconTouchBounds_followsPadding() {
+    chipDrawable.getCloseIconTouchBounds(touchBounds);
+    float width = touchBounds.width();
+
+    chipDrawable.setChipEndPadding(chipDrawable.getChipEndPadding() + 10);
+    chipDrawable.getCloseIconTouchBounds(touchBounds);
+
+    assertThat(touchBounds.width()).isEqualTo(width + 10);
+  }
+
+  @Test
+  public void getCloseIconTouchBounds_followsCloseIconVisibility() {
+    chipDrawable.getCloseIconTouchBounds(touchBounds);
+    assertThat(touchBounds.isEmpty()).isFalse();
+
+    chipDrawable.setCloseIconVisible(false);
+    chipDrawable.getCloseIconTouchBounds(touchBounds);
+    assertThat(touchBounds.isEmpty()).isTrue();
+
+    chipDrawable.getChipTouchBounds(touchBounds);
+    assertThat(touchBounds.right).isEqualTo((float) WIDTH);
+  }
+}
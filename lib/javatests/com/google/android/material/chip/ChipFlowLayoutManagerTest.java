@@ -0,0 +1,343 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.chip;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ChipFlowLayoutManager}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipFlowLayoutManagerTest {
+
+  private static final int ITEM_COUNT = 1_000;
+  private static final int ITEM_WIDTH = 50;
+  private static final int ITEM_HEIGHT = 20;
+  private static final int WIDTH = 200;
+  private static final int HEIGHT = 100;
+  private static final int WIDE_ITEM_WIDTH = WIDTH - ITEM_WIDTH / 2;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  private RecyclerView recyclerView;
+  private ChipFlowLayoutManager layoutManager;
+  private SizedAdapter adapter;
+
+  @Before
+  public void setUp() {
+    createRecyclerView();
+    layout();
+  }
+
+  @Test
+  public void layout_onlyCreatesVisibleItems() {
+    // 4 items per line, and 5 visible lines.
+    assertThat(recyclerView.getChildCount()).isEqualTo(20);
+    assertThat(adapter.createCount).isAtMost(20);
+    assertChildAt(0, 0, 0, 0);
+    assertChildAt(5, 5, ITEM_WIDTH, ITEM_HEIGHT);
+  }
+
+  @Test
+  public void layout_reflowsWithSpacing() {
+    layoutManager.setChipSpacing(10);
+    layout();
+
+    // 3 items per line, and 4 visible lines.
+    assertThat(recyclerView.getChildCount()).isEqualTo(12);
+    assertChildAt(4, 4, ITEM_WIDTH + 10, ITEM_HEIGHT + 10);
+  }
+
+  @Test
+  public void scrollBy_recyclesItemsScrolledOutOfView() {
+    recyclerView.scrollBy(0, 2 * ITEM_HEIGHT);
+
+    assertThat(recyclerView.getChildCount()).isEqualTo(20);
+    assertChildAt(0, 8, 0, 0);
+    assertThat(adapter.createCount).isAtMost(28);
+
+    recyclerView.scrollBy(0, -3 * ITEM_HEIGHT);
+    assertChildAt(0, 0, 0, 0);
+  }
+
+  @Test
+  public void scrollBy_onlyLaysOutLinesScrolledIntoView() {
+    View firstChildOfSecondLine = recyclerView.getChildAt(4);
+    adapter.bindCount = 0;
+    adapter.layoutCount = 0;
+
+    recyclerView.scrollBy(0, ITEM_HEIGHT);
+
+    // The chips which stay in view are moved without being laid out again.
+    assertThat(recyclerView.getChildAt(0)).isSameAs(firstChildOfSecondLine);
+    assertChildAt(0, 4, 0, 0);
+    assertChildAt(16, 20, 0, 4 * ITEM_HEIGHT);
+    assertThat(recyclerView.getChildCount()).isEqualTo(20);
+    assertThat(adapter.bindCount).isEqualTo(4);
+    assertThat(adapter.layoutCount).isEqualTo(4);
+
+    adapter.bindCount = 0;
+    adapter.layoutCount = 0;
+    recyclerView.scrollBy(0, -ITEM_HEIGHT);
+
+    assertChildAt(0, 0, 0, 0);
+    assertChildAt(4, 4, 0, ITEM_HEIGHT);
+    assertThat(recyclerView.getChildCount()).isEqualTo(20);
+    assertThat(adapter.bindCount).isEqualTo(4);
+    assertThat(adapter.layoutCount).isEqualTo(4);
+  }
+
+  @Test
+  public void scrollBy_stopsAtTheLastLine() {
+    recyclerView.scrollBy(0, Integer.MAX_VALUE / 2);
+
+    int lastChild = recyclerView.getChildCount() - 1;
+    assertThat(getPosition(lastChild)).isEqualTo(ITEM_COUNT - 1);
+    assertThat(recyclerView.getChildAt(lastChild).getBottom()).isEqualTo(HEIGHT);
+  }
+
+  @Test
+  public void scrollToPosition_onlyCreatesVisibleItems() {
+    layoutManager.scrollToPosition(501);
+    adapter.createCount = 0;
+    adapter.bindCount = 0;
+    layout();
+
+    assertChildAt(0, 500, 0, 0);
+    assertThat(recyclerView.getChildCount()).isEqualTo(20);
+    assertThat(adapter.createCount).isAtMost(20);
+    // The items above the first visible one are bound once, to measure them and flow their lines,
+    // except for the first 20 which were measured by the first layout.
+    assertThat(adapter.bindCount).isEqualTo(480 + 20);
+  }
+
+  @Test
+  public void scrollToPosition_measuredItems_onlyBindsVisibleItems() {
+    layoutManager.scrollToPosition(501);
+    layout();
+    layoutManager.scrollToPosition(0);
+    layout();
+    adapter.bindCount = 0;
+
+    layoutManager.scrollToPosition(501);
+    layout();
+
+    assertChildAt(0, 500, 0, 0);
+    assertThat(adapter.bindCount).isEqualTo(20);
+  }
+
+  @Test
+  public void changeWidth_onlyBindsItemsNotMeasuredYet() {
+    layoutManager.scrollToPosition(501);
+    layout();
+    adapter.bindCount = 0;
+
+    layout(WIDTH + ITEM_WIDTH);
+
+    // 5 items per line, and the first visible item stays at the top.
+    assertChildAt(0, 500, 0, 0);
+    assertChildAt(5, 505, 0, ITEM_HEIGHT);
+    assertThat(recyclerView.getChildCount()).isEqualTo(25);
+    // Only the items of the last line had not been measured.
+    assertThat(adapter.bindCount).isEqualTo(5);
+  }
+
+  @Test
+  public void restoreInstanceState_doesNotBindItemsAboveFirstVisibleItem() {
+    layoutManager.scrollToPosition(501);
+    layout();
+    Parcelable state = layoutManager.onSaveInstanceState();
+
+    createRecyclerView();
+    layoutManager.onRestoreInstanceState(state);
+    layout();
+
+    assertChildAt(0, 500, 0, 0);
+    assertThat(recyclerView.getChildCount()).isEqualTo(20);
+    assertThat(adapter.bindCount).isEqualTo(20);
+  }
+
+  @Test
+  public void notifyItemChanged_reflowsFollowingLines() {
+    adapter.itemWidths.set(1, WIDE_ITEM_WIDTH);
+    adapter.notifyItemChanged(1);
+    layout();
+
+    // The wide item fills a line on its own.
+    assertChildAt(0, 0, 0, 0);
+    assertChildAt(1, 1, 0, ITEM_HEIGHT);
+    assertChildAt(2, 2, 0, 2 * ITEM_HEIGHT);
+  }
+
+  @Test
+  public void notifyItemRemoved_firstVisibleItem_movesFollowingItemsUp() {
+    adapter.itemWidths.remove(0);
+    adapter.notifyItemRemoved(0);
+    layout();
+
+    assertChildAt(0, 0, 0, 0);
+    assertChildAt(4, 4, 0, ITEM_HEIGHT);
+    assertThat(recyclerView.getChildCount()).isEqualTo(20);
+  }
+
+  @Test
+  public void notifyItemRemoved_aboveViewport_reflowsWithMovedSizes() {
+    jumpOverWideItem(101);
+
+    adapter.itemWidths.remove(0);
+    adapter.notifyItemRemoved(0);
+    layout();
+    adapter.bindCount = 0;
+    layoutManager.scrollToPosition(100);
+    layout();
+
+    // The wide item, now at 100, fills a line on its own.
+    assertChildAt(0, 100, 0, 0);
+    assertChildAt(1, 101, 0, ITEM_HEIGHT);
+    assertChildAt(2, 102, ITEM_WIDTH, ITEM_HEIGHT);
+    // The lines above are flowed from the sizes measured before the removal.
+    assertThat(adapter.bindCount).isEqualTo(recyclerView.getChildCount());
+  }
+
+  @Test
+  public void notifyItemInserted_aboveViewport_reflowsWithMovedSizes() {
+    jumpOverWideItem(101);
+
+    adapter.itemWidths.add(0, ITEM_WIDTH);
+    adapter.notifyItemInserted(0);
+    layout();
+    adapter.bindCount = 0;
+    layoutManager.scrollToPosition(100);
+    layout();
+
+    // The wide item, now at 102, fills a line on its own.
+    assertChildAt(0, 100, 0, 0);
+    assertChildAt(1, 101, ITEM_WIDTH, 0);
+    assertChildAt(2, 102, 0, ITEM_HEIGHT);
+    assertChildAt(3, 103, 0, 2 * ITEM_HEIGHT);
+    // The lines above are flowed from the sizes measured before the insertion, and the size of the
+    // inserted item measured by the previous layout.
+    assertThat(adapter.bindCount).isEqualTo(recyclerView.getChildCount());
+  }
+
+  @Test
+  public void notifyItemMoved_aboveViewport_measuresMovedItemsAgain() {
+    jumpOverWideItem(101);
+
+    adapter.itemWidths.add(0, adapter.itemWidths.remove(101));
+    adapter.notifyItemMoved(101, 0);
+    layoutManager.scrollToPosition(0);
+    layout();
+
+    // The wide item, now at 0, fills a line on its own.
+    assertChildAt(0, 0, 0, 0);
+    assertChildAt(1, 1, 0, ITEM_HEIGHT);
+    assertChildAt(2, 2, ITEM_WIDTH, ITEM_HEIGHT);
+  }
+
+  /**
+   * Makes the item at {@code position} wide, and scrolls past it so that its size is measured
+   * without it being attached.
+   */
+  private void jumpOverWideItem(int position) {
+    adapter.itemWidths.set(position, WIDE_ITEM_WIDTH);
+    adapter.notifyItemChanged(position);
+    layoutManager.scrollToPosition(501);
+    layout();
+  }
+
+  private void createRecyclerView() {
+    recyclerView = new RecyclerView(context);
+    layoutManager = new ChipFlowLayoutManager();
+    adapter = new SizedAdapter();
+    recyclerView.setItemAnimator(null);
+    recyclerView.setLayoutManager(layoutManager);
+    recyclerView.setAdapter(adapter);
+  }
+
+  private void layout() {
+    layout(WIDTH);
+  }
+
+  private void layout(int width) {
+    recyclerView.measure(
+        MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    recyclerView.layout(0, 0, width, HEIGHT);
+  }
+
+  private int getPosition(int childIndex) {
+    return recyclerView.getChildAdapterPosition(recyclerView.getChildAt(childIndex));
+  }
+
+  private void assertChildAt(int childIndex, int position, int left, int top) {
+    View child = recyclerView.getChildAt(childIndex);
+    assertThat(getPosition(childIndex)).isEqualTo(position);
+    assertThat(child.getLeft()).isEqualTo(left);
+    assertThat(child.getTop()).isEqualTo(top);
+  }
+
+  private static class SizedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    int createCount;
+    int bindCount;
+    int layoutCount;
+    final List<Integer> itemWidths = new ArrayList<>(Collections.nCopies(ITEM_COUNT, ITEM_WIDTH));
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+      createCount++;
+      View itemView =
+          new View(parent.getContext()) {
+            @Override
+            public void layout(int l, int t, int r, int b) {
+              layoutCount++;
+              super.layout(l, t, r, b);
+            }
+          };
+      return new RecyclerView.ViewHolder(itemView) {};
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+      bindCount++;
+      holder.itemView.setLayoutParams(
+          new RecyclerView.LayoutParams(itemWidths.get(position), ITEM_HEIGHT));
+    }
+
+    @Override
+    public int getItemCount() {
+      return itemWidths.size();
+    }
+  }
+}
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.widget.TextViewCompat;
 import android.text.TextUtils.TruncateAt;
 import android.view.View;
 import android.view.View.MeasureSpec;
@@ -164,6 +165,43 @@ public class ChipTest {
         chip.getMeasuredHeight() < getMinTouchTargetSize());
   }
 
+  @Test
+  public void setMeasuredText_matchingParams_setsPrecomputedText() {
+    MeasuredChipText measuredText =
+        MeasuredChipText.create("Measured", TextViewCompat.getTextMetricsParams(chip));
+
+    chip.setMeasuredText(measuredText);
+
+    assertEquals("Measured", chip.getText().toString());
+    assertEquals("Measured", ((ChipDrawable) chip.getChipDrawable()).getText().toString());
+  }
+
+  @Test
+  public void setMeasuredText_matchingParams_usesMeasuredTextWidth() {
+    chip.setText("Measured");
+    int measuredWidth = chip.getChipDrawable().getIntrinsicWidth();
+    MeasuredChipText measuredText =
+        MeasuredChipText.create("Measured", TextViewCompat.getTextMetricsParams(chip));
+
+    // The chip drawable uses the width of the measured text as is, without measuring the text.
+    chip.setMeasuredText(
+        new MeasuredChipText(measuredText.getText(), measuredText.getTextWidth() + 40));
+
+    assertEquals(measuredWidth + 40, chip.getChipDrawable().getIntrinsicWidth());
+  }
+
+  @Test
+  public void setMeasuredText_otherParams_setsText() {
+    chip.setTextSize(chip.getTextSize() * 2);
+    MeasuredChipText measuredText =
+        MeasuredChipText.create("Measured", TextViewCompat.getTextMetricsParams(chip));
+    chip.setTextSize(chip.getTextSize() / 2);
+
+    chip.setMeasuredText(measuredText);
+
+    assertEquals("Measured", chip.getText().toString());
+  }
+
   private static float getMinTouchTargetSize() {
     return dpToPx(ApplicationProvider.getApplicationContext(), MIN_SIZE_FOR_ALLY_DP);
   }
@@ -21,12 +21,18 @@ import com.google.android.material.R;
 import static com.google.common.truth.Truth.assertThat;
 
 import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
 import android.graphics.Color;
+import android.os.Build.VERSION_CODES;
 import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.color.MaterialColors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
 import org.robolectric.annotation.internal.DoNotInstrument;
 
 /** Tests for {@link ElevationOverlayProvider}. */
@@ -156,4 +162,95 @@ public class ElevationOverlayProviderTest {
 
     assertThat(provider.calculateOverlayAlpha(Float.MAX_VALUE)).isEqualTo(255);
   }
+
+  @Test
+  public void givenElevations_whenLayerOverlay_matchesAlphaFractionFormula() {
+    provider = new ElevationOverlayProvider(context);
+    int overlayColor = provider.getOverlaysColor();
+
+    for (int backgroundColor : new int[] {provider.getColorSurface(), Color.BLACK}) {
+      for (float elevation = -1; elevation < 2000; elevation += 0.0625f) {
+        assertThat(provider.layerOverlay(backgroundColor, elevation))
+            .isEqualTo(
+                MaterialColors.layer(
+                    backgroundColor,
+                    overlayColor,
+                    provider.calculateOverlayAlphaFraction(elevation)));
+      }
+      assertThat(provider.layerOverlay(backgroundColor, Float.MAX_VALUE))
+          .isEqualTo(MaterialColors.layer(backgroundColor, overlayColor, 1));
+    }
+  }
+
+  @Test
+  public void givenRepeatedElevations_whenLayerOverlay_matchesAlphaFractionFormula() {
+    provider = new ElevationOverlayProvider(context);
+    int backgroundColor = provider.getColorSurface();
+    float[] elevations = {1, 2, 4, 8, 16, 1, 16, 2, 8, 4};
+
+    // More elevations than the provider remembers, so that its colors are replaced and reused.
+    for (int i = 0; i < 3; i++) {
+      for (float elevation : elevations) {
+        assertThat(provider.layerOverlay(backgroundColor, elevation))
+            .isEqualTo(
+                MaterialColors.layer(
+                    backgroundColor,
+                    provider.getOverlaysColor(),
+                    provider.calculateOverlayAlphaFraction(elevation)));
+      }
+    }
+  }
+
+  @Test
+  public void givenSameTheme_whenGetSharedProvider_returnsSameProvider() {
+    provider = ElevationOverlayProvider.getSharedProvider(context);
+
+    assertThat(ElevationOverlayProvider.getSharedProvider(context)).isSameAs(provider);
+  }
+
+  @Test
+  public void givenNewTheme_whenGetSharedProvider_returnsNewProvider() {
+    provider = ElevationOverlayProvider.getSharedProvider(context);
+
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar);
+
+    assertThat(ElevationOverlayProvider.getSharedProvider(context)).isNotSameAs(provider);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.LOLLIPOP_MR1)
+  public void givenStyleAppliedBelowApi23_whenGetSharedProvider_returnsProviderOfNewStyle() {
+    provider = ElevationOverlayProvider.getSharedProvider(context);
+
+    context.getTheme().applyStyle(R.style.Theme_MaterialComponents_Light_NoActionBar, true);
+
+    assertThat(provider.isOverlaysEnabled()).isTrue();
+    assertThat(ElevationOverlayProvider.getSharedProvider(context).isOverlaysEnabled()).isFalse();
+  }
+
+  @Test
+  public void givenEqualThemeOfOtherResources_whenGetSharedProvider_returnsNewProvider() {
+    provider = ElevationOverlayProvider.getSharedProvider(context);
+
+    Resources resources = context.getResources();
+    final Resources otherResources =
+        new Resources(
+            resources.getAssets(), resources.getDisplayMetrics(), resources.getConfiguration());
+    final Theme otherTheme = otherResources.newTheme();
+    otherTheme.setTo(context.getTheme());
+    Context otherContext =
+        new ContextWrapper(context) {
+          @Override
+          public Resources getResources() {
+            return otherResources;
+          }
+
+          @Override
+          public Theme getTheme() {
+            return otherTheme;
+          }
+        };
+
+    assertThat(ElevationOverlayProvider.getSharedProvider(otherContext)).isNotSameAs(provider);
+  }
 }
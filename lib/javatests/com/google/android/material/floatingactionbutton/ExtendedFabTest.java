@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.floatingactionbutton;
+
+import com.google.android.material.R;
+
+import static android.os.Build.VERSION_CODES.LOLLIPOP;
+import static com.google.android.material.floatingactionbutton.FabTestUtils.endLastAnimator;
+import static com.google.android.material.floatingactionbutton.FabTestUtils.layOutInParent;
+import static com.google.android.material.floatingactionbutton.FabTestUtils.recordStartedAnimators;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.animation.Animator;
+import android.content.Context;
+import android.graphics.drawable.GradientDrawable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.view.ViewCompat;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = LOLLIPOP)
+@DoNotInstrument
+public class ExtendedFabTest {
+
+  private static final double DELTA = 0.01;
+  private static final int ICON_SIZE = 24;
+  private Context activity;
+
+  @Before
+  public void createAndThemeApplicationContext() {
+    ApplicationProvider.getApplicationContext().setTheme(
+        R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+  }
+
+  @Test
+  public void showAndHide_animatorReuseEnabled_reusesAnimatorPerAnimation() {
+    ExtendedFloatingActionButton fab = createLaidOutFab();
+    fab.setAnimatorReuseEnabled(true);
+    List<Animator> hideAnimators = new ArrayList<>();
+    List<Animator> showAnimators = new ArrayList<>();
+    fab.addOnHideAnimationListener(recordStartedAnimators(hideAnimators));
+    fab.addOnShowAnimationListener(recordStartedAnimators(showAnimators));
+
+    for (int i = 0; i < 2; i++) {
+      fab.hide();
+      endLastAnimator(hideAnimators);
+      assertEquals(0, fab.getAlpha(), DELTA);
+
+      fab.show();
+      endLastAnimator(showAnimators);
+      assertEquals(1, fab.getAlpha(), DELTA);
+    }
+
+    assertEquals(2, hideAnimators.size());
+    assertEquals(2, showAnimators.size());
+    assertSame(hideAnimators.get(0), hideAnimators.get(1));
+    assertSame(showAnimators.get(0), showAnimators.get(1));
+    assertNotSame(hideAnimators.get(0), showAnimators.get(0));
+  }
+
+  @Test
+  public void shrinkAndExtend_animatorReuseEnabled_rebindsSizes() {
+    ExtendedFloatingActionButton fab = createLaidOutFab();
+    fab.setAnimatorReuseEnabled(true);
+    List<Animator> shrinkAnimators = new ArrayList<>();
+    List<Animator> extendAnimators = new ArrayList<>();
+    fab.addOnShrinkAnimationListener(recordStartedAnimators(shrinkAnimators));
+    fab.addOnExtendAnimationListener(recordStartedAnimators(extendAnimators));
+    int collapsedSize = ViewCompat.getPaddingStart(fab) * 2 + fab.getIconSize();
+
+    for (int i = 0; i < 2; i++) {
+      fab.shrink();
+      endLastAnimator(shrinkAnimators);
+      assertEquals(collapsedSize, fab.getLayoutParams().width);
+
+      fab.extend();
+      endLastAnimator(extendAnimators);
+      assertTrue(fab.getLayoutParams().width > collapsedSize);
+    }
+
+    assertEquals(2, shrinkAnimators.size());
+    assertEquals(2, extendAnimators.size());
+    assertSame(shrinkAnimators.get(0), shrinkAnimators.get(1));
+    assertSame(extendAnimators.get(0), extendAnimators.get(1));
+  }
+
+  @Test
+  public void showAndHide_animatorReuseDisabled_createsNewAnimators() {
+    ExtendedFloatingActionButton fab = createLaidOutFab();
+    List<Animator> hideAnimators = new ArrayList<>();
+    fab.addOnHideAnimationListener(recordStartedAnimators(hideAnimators));
+
+    fab.hide();
+    endLastAnimator(hideAnimators);
+    fab.show(false /* animate */);
+    fab.hide();
+    endLastAnimator(hideAnimators);
+
+    assertEquals(2, hideAnimators.size());
+    assertNotSame(hideAnimators.get(0), hideAnimators.get(1));
+  }
+
+  private ExtendedFloatingActionButton createLaidOutFab() {
+    ExtendedFloatingActionButton fab = new ExtendedFloatingActionButton(activity);
+    fab.setText("Extended");
+    GradientDrawable icon = new GradientDrawable();
+    icon.setSize(ICON_SIZE, ICON_SIZE);
+    fab.setIcon(icon);
+    return layOutInParent(fab);
+  }
+}
@@ -19,16 +19,27 @@ package com.google.android.material.floatingactionbutton;
 import com.google.android.material.R;
 
 import static android.os.Build.VERSION_CODES.LOLLIPOP;
+import static com.google.android.material.floatingactionbutton.FabTestUtils.endLastAnimator;
+import static com.google.android.material.floatingactionbutton.FabTestUtils.layOutInParent;
+import static com.google.android.material.floatingactionbutton.FabTestUtils.recordStartedAnimators;
 import static com.google.android.material.floatingactionbutton.FloatingActionButton.SIZE_MINI;
+import static com.google.android.material.floatingactionbutton.FloatingActionButton.SIZE_NORMAL;
 import static com.google.android.material.internal.ViewUtils.dpToPx;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import android.animation.Animator;
+import android.animation.Animator.AnimatorListener;
 import android.content.Context;
 import androidx.appcompat.app.AppCompatActivity;
+import com.google.android.material.shape.ShapeAppearanceModel;
 import android.view.View.MeasureSpec;
 import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -85,6 +96,83 @@ public class FabTest {
     assertTrue(fab.getMeasuredHeight() < minSize);
   }
 
+  @Test
+  public void setShapeAppearance_immutableDefaultCorner_roundsCopy() {
+    FloatingActionButton fab = new FloatingActionButton(activity);
+    ShapeAppearanceModel shapeAppearance =
+        ShapeAppearanceModel.builder().setCornerRadius(-1).build();
+
+    fab.setShapeAppearance(shapeAppearance);
+
+    assertEquals(-1, shapeAppearance.getTopLeftCornerSize(), DELTA);
+    assertEquals(
+        fab.getSizeDimension() / 2f, fab.getShapeAppearance().getTopLeftCornerSize(), DELTA);
+  }
+
+  @Test
+  public void setSize_immutableDefaultCorner_roundsCopy() {
+    FloatingActionButton fab = new FloatingActionButton(activity);
+    fab.setSize(SIZE_NORMAL);
+    fab.setShapeAppearance(ShapeAppearanceModel.builder().setCornerRadius(-1).build());
+    ShapeAppearanceModel normalShapeAppearance = fab.getShapeAppearance();
+
+    fab.setSize(SIZE_MINI);
+
+    assertEquals(
+        fab.getSizeDimension() / 2f, fab.getShapeAppearance().getTopLeftCornerSize(), DELTA);
+    assertNotEquals(
+        normalShapeAppearance.getTopLeftCornerSize(),
+        fab.getShapeAppearance().getTopLeftCornerSize(),
+        DELTA);
+  }
+
+  @Test
+  public void showAndHide_animatorReuseEnabled_rebindsSameAnimator() {
+    FloatingActionButton fab = layOutInParent(new FloatingActionButton(activity));
+    fab.setAnimatorReuseEnabled(true);
+    List<Animator> animators = new ArrayList<>();
+    AnimatorListener recorder = recordStartedAnimators(animators);
+    fab.addOnShowAnimationListener(recorder);
+    fab.addOnHideAnimationListener(recorder);
+
+    fab.hide();
+    endLastAnimator(animators);
+    assertEquals(0, fab.getAlpha(), DELTA);
+    assertEquals(0, fab.getScaleX(), DELTA);
+
+    fab.show();
+    endLastAnimator(animators);
+    assertEquals(1, fab.getAlpha(), DELTA);
+    assertEquals(1, fab.getScaleX(), DELTA);
+
+    fab.hide();
+    endLastAnimator(animators);
+    assertEquals(0, fab.getAlpha(), DELTA);
+    assertEquals(0, fab.getScaleY(), DELTA);
+
+    assertEquals(3, animators.size());
+    assertSame(animators.get(0), animators.get(1));
+    assertSame(animators.get(0), animators.get(2));
+  }
+
+  @Test
+  public void showAndHide_animatorReuseDisabled_createsNewAnimators() {
+    FloatingActionButton fab = layOutInParent(new FloatingActionButton(activity));
+    List<Animator> animators = new ArrayList<>();
+    AnimatorListener recorder = recordStartedAnimators(animators);
+    fab.addOnShowAnimationListener(recorder);
+    fab.addOnHideAnimationListener(recorder);
+
+    fab.hide();
+    endLastAnimator(animators);
+    fab.show();
+    endLastAnimator(animators);
+
+    assertEquals(2, animators.size());
+    assertNotSame(animators.get(0), animators.get(1));
+    assertEquals(1, fab.getAlpha(), DELTA);
+  }
+
   private FloatingActionButton createFabForTest(boolean ensureMinTouchTarget) {
     FloatingActionButton fab = new FloatingActionButton(activity);
     float dimen = dpToPx(activity, MIN_SIZE_FOR_ALLY_DP);
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.floatingactionbutton;
+
+import android.animation.Animator;
+import android.animation.Animator.AnimatorListener;
+import android.animation.AnimatorListenerAdapter;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup.LayoutParams;
+import android.widget.FrameLayout;
+import java.util.List;
+
+/** Utilities shared by the tests of the floating action buttons. */
+final class FabTestUtils {
+
+  private FabTestUtils() {}
+
+  /** Adds {@code fab} to a parent, which is measured and laid out at the size of the fab. */
+  static <T extends View> T layOutInParent(T fab) {
+    FrameLayout parent = new FrameLayout(fab.getContext());
+    parent.addView(
+        fab, new FrameLayout.LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT));
+    int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+    parent.measure(measureSpec, measureSpec);
+    parent.layout(0, 0, parent.getMeasuredWidth(), parent.getMeasuredHeight());
+    return fab;
+  }
+
+  /** Returns a listener which adds every animator it's notified of to {@code animators}. */
+  static AnimatorListener recordStartedAnimators(final List<Animator> animators) {
+    return new AnimatorListenerAdapter() {
+      @Override
+      public void onAnimationStart(Animator animation) {
+        animators.add(animation);
+      }
+    };
+  }
+
+  /** Ends the animator which was recorded last. */
+  static void endLastAnimator(List<Animator> animators) {
+    animators.get(animators.size() - 1).end();
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Build.VERSION_CODES;
+import android.view.View;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link CollapsingTextHelper}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class CollapsingTextHelperTest {
+
+  private static final int ANIMATION_FRAMES = 60;
+  // Three paragraphs which are each too long for a single line, so the expanded text is laid out on
+  // at least three lines, even where line breaking isn't available in tests.
+  private static final String MULTILINE_TITLE =
+      "A first paragraph of a title, which is long enough to be laid out on several lines when it"
+          + " is expanded, and to be ellipsized when it is collapsed\n"
+          + "A second paragraph of a title, which is long enough to be laid out on several lines"
+          + " when it is expanded, and to be ellipsized when it is collapsed\n"
+          + "A third paragraph of a title, which is long enough to be laid out on several lines"
+          + " when it is expanded, and to be ellipsized when it is collapsed";
+
+  private CollapsingTextHelper helper;
+
+  @Before
+  public void setUp() {
+    View view = new View(ApplicationProvider.getApplicationContext());
+    view.layout(0, 0, 400, 200);
+
+    helper = new CollapsingTextHelper(view);
+    helper.setExpandedBounds(16, 100, 384, 200);
+    helper.setCollapsedBounds(72, 0, 328, 56);
+    helper.setExpandedTextSize(48);
+    helper.setCollapsedTextSize(20);
+    helper.setExpandedTextColor(ColorStateList.valueOf(Color.BLACK));
+    helper.setCollapsedTextColor(ColorStateList.valueOf(Color.BLACK));
+    helper.setText("A title which is long enough to be ellipsized when collapsed");
+  }
+
+  @Test
+  public void setExpansionFraction_doesNotLayOutText() {
+    int textLayoutCount = helper.getTextLayoutCount();
+
+    for (int i = 0; i <= ANIMATION_FRAMES; i++) {
+      helper.setExpansionFraction((float) i / ANIMATION_FRAMES);
+    }
+    for (int i = ANIMATION_FRAMES; i >= 0; i--) {
+      helper.setExpansionFraction((float) i / ANIMATION_FRAMES);
+    }
+
+    assertThat(helper.getTextLayoutCount()).isEqualTo(textLayoutCount);
+  }
+
+  @Test
+  public void setExpansionFraction_multiline_doesNotLayOutText() {
+    helper.setText(MULTILINE_TITLE);
+    helper.setExpandedMaxLines(3);
+    helper.setExpansionFraction(0);
+    assertThat(helper.getCurrentLayoutLineCount()).isEqualTo(3);
+    int textLayoutCount = helper.getTextLayoutCount();
+
+    for (int i = 0; i <= ANIMATION_FRAMES; i++) {
+      helper.setExpansionFraction((float) i / ANIMATION_FRAMES);
+    }
+    for (int i = ANIMATION_FRAMES; i >= 0; i--) {
+      helper.setExpansionFraction((float) i / ANIMATION_FRAMES);
+    }
+
+    assertThat(helper.getTextLayoutCount()).isEqualTo(textLayoutCount);
+    assertThat(helper.getCurrentLayoutLineCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void draw_multiline_crossfadesLinesWithCollapsedText() {
+    helper.setText(MULTILINE_TITLE);
+    helper.setExpandedMaxLines(3);
+
+    // Expanded, the single line which the collapsed text is animated from is transparent.
+    helper.setExpansionFraction(0);
+    assertThat(helper.getCurrentLayoutLineCount()).isEqualTo(3);
+    assertThat(drawLastTextAlpha()).isEqualTo(0);
+
+    helper.setExpansionFraction(0.5f);
+    assertThat(helper.getCurrentLayoutLineCount()).isEqualTo(3);
+    assertThat(drawLastTextAlpha()).isEqualTo(128);
+
+    // Collapsed, only the single line is drawn, fully opaque.
+    helper.setExpansionFraction(1);
+    assertThat(helper.getCurrentLayoutLineCount()).isEqualTo(0);
+    assertThat(drawLastTextAlpha()).isEqualTo(255);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.JELLY_BEAN)
+  public void draw_multilineWithScalingTexture_crossfadesLinesWithCollapsedText() {
+    helper.setText(MULTILINE_TITLE);
+    helper.setExpandedMaxLines(3);
+
+    // The lines aren't drawn from the scaled texture, which would skip the crossfade.
+    helper.setExpansionFraction(0.5f);
+    assertThat(helper.getCurrentLayoutLineCount()).isEqualTo(3);
+    assertThat(drawLastTextAlpha()).isEqualTo(128);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.JELLY_BEAN)
+  public void recalculate_sameTextureSize_reusesTexture() {
+    helper.setExpansionFraction(0.5f);
+    Bitmap texture = helper.getExpandedTitleTexture();
+    assertThat(texture).isNotNull();
+
+    helper.recalculate();
+    helper.recalculate();
+
+    assertThat(helper.getExpandedTitleTexture()).isSameAs(texture);
+    assertThat(texture.isRecycled()).isFalse();
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.JELLY_BEAN)
+  public void setExpansionFraction_withScalingTexture_createsOneTexture() {
+    helper.setExpansionFraction(0.5f);
+    assertThat(helper.getTextureCreateCount()).isEqualTo(1);
+
+    for (int i = 0; i <= ANIMATION_FRAMES; i++) {
+      helper.setExpansionFraction((float) i / ANIMATION_FRAMES);
+      helper.draw(new Canvas());
+    }
+    for (int i = ANIMATION_FRAMES; i >= 0; i--) {
+      helper.setExpansionFraction((float) i / ANIMATION_FRAMES);
+      helper.recalculate();
+      helper.draw(new Canvas());
+    }
+
+    assertThat(helper.getTextureCreateCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void setExpandedMaxLines_laysOutTextAgain() {
+    int textLayoutCount = helper.getTextLayoutCount();
+
+    helper.setExpandedMaxLines(3);
+
+    assertThat(helper.getTextLayoutCount()).isGreaterThan(textLayoutCount);
+  }
+
+  @Test
+  public void setText_laysOutTextAgain() {
+    int textLayoutCount = helper.getTextLayoutCount();
+
+    helper.setText("Another title");
+
+    assertThat(helper.getTextLayoutCount()).isGreaterThan(textLayoutCount);
+  }
+
+  @Test
+  public void setCollapsedBounds_laysOutTextAgain() {
+    helper.setExpansionFraction(1);
+    int textLayoutCount = helper.getTextLayoutCount();
+
+    helper.setCollapsedBounds(72, 0, 200, 56);
+    helper.recalculate();
+
+    assertThat(helper.getTextLayoutCount()).isGreaterThan(textLayoutCount);
+  }
+
+  @Test
+  public void interpolationTable_drawsSameTextAsInterpolation() {
+    // Fractions which fall on samples of the table are drawn exactly like without it.
+    float[] fractions = {0, 0.25f, 0.5f, 1};
+    String[] interpolated = new String[fractions.length];
+    for (int i = 0; i < fractions.length; i++) {
+      helper.setExpansionFraction(fractions[i]);
+      interpolated[i] = drawText();
+    }
+
+    helper.setInterpolationTableEnabled(true);
+
+    for (int i = 0; i < fractions.length; i++) {
+      helper.setExpansionFraction(fractions[i]);
+      assertThat(drawText()).isEqualTo(interpolated[i]);
+    }
+  }
+
+  /**
+   * Returns the alpha of the text drawn last by the helper, which is the collapsed single line when
+   * the expanded text is drawn on several lines.
+   */
+  private int drawLastTextAlpha() {
+    final int[] alpha = {-1};
+    helper.draw(
+        new Canvas() {
+          @Override
+          public void drawText(
+              CharSequence text, int start, int end, float x, float y, Paint paint) {
+            alpha[0] = paint.getAlpha();
+          }
+        });
+    return alpha[0];
+  }
+
+  /** Returns the position, size and color of the text drawn by the helper. */
+  private String drawText() {
+    final StringBuilder drawnText = new StringBuilder();
+    helper.draw(
+        new Canvas() {
+          @Override
+          public void drawText(
+              CharSequence text, int start, int end, float x, float y, Paint paint) {
+            drawnText.append(x).append(',').append(y).append(',').append(paint.getTextSize());
+            drawnText.append(',').append(Integer.toHexString(paint.getColor()));
+          }
+        });
+    return drawnText.toString();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link FlowLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class FlowLayoutTest {
+
+  private static final int WIDTH = 100;
+  private static final int CHILD_COUNT = 9;
+  private static final int CHILD_WIDTH = 30;
+  private static final int CHILD_HEIGHT = 10;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  private FlowLayout flowLayout;
+  private SizedView[] children;
+
+  @Before
+  public void setUp() {
+    flowLayout = new FlowLayout(context);
+    children = new SizedView[CHILD_COUNT];
+    for (int i = 0; i < CHILD_COUNT; i++) {
+      children[i] = new SizedView(context);
+      flowLayout.addView(children[i]);
+    }
+    measureAndLayout();
+  }
+
+  @Test
+  public void layout_wrapsChildrenIntoLines() {
+    // Three children fit in each line.
+    assertThat(flowLayout.getMeasuredHeight()).isEqualTo(3 * CHILD_HEIGHT);
+    assertPosition(children[2], 2 * CHILD_WIDTH, 0);
+    assertPosition(children[3], 0, CHILD_HEIGHT);
+    assertPosition(children[8], 2 * CHILD_WIDTH, 2 * CHILD_HEIGHT);
+  }
+
+  @Test
+  public void requestLayout_measuresOnlyThatChild() {
+    resetMeasureCounts();
+
+    children[4].requestLayout();
+    measureAndLayout();
+
+    for (int i = 0; i < CHILD_COUNT; i++) {
+      assertThat(children[i].measureCount).isEqualTo(i == 4 ? 1 : 0);
+    }
+  }
+
+  @Test
+  public void childWidthChanged_reflowsFollowingChildren() {
+    children[4].width = 2 * CHILD_WIDTH;
+    children[4].requestLayout();
+    measureAndLayout();
+
+    // The third line moves down and the second line keeps its first two children.
+    assertPosition(children[3], 0, CHILD_HEIGHT);
+    assertPosition(children[4], CHILD_WIDTH, CHILD_HEIGHT);
+    assertPosition(children[5], 0, 2 * CHILD_HEIGHT);
+    assertPosition(children[8], 0, 3 * CHILD_HEIGHT);
+    assertThat(flowLayout.getMeasuredHeight()).isEqualTo(4 * CHILD_HEIGHT);
+  }
+
+  @Test
+  public void childGone_reflowsFollowingChildren() {
+    children[0].setVisibility(View.GONE);
+    measureAndLayout();
+
+    assertPosition(children[1], 0, 0);
+    assertPosition(children[4], 0, CHILD_HEIGHT);
+    assertPosition(children[8], CHILD_WIDTH, 2 * CHILD_HEIGHT);
+  }
+
+  private void measureAndLayout() {
+    flowLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    flowLayout.layout(0, 0, flowLayout.getMeasuredWidth(), flowLayout.getMeasuredHeight());
+  }
+
+  private void resetMeasureCounts() {
+    for (SizedView child : children) {
+      child.measureCount = 0;
+    }
+  }
+
+  private static void assertPosition(View child, int left, int top) {
+    assertThat(child.getLeft()).isEqualTo(left);
+    assertThat(child.getTop()).isEqualTo(top);
+  }
+
+  /** A view with a fixed size, which counts how many times it is measured. */
+  private static class SizedView extends View {
+
+    int width = CHILD_WIDTH;
+    int measureCount;
+
+    SizedView(Context context) {
+      super(context);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+      measureCount++;
+      setMeasuredDimension(width, CHILD_HEIGHT);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.internal;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import androidx.appcompat.view.menu.MenuBuilder;
+import androidx.appcompat.view.menu.MenuItemImpl;
+import androidx.recyclerview.widget.RecyclerView;
+import android.widget.FrameLayout;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link NavigationMenuPresenter}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class NavigationMenuPresenterTest {
+
+  private static final int ITEM_COUNT = 10;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private final List<Integer> changedPositions = new ArrayList<>();
+  private final List<Integer> removedPositions = new ArrayList<>();
+  private int dataSetChangedCount;
+
+  private MenuBuilder menu;
+  private NavigationMenuPresenter presenter;
+  private RecyclerView.Adapter<?> adapter;
+
+  @Before
+  public void setUp() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    menu = new MenuBuilder(context);
+    presenter = new NavigationMenuPresenter();
+    presenter.initForMenu(context, menu);
+    menu.addMenuPresenter(presenter);
+    NavigationMenuView menuView =
+        (NavigationMenuView) presenter.getMenuView(new FrameLayout(context));
+    adapter = menuView.getAdapter();
+
+    // The items are in a single group, so the item with ID n is at position n, after the header.
+    for (int i = 1; i <= ITEM_COUNT; i++) {
+      menu.add(0, i, i, "Item " + i).setCheckable(true);
+    }
+    presenter.setCheckedItem(getItem(1));
+
+    adapter.registerAdapterDataObserver(
+        new RecyclerView.AdapterDataObserver() {
+          @Override
+          public void onChanged() {
+            dataSetChangedCount++;
+          }
+
+          @Override
+          public void onItemRangeChanged(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+              changedPositions.add(positionStart + i);
+            }
+          }
+
+          @Override
+          public void onItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+              removedPositions.add(positionStart + i);
+            }
+          }
+        });
+  }
+
+  @Test
+  public void setCheckedItem_updatesPreviousAndNewCheckedItems() {
+    presenter.setCheckedItem(getItem(3));
+
+    assertThat(changedPositions).containsExactly(1, 3);
+    assertThat(dataSetChangedCount).isEqualTo(0);
+    assertThat(getItem(1).isChecked()).isFalse();
+    assertThat(getItem(3).isChecked()).isTrue();
+  }
+
+  @Test
+  public void setTitle_updatesChangedItem() {
+    getItem(5).setTitle("Title");
+
+    assertThat(changedPositions).containsExactly(5);
+    assertThat(dataSetChangedCount).isEqualTo(0);
+  }
+
+  @Test
+  public void removeItem_keepsIdsOfOtherItems() {
+    long itemId = adapter.getItemId(5);
+
+    menu.removeItem(3);
+
+    assertThat(removedPositions).containsExactly(3);
+    assertThat(changedPositions).isEmpty();
+    assertThat(adapter.getItemId(4)).isEqualTo(itemId);
+  }
+
+  private MenuItemImpl getItem(int id) {
+    return (MenuItemImpl) menu.findItem(id);
+  }
+}
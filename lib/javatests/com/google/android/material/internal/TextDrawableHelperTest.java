@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link TextDrawableHelper}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextDrawableHelperTest {
+
+  private static final float TEXT_WIDTH = 1234f;
+
+  private final TextDrawableHelper textDrawableHelper = new TextDrawableHelper();
+
+  @Test
+  public void getTextWidth_premeasuredText_returnsWidth() {
+    textDrawableHelper.setTextWidth("Text", TEXT_WIDTH);
+
+    assertThat(textDrawableHelper.getTextWidth(new StringBuilder("Text"))).isEqualTo(TEXT_WIDTH);
+  }
+
+  @Test
+  public void getTextWidth_otherText_measuresText() {
+    textDrawableHelper.setTextWidth("Text", TEXT_WIDTH);
+
+    float width = textDrawableHelper.getTextWidth("Other text");
+
+    assertThat(width).isNotEqualTo(TEXT_WIDTH);
+    assertThat(width)
+        .isEqualTo(textDrawableHelper.getTextPaint().measureText("Other text", 0, 10));
+  }
+
+  @Test
+  public void getTextWidth_dirty_measuresText() {
+    textDrawableHelper.setTextWidth("Text", TEXT_WIDTH);
+
+    textDrawableHelper.setTextWidthDirty(true);
+
+    assertThat(textDrawableHelper.getTextWidth("Text")).isNotEqualTo(TEXT_WIDTH);
+  }
+}
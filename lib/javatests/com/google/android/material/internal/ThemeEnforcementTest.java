@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.internal;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.robolectric.shadow.api.Shadow.directlyOn;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.os.Build.VERSION_CODES;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.chip.ChipGroup;
+import com.google.android.material.theme.ThemeEnforcementConfig;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.internal.DoNotInstrument;
+import org.robolectric.shadows.ShadowTypedArray;
+import org.robolectric.util.ReflectionHelpers.ClassParameter;
+
+/** Tests for {@link ThemeEnforcement}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ThemeEnforcementTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @After
+  public void tearDown() {
+    ThemeEnforcementConfig.setEnabled(true);
+  }
+
+  @Test
+  public void isMaterialTheme_materialTheme_returnsTrueRepeatedly() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isTrue();
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isTrue();
+    assertThat(ThemeEnforcement.isAppCompatTheme(context)).isTrue();
+  }
+
+  @Test
+  public void isMaterialTheme_appCompatTheme_returnsFalseRepeatedly() {
+    context.setTheme(R.style.Theme_AppCompat);
+
+    assertThat(ThemeEnforcement.isAppCompatTheme(context)).isTrue();
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isFalse();
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isFalse();
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.LOLLIPOP_MR1)
+  public void isMaterialTheme_styleAppliedBelowApi23_checksThemeAgain() {
+    context.setTheme(R.style.Theme_AppCompat);
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isFalse();
+
+    context.getTheme().applyStyle(R.style.Theme_MaterialComponents_Light, true /* force */);
+
+    assertThat(ThemeEnforcement.isMaterialTheme(context)).isTrue();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void obtainStyledAttributes_materialComponentOnAppCompatTheme_throws() {
+    context.setTheme(R.style.Theme_AppCompat);
+
+    ThemeEnforcement.obtainStyledAttributes(
+        context, null, R.styleable.Chip, 0, R.style.Widget_MaterialComponents_Chip_Action);
+  }
+
+  @Test
+  public void obtainStyledAttributes_disabled_skipsThemeChecks() {
+    context.setTheme(R.style.Theme_AppCompat);
+    ThemeEnforcement.setEnabled(false);
+
+    TypedArray a =
+        ThemeEnforcement.obtainStyledAttributes(
+            context, null, R.styleable.Chip, 0, R.style.Widget_MaterialComponents_Chip_Action);
+
+    assertThat(a).isNotNull();
+    a.recycle();
+  }
+
+  @Test
+  @Config(shadows = TypedArrayCounter.class)
+  public void obtainStyledAttributes_checkedTheme_obtainsTwoTypedArrays() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    // The first component of a theme checks the theme itself.
+    obtainChipAttributes().recycle();
+
+    TypedArrayCounter.obtainCount = 0;
+    obtainChipAttributes().recycle();
+
+    // One TypedArray for the enforcement attributes and one for the component. Each component used
+    // to obtain four: the enforcement attributes were obtained twice, and the AppCompat theme check
+    // obtained one on every call.
+    assertThat(TypedArrayCounter.obtainCount).isEqualTo(2);
+  }
+
+  @Test
+  @Config(shadows = TypedArrayCounter.class)
+  public void obtainStyledAttributes_customTextAppearance_obtainsTwoTypedArrays() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    obtainChipAttributes(R.styleable.Chip_android_textAppearance).recycle();
+
+    TypedArrayCounter.obtainCount = 0;
+    obtainChipAttributes(R.styleable.Chip_android_textAppearance).recycle();
+
+    // The custom text appearances are checked in the TypedArray of the component, which used to be
+    // obtained a second time for the check.
+    assertThat(TypedArrayCounter.obtainCount).isEqualTo(2);
+  }
+
+  @Test
+  @Config(shadows = TypedArrayCounter.class)
+  public void createComponent_disabledThroughConfig_skipsEnforcementAttributes() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    new ChipGroup(context);
+    TypedArrayCounter.obtainCount = 0;
+    new ChipGroup(context);
+    int enabledObtainCount = TypedArrayCounter.obtainCount;
+
+    ThemeEnforcementConfig.setEnabled(false);
+    TypedArrayCounter.obtainCount = 0;
+    new ChipGroup(context);
+
+    assertThat(ThemeEnforcement.isEnabled()).isFalse();
+    // The enforcement attributes of the chip group aren't obtained, but its own attributes are.
+    assertThat(TypedArrayCounter.obtainCount).isEqualTo(enabledObtainCount - 1);
+  }
+
+  private TypedArray obtainChipAttributes(int... textAppearanceResIndices) {
+    return ThemeEnforcement.obtainStyledAttributes(
+        context,
+        null,
+        R.styleable.Chip,
+        0,
+        R.style.Widget_MaterialComponents_Chip_Action,
+        textAppearanceResIndices);
+  }
+
+  /** Counts the {@link TypedArray}s obtained from resources and themes. */
+  @Implements(TypedArray.class)
+  public static class TypedArrayCounter extends ShadowTypedArray {
+
+    static int obtainCount;
+
+    @Implementation
+    protected static TypedArray obtain(Resources res, int len) {
+      obtainCount++;
+      return directlyOn(
+          TypedArray.class,
+          "obtain",
+          ClassParameter.from(Resources.class, res),
+          ClassParameter.from(int.class, len));
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.resources;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
+import android.os.Build.VERSION_CODES;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link TextAppearanceCache}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextAppearanceCacheTest {
+
+  private static final int CHIP_TEXT_APPEARANCE = R.style.TextAppearance_MaterialComponents_Chip;
+  private static final int BADGE_TEXT_APPEARANCE = R.style.TextAppearance_MaterialComponents_Badge;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void setUp() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    TextAppearanceCache.evictAll();
+    TextAppearanceCache.resetStats();
+  }
+
+  @Test
+  public void getTextAppearance_sameStyle_parsesOnce() {
+    TextAppearance first =
+        TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+    TextAppearance second =
+        TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    assertThat(second).isSameAs(first);
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(1);
+    assertThat(TextAppearanceCache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void getTextAppearance_differentStyles_parsesEach() {
+    TextAppearance chip =
+        TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+    TextAppearance badge =
+        TextAppearanceCache.getTextAppearance(context, BADGE_TEXT_APPEARANCE);
+
+    assertThat(badge).isNotSameAs(chip);
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void getTextAppearance_newTheme_parsesAgain() {
+    TextAppearance light =
+        TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    context.setTheme(R.style.Theme_MaterialComponents);
+    TextAppearance dark =
+        TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    assertThat(dark).isNotSameAs(light);
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void getTextAppearance_invalidatedTheme_parsesAgain() {
+    TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    TextAppearanceCache.invalidate(context.getTheme());
+    TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(2);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.LOLLIPOP_MR1)
+  public void getTextAppearance_styleAppliedBelowApi23_parsesAgain() {
+    TextAppearance light = TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    context.getTheme().applyStyle(R.style.Theme_MaterialComponents, true /* force */);
+    TextAppearance dark = TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    assertThat(dark).isNotSameAs(light);
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void getTextAppearance_equalThemeOfOtherResources_parsesAgain() {
+    TextAppearance first = TextAppearanceCache.getTextAppearance(context, CHIP_TEXT_APPEARANCE);
+
+    Resources resources = context.getResources();
+    final Resources otherResources =
+        new Resources(
+            resources.getAssets(), resources.getDisplayMetrics(), resources.getConfiguration());
+    final Theme otherTheme = otherResources.newTheme();
+    otherTheme.setTo(context.getTheme());
+    Context otherContext =
+        new ContextWrapper(context) {
+          @Override
+          public Resources getResources() {
+            return otherResources;
+          }
+
+          @Override
+          public Theme getTheme() {
+            return otherTheme;
+          }
+        };
+    TextAppearance second =
+        TextAppearanceCache.getTextAppearance(otherContext, CHIP_TEXT_APPEARANCE);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.resources;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link TextAppearanceConfig}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextAppearanceConfigTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void setUp() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    TextAppearanceCache.evictAll();
+    TextAppearanceCache.resetStats();
+  }
+
+  @Test
+  public void prefetchFonts_parsesStylesOnExecutor() {
+    final List<Runnable> tasks = new ArrayList<>();
+    Executor executor =
+        new Executor() {
+          @Override
+          public void execute(Runnable task) {
+            tasks.add(task);
+          }
+        };
+
+    TextAppearanceConfig.prefetchFonts(
+        context,
+        executor,
+        R.style.TextAppearance_MaterialComponents_Chip,
+        R.style.TextAppearance_MaterialComponents_Badge);
+
+    assertThat(tasks).hasSize(2);
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(0);
+
+    for (Runnable task : tasks) {
+      task.run();
+    }
+
+    assertThat(TextAppearanceCache.getParseCount()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.resources;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.content.res.Resources.Theme;
+import android.os.Build.VERSION_CODES;
+import android.util.TypedValue;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ThemeAttributeCache}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ThemeAttributeCacheTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void setUp() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light);
+    ThemeAttributeCache.evictAll();
+    ThemeAttributeCache.resetStats();
+  }
+
+  @Test
+  public void resolveAttribute_sameTheme_looksUpOnce() {
+    TypedValue first = ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+    TypedValue second = ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    assertThat(second.data).isEqualTo(first.data);
+    assertThat(ThemeAttributeCache.getLookupCount()).isEqualTo(1);
+    assertThat(ThemeAttributeCache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void resolveAttribute_unsetAttribute_isCachedAsNull() {
+    context.setTheme(R.style.Theme_AppCompat);
+
+    assertThat(ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface)).isNull();
+    assertThat(ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface)).isNull();
+    assertThat(ThemeAttributeCache.getLookupCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void resolveAttribute_invalidatedTheme_looksUpAgain() {
+    ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    ThemeAttributeCache.invalidate(context.getTheme());
+    ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    assertThat(ThemeAttributeCache.getLookupCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void resolveAttribute_newTheme_looksUpAgain() {
+    ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    context.setTheme(R.style.Theme_MaterialComponents);
+    ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    assertThat(ThemeAttributeCache.getLookupCount()).isEqualTo(2);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.LOLLIPOP_MR1)
+  public void resolveAttribute_styleAppliedBelowApi23_resolvesNewValue() {
+    TypedValue light = ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    context.getTheme().applyStyle(R.style.Theme_MaterialComponents, true /* force */);
+    TypedValue dark = ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    assertThat(dark.data).isNotEqualTo(light.data);
+    assertThat(ThemeAttributeCache.getLookupCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void resolveAttribute_modifiedValue_doesNotChangeCache() {
+    TypedValue first = ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+    int data = first.data;
+    first.data = ~data;
+
+    TypedValue second = ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.data).isEqualTo(data);
+  }
+
+  @Test
+  public void resolveAttribute_equalThemeOfOtherResources_looksUpAgain() {
+    ThemeAttributeCache.resolveAttribute(context, R.attr.colorSurface);
+
+    Resources resources = context.getResources();
+    final Resources otherResources =
+        new Resources(
+            resources.getAssets(), resources.getDisplayMetrics(), resources.getConfiguration());
+    final Theme otherTheme = otherResources.newTheme();
+    otherTheme.setTo(context.getTheme());
+    Context otherContext =
+        new ContextWrapper(context) {
+          @Override
+          public Resources getResources() {
+            return otherResources;
+          }
+
+          @Override
+          public Theme getTheme() {
+            return otherTheme;
+          }
+        };
+    ThemeAttributeCache.resolveAttribute(otherContext, R.attr.colorSurface);
+
+    assertThat(ThemeAttributeCache.getLookupCount()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shadow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ShadowRenderer}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShadowRendererTest {
+
+  private static final int ELEVATION = 6;
+  private static final int FRAMES = 10;
+
+  private final ShadowRenderer shadowRenderer = new ShadowRenderer();
+  private final ShaderRecordingCanvas canvas = new ShaderRecordingCanvas();
+  private final Matrix transform = new Matrix();
+  private final RectF bounds = new RectF();
+
+  @Test
+  public void drawShadow_steadyState_allocatesNoShaders() {
+    drawFrame();
+    int shaderCount = canvas.shaders.size();
+
+    for (int i = 0; i < FRAMES; i++) {
+      drawFrame();
+    }
+
+    assertThat(canvas.shaders).hasSize(shaderCount);
+  }
+
+  @Test
+  public void drawShadow_colorChanged_allocatesNewShaders() {
+    drawFrame();
+    int shaderCount = canvas.shaders.size();
+
+    shadowRenderer.setShadowColor(Color.RED);
+    drawFrame();
+
+    assertThat(canvas.shaders.size()).isGreaterThan(shaderCount);
+  }
+
+  /**
+   * Draws the shadow of a shape with four differently sized corners, like MaterialShapeDrawable.
+   */
+  private void drawFrame() {
+    for (int corner = 0; corner < 4; corner++) {
+      float size = 10 * (corner + 1);
+      bounds.set(0, 0, size, size);
+      transform.setRotate(90 * corner);
+      shadowRenderer.drawCornerShadow(canvas, transform, bounds, ELEVATION, 180, 90);
+
+      bounds.set(0, 0, 100, 0);
+      shadowRenderer.drawEdgeShadow(canvas, transform, bounds, ELEVATION);
+    }
+  }
+
+  /** A canvas which keeps track of every distinct shader it has drawn with. */
+  private static class ShaderRecordingCanvas extends Canvas {
+
+    private final Set<Shader> shaders =
+        Collections.newSetFromMap(new IdentityHashMap<Shader, Boolean>());
+
+    ShaderRecordingCanvas() {
+      super(Bitmap.createBitmap(200, 200, Bitmap.Config.ARGB_8888));
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+      shaders.add(paint.getShader());
+      super.drawRect(rect, paint);
+    }
+
+    @Override
+    public void drawArc(
+        RectF oval, float startAngle, float sweepAngle, boolean useCenter, Paint paint) {
+      shaders.add(paint.getShader());
+      super.drawArc(oval, startAngle, sweepAngle, useCenter, paint);
+    }
+  }
+}
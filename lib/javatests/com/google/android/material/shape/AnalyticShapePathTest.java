@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.os.Build.VERSION_CODES;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/**
+ * Tests for {@link AnalyticShapePath}.
+ *
+ * <p>The analytic path is compared with the path of {@link ShapeAppearancePathProvider} by
+ * sampling a grid of points over the bounds, and checking that each point is inside both paths or
+ * outside both. Points closer to the outline than the approximation error are skipped.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = VERSION_CODES.O) // For Path#approximate(float).
+@DoNotInstrument
+public class AnalyticShapePathTest {
+
+  private static final RectF BOUNDS = new RectF(10, 20, 110, 70);
+
+  // The maximum distance between a path and the polygon that approximates it.
+  private static final float APPROXIMATION_ERROR = 0.05f;
+  // Points closer than this to the outline of either polygon aren't compared.
+  private static final float OUTLINE_TOLERANCE = 0.25f;
+  private static final float SAMPLE_STEP = 0.5f;
+
+  private final ShapeAppearanceKey key = new ShapeAppearanceKey();
+  private final AnalyticShapePath analyticShapePath = new AnalyticShapePath();
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+
+  @Test
+  public void roundedShape_matchesProviderPath() {
+    assertMatchesProviderPath(ShapeAppearanceModel.builder().setCornerRadius(12).build());
+  }
+
+  @Test
+  public void perCornerRoundedShape_matchesProviderPath() {
+    assertMatchesProviderPath(ShapeAppearanceModel.builder().setCornerRadii(4, 8, 12, 16).build());
+  }
+
+  @Test
+  public void cutShape_matchesProviderPath() {
+    assertMatchesProviderPath(
+        ShapeAppearanceModel.builder().setAllCorners(CornerFamily.CUT, 12).build());
+  }
+
+  @Test
+  public void mixedCutAndRoundedShape_matchesProviderPath() {
+    ShapeAppearanceModel shapeAppearanceModel =
+        ShapeAppearanceModel.builder()
+            .setTopLeftCorner(CornerFamily.CUT, 10)
+            .setTopRightCorner(CornerFamily.ROUNDED, 20)
+            .setBottomRightCorner(CornerFamily.CUT, 0)
+            .setBottomLeftCorner(CornerFamily.ROUNDED, 5)
+            .build();
+
+    assertMatchesProviderPath(shapeAppearanceModel);
+  }
+
+  @Test
+  public void meetingRoundedCorners_matchesProviderPath() {
+    // The corners of the left and right sides meet, like a pill.
+    assertMatchesProviderPath(
+        ShapeAppearanceModel.builder().setCornerRadius(BOUNDS.height() / 2).build());
+  }
+
+  @Test
+  public void meetingMixedCorners_matchesProviderPath() {
+    ShapeAppearanceModel shapeAppearanceModel =
+        ShapeAppearanceModel.builder()
+            .setTopLeftCorner(CornerFamily.CUT, 25)
+            .setTopRightCorner(CornerFamily.ROUNDED, 25)
+            .setBottomRightCorner(CornerFamily.CUT, 25)
+            .setBottomLeftCorner(CornerFamily.ROUNDED, 25)
+            .build();
+
+    assertMatchesProviderPath(shapeAppearanceModel);
+  }
+
+  @Test
+  public void overlappingCorners_cannotApply() {
+    ShapeAppearanceModel shapeAppearanceModel =
+        ShapeAppearanceModel.builder().setCornerRadius(BOUNDS.height()).build();
+
+    assertThat(key.set(shapeAppearanceModel, 1)).isTrue();
+    assertThat(AnalyticShapePath.canApply(key, BOUNDS)).isFalse();
+  }
+
+  @Test
+  public void overlappingMixedCorners_cannotApply() {
+    ShapeAppearanceModel shapeAppearanceModel =
+        ShapeAppearanceModel.builder()
+            .setTopLeftCorner(CornerFamily.CUT, 30)
+            .setBottomLeftCorner(CornerFamily.ROUNDED, 30)
+            .build();
+
+    assertThat(key.set(shapeAppearanceModel, 1)).isTrue();
+    assertThat(AnalyticShapePath.canApply(key, BOUNDS)).isFalse();
+  }
+
+  private void assertMatchesProviderPath(ShapeAppearanceModel shapeAppearanceModel) {
+    Path analyticPath = new Path();
+    Path providerPath = new Path();
+    assertThat(key.set(shapeAppearanceModel, 1)).isTrue();
+    assertThat(AnalyticShapePath.canApply(key, BOUNDS)).isTrue();
+
+    analyticShapePath.applyToPath(key, BOUNDS, analyticPath);
+    pathProvider.calculatePath(shapeAppearanceModel, 1, BOUNDS, providerPath);
+
+    List<float[]> analyticSegments = getSegments(analyticPath);
+    List<float[]> providerSegments = getSegments(providerPath);
+    int comparedCount = 0;
+    for (float y = BOUNDS.top - 1; y <= BOUNDS.bottom + 1; y += SAMPLE_STEP) {
+      for (float x = BOUNDS.left - 1; x <= BOUNDS.right + 1; x += SAMPLE_STEP) {
+        // Offsets the samples so that they don't line up with straight edges.
+        float sampleX = x + SAMPLE_STEP / 3;
+        float sampleY = y + SAMPLE_STEP / 5;
+        if (isNearOutline(analyticSegments, sampleX, sampleY)
+            || isNearOutline(providerSegments, sampleX, sampleY)) {
+          continue;
+        }
+        assertWithMessage("Point (%s, %s)", sampleX, sampleY)
+            .that(contains(analyticSegments, sampleX, sampleY))
+            .isEqualTo(contains(providerSegments, sampleX, sampleY));
+        comparedCount++;
+      }
+    }
+    // Makes sure that the comparison wasn't skipped because the outlines couldn't be read.
+    assertThat(comparedCount).isGreaterThan(0);
+    assertThat(providerSegments).isNotEmpty();
+  }
+
+  /**
+   * Returns the segments of the polygons that approximate {@code path}, as {x1, y1, x2, y2}. Each
+   * contour of the path is closed.
+   */
+  private static List<float[]> getSegments(Path path) {
+    // Triples of fraction, x and y. A point with the same fraction as the previous one starts a
+    // new contour.
+    float[] points = path.approximate(APPROXIMATION_ERROR);
+    List<float[]> segments = new ArrayList<>();
+    int contourStart = 0;
+    for (int i = 3; i <= points.length; i += 3) {
+      boolean contourEnds = i == points.length || points[i] == points[i - 3];
+      if (contourEnds) {
+        addSegment(segments, points, i - 3, contourStart);
+        contourStart = i;
+      } else {
+        addSegment(segments, points, i - 3, i);
+      }
+    }
+    return segments;
+  }
+
+  private static void addSegment(List<float[]> segments, float[] points, int from, int to) {
+    if (from != to) {
+      segments.add(
+          new float[] {points[from + 1], points[from + 2], points[to + 1], points[to + 2]});
+    }
+  }
+
+  /** Returns whether the point is inside the polygons, with the even-odd rule. */
+  private static boolean contains(List<float[]> segments, float x, float y) {
+    boolean inside = false;
+    for (float[] segment : segments) {
+      float y1 = segment[1];
+      float y2 = segment[3];
+      if ((y1 > y) != (y2 > y)) {
+        float crossingX = segment[0] + (y - y1) / (y2 - y1) * (segment[2] - segment[0]);
+        if (x < crossingX) {
+          inside = !inside;
+        }
+      }
+    }
+    return inside;
+  }
+
+  private static boolean isNearOutline(List<float[]> segments, float x, float y) {
+    for (float[] segment : segments) {
+      if (distanceToSegment(segment, x, y) < OUTLINE_TOLERANCE) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static float distanceToSegment(float[] segment, float x, float y) {
+    float dx = segment[2] - segment[0];
+    float dy = segment[3] - segment[1];
+    float lengthSquared = dx * dx + dy * dy;
+    float t =
+        lengthSquared == 0
+            ? 0
+            : Math.max(
+                0, Math.min(1, ((x - segment[0]) * dx + (y - segment[1]) * dy) / lengthSquared));
+    return (float) Math.hypot(x - (segment[0] + t * dx), y - (segment[1] + t * dy));
+  }
+}
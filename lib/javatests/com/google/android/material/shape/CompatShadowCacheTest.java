@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Color;
+import com.google.android.material.shape.CompatShadowCache.ShadowLayer;
+import com.google.android.material.shape.CompatShadowCache.SharedShadowKey;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link CompatShadowCache}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class CompatShadowCacheTest {
+
+  private static final int RADIUS = 8;
+  private static final int OFFSET_Y = 4;
+  private static final int COLOR = Color.argb(68, 0, 0, 0);
+
+  @After
+  public void tearDown() {
+    CompatShadowCache.evictAll();
+    CompatShadowCache.resetSharedStats();
+  }
+
+  @Test
+  public void sharedShadowKey_sameShapeWithDifferentTreatments_isEqual() {
+    ShapeAppearanceModel mutableModel = new ShapeAppearanceModel();
+    mutableModel.setAllCorners(new RoundedCornerTreatment(12));
+    ShapeAppearanceModel immutableModel =
+        ShapeAppearanceModel.builder().setCornerRadius(12).build();
+
+    SharedShadowKey key = createKey(mutableModel, RADIUS, OFFSET_Y, COLOR);
+    SharedShadowKey otherKey = createKey(immutableModel, RADIUS, OFFSET_Y, COLOR);
+
+    assertThat(key).isEqualTo(otherKey);
+    assertThat(key.hashCode()).isEqualTo(otherKey.hashCode());
+  }
+
+  @Test
+  public void sharedShadowKey_differentShadow_isNotEqual() {
+    ShapeAppearanceModel model = ShapeAppearanceModel.builder().setCornerRadius(12).build();
+    SharedShadowKey key = createKey(model, RADIUS, OFFSET_Y, COLOR);
+
+    assertThat(key).isNotEqualTo(createKey(model, RADIUS * 2, OFFSET_Y, COLOR));
+    assertThat(key).isNotEqualTo(createKey(model, RADIUS, OFFSET_Y * 2, COLOR));
+    assertThat(key).isNotEqualTo(createKey(model, RADIUS, OFFSET_Y, Color.RED));
+  }
+
+  @Test
+  public void sharedShadowKey_differentCornerFamily_isNotEqual() {
+    ShapeAppearanceModel rounded = ShapeAppearanceModel.builder().setCornerRadius(12).build();
+    ShapeAppearanceModel cut =
+        ShapeAppearanceModel.builder().setAllCorners(CornerFamily.CUT, 12).build();
+
+    assertThat(createKey(rounded, RADIUS, OFFSET_Y, COLOR))
+        .isNotEqualTo(createKey(cut, RADIUS, OFFSET_Y, COLOR));
+  }
+
+  @Test
+  public void sharedShadowKey_customEdge_cannotBeShared() {
+    ShapeAppearanceModel model = new ShapeAppearanceModel();
+    model.setTopEdge(new TriangleEdgeTreatment(4, false));
+
+    assertThat(new SharedShadowKey().set(model, 1, RADIUS, 0, OFFSET_Y, COLOR)).isFalse();
+  }
+
+  @Test
+  public void getSharedLayer_equalKeys_shareLayer() {
+    ShapeAppearanceModel model = ShapeAppearanceModel.builder().setCornerRadius(12).build();
+
+    ShadowLayer layer = CompatShadowCache.getSharedLayer(createKey(model, RADIUS, OFFSET_Y, COLOR));
+    ShadowLayer otherLayer =
+        CompatShadowCache.getSharedLayer(createKey(model, RADIUS, OFFSET_Y, COLOR));
+
+    assertThat(otherLayer).isSameAs(layer);
+    assertThat(CompatShadowCache.getSharedMissCount()).isEqualTo(1);
+    assertThat(CompatShadowCache.getSharedHitCount()).isEqualTo(1);
+  }
+
+  private static SharedShadowKey createKey(
+      ShapeAppearanceModel model, int radius, int offsetY, int color) {
+    SharedShadowKey key = new SharedShadowKey();
+    assertThat(key.set(model, 1, radius, 0, offsetY, color)).isTrue();
+    return key;
+  }
+}
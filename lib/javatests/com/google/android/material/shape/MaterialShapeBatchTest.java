@@ -0,0 +1,224 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.os.Build.VERSION_CODES;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link MaterialShapeBatch}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class MaterialShapeBatchTest {
+
+  private static final ShapeAppearanceModel CUT_SHAPE =
+      ShapeAppearanceModel.builder().setAllCorners(CornerFamily.CUT, 4).build();
+  private static final ShapeAppearanceModel ROUNDED_SHAPE =
+      ShapeAppearanceModel.builder().setAllCorners(CornerFamily.ROUNDED, 4).build();
+
+  private final MaterialShapeBatch batch = new MaterialShapeBatch();
+  private final CountingCanvas canvas = new CountingCanvas();
+  private final RectF bounds = new RectF();
+
+  @Test
+  public void sameFillColor_drawsOnePath() {
+    addRow(CUT_SHAPE, Color.RED, Color.RED, Color.RED);
+
+    batch.draw(canvas);
+
+    assertThat(canvas.pathCount).isEqualTo(1);
+  }
+
+  @Test
+  public void interleavedFillColors_drawsOnePathPerColor() {
+    addRow(CUT_SHAPE, Color.RED, Color.BLUE, Color.RED, Color.BLUE);
+
+    batch.draw(canvas);
+
+    assertThat(canvas.pathCount).isEqualTo(2);
+  }
+
+  @Test
+  public void roundRects_drawnWithoutPaths() {
+    addRow(ROUNDED_SHAPE, Color.RED, Color.RED, Color.BLUE);
+
+    batch.draw(canvas);
+
+    assertThat(canvas.pathCount).isEqualTo(0);
+    assertThat(canvas.roundRectCount).isEqualTo(3);
+  }
+
+  @Test
+  public void clear_removesShapes() {
+    addRow(CUT_SHAPE, Color.RED);
+
+    batch.clear();
+    batch.draw(canvas);
+
+    assertThat(batch.size()).isEqualTo(0);
+    assertThat(canvas.pathCount).isEqualTo(0);
+  }
+
+  @Test
+  public void sameStroke_drawsOnePath() {
+    for (int i = 0; i < 3; i++) {
+      bounds.set(i * 20, 0, i * 20 + 16, 16);
+      batch.add(CUT_SHAPE, bounds, Color.TRANSPARENT, 2, Color.RED, 0);
+    }
+
+    batch.draw(canvas);
+
+    assertThat(canvas.pathCount).isEqualTo(1);
+  }
+
+  @Test
+  public void interleavedStrokeWidths_drawsOnePathPerWidth() {
+    for (int i = 0; i < 4; i++) {
+      bounds.set(i * 20, 0, i * 20 + 16, 16);
+      batch.add(CUT_SHAPE, bounds, Color.TRANSPARENT, i % 2 + 1, Color.RED, 0);
+    }
+
+    batch.draw(canvas);
+
+    assertThat(canvas.pathCount).isEqualTo(2);
+  }
+
+  @Test
+  public void triangleEdgeStroke_drawnTwice_leavesShapeCornersUnchanged() {
+    ShapeAppearanceModel shapeAppearanceModel =
+        ShapeAppearanceModel.builder()
+            .setAllCorners(CornerFamily.CUT, 4)
+            .setTopEdge(new TriangleEdgeTreatment(2, false))
+            .build();
+    bounds.set(0, 0, 16, 16);
+    batch.add(shapeAppearanceModel, bounds, Color.TRANSPARENT, 2, Color.RED, 0);
+
+    batch.draw(canvas);
+    batch.draw(canvas);
+
+    assertThat(canvas.pathCount).isEqualTo(2);
+    assertThat(shapeAppearanceModel.getTopLeftCornerInternal().getCornerSize()).isEqualTo(4f);
+    assertThat(shapeAppearanceModel.getBottomRightCornerInternal().getCornerSize())
+        .isEqualTo(4f);
+  }
+
+  @Test
+  public void roundRectStroke_isInsetByHalfTheStrokeWidth() {
+    bounds.set(0, 0, 16, 16);
+    batch.add(ROUNDED_SHAPE, bounds, Color.TRANSPARENT, 2, Color.RED, 0);
+
+    batch.draw(canvas);
+
+    assertThat(canvas.roundRectCount).isEqualTo(1);
+    assertThat(canvas.lastRoundRect).isEqualTo(new RectF(1, 1, 15, 15));
+    assertThat(canvas.lastRoundRectRadius).isEqualTo(3f);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.LOLLIPOP) // For a single saveLayerAlpha() overload.
+  public void shadows_drawnIntoOneLayer() {
+    for (int i = 0; i < 3; i++) {
+      bounds.set(i * 40 + 10, 10, i * 40 + 26, 26);
+      batch.add(CUT_SHAPE, bounds, Color.RED, 0, Color.TRANSPARENT, 8);
+    }
+
+    batch.draw(canvas);
+
+    assertThat(canvas.layerCount).isEqualTo(1);
+    // Each shape is cleared from its shadow.
+    assertThat(canvas.clearedPathCount).isEqualTo(3);
+    // The offset shadow under each shape, then a single path for all fills.
+    assertThat(canvas.pathCount).isEqualTo(3 + 1);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.LOLLIPOP)
+  public void noElevation_drawsNoShadowLayer() {
+    addRow(CUT_SHAPE, Color.RED, Color.BLUE);
+
+    batch.draw(canvas);
+
+    assertThat(canvas.layerCount).isEqualTo(0);
+    assertThat(canvas.clearedPathCount).isEqualTo(0);
+  }
+
+  @Test
+  public void drawTwice_drawsSameGroups() {
+    addRow(CUT_SHAPE, Color.RED, Color.BLUE, Color.RED, Color.BLUE);
+
+    batch.draw(canvas);
+    batch.draw(canvas);
+
+    assertThat(canvas.pathCount).isEqualTo(4);
+  }
+
+  private void addRow(ShapeAppearanceModel shapeAppearanceModel, int... fillColors) {
+    for (int i = 0; i < fillColors.length; i++) {
+      bounds.set(i * 20, 0, i * 20 + 16, 16);
+      batch.add(shapeAppearanceModel, bounds, fillColors[i]);
+    }
+  }
+
+  /** A canvas which counts the calls used to draw shapes. */
+  private static class CountingCanvas extends Canvas {
+
+    private int pathCount;
+    private int clearedPathCount;
+    private int roundRectCount;
+    private int layerCount;
+    private final RectF lastRoundRect = new RectF();
+    private float lastRoundRectRadius;
+
+    CountingCanvas() {
+      super(Bitmap.createBitmap(200, 200, Bitmap.Config.ARGB_8888));
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+      if (paint.getXfermode() != null) {
+        clearedPathCount++;
+      } else {
+        pathCount++;
+      }
+      super.drawPath(path, paint);
+    }
+
+    @Override
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+      roundRectCount++;
+      lastRoundRect.set(rect);
+      lastRoundRectRadius = rx;
+      super.drawRoundRect(rect, rx, ry, paint);
+    }
+
+    @Override
+    public int saveLayerAlpha(RectF bounds, int alpha, int saveFlags) {
+      layerCount++;
+      return super.saveLayerAlpha(bounds, alpha, saveFlags);
+    }
+  }
+}
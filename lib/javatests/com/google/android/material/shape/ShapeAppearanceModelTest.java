@@ -167,6 +167,67 @@ public class ShapeAppearanceModelTest {
     assertCornerSize(largeCornerShape, LARGE_CORNER_SIZE);
   }
 
+  @Test
+  public void builder_equalModels_areSameInstance() {
+    ShapeAppearanceModel first =
+        ShapeAppearanceModel.builder().setAllCorners(CornerFamily.CUT, 10).build();
+    ShapeAppearanceModel second =
+        ShapeAppearanceModel.builder().setAllCorners(CornerFamily.CUT, 10).build();
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.isImmutable()).isTrue();
+  }
+
+  @Test
+  public void toBuilder_modifiedCopy_doesNotChangeOriginal() {
+    ShapeAppearanceModel original = ShapeAppearanceModel.builder().setCornerRadius(10).build();
+
+    ShapeAppearanceModel modified = original.toBuilder().setCornerRadius(20).build();
+
+    assertThat(modified).isNotSameAs(original);
+    assertCornerSize(original, DEFAULT_CORNER_SIZE);
+    assertCornerSize(modified, LARGE_CORNER_SIZE);
+  }
+
+  @Test
+  public void builder_customEdges_areNotInterned() {
+    ShapeAppearanceModel first =
+        ShapeAppearanceModel.builder().setAllEdges(new TriangleEdgeTreatment(5, false)).build();
+    ShapeAppearanceModel second =
+        ShapeAppearanceModel.builder().setAllEdges(new TriangleEdgeTreatment(5, false)).build();
+
+    assertThat(second).isNotSameAs(first);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutableModel_setter_throws() {
+    ShapeAppearanceModel.builder().build().setCornerRadius(DEFAULT_CORNER_SIZE);
+  }
+
+  @Test
+  public void immutableModel_modifiedCornerTreatment_doesNotChangeModel() {
+    ShapeAppearanceModel model = ShapeAppearanceModel.builder().setCornerRadius(10).build();
+
+    model.getTopLeftCorner().setCornerSize(20);
+    model.getTopRightCorner().setCornerSize(20);
+    model.getBottomRightCorner().setCornerSize(20);
+    model.getBottomLeftCorner().setCornerSize(20);
+
+    assertCornerSize(model, 10);
+    assertThat(ShapeAppearanceModel.builder().setCornerRadius(10).build()).isSameAs(model);
+  }
+
+  @Test
+  public void immutableModel_modifiedEdgeTreatment_doesNotChangeModel() {
+    ShapeAppearanceModel model =
+        ShapeAppearanceModel.builder().setTopEdge(new OffsetEdgeTreatment()).build();
+
+    ((OffsetEdgeTreatment) model.getTopEdge()).offset = 20;
+
+    assertThat(((OffsetEdgeTreatment) model.getTopEdge()).offset).isEqualTo(0f);
+    assertThat(model.getLeftEdge()).isNotSameAs(model.getLeftEdge());
+  }
+
   private AttributeSetBuilder buildStyleAttributeSet() {
     return Robolectric.buildAttributeSet()
         .addAttribute(R.attr.shapeAppearance, "@style/ShapeAppearance.MaterialComponents.Test");
@@ -189,4 +250,9 @@ public class ShapeAppearanceModelTest {
     assertThat(shapeAppearance.getBottomLeftCorner().getCornerSize()).isEqualTo(cornerSize);
     assertThat(shapeAppearance.getBottomRightCorner().getCornerSize()).isEqualTo(cornerSize);
   }
+
+  /** An edge treatment with state, like the top edge of a bottom app bar. */
+  private static class OffsetEdgeTreatment extends EdgeTreatment {
+    float offset;
+  }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ShapePath}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapePathTest {
+
+  @Test
+  public void set_copiesPathAndShadow() {
+    ShapePath shapePath = createPath(0);
+    ShapePath copy = new ShapePath();
+
+    copy.set(shapePath);
+
+    assertThat(copy).isEqualTo(shapePath);
+    assertThat(copy.hashCode()).isEqualTo(shapePath.hashCode());
+  }
+
+  @Test
+  public void differentShadowOnly_isNotEqual() {
+    // The shadow start angle changes the connecting shadow, but not the path itself.
+    ShapePath shapePath = createPath(0);
+    ShapePath otherShapePath = createPath(90);
+
+    assertThat(otherShapePath).isNotEqualTo(shapePath);
+    assertThat(otherShapePath.hashCode()).isNotEqualTo(shapePath.hashCode());
+  }
+
+  private static ShapePath createPath(float shadowStartAngle) {
+    ShapePath shapePath = new ShapePath();
+    shapePath.reset(0, 10, shadowStartAngle, 90);
+    shapePath.addArc(0, 0, 20, 20, 180, 90);
+    shapePath.lineTo(40, 0);
+    return shapePath;
+  }
+}